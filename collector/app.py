@@ -7,6 +7,7 @@ Flask API + APScheduler 定时任务
 
 import os
 import sys
+from concurrent.futures import ThreadPoolExecutor, wait
 from datetime import datetime
 from flask import Flask, jsonify, request
 from flask_cors import CORS
@@ -29,6 +30,9 @@ CORS(app)
 # 初始化数据源管理器
 data_manager = DataSourceManager()
 
+# 批量估值的并发采集线程池
+batch_executor = ThreadPoolExecutor(max_workers=Config.BATCH_WORKERS, thread_name_prefix='batch-collect')
+
 @app.route('/health', methods=['GET'])
 def health_check():
     """健康检查接口"""
@@ -81,7 +85,7 @@ def collect_estimate():
 @app.route('/api/collect/batch', methods=['POST'])
 def collect_batch():
     """
-    批量采集基金估值
+    批量采集基金估值（各基金并发采集，超过 BATCH_TIMEOUT 未完成的基金记为超时）
     Request: { "fundCodes": ["005827", "000001"] }
     """
     try:
@@ -90,20 +94,33 @@ def collect_batch():
             return jsonify({'success': False, 'error': '缺少fundCodes参数'}), 400
         
         fund_codes = data['fundCodes']
+        if len(fund_codes) > Config.BATCH_MAX_SIZE:
+            return jsonify({'success': False, 'error': f'单批最多{Config.BATCH_MAX_SIZE}只基金'}), 400
         logger.info(f"开始批量采集，共 {len(fund_codes)} 只基金")
         
         results = []
         errors = []
         
-        for fund_code in fund_codes:
+        futures = [(fund_code, batch_executor.submit(data_manager.collect_with_fallback, fund_code))
+                   for fund_code in fund_codes]
+        done, _ = wait([future for _, future in futures], timeout=Config.BATCH_TIMEOUT)
+        
+        for fund_code, future in futures:
+            if future not in done:
+                future.cancel()
+                errors.append({'fundCode': fund_code, 'error': '采集超时'})
+                continue
             try:
-                result = data_manager.collect_with_fallback(fund_code)
+                result = future.result()
                 if result:
                     results.append({
                         'fundCode': fund_code,
+                        'fundName': result.get('fund_name', ''),
+                        'estimateTime': datetime.now().isoformat(),
                         'estimateNav': result.get('nav'),
                         'estimateChangePct': result.get('change_pct'),
-                        'dataSource': result.get('source')
+                        'preCloseNav': result.get('pre_close'),
+                        'dataSource': result.get('source', 'unknown')
                     })
                 else:
                     errors.append({'fundCode': fund_code, 'error': '采集失败'})
@@ -66,6 +66,11 @@ class Config:
     RETRY_TIMES = int(os.environ.get('RETRY_TIMES', 3))  # 重试次数
     RETRY_DELAY = float(os.environ.get('RETRY_DELAY', 1.0))  # 重试延迟基数
     REQUEST_DELAY = float(os.environ.get('REQUEST_DELAY', 0.5))  # 请求间隔（秒）
+
+    # 批量估值配置：单批基金并发采集，整批须在 Java 端读超时（10 秒）内返回
+    BATCH_WORKERS = int(os.environ.get('BATCH_WORKERS', 8))  # 并发采集线程数
+    BATCH_MAX_SIZE = int(os.environ.get('BATCH_MAX_SIZE', 50))  # 单批最多基金数
+    BATCH_TIMEOUT = float(os.environ.get('BATCH_TIMEOUT', 8.0))  # 整批等待上限（秒），未完成的基金记为超时
     
     # 数据源配置
     DATA_SOURCES = {
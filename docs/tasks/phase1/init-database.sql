@@ -209,6 +209,35 @@ CREATE TABLE IF NOT EXISTS tmp_fund_nav (
     INDEX idx_status (check_status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='净值临时表';
 
+-- 12. 创建 fund_signal 表 (最新决策信号表，每次指标更新后全量批量重算)
+CREATE TABLE IF NOT EXISTS fund_signal (
+    fund_code VARCHAR(10) NOT NULL PRIMARY KEY,
+    calc_date DATE COMMENT '所用指标的计算日期',
+    signal_type TINYINT NOT NULL COMMENT '1-买入, 2-持有, 3-卖出',
+    reason_mask INT NOT NULL DEFAULT 0 COMMENT '信号理由位组合，查询时渲染为文本',
+    pe_percentile INT COMMENT '当时PE分位（理由文本引用）',
+    sharpe_ratio DECIMAL(10,4) COMMENT '当时夏普比率（理由文本引用）',
+    buy_score INT COMMENT '买入规则得分',
+    sell_score INT COMMENT '卖出规则得分',
+    quality_level CHAR(1) COMMENT '质量等级S/A/B/C/D/-',
+    confidence INT COMMENT '置信度0-100',
+    calc_batch BIGINT NOT NULL COMMENT '批次号，用于清理已下架基金的旧信号',
+    rule_version BIGINT COMMENT '计算所用规则版本（signal-rules.yml 内容哈希）',
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_signal_type (signal_type, confidence)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='最新决策信号表';
+
+-- 13. 创建 portfolio_position 表 (持仓汇总表，由 portfolio_trade 增量维护，可按交易流水重建)
+CREATE TABLE IF NOT EXISTS portfolio_position (
+    fund_code VARCHAR(10) NOT NULL PRIMARY KEY,
+    total_shares DECIMAL(15,4) NOT NULL DEFAULT 0 COMMENT '持有份额（买入份额-卖出份额）',
+    total_cost DECIMAL(15,4) NOT NULL DEFAULT 0 COMMENT '累计买入成本（金额+手续费）',
+    trade_count INT NOT NULL DEFAULT 0 COMMENT '交易笔数',
+    last_trade_id BIGINT COMMENT '最后一笔交易ID',
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_shares (total_shares)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='持仓汇总表';
+
 -- ============================================
 -- 创建应用数据库用户 (可选)
 -- ============================================
@@ -1,7 +1,10 @@
 package com.fund.config;
 
+import com.fund.service.cache.CacheValueCodec;
+import org.redisson.api.RBucket;
 import org.redisson.api.RMap;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,8 +14,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * 缓存清理组件
- * 应用启动时自动清理可能存在格式问题的缓存
- * 防止 Redisson 缓存格式错误导致系统异常
+ * 缓存值编码升级后首次启动时清理旧编码的缓存，完成后在 Redis 记录当前编码；
+ * 之后的启动不再清理（新编码能容忍类结构变化，无法识别的值按未命中处理）
  */
 @Component
 @Order(1) // 确保尽早执行
@@ -23,17 +26,34 @@ public class CacheCleaner implements CommandLineRunner {
     @Autowired
     private RedissonClient redissonClient;
 
+    // 记录当前缓存编码的 key
+    private static final String CODEC_MARKER_KEY = "cache:codec";
+
     // 需要清理的缓存 key 列表
     private static final String[] CACHE_KEYS_TO_CLEAN = {
         RedisConfig.CACHE_ESTIMATE,    // fund:estimate
         RedisConfig.CACHE_FUND_DETAIL, // fund:detail
         RedisConfig.CACHE_FUND_METRICS,// fund:metrics
-        RedisConfig.CACHE_SIGNAL       // fund:signal
+        RedisConfig.CACHE_FUND_RANKING,// fund:ranking
+        RedisConfig.CACHE_FUND_SEARCH, // fund:search
+        RedisConfig.CACHE_FUND_TOP,    // fund:top
+        RedisConfig.CACHE_NAV_CHART    // fund:nav:chart
     };
 
     @Override
     public void run(String... args) {
-        log.info("开始执行启动时缓存清理...");
+        RBucket<String> marker;
+        try {
+            marker = redissonClient.getBucket(CODEC_MARKER_KEY, StringCodec.INSTANCE);
+            if (CacheValueCodec.FORMAT_NAME.equals(marker.get())) {
+                log.info("缓存编码已是 {}，跳过启动清理", CacheValueCodec.FORMAT_NAME);
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("读取缓存编码标记失败，跳过启动清理: {}", e.getMessage());
+            return;
+        }
+        log.info("缓存编码升级到 {}，清理旧编码缓存...", CacheValueCodec.FORMAT_NAME);
 
         int cleanedCount = 0;
         int errorCount = 0;
@@ -51,6 +71,13 @@ public class CacheCleaner implements CommandLineRunner {
         // 清理 Redisson 内部的 timeout set
         cleanRedissonTimeoutSets();
 
+        if (errorCount == 0) {
+            try {
+                marker.set(CacheValueCodec.FORMAT_NAME);
+            } catch (Exception e) {
+                log.warn("写入缓存编码标记失败，下次启动将再次清理: {}", e.getMessage());
+            }
+        }
         log.info("缓存清理完成: 成功={}, 失败={}", cleanedCount, errorCount);
     }
 
@@ -60,9 +87,10 @@ public class CacheCleaner implements CommandLineRunner {
     private void cleanCache(String cacheKey) {
         try {
             RMap<?, ?> map = redissonClient.getMap(cacheKey);
-            if (map != null && map.size() > 0) {
+            int size = map != null ? map.size() : 0;
+            if (size > 0) {
                 map.delete();
-                log.info("已清理缓存: {} (包含 {} 条数据)", cacheKey, map.size());
+                log.info("已清理缓存: {} (包含 {} 条数据)", cacheKey, size);
             } else {
                 log.debug("缓存 {} 为空或不存在，无需清理", cacheKey);
             }
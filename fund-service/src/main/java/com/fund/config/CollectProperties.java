@@ -4,6 +4,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 采集服务配置属性
@@ -22,6 +26,36 @@ public class CollectProperties {
      */
     private Cache cache = new Cache();
 
+    /**
+     * 采集执行器配置
+     */
+    private Executor executor = new Executor();
+
+    /**
+     * 跨节点采集合并配置
+     */
+    private SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * 采集服务 HTTP 客户端配置
+     */
+    private Http http = new Http();
+
+    /**
+     * 估值请求合批配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 熔断与自适应限流配置
+     */
+    private Resilience resilience = new Resilience();
+
+    /**
+     * 对冲请求配置
+     */
+    private Hedge hedge = new Hedge();
+
     public Poll getPoll() {
         return poll;
     }
@@ -38,6 +72,54 @@ public class CollectProperties {
         this.cache = cache;
     }
 
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(Resilience resilience) {
+        this.resilience = resilience;
+    }
+
+    public Hedge getHedge() {
+        return hedge;
+    }
+
+    public void setHedge(Hedge hedge) {
+        this.hedge = hedge;
+    }
+
     /**
      * 轮询配置
      */
@@ -100,6 +182,493 @@ public class CollectProperties {
         }
     }
 
+    /**
+     * 采集执行器配置：按数据类型划分线程池
+     */
+    public static class Executor {
+        /**
+         * 各数据类型线程池（info/metrics/nav），未配置的类型使用 defaults；
+         * 实时估值经 EstimateBatcher 合批发送，不占用采集线程池
+         */
+        private Map<String, Pool> pools = new LinkedHashMap<>(Map.of(
+                "info", new Pool(4, 100),
+                "metrics", new Pool(4, 100),
+                "nav", new Pool(2, 50)));
+
+        /**
+         * 默认线程池
+         */
+        private Pool defaults = new Pool(2, 50);
+
+        /**
+         * 后台任务可占用的队列比例，超出后直接拒绝，给用户请求留出空间
+         */
+        private double backgroundQueueRatio = 0.5;
+
+        public Map<String, Pool> getPools() {
+            return pools;
+        }
+
+        public void setPools(Map<String, Pool> pools) {
+            this.pools = pools;
+        }
+
+        public Pool getDefaults() {
+            return defaults;
+        }
+
+        public void setDefaults(Pool defaults) {
+            this.defaults = defaults;
+        }
+
+        public double getBackgroundQueueRatio() {
+            return backgroundQueueRatio;
+        }
+
+        public void setBackgroundQueueRatio(double backgroundQueueRatio) {
+            this.backgroundQueueRatio = backgroundQueueRatio;
+        }
+
+        public Pool pool(String dataType) {
+            return pools.getOrDefault(dataType, defaults);
+        }
+    }
+
+    /**
+     * 跨节点采集合并配置：同一采集任务集群内只由一个节点执行，其余节点等待结果
+     */
+    public static class SingleFlight {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 执行节点租约（秒）；也是其他节点等待结果的上限（同时不超过调用方剩余超时的一半），到期未拿到结果则自行采集
+         */
+        private long leaseSeconds = 20;
+
+        /**
+         * 结果保留时间（秒），供错过通知的节点读取
+         */
+        private long resultTtlSeconds = 10;
+
+        /**
+         * 等待节点检查结果与租约的间隔（毫秒）
+         */
+        private long pollIntervalMs = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        public long getResultTtlSeconds() {
+            return resultTtlSeconds;
+        }
+
+        public void setResultTtlSeconds(long resultTtlSeconds) {
+            this.resultTtlSeconds = resultTtlSeconds;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+    }
+
+    /**
+     * 采集服务 HTTP 客户端配置
+     */
+    public static class Http {
+        /**
+         * 建连超时（毫秒）
+         */
+        private long connectTimeoutMs = 2000;
+
+        /**
+         * 响应超时（毫秒），从发出请求到收到完整响应
+         */
+        private long readTimeoutMs = 10000;
+
+        /**
+         * 同时在途的请求上限（即连接池规模上限）
+         */
+        private int maxConcurrent = 32;
+
+        /**
+         * 等待在途名额的最长时间（毫秒）
+         */
+        private long acquireTimeoutMs = 1000;
+
+        public long getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+
+        public void setConnectTimeoutMs(long connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        public long getReadTimeoutMs() {
+            return readTimeoutMs;
+        }
+
+        public void setReadTimeoutMs(long readTimeoutMs) {
+            this.readTimeoutMs = readTimeoutMs;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public long getAcquireTimeoutMs() {
+            return acquireTimeoutMs;
+        }
+
+        public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+    }
+
+    /**
+     * 估值请求合批配置：时间窗内不同基金的估值请求合并为一次批量采集
+     */
+    public static class Batch {
+        /**
+         * 合批时间窗（毫秒），从窗口内第一个请求开始计
+         */
+        private long windowMs = 5;
+
+        /**
+         * 单批最多基金数，达到即发送
+         */
+        private int maxSize = 50;
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * 熔断与自适应限流配置（按采集接口分别统计）
+     */
+    public static class Resilience {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 熔断统计窗口（最近调用次数）
+         */
+        private int windowSize = 20;
+
+        /**
+         * 窗口内至少多少次调用才计算失败率
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * 失败率阈值（%），达到即熔断；慢调用计入失败
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 慢调用阈值（毫秒）
+         */
+        private long slowCallMs = 5000;
+
+        /**
+         * 按接口覆盖的慢调用阈值（毫秒）；批量估值由采集服务整体限时 8 秒，阈值须高于该值
+         */
+        private Map<String, Long> slowCallMsByEndpoint = new LinkedHashMap<>(Map.of("batch", 9000L));
+
+        /**
+         * 熔断持续时间（秒），之后进入半开放行少量探测请求
+         */
+        private long openSeconds = 30;
+
+        /**
+         * 半开状态放行的探测请求数
+         */
+        private int halfOpenCalls = 3;
+
+        /**
+         * 自适应并发初始上限
+         */
+        private int initialLimit = 8;
+
+        /**
+         * 自适应并发下限
+         */
+        private int minLimit = 2;
+
+        /**
+         * 自适应并发上限
+         */
+        private int maxLimit = 32;
+
+        /**
+         * 延迟容忍倍数：近期延迟不超过基线的该倍数时不收缩并发
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * 并发上限调整平滑系数
+         */
+        private double smoothing = 0.2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getSlowCallMs() {
+            return slowCallMs;
+        }
+
+        public void setSlowCallMs(long slowCallMs) {
+            this.slowCallMs = slowCallMs;
+        }
+
+        public Map<String, Long> getSlowCallMsByEndpoint() {
+            return slowCallMsByEndpoint;
+        }
+
+        public void setSlowCallMsByEndpoint(Map<String, Long> slowCallMsByEndpoint) {
+            this.slowCallMsByEndpoint = slowCallMsByEndpoint;
+        }
+
+        /**
+         * 指定接口的慢调用阈值（毫秒），未单独配置时取 slowCallMs
+         */
+        public long slowCallMsFor(String endpoint) {
+            return slowCallMsByEndpoint.getOrDefault(endpoint, slowCallMs);
+        }
+
+        public long getOpenSeconds() {
+            return openSeconds;
+        }
+
+        public void setOpenSeconds(long openSeconds) {
+            this.openSeconds = openSeconds;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+    }
+
+    /**
+     * 对冲请求配置：主请求超过延迟阈值仍未返回时再发一个相同请求，取先到的结果
+     */
+    public static class Hedge {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 启用对冲的接口（须为只读接口）；估值均经 batch 接口合批采集，按批内基金数计入预算
+         */
+        private List<String> endpoints = new ArrayList<>(List.of("batch"));
+
+        /**
+         * 固定对冲延迟（毫秒）；0 表示按该接口近期延迟的 p95 自动确定
+         */
+        private long delayMs = 0;
+
+        /**
+         * 对冲延迟下限（毫秒）
+         */
+        private long minDelayMs = 50;
+
+        /**
+         * 对冲额外采集的基金数占主请求基金数的比例上限（%）
+         */
+        private double budgetPercent = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getEndpoints() {
+            return endpoints;
+        }
+
+        public void setEndpoints(List<String> endpoints) {
+            this.endpoints = endpoints;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        public long getMinDelayMs() {
+            return minDelayMs;
+        }
+
+        public void setMinDelayMs(long minDelayMs) {
+            this.minDelayMs = minDelayMs;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+    }
+
+    /**
+     * 单个线程池配置
+     */
+    public static class Pool {
+        /**
+         * 线程数
+         */
+        private int threads;
+
+        /**
+         * 等待队列上限
+         */
+        private int queueCapacity;
+
+        public Pool() {
+        }
+
+        public Pool(int threads, int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
     @Override
     public String toString() {
         return "CollectProperties{" +
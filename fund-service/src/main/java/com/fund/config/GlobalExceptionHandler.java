@@ -1,6 +1,8 @@
 package com.fund.config;
 
 import com.fund.dto.ApiResponse;
+import com.fund.service.backtest.BacktestBusyException;
+import com.fund.service.metrics.MetricsRecomputeBusyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -32,6 +34,15 @@ public class GlobalExceptionHandler {
         return ApiResponse.badRequest(e.getMessage());
     }
     
+    /**
+     * 处理任务冲突（已有回测或全量指标重算在运行）
+     */
+    @ExceptionHandler({BacktestBusyException.class, MetricsRecomputeBusyException.class})
+    public ApiResponse<Void> handleBusy(RuntimeException e) {
+        log.warn("任务冲突: {}", e.getMessage());
+        return ApiResponse.conflict(e.getMessage());
+    }
+    
     /**
      * 处理空指针异常
      */
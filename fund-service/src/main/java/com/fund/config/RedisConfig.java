@@ -1,5 +1,10 @@
 package com.fund.config;
 
+import com.fund.service.cache.CacheRefreshExecutor;
+import com.fund.service.cache.CacheValueCodec;
+import com.fund.service.cache.RefreshingCacheManager;
+import com.fund.service.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -12,6 +17,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -32,14 +38,38 @@ public class RedisConfig {
     @Value("${spring.redis.database:0}")
     private int database;
     
+    // 本地一级缓存：启用的缓存名与总容量
+    @Value("${cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+    
+    @Value("${cache.local.caches:fund:detail,fund:metrics,fund:ranking}")
+    private String[] localCaches;
+    
+    @Value("${cache.local.max-size-mb:64}")
+    private long localMaxSizeMb;
+    
+    // 过期前后台重建：启用的缓存名、逻辑过期后允许返回旧值的时间、XFetch 提前刷新系数
+    @Value("${cache.refresh.caches:fund:ranking}")
+    private String[] refreshCaches;
+    
+    @Value("${cache.refresh.stale-seconds:300}")
+    private long refreshStaleSeconds;
+    
+    @Value("${cache.refresh.beta:1.0}")
+    private double refreshBeta;
+    
+    // 缓存值编码：超过该字节数时 LZ4 压缩，0 不压缩
+    @Value("${cache.codec.compress-threshold:1024}")
+    private int codecCompressThreshold;
+    
     // 缓存名称常量
     public static final String CACHE_FUND_DETAIL = "fund:detail";
     public static final String CACHE_FUND_METRICS = "fund:metrics";
     public static final String CACHE_FUND_RANKING = "fund:ranking";
     public static final String CACHE_FUND_SEARCH = "fund:search";
     public static final String CACHE_FUND_TOP = "fund:top";
-    public static final String CACHE_SIGNAL = "fund:signal";
     public static final String CACHE_ESTIMATE = "fund:estimate";
+    public static final String CACHE_NAV_CHART = "fund:nav:chart";
     public static final String BLOOM_FILTER_FUND = "fund:bloom";
     
     // TTL配置（毫秒）
@@ -48,8 +78,8 @@ public class RedisConfig {
     private static final long TTL_FUND_RANKING = 60 * 60 * 1000;      // 1小时
     private static final long TTL_FUND_SEARCH = 2 * 60 * 1000;        // 2分钟
     private static final long TTL_FUND_TOP = 30 * 60 * 1000;          // 30分钟（热点数据）
-    private static final long TTL_SIGNAL = 10 * 60 * 1000;            // 10分钟
     private static final long TTL_ESTIMATE = 5 * 60 * 1000;           // 5分钟（当日估值变化快）
+    private static final long TTL_NAV_CHART = 60 * 60 * 1000;         // 1小时（净值每日更新一次）
     
     /**
      * Redisson客户端
@@ -69,34 +99,69 @@ public class RedisConfig {
     }
     
     /**
-     * 缓存管理器 - 优化TTL策略
+     * 缓存管理器 - 优化TTL策略，热点缓存前加本地一级缓存，慢查询缓存过期前后台重建
+     * Redis 中的缓存值统一用 {@link CacheValueCodec} 编码，类结构变化后旧数据仍可读
      */
     @Bean
-    public CacheManager cacheManager(RedissonClient redissonClient) {
-        Map<String, CacheConfig> config = new HashMap<>();
+    public CacheManager cacheManager(RedissonClient redissonClient, MeterRegistry meterRegistry,
+                                     CacheRefreshExecutor cacheRefreshExecutor) {
+        Map<String, Long> ttl = new LinkedHashMap<>();
         
         // 基金详情缓存 - 5分钟
-        config.put(CACHE_FUND_DETAIL, createCacheConfig(TTL_FUND_DETAIL, 0));
+        ttl.put(CACHE_FUND_DETAIL, TTL_FUND_DETAIL);
         
         // 基金指标缓存 - 5分钟
-        config.put(CACHE_FUND_METRICS, createCacheConfig(TTL_FUND_METRICS, 0));
+        ttl.put(CACHE_FUND_METRICS, TTL_FUND_METRICS);
         
         // TOP排名缓存 - 1小时
-        config.put(CACHE_FUND_RANKING, createCacheConfig(TTL_FUND_RANKING, 0));
+        ttl.put(CACHE_FUND_RANKING, TTL_FUND_RANKING);
         
         // 搜索结果缓存 - 2分钟
-        config.put(CACHE_FUND_SEARCH, createCacheConfig(TTL_FUND_SEARCH, 0));
+        ttl.put(CACHE_FUND_SEARCH, TTL_FUND_SEARCH);
         
         // 热点基金缓存 - 30分钟
-        config.put(CACHE_FUND_TOP, createCacheConfig(TTL_FUND_TOP, 0));
-        
-        // 信号缓存 - 10分钟
-        config.put(CACHE_SIGNAL, createCacheConfig(TTL_SIGNAL, 0));
+        ttl.put(CACHE_FUND_TOP, TTL_FUND_TOP);
         
         // 估值缓存 - 5分钟
-        config.put(CACHE_ESTIMATE, createCacheConfig(TTL_ESTIMATE, 0));
+        ttl.put(CACHE_ESTIMATE, TTL_ESTIMATE);
         
-        return new RedissonSpringCacheManager(redissonClient, config);
+        // 降采样净值走势缓存 - 1小时
+        ttl.put(CACHE_NAV_CHART, TTL_NAV_CHART);
+        
+        // 后台重建的缓存：上面是逻辑过期时间，Redis 中多保留一段时间用于返回旧值
+        Map<String, Long> refreshTtl = new LinkedHashMap<>();
+        for (String name : refreshCaches) {
+            Long logical = ttl.get(name.trim());
+            if (logical != null) {
+                refreshTtl.put(name.trim(), logical);
+            }
+        }
+        
+        Map<String, CacheConfig> config = new HashMap<>();
+        for (Map.Entry<String, Long> e : ttl.entrySet()) {
+            long physical = e.getValue() + (refreshTtl.containsKey(e.getKey()) ? refreshStaleSeconds * 1000 : 0);
+            config.put(e.getKey(), createCacheConfig(physical, 0));
+        }
+        
+        CacheValueCodec codec = new CacheValueCodec(null, codecCompressThreshold, meterRegistry);
+        CacheManager cacheManager = new RedissonSpringCacheManager(redissonClient, config, codec);
+        if (localCacheEnabled && localCaches.length > 0) {
+            // 一级缓存过期时间与 Redis 一致，跨节点一致性靠失效广播
+            Map<String, Long> localTtl = new LinkedHashMap<>();
+            for (String name : localCaches) {
+                CacheConfig cacheConfig = config.get(name.trim());
+                if (cacheConfig != null && cacheConfig.getTTL() > 0) {
+                    localTtl.put(name.trim(), cacheConfig.getTTL());
+                }
+            }
+            cacheManager = new TwoLevelCacheManager(cacheManager, redissonClient, localTtl,
+                    localMaxSizeMb * 1024 * 1024, meterRegistry);
+        }
+        if (!refreshTtl.isEmpty()) {
+            cacheManager = new RefreshingCacheManager(cacheManager, refreshTtl, refreshBeta,
+                    cacheRefreshExecutor, meterRegistry);
+        }
+        return cacheManager;
     }
     
     /**
@@ -3,9 +3,13 @@ package com.fund.controller;
 import com.fund.config.RedisConfig;
 import com.fund.dto.ApiResponse;
 import com.fund.service.CacheWarmupService;
+import com.fund.service.cache.RefreshingCacheManager;
+import com.fund.service.cache.TwoLevelCacheManager;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RKeys;
 import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,11 +25,14 @@ public class CacheMonitorController {
     
     private final RedissonClient redissonClient;
     private final CacheWarmupService cacheWarmupService;
+    private final CacheManager cacheManager;
     
     public CacheMonitorController(RedissonClient redissonClient, 
-                                  CacheWarmupService cacheWarmupService) {
+                                  CacheWarmupService cacheWarmupService,
+                                  CacheManager cacheManager) {
         this.redissonClient = redissonClient;
         this.cacheWarmupService = cacheWarmupService;
+        this.cacheManager = cacheManager;
     }
     
     /**
@@ -46,7 +53,6 @@ public class CacheMonitorController {
         long rankingCount = 0;
         long searchCount = 0;
         long topCount = 0;
-        long signalCount = 0;
         long estimateCount = 0;
         long bloomFilterCount = 0;
         
@@ -56,7 +62,6 @@ public class CacheMonitorController {
             else if (key.startsWith("fund:ranking")) rankingCount++;
             else if (key.startsWith("fund:search")) searchCount++;
             else if (key.startsWith("fund:top")) topCount++;
-            else if (key.startsWith("fund:signal")) signalCount++;
             else if (key.startsWith("fund:estimate")) estimateCount++;
             else if (key.startsWith("fund:bloom")) bloomFilterCount++;
         }
@@ -66,7 +71,6 @@ public class CacheMonitorController {
         stats.put("fund:ranking", rankingCount);
         stats.put("fund:search", searchCount);
         stats.put("fund:top", topCount);
-        stats.put("fund:signal", signalCount);
         stats.put("fund:estimate", estimateCount);
         stats.put("fund:bloom", bloomFilterCount);
         stats.put("total_keys", totalKeys);
@@ -84,6 +88,19 @@ public class CacheMonitorController {
         return ApiResponse.success(stats);
     }
     
+    /**
+     * 两级缓存分层命中统计
+     */
+    @GetMapping("/tiers")
+    public ApiResponse<Map<String, Map<String, Object>>> tiers() {
+        CacheManager target = cacheManager instanceof RefreshingCacheManager refreshing
+                ? refreshing.getDelegate() : cacheManager;
+        if (target instanceof TwoLevelCacheManager twoLevel) {
+            return ApiResponse.success(twoLevel.stats());
+        }
+        return ApiResponse.success(Map.of());
+    }
+    
     /**
      * 获取布隆过滤器信息
      */
@@ -146,6 +163,13 @@ public class CacheMonitorController {
      */
     @PostMapping("/clear")
     public ApiResponse<String> clear(@RequestParam String name) {
+        // 经缓存管理器清空，各节点的本地一级缓存同时失效
+        if (cacheManager.getCacheNames().contains(name)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
         RKeys keys = redissonClient.getKeys();
         Iterable<String> keyList = keys.getKeysByPattern(name + "*");
         long deleted = 0;
@@ -161,6 +185,12 @@ public class CacheMonitorController {
      */
     @PostMapping("/clear/all")
     public ApiResponse<String> clearAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
         RKeys keys = redissonClient.getKeys();
         Iterable<String> keyList = keys.getKeysByPattern("fund:*");
         long deleted = 0;
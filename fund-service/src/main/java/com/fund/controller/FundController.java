@@ -3,11 +3,16 @@ package com.fund.controller;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fund.dto.ApiResponse;
+import com.fund.dto.ChartRange;
 import com.fund.dto.FundInfoVO;
 import com.fund.dto.FundMetricsVO;
 import com.fund.dto.FundNavVO;
+import com.fund.dto.FundScreenRequest;
+import com.fund.dto.FundScreenResult;
+import com.fund.dto.MetricsRecomputeJob;
 import com.fund.service.CollectClient;
 import com.fund.service.FundService;
+import com.fund.service.metrics.RollingMetricsEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,12 +33,20 @@ import java.util.List;
 public class FundController {
     private static final Logger log = LoggerFactory.getLogger(FundController.class);
     
+    // 降采样点数默认值与上下限
+    private static final int DEFAULT_CHART_POINTS = 300;
+    private static final int MIN_CHART_POINTS = 10;
+    private static final int MAX_CHART_POINTS = 2000;
+    
     private final FundService fundService;
     private final CollectClient collectClient;
+    private final RollingMetricsEngine rollingMetricsEngine;
     
-    public FundController(FundService fundService, CollectClient collectClient) {
+    public FundController(FundService fundService, CollectClient collectClient,
+                          RollingMetricsEngine rollingMetricsEngine) {
         this.fundService = fundService;
         this.collectClient = collectClient;
+        this.rollingMetricsEngine = rollingMetricsEngine;
     }
     
     /**
@@ -102,15 +115,28 @@ public class FundController {
     /**
      * 获取净值历史
      */
-    @Operation(summary = "获取净值历史", description = "获取指定日期范围内的净值数据")
+    @Operation(summary = "获取净值历史", description = "获取指定日期范围内的净值数据；指定 range 时返回标准区间的降采样走势，指定 points 时按 LTTB 降采样")
     @GetMapping("/{fundCode}/nav")
     public ApiResponse<List<FundNavVO>> getNavHistory(
             @Parameter(description = "基金代码", example = "000001") @PathVariable String fundCode,
             @Parameter(description = "开始日期") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @Parameter(description = "结束日期") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @Parameter(description = "结束日期") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "标准区间：1M/3M/1Y/3Y/ALL") @RequestParam(required = false) String range,
+            @Parameter(description = "最多返回点数", example = "300") @RequestParam(required = false) Integer points) {
+        if (range != null) {
+            int limit = points != null ? clampPoints(points) : DEFAULT_CHART_POINTS;
+            return ApiResponse.success(fundService.getNavChart(fundCode, ChartRange.of(range), limit));
+        }
+        if (points != null) {
+            return ApiResponse.success(fundService.getNavHistory(fundCode, startDate, endDate, clampPoints(points)));
+        }
         return ApiResponse.success(fundService.getNavHistory(fundCode, startDate, endDate));
     }
     
+    private static int clampPoints(int points) {
+        return Math.max(MIN_CHART_POINTS, Math.min(MAX_CHART_POINTS, points));
+    }
+    
     /**
      * 获取近期净值
      */
@@ -165,4 +191,41 @@ public class FundController {
         Page<FundInfoVO> pageParam = new Page<>(page, size);
         return ApiResponse.success(fundService.filterFundsByMetrics(pageParam, fundType, minSharpe, maxDrawdown));
     }
+    
+    /**
+     * 多条件指标筛选
+     */
+    @Operation(summary = "多条件筛选基金", description = "按任意指标区间组合筛选，返回准确总数与基金类型分面统计")
+    @PostMapping("/screen")
+    public ApiResponse<FundScreenResult> screenFunds(@RequestBody FundScreenRequest request) {
+        return ApiResponse.success(fundService.screenFunds(request));
+    }
+    
+    /**
+     * 本地重算基金指标
+     */
+    @Operation(summary = "本地重算基金指标", description = "从净值序列存储重算收益/夏普/回撤等指标并写入指标表，返回写入条数")
+    @PostMapping("/metrics/recompute")
+    public ApiResponse<Integer> recomputeMetrics(
+            @Parameter(description = "基金代码") @RequestParam String fundCode) {
+        return ApiResponse.success(rollingMetricsEngine.recompute(List.of(fundCode)));
+    }
+    
+    /**
+     * 提交全量指标重算任务（后台并行执行，已有任务在运行时返回 409）
+     */
+    @Operation(summary = "全量重算基金指标", description = "提交后台任务重算全部基金指标，通过任务状态接口轮询进度")
+    @PostMapping("/metrics/recompute/all")
+    public ApiResponse<MetricsRecomputeJob> recomputeAllMetrics() {
+        return ApiResponse.success(rollingMetricsEngine.submitRecomputeAll());
+    }
+    
+    /**
+     * 查询最近一次全量指标重算任务状态
+     */
+    @Operation(summary = "全量指标重算任务状态", description = "返回最近一次全量重算任务，从未提交时为空")
+    @GetMapping("/metrics/recompute/status")
+    public ApiResponse<MetricsRecomputeJob> getRecomputeStatus() {
+        return ApiResponse.success(rollingMetricsEngine.getLastJob());
+    }
 }
@@ -2,23 +2,24 @@ package com.fund.controller;
 
 import com.fund.dto.ApiResponse;
 import com.fund.entity.watchlist.FundEstimateIntraday;
-import com.fund.mapper.watchlist.FundEstimateIntradayMapper;
-import com.fund.service.collect.CollectClient;
+import com.fund.service.collect.EstimateBatcher;
+import com.fund.service.watchlist.IntradayEstimateCache;
+import com.fund.service.watchlist.IntradayEstimateWriter;
 import com.fund.service.watchlist.TradingCalendarService;
 import com.fund.service.websocket.IntradayPushService;
+import com.fund.util.Downsampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @RestController
@@ -28,13 +29,16 @@ public class FundEstimateController {
     private static final Logger log = LoggerFactory.getLogger(FundEstimateController.class);
     
     @Autowired
-    private FundEstimateIntradayMapper estimateMapper;
+    private IntradayEstimateCache estimateCache;
+    
+    @Autowired
+    private IntradayEstimateWriter estimateWriter;
     
     @Autowired
     private TradingCalendarService calendarService;
     
     @Autowired
-    private CollectClient collectClient;
+    private EstimateBatcher estimateBatcher;
     
     @Autowired
     private IntradayPushService pushService;
@@ -47,19 +51,23 @@ public class FundEstimateController {
      */
     @GetMapping("/{fundCode}/intraday")
     public ApiResponse<Map<String, Object>> getIntradayData(
-            @PathVariable String fundCode) {
+            @PathVariable String fundCode,
+            @RequestParam(required = false) Integer points) {
         
         // 获取当前交易日
         LocalDate tradeDate = calendarService.getCurrentTradeDate();
         
-        // 查询该交易日的所有点位数据
-        List<FundEstimateIntraday> points = estimateMapper.selectByFundAndDate(fundCode, tradeDate);
+        // 查询该交易日的所有点位数据（内存缓存）
+        List<FundEstimateIntraday> data = estimateCache.getPoints(fundCode, tradeDate);
+        if (points != null) {
+            data = downsample(data, Math.max(10, points));
+        }
         
         // 如果没有数据，可能是交易刚开始，返回空列表
         Map<String, Object> result = new HashMap<>();
         result.put("fundCode", fundCode);
         result.put("tradeDate", tradeDate.toString());
-        result.put("points", points);
+        result.put("points", data);
         result.put("isToday", tradeDate.equals(LocalDate.now()));
         
         return ApiResponse.success(result);
@@ -85,32 +93,33 @@ public class FundEstimateController {
         // 3. 设置冷却时间
         redisTemplate.opsForValue().set(cooldownKey, "1", 30, TimeUnit.SECONDS);
         
-        // 4. 异步调用Python采集服务
-        CompletableFuture.runAsync(() -> {
+        // 4. 异步调用Python采集服务（与并发的其他估值请求合批）
+        estimateBatcher.submit(fundCode).whenComplete((dto, ex) -> {
+            if (ex != null) {
+                log.error("手动刷新估值失败: {}", fundCode, ex);
+                return;
+            }
+            if (dto == null) {
+                log.warn("手动刷新估值未获取到数据: {}", fundCode);
+                return;
+            }
             try {
-                // 调用Python采集
-                var response = collectClient.collectEstimate(fundCode);
+                // 转换为实体
+                FundEstimateIntraday estimate = new FundEstimateIntraday();
+                estimate.setFundCode(fundCode);
+                estimate.setEstimateTime(LocalDateTime.now());
+                estimate.setEstimateNav(dto.getEstimateNav());
+                estimate.setEstimateChangePct(dto.getEstimateChangePct());
+                estimate.setTradeDate(LocalDate.now());
+                estimate.setDataSource(dto.getDataSource());
+                
+                // 异步批量落库（落库后进入内存缓存）
+                estimateWriter.submit(estimate);
+                
+                // WebSocket推送更新
+                pushService.pushToFundDetail(estimate);
                 
-                if (response.getCode() == 200 && response.getData() != null) {
-                    Map<String, Object> data = response.getData();
-                    
-                    // 转换为实体
-                    FundEstimateIntraday estimate = new FundEstimateIntraday();
-                    estimate.setFundCode(fundCode);
-                    estimate.setEstimateTime(LocalDateTime.now());
-                    estimate.setEstimateNav(new BigDecimal(data.get("estimateNav").toString()));
-                    estimate.setEstimateChangePct(new BigDecimal(data.get("estimateChangePct").toString()));
-                    estimate.setTradeDate(LocalDate.now());
-                    estimate.setDataSource(data.get("dataSource").toString());
-                    
-                    // 保存到数据库
-                    estimateMapper.insert(estimate);
-                    
-                    // WebSocket推送更新
-                    pushService.pushToFundDetail(estimate);
-                    
-                    log.info("手动刷新估值成功: {} - {}", fundCode, estimate.getEstimateNav());
-                }
+                log.info("手动刷新估值成功: {} - {}", fundCode, estimate.getEstimateNav());
             } catch (Exception e) {
                 log.error("手动刷新估值失败: {}", fundCode, e);
             }
@@ -124,7 +133,24 @@ public class FundEstimateController {
      */
     @GetMapping("/{fundCode}/estimate/latest")
     public ApiResponse<FundEstimateIntraday> getLatestEstimate(@PathVariable String fundCode) {
-        FundEstimateIntraday estimate = estimateMapper.selectLatest(fundCode);
+        FundEstimateIntraday estimate = estimateCache.getLatest(fundCode);
         return ApiResponse.success(estimate);
     }
+    
+    /**
+     * 按估值净值做 LTTB 降采样（x 为估值时间）
+     */
+    private List<FundEstimateIntraday> downsample(List<FundEstimateIntraday> data, int points) {
+        if (points >= data.size()) {
+            return data;
+        }
+        double[] x = new double[data.size()];
+        double[] y = new double[data.size()];
+        for (int i = 0; i < data.size(); i++) {
+            FundEstimateIntraday e = data.get(i);
+            x[i] = e.getEstimateTime().atZone(ZoneId.systemDefault()).toEpochSecond();
+            y[i] = e.getEstimateNav().doubleValue();
+        }
+        return Downsampler.select(data, Downsampler.lttb(x, y, points));
+    }
 }
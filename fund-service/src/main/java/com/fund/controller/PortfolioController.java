@@ -73,6 +73,14 @@ public class PortfolioController {
         }
     }
     
+    /**
+     * 按交易流水重建持仓汇总（数据修复）
+     */
+    @PostMapping("/positions/rebuild")
+    public ApiResponse<Integer> rebuildPositions() {
+        return ApiResponse.success(portfolioService.rebuildPositions());
+    }
+    
     /**
      * 组合分析
      */
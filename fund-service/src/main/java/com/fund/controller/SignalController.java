@@ -1,10 +1,19 @@
 package com.fund.controller;
 
 import com.fund.dto.ApiResponse;
+import com.fund.dto.BacktestJob;
+import com.fund.dto.BacktestRequest;
 import com.fund.dto.TradeSignal;
-import com.fund.service.SignalEngine;
+import com.fund.service.SignalBatchService;
+import com.fund.service.backtest.BacktestService;
+import com.fund.service.rule.SignalRuleSet;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+
 /**
  * 交易信号控制器
  */
@@ -12,10 +21,12 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/funds")
 public class SignalController {
     
-    private final SignalEngine signalEngine;
+    private final SignalBatchService signalBatchService;
+    private final BacktestService backtestService;
     
-    public SignalController(SignalEngine signalEngine) {
-        this.signalEngine = signalEngine;
+    public SignalController(SignalBatchService signalBatchService, BacktestService backtestService) {
+        this.signalBatchService = signalBatchService;
+        this.backtestService = backtestService;
     }
     
     /**
@@ -23,7 +34,49 @@ public class SignalController {
      */
     @GetMapping("/{fundCode}/signal")
     public ApiResponse<TradeSignal> getSignal(@PathVariable String fundCode) {
-        TradeSignal signal = signalEngine.generateSignal(fundCode);
+        TradeSignal signal = signalBatchService.getSignal(fundCode);
         return ApiResponse.success(signal);
     }
+    
+    /**
+     * 列出全部买入/卖出信号
+     */
+    @GetMapping("/signals")
+    public ApiResponse<List<TradeSignal>> listSignals(@RequestParam(defaultValue = "BUY") String type) {
+        TradeSignal.SignalType signalType;
+        try {
+            signalType = TradeSignal.SignalType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的信号类型: " + type);
+        }
+        return ApiResponse.success(signalBatchService.listSignals(signalType));
+    }
+    
+    /**
+     * 热加载信号规则（signal-rules.yml），规则变化时自动全量重算
+     */
+    @PostMapping("/signals/rules/reload")
+    public ApiResponse<Map<String, Object>> reloadRules() {
+        SignalRuleSet rules = signalBatchService.reloadRules();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("version", rules.getVersion());
+        result.put("ruleCount", rules.ruleCount());
+        return ApiResponse.success(result);
+    }
+    
+    /**
+     * 提交信号规则回测（可传入多套规则与决策阈值网格），返回任务ID，结果通过查询接口轮询
+     */
+    @PostMapping("/signals/backtest")
+    public ApiResponse<BacktestJob> backtest(@RequestBody BacktestRequest request) {
+        return ApiResponse.success(backtestService.submit(request));
+    }
+    
+    /**
+     * 查询回测任务状态与结果
+     */
+    @GetMapping("/signals/backtest/{jobId}")
+    public ApiResponse<BacktestJob> getBacktest(@PathVariable String jobId) {
+        return ApiResponse.success(backtestService.getJob(jobId));
+    }
 }
@@ -88,6 +88,10 @@ public class ApiResponse<T> implements Serializable {
         return error(404, message);
     }
     
+    public static <T> ApiResponse<T> conflict(String message) {
+        return error(409, message);
+    }
+    
     public boolean isSuccess() {
         return code != null && code == 200;
     }
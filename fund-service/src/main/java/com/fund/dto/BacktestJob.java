@@ -0,0 +1,42 @@
+package com.fund.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 回测任务DTO（提交后轮询获取结果）
+ */
+public class BacktestJob {
+    
+    /**
+     * 任务状态: RUNNING/SUCCESS/FAILED
+     */
+    public enum Status {
+        RUNNING, SUCCESS, FAILED
+    }
+    
+    private String jobId;
+    private Status status;
+    private LocalDateTime submitTime;
+    private LocalDateTime finishTime;
+    private String error;
+    private BacktestResult result;  // 成功后才有
+    
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public LocalDateTime getSubmitTime() { return submitTime; }
+    public void setSubmitTime(LocalDateTime submitTime) { this.submitTime = submitTime; }
+    
+    public LocalDateTime getFinishTime() { return finishTime; }
+    public void setFinishTime(LocalDateTime finishTime) { this.finishTime = finishTime; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    
+    public BacktestResult getResult() { return result; }
+    public void setResult(BacktestResult result) { this.result = result; }
+}
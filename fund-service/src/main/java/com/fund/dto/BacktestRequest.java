@@ -0,0 +1,53 @@
+package com.fund.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 信号回测请求DTO
+ * ruleSets 为 名称 -> 规则YAML（格式同 signal-rules.yml），为空时回测当前生效规则；
+ * 三个分数阈值列表组成参数网格，与每套规则做笛卡尔积，为空表示沿用规则自身阈值
+ */
+public class BacktestRequest {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String fundType;
+    private List<String> fundCodes = new ArrayList<>();
+    private Integer horizonDays = 20;  // 信号命中判定的前瞻交易日数
+    private Map<String, String> ruleSets = new LinkedHashMap<>();
+    private List<Integer> strongBuyScores = new ArrayList<>();
+    private List<Integer> buyScores = new ArrayList<>();
+    private List<Integer> sellScores = new ArrayList<>();
+    
+    // Getters and Setters
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public String getFundType() { return fundType; }
+    public void setFundType(String fundType) { this.fundType = fundType; }
+    
+    public List<String> getFundCodes() { return fundCodes; }
+    public void setFundCodes(List<String> fundCodes) { this.fundCodes = fundCodes; }
+    
+    public Integer getHorizonDays() { return horizonDays; }
+    public void setHorizonDays(Integer horizonDays) { this.horizonDays = horizonDays; }
+    
+    public Map<String, String> getRuleSets() { return ruleSets; }
+    public void setRuleSets(Map<String, String> ruleSets) { this.ruleSets = ruleSets; }
+    
+    public List<Integer> getStrongBuyScores() { return strongBuyScores; }
+    public void setStrongBuyScores(List<Integer> strongBuyScores) { this.strongBuyScores = strongBuyScores; }
+    
+    public List<Integer> getBuyScores() { return buyScores; }
+    public void setBuyScores(List<Integer> buyScores) { this.buyScores = buyScores; }
+    
+    public List<Integer> getSellScores() { return sellScores; }
+    public void setSellScores(List<Integer> sellScores) { this.sellScores = sellScores; }
+}
@@ -0,0 +1,99 @@
+package com.fund.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 信号回测结果DTO
+ */
+public class BacktestResult {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int fundCount;
+    private long navRows;
+    private long metricsRows;
+    private long costMs;
+    private List<Variant> variants;  // 按年化收益降序
+    
+    /**
+     * 单个规则/参数组合的回测表现
+     */
+    public static class Variant {
+        private String ruleSet;
+        private int strongBuyScore;
+        private int buyScore;
+        private int sellScore;
+        private long buySignals;
+        private long sellSignals;
+        private BigDecimal hitRate;          // 信号命中率%：买入后前瞻收益为正 / 卖出后为负
+        private long trades;                 // 建仓+平仓次数
+        private BigDecimal totalReturn;      // 组合累计收益%
+        private BigDecimal annualReturn;     // 组合年化收益%
+        private BigDecimal maxDrawdown;      // 组合最大回撤%（负数）
+        private BigDecimal annualTurnover;   // 年化换手率（倍）
+        private BigDecimal avgHoldings;      // 平均持仓基金数
+        
+        public String getRuleSet() { return ruleSet; }
+        public void setRuleSet(String ruleSet) { this.ruleSet = ruleSet; }
+        
+        public int getStrongBuyScore() { return strongBuyScore; }
+        public void setStrongBuyScore(int strongBuyScore) { this.strongBuyScore = strongBuyScore; }
+        
+        public int getBuyScore() { return buyScore; }
+        public void setBuyScore(int buyScore) { this.buyScore = buyScore; }
+        
+        public int getSellScore() { return sellScore; }
+        public void setSellScore(int sellScore) { this.sellScore = sellScore; }
+        
+        public long getBuySignals() { return buySignals; }
+        public void setBuySignals(long buySignals) { this.buySignals = buySignals; }
+        
+        public long getSellSignals() { return sellSignals; }
+        public void setSellSignals(long sellSignals) { this.sellSignals = sellSignals; }
+        
+        public BigDecimal getHitRate() { return hitRate; }
+        public void setHitRate(BigDecimal hitRate) { this.hitRate = hitRate; }
+        
+        public long getTrades() { return trades; }
+        public void setTrades(long trades) { this.trades = trades; }
+        
+        public BigDecimal getTotalReturn() { return totalReturn; }
+        public void setTotalReturn(BigDecimal totalReturn) { this.totalReturn = totalReturn; }
+        
+        public BigDecimal getAnnualReturn() { return annualReturn; }
+        public void setAnnualReturn(BigDecimal annualReturn) { this.annualReturn = annualReturn; }
+        
+        public BigDecimal getMaxDrawdown() { return maxDrawdown; }
+        public void setMaxDrawdown(BigDecimal maxDrawdown) { this.maxDrawdown = maxDrawdown; }
+        
+        public BigDecimal getAnnualTurnover() { return annualTurnover; }
+        public void setAnnualTurnover(BigDecimal annualTurnover) { this.annualTurnover = annualTurnover; }
+        
+        public BigDecimal getAvgHoldings() { return avgHoldings; }
+        public void setAvgHoldings(BigDecimal avgHoldings) { this.avgHoldings = avgHoldings; }
+    }
+    
+    // Getters and Setters
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public int getFundCount() { return fundCount; }
+    public void setFundCount(int fundCount) { this.fundCount = fundCount; }
+    
+    public long getNavRows() { return navRows; }
+    public void setNavRows(long navRows) { this.navRows = navRows; }
+    
+    public long getMetricsRows() { return metricsRows; }
+    public void setMetricsRows(long metricsRows) { this.metricsRows = metricsRows; }
+    
+    public long getCostMs() { return costMs; }
+    public void setCostMs(long costMs) { this.costMs = costMs; }
+    
+    public List<Variant> getVariants() { return variants; }
+    public void setVariants(List<Variant> variants) { this.variants = variants; }
+}
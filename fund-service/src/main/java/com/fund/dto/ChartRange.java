@@ -0,0 +1,46 @@
+package com.fund.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 净值走势图标准区间
+ */
+public enum ChartRange {
+
+    M1("1M", 1),
+    M3("3M", 3),
+    Y1("1Y", 12),
+    Y3("3Y", 36),
+    ALL("ALL", 0);
+
+    // ALL 区间的起始日期（早于国内首只公募基金成立）
+    private static final LocalDate EARLIEST = LocalDate.of(1990, 1, 1);
+
+    private final String code;
+    private final int months;
+
+    ChartRange(String code, int months) {
+        this.code = code;
+        this.months = months;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 以 endDate 为终点的区间起始日期
+     */
+    public LocalDate startDate(LocalDate endDate) {
+        return months == 0 ? EARLIEST : endDate.minusMonths(months);
+    }
+
+    public static ChartRange of(String code) {
+        for (ChartRange range : values()) {
+            if (range.code.equalsIgnoreCase(code)) {
+                return range;
+            }
+        }
+        throw new IllegalArgumentException("不支持的区间: " + code + "，可选 1M/3M/1Y/3Y/ALL");
+    }
+}
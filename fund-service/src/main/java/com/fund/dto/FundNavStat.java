@@ -0,0 +1,22 @@
+package com.fund.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 单只基金净值统计（最新净值日期与条数，用于判断净值序列存储是否需要更新）
+ */
+public class FundNavStat {
+
+    private String fundCode;
+    private LocalDate lastNavDate;
+    private Integer navCount;
+
+    public String getFundCode() { return fundCode; }
+    public void setFundCode(String fundCode) { this.fundCode = fundCode; }
+
+    public LocalDate getLastNavDate() { return lastNavDate; }
+    public void setLastNavDate(LocalDate lastNavDate) { this.lastNavDate = lastNavDate; }
+
+    public Integer getNavCount() { return navCount; }
+    public void setNavCount(Integer navCount) { this.navCount = navCount; }
+}
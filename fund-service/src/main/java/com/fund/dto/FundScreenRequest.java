@@ -0,0 +1,61 @@
+package com.fund.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基金筛选请求DTO
+ * ranges 的键为指标名（sharpe、maxDrawdown、volatility、return1y、alpha、beta、pePercentile 等），
+ * 值为闭区间 [min, max]，任一端为空表示不限；
+ * sortOrder 为 asc/desc，为空时波动率、跟踪误差、估值分位默认升序，其余默认降序
+ */
+public class FundScreenRequest {
+    
+    private String fundType;
+    private Map<String, Range> ranges = new LinkedHashMap<>();
+    private String sortBy = "sharpe";
+    private String sortOrder;
+    private Integer page = 1;
+    private Integer size = 20;
+    
+    /**
+     * 数值区间
+     */
+    public static class Range {
+        private Double min;
+        private Double max;
+        
+        public Range() {
+        }
+        
+        public Range(Double min, Double max) {
+            this.min = min;
+            this.max = max;
+        }
+        
+        public Double getMin() { return min; }
+        public void setMin(Double min) { this.min = min; }
+        
+        public Double getMax() { return max; }
+        public void setMax(Double max) { this.max = max; }
+    }
+    
+    // Getters and Setters
+    public String getFundType() { return fundType; }
+    public void setFundType(String fundType) { this.fundType = fundType; }
+    
+    public Map<String, Range> getRanges() { return ranges; }
+    public void setRanges(Map<String, Range> ranges) { this.ranges = ranges; }
+    
+    public String getSortBy() { return sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+    
+    public String getSortOrder() { return sortOrder; }
+    public void setSortOrder(String sortOrder) { this.sortOrder = sortOrder; }
+    
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+    
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+}
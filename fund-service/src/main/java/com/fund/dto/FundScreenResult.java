@@ -0,0 +1,32 @@
+package com.fund.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基金筛选结果DTO
+ */
+public class FundScreenResult {
+    
+    private long total;
+    private long current;
+    private long size;
+    private List<FundMetricsVO> records;
+    private Map<String, Integer> typeFacets;  // 基金类型 -> 满足指标条件的数量（不受类型条件影响）
+    
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public long getCurrent() { return current; }
+    public void setCurrent(long current) { this.current = current; }
+    
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    
+    public List<FundMetricsVO> getRecords() { return records; }
+    public void setRecords(List<FundMetricsVO> records) { this.records = records; }
+    
+    public Map<String, Integer> getTypeFacets() { return typeFacets; }
+    public void setTypeFacets(Map<String, Integer> typeFacets) { this.typeFacets = typeFacets; }
+}
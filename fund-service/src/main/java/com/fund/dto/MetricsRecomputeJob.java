@@ -0,0 +1,46 @@
+package com.fund.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全量指标重算任务DTO（提交后轮询获取状态）
+ */
+public class MetricsRecomputeJob {
+    
+    /**
+     * 任务状态: RUNNING/SUCCESS/FAILED
+     */
+    public enum Status {
+        RUNNING, SUCCESS, FAILED
+    }
+    
+    private String jobId;
+    private Status status;
+    private LocalDateTime submitTime;
+    private LocalDateTime finishTime;
+    private Integer fundCount;
+    private Integer written;  // 成功后才有
+    private String error;
+    
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public LocalDateTime getSubmitTime() { return submitTime; }
+    public void setSubmitTime(LocalDateTime submitTime) { this.submitTime = submitTime; }
+    
+    public LocalDateTime getFinishTime() { return finishTime; }
+    public void setFinishTime(LocalDateTime finishTime) { this.finishTime = finishTime; }
+    
+    public Integer getFundCount() { return fundCount; }
+    public void setFundCount(Integer fundCount) { this.fundCount = fundCount; }
+    
+    public Integer getWritten() { return written; }
+    public void setWritten(Integer written) { this.written = written; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,17 @@
+package com.fund.dto;
+
+import com.fund.entity.FundMetrics;
+
+/**
+ * 指标快照加载行：最新指标 + 基金名称/类型
+ */
+public class MetricsSnapshotRow extends FundMetrics {
+
+    private String fundName;
+    private String fundType;
+
+    public String getFundName() { return fundName; }
+    public void setFundName(String fundName) { this.fundName = fundName; }
+    public String getFundType() { return fundType; }
+    public void setFundType(String fundType) { this.fundType = fundType; }
+}
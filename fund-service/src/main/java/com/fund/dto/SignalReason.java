@@ -0,0 +1,91 @@
+package com.fund.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 信号理由编码（按位组合，序列化时才渲染为文本）
+ */
+public enum SignalReason {
+
+    // ========== 买入理由 ==========
+    BUY_PE_LOW("PE估值低位(", Arg.PE, "%)"),
+    BUY_SHARPE_EXCELLENT("夏普比率优秀(", Arg.SHARPE, ")"),
+    BUY_SHARPE_GOOD("夏普比率良好"),
+    // 阈值取规则条件中的比较数值（绝对值），随 signal-rules.yml 变化
+    BUY_DRAWDOWN_CONTROLLED("回撤控制良好(<", Arg.THRESHOLD, "%)"),
+    BUY_RETURN_POSITIVE("近1年收益为正"),
+
+    // ========== 卖出理由 ==========
+    SELL_PE_HIGH("PE估值高位(", Arg.PE, "%)"),
+    SELL_DRAWDOWN_EXCESSIVE("回撤过大(>", Arg.THRESHOLD, "%)"),
+    SELL_SHARPE_NEGATIVE("夏普比率负值"),
+    SELL_TAKE_PROFIT("收益超", Arg.THRESHOLD, "%，考虑止盈"),
+    SELL_STOP_LOSS("亏损超", Arg.THRESHOLD, "%，考虑止损"),
+
+    // ========== 持有理由 ==========
+    // 评级取规则配置的否决评级（decision.veto-level）
+    HOLD_QUALITY_VETO("综合评级", Arg.LEVEL, "，暂不建议买入"),
+    HOLD_POSITIVE("偏向积极，可继续持有"),
+    HOLD_CAUTIOUS("偏向谨慎，注意风险"),
+    HOLD_NEUTRAL("估值合理，建议持有观望");
+
+    /**
+     * 理由文本中引用的指标值
+     */
+    private enum Arg { NONE, PE, SHARPE, LEVEL, THRESHOLD }
+
+    private static final SignalReason[] VALUES = values();
+
+    private final String prefix;
+    private final Arg arg;
+    private final String suffix;
+    private final int bit;
+
+    SignalReason(String text) {
+        this(text, Arg.NONE, "");
+    }
+
+    SignalReason(String prefix, Arg arg, String suffix) {
+        this.prefix = prefix;
+        this.arg = arg;
+        this.suffix = suffix;
+        this.bit = 1 << ordinal();
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * 将理由位组合渲染为文本（"; " 分隔），pe/sharpe 为 NaN、质量等级为 null 时按空值渲染；
+     * thresholds 按理由序号给出命中规则的条件阈值，为 null 或 NaN 时按空值渲染
+     */
+    public static String render(int mask, double pePercentile, double sharpe, String qualityLevel,
+                                double[] thresholds) {
+        StringBuilder sb = new StringBuilder(64);
+        for (SignalReason reason : VALUES) {
+            if ((mask & reason.bit) == 0) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(reason.prefix);
+            if (reason.arg == Arg.PE) {
+                sb.append(Double.isNaN(pePercentile) ? "-" : String.valueOf((long) pePercentile));
+            } else if (reason.arg == Arg.SHARPE) {
+                sb.append(Double.isNaN(sharpe) ? "-"
+                        : BigDecimal.valueOf(sharpe).setScale(4, RoundingMode.HALF_UP).toPlainString());
+            } else if (reason.arg == Arg.LEVEL) {
+                sb.append(qualityLevel != null ? qualityLevel : "-");
+            } else if (reason.arg == Arg.THRESHOLD) {
+                double t = thresholds != null ? thresholds[reason.ordinal()] : Double.NaN;
+                sb.append(Double.isNaN(t) ? "-"
+                        : BigDecimal.valueOf(Math.abs(t)).stripTrailingZeros().toPlainString());
+            }
+            sb.append(reason.suffix);
+        }
+        return sb.toString();
+    }
+}
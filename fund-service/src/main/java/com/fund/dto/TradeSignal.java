@@ -1,5 +1,7 @@
 package com.fund.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 
 /**
@@ -38,6 +40,25 @@ public class TradeSignal {
     private Integer sellScore;
     private String qualityLevel;
     
+    // 理由位组合及渲染所需的指标值，reason 为空时在序列化时按需渲染
+    private int reasonMask;
+    private double reasonPe = Double.NaN;
+    private double reasonSharpe = Double.NaN;
+    // 生成该信号的规则集中各理由的条件阈值（按理由序号，只读共享）
+    private double[] reasonThresholds;
+    
+    /**
+     * 以理由编码构造信号（不生成文本、不取系统时间）
+     */
+    public static TradeSignal of(SignalType type, int reasonMask, double pePercentile, double sharpe) {
+        TradeSignal ts = new TradeSignal();
+        ts.signal = type;
+        ts.reasonMask = reasonMask;
+        ts.reasonPe = pePercentile;
+        ts.reasonSharpe = sharpe;
+        return ts;
+    }
+    
     public static TradeSignal buy(String reason) {
         TradeSignal ts = new TradeSignal();
         ts.setSignal(SignalType.BUY);
@@ -72,7 +93,12 @@ public class TradeSignal {
     public SignalType getSignal() { return signal; }
     public void setSignal(SignalType signal) { this.signal = signal; }
     
-    public String getReason() { return reason; }
+    public String getReason() {
+        if (reason == null && reasonMask != 0) {
+            reason = SignalReason.render(reasonMask, reasonPe, reasonSharpe, qualityLevel, reasonThresholds);
+        }
+        return reason;
+    }
     public void setReason(String reason) { this.reason = reason; }
     
     public Integer getConfidence() { return confidence; }
@@ -89,4 +115,16 @@ public class TradeSignal {
     
     public String getQualityLevel() { return qualityLevel; }
     public void setQualityLevel(String qualityLevel) { this.qualityLevel = qualityLevel; }
+    
+    @JsonIgnore
+    public int getReasonMask() { return reasonMask; }
+    
+    @JsonIgnore
+    public double getReasonPe() { return reasonPe; }
+    
+    @JsonIgnore
+    public double getReasonSharpe() { return reasonSharpe; }
+    
+    @JsonIgnore
+    public void setReasonThresholds(double[] reasonThresholds) { this.reasonThresholds = reasonThresholds; }
 }
@@ -0,0 +1,71 @@
+package com.fund.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 最新决策信号实体（批量预计算结果）
+ */
+@TableName("fund_signal")
+public class FundSignal {
+    
+    @TableId(type = IdType.INPUT)
+    private String fundCode;
+    private LocalDate calcDate;
+    private Integer signalType;  // 1买入, 2持有, 3卖出
+    private Integer reasonMask;
+    private Integer pePercentile;
+    private BigDecimal sharpeRatio;
+    private Integer buyScore;
+    private Integer sellScore;
+    private String qualityLevel;
+    private Integer confidence;
+    private Long calcBatch;
+    private Long ruleVersion;
+    private LocalDateTime updateTime;
+    
+    // Getters and Setters
+    public String getFundCode() { return fundCode; }
+    public void setFundCode(String fundCode) { this.fundCode = fundCode; }
+    
+    public LocalDate getCalcDate() { return calcDate; }
+    public void setCalcDate(LocalDate calcDate) { this.calcDate = calcDate; }
+    
+    public Integer getSignalType() { return signalType; }
+    public void setSignalType(Integer signalType) { this.signalType = signalType; }
+    
+    public Integer getReasonMask() { return reasonMask; }
+    public void setReasonMask(Integer reasonMask) { this.reasonMask = reasonMask; }
+    
+    public Integer getPePercentile() { return pePercentile; }
+    public void setPePercentile(Integer pePercentile) { this.pePercentile = pePercentile; }
+    
+    public BigDecimal getSharpeRatio() { return sharpeRatio; }
+    public void setSharpeRatio(BigDecimal sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+    
+    public Integer getBuyScore() { return buyScore; }
+    public void setBuyScore(Integer buyScore) { this.buyScore = buyScore; }
+    
+    public Integer getSellScore() { return sellScore; }
+    public void setSellScore(Integer sellScore) { this.sellScore = sellScore; }
+    
+    public String getQualityLevel() { return qualityLevel; }
+    public void setQualityLevel(String qualityLevel) { this.qualityLevel = qualityLevel; }
+    
+    public Integer getConfidence() { return confidence; }
+    public void setConfidence(Integer confidence) { this.confidence = confidence; }
+    
+    public Long getCalcBatch() { return calcBatch; }
+    public void setCalcBatch(Long calcBatch) { this.calcBatch = calcBatch; }
+    
+    public Long getRuleVersion() { return ruleVersion; }
+    public void setRuleVersion(Long ruleVersion) { this.ruleVersion = ruleVersion; }
+    
+    public LocalDateTime getUpdateTime() { return updateTime; }
+    public void setUpdateTime(LocalDateTime updateTime) { this.updateTime = updateTime; }
+}
@@ -0,0 +1,42 @@
+package com.fund.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 持仓汇总实体（由交易流水增量维护）
+ */
+@TableName("portfolio_position")
+public class PortfolioPosition {
+    
+    @TableId(type = IdType.INPUT)
+    private String fundCode;
+    private BigDecimal totalShares;
+    private BigDecimal totalCost;
+    private Integer tradeCount;
+    private Long lastTradeId;
+    private LocalDateTime updateTime;
+    
+    // Getters and Setters
+    public String getFundCode() { return fundCode; }
+    public void setFundCode(String fundCode) { this.fundCode = fundCode; }
+    
+    public BigDecimal getTotalShares() { return totalShares; }
+    public void setTotalShares(BigDecimal totalShares) { this.totalShares = totalShares; }
+    
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+    
+    public Integer getTradeCount() { return tradeCount; }
+    public void setTradeCount(Integer tradeCount) { this.tradeCount = tradeCount; }
+    
+    public Long getLastTradeId() { return lastTradeId; }
+    public void setLastTradeId(Long lastTradeId) { this.lastTradeId = lastTradeId; }
+    
+    public LocalDateTime getUpdateTime() { return updateTime; }
+    public void setUpdateTime(LocalDateTime updateTime) { this.updateTime = updateTime; }
+}
@@ -2,11 +2,16 @@ package com.fund.mapper;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.fund.dto.MetricsSnapshotRow;
 import com.fund.entity.FundMetrics;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +25,11 @@ public interface FundMetricsMapper extends BaseMapper<FundMetrics> {
      */
     FundMetrics selectLatestByFundCode(@Param("fundCode") String fundCode);
     
+    /**
+     * 批量查询多只基金的最新指标 - 使用XML配置
+     */
+    List<FundMetrics> selectLatestByFundCodes(@Param("fundCodes") Collection<String> fundCodes);
+    
     /**
      * 查询TOP N基金（按夏普比率，优化：只查询必要字段）
      */
@@ -41,4 +51,28 @@ public interface FundMetricsMapper extends BaseMapper<FundMetrics> {
     List<FundMetrics> selectTopByOrder(@Param("orderBy") String orderBy, 
                                        @Param("fundType") String fundType, 
                                        @Param("limit") int limit);
+    
+    /**
+     * 流式加载每只在售基金的最新指标（含名称/类型）- 使用XML配置
+     */
+    void streamLatestSnapshot(ResultHandler<MetricsSnapshotRow> handler);
+    
+    /**
+     * 按基金、计算日期顺序流式读取历史指标（回测用）- 使用XML配置
+     */
+    void streamHistory(@Param("fundCodes") List<String> fundCodes,
+                       @Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate,
+                       ResultHandler<FundMetrics> handler);
+    
+    /**
+     * 批量写入指标，(fund_code, calc_date) 已存在时覆盖净值类指标 - 使用XML配置
+     */
+    int upsertBatch(List<FundMetrics> list);
+    
+    /**
+     * 指标表最后更新时间（用于判断快照是否需要重载）
+     */
+    @Select("SELECT MAX(update_time) FROM fund_metrics")
+    LocalDateTime selectMaxUpdateTime();
 }
@@ -1,13 +1,19 @@
 package com.fund.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.fund.dto.FundNavStat;
 import com.fund.entity.FundNav;
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -35,6 +41,17 @@ public interface FundNavMapper extends BaseMapper<FundNav> {
             "ORDER BY nav_date DESC LIMIT 1")
     FundNav selectLatestNav(String fundCode);
 
+    /**
+     * 批量查询多只基金的最新净值
+     */
+    @Select("<script>" +
+            "SELECT n.fund_code, n.nav_date, n.unit_nav, n.accum_nav, n.daily_return FROM fund_nav n " +
+            "INNER JOIN (SELECT fund_code, MAX(nav_date) AS nav_date FROM fund_nav WHERE fund_code IN " +
+            "<foreach collection='fundCodes' item='code' open='(' separator=',' close=')'>#{code}</foreach> " +
+            "GROUP BY fund_code) latest ON n.fund_code = latest.fund_code AND n.nav_date = latest.nav_date" +
+            "</script>")
+    List<FundNav> selectLatestNavs(@Param("fundCodes") Collection<String> fundCodes);
+
     /**
      * 查询前一交易日净值（优化：只查询必要字段）
      */
@@ -52,6 +69,40 @@ public interface FundNavMapper extends BaseMapper<FundNav> {
             "ORDER BY nav_date DESC LIMIT #{limit}")
     List<FundNav> selectRecentByCode(@Param("fundCode") String fundCode, @Param("limit") int limit);
 
+    /**
+     * 按基金、净值日期顺序流式读取指定基金的净值（回测用）
+     */
+    @Select("<script>" +
+            "SELECT fund_code, nav_date, unit_nav, daily_return FROM fund_nav WHERE fund_code IN " +
+            "<foreach collection='fundCodes' item='code' open='(' separator=',' close=')'>#{code}</foreach> " +
+            "AND nav_date BETWEEN #{startDate} AND #{endDate} " +
+            "ORDER BY fund_code, nav_date" +
+            "</script>")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultType(FundNav.class)
+    void streamHistory(@Param("fundCodes") List<String> fundCodes,
+                       @Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate,
+                       ResultHandler<FundNav> handler);
+
+    /**
+     * 按基金、净值日期顺序流式读取指定基金的全部净值（净值序列存储构建用）
+     */
+    @Select("<script>" +
+            "SELECT fund_code, nav_date, unit_nav, accum_nav, daily_return FROM fund_nav WHERE fund_code IN " +
+            "<foreach collection='fundCodes' item='code' open='(' separator=',' close=')'>#{code}</foreach> " +
+            "ORDER BY fund_code, nav_date" +
+            "</script>")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultType(FundNav.class)
+    void streamByFunds(@Param("fundCodes") Collection<String> fundCodes, ResultHandler<FundNav> handler);
+
+    /**
+     * 每只基金的最新净值日期与净值条数
+     */
+    @Select("SELECT fund_code, MAX(nav_date) AS last_nav_date, COUNT(*) AS nav_count FROM fund_nav GROUP BY fund_code")
+    List<FundNavStat> selectNavStats();
+
     /**
      * 删除基金所有净值记录（用于刷新）
      */
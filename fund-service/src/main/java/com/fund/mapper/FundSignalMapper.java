@@ -0,0 +1,54 @@
+package com.fund.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.fund.entity.FundSignal;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 决策信号Mapper
+ */
+@Mapper
+public interface FundSignalMapper extends BaseMapper<FundSignal> {
+    
+    /**
+     * 批量写入或覆盖信号
+     */
+    @Insert("<script>" +
+            "INSERT INTO fund_signal (fund_code, calc_date, signal_type, reason_mask, pe_percentile, sharpe_ratio, buy_score, sell_score, " +
+            "quality_level, confidence, calc_batch, rule_version) VALUES " +
+            "<foreach collection='list' item='s' separator=','>" +
+            "(#{s.fundCode}, #{s.calcDate}, #{s.signalType}, #{s.reasonMask}, #{s.pePercentile}, #{s.sharpeRatio}, #{s.buyScore}, #{s.sellScore}, " +
+            "#{s.qualityLevel}, #{s.confidence}, #{s.calcBatch}, #{s.ruleVersion})" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE calc_date = VALUES(calc_date), signal_type = VALUES(signal_type), " +
+            "reason_mask = VALUES(reason_mask), pe_percentile = VALUES(pe_percentile), " +
+            "sharpe_ratio = VALUES(sharpe_ratio), buy_score = VALUES(buy_score), sell_score = VALUES(sell_score), " +
+            "quality_level = VALUES(quality_level), confidence = VALUES(confidence), calc_batch = VALUES(calc_batch), " +
+            "rule_version = VALUES(rule_version)" +
+            "</script>")
+    int batchUpsert(@Param("list") List<FundSignal> signals);
+    
+    /**
+     * 清理非本批次的信号（基金已下架或已无指标）
+     */
+    @Delete("DELETE FROM fund_signal WHERE calc_batch <> #{calcBatch}")
+    int deleteOtherBatches(@Param("calcBatch") long calcBatch);
+    
+    /**
+     * 按信号类型查询，置信度降序
+     */
+    @Select("SELECT * FROM fund_signal WHERE signal_type = #{signalType} ORDER BY confidence DESC, fund_code")
+    List<FundSignal> selectBySignalType(@Param("signalType") int signalType);
+    
+    /**
+     * 统计非指定规则版本计算的信号条数
+     */
+    @Select("SELECT COUNT(*) FROM fund_signal WHERE rule_version IS NULL OR rule_version <> #{ruleVersion}")
+    long countOtherRuleVersions(@Param("ruleVersion") long ruleVersion);
+}
@@ -0,0 +1,61 @@
+package com.fund.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.fund.entity.PortfolioPosition;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 持仓汇总Mapper
+ */
+@Mapper
+public interface PortfolioPositionMapper extends BaseMapper<PortfolioPosition> {
+    
+    /**
+     * 按一笔交易的增量更新持仓（行锁内原子累加，须与交易插入在同一事务中）
+     */
+    @Insert("INSERT INTO portfolio_position (fund_code, total_shares, total_cost, trade_count, last_trade_id) " +
+            "VALUES (#{fundCode}, #{shareDelta}, #{costDelta}, 1, #{tradeId}) " +
+            "ON DUPLICATE KEY UPDATE total_shares = total_shares + VALUES(total_shares), " +
+            "total_cost = total_cost + VALUES(total_cost), trade_count = trade_count + 1, " +
+            "last_trade_id = VALUES(last_trade_id)")
+    int applyDelta(@Param("fundCode") String fundCode,
+                   @Param("shareDelta") BigDecimal shareDelta,
+                   @Param("costDelta") BigDecimal costDelta,
+                   @Param("tradeId") Long tradeId);
+    
+    /**
+     * 查询当前持有的基金（份额大于0）
+     */
+    @Select("SELECT * FROM portfolio_position WHERE total_shares > 0 ORDER BY fund_code")
+    List<PortfolioPosition> selectHeld();
+    
+    /**
+     * 加锁读取单只基金持仓（持仓调整时防止并发修改）
+     */
+    @Select("SELECT * FROM portfolio_position WHERE fund_code = #{fundCode} FOR UPDATE")
+    PortfolioPosition selectForUpdate(String fundCode);
+    
+    /**
+     * 清空持仓汇总（重建用）
+     */
+    @Delete("DELETE FROM portfolio_position")
+    int deleteAll();
+    
+    /**
+     * 按交易流水重建持仓汇总，口径与逐笔增量一致：买入加份额与成本，卖出只减份额
+     */
+    @Insert("INSERT INTO portfolio_position (fund_code, total_shares, total_cost, trade_count, last_trade_id) " +
+            "SELECT fund_code, " +
+            "SUM(CASE trade_type WHEN 1 THEN trade_share WHEN 2 THEN -trade_share ELSE 0 END), " +
+            "SUM(CASE trade_type WHEN 1 THEN trade_amount + IFNULL(trade_fee, 0) ELSE 0 END), " +
+            "COUNT(*), MAX(id) " +
+            "FROM portfolio_trade GROUP BY fund_code")
+    int rebuildFromTrades();
+}
@@ -2,11 +2,17 @@ package com.fund.mapper.watchlist;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.fund.entity.watchlist.FundEstimateIntraday;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -17,6 +23,55 @@ public interface FundEstimateIntradayMapper extends BaseMapper<FundEstimateIntra
     @Select("SELECT * FROM fund_estimate_intraday WHERE fund_code = #{fundCode} ORDER BY estimate_time DESC LIMIT 1")
     FundEstimateIntraday selectLatest(@Param("fundCode") String fundCode);
     
+    /**
+     * 批量查询多只基金在指定交易日的最新估值（同一时刻多条时调用方取 id 最大者）
+     */
+    @Select("<script>" +
+            "SELECT e.* FROM fund_estimate_intraday e " +
+            "INNER JOIN (SELECT fund_code, MAX(estimate_time) AS estimate_time FROM fund_estimate_intraday " +
+            "WHERE trade_date = #{tradeDate} AND fund_code IN " +
+            "<foreach collection='fundCodes' item='code' open='(' separator=',' close=')'>#{code}</foreach> " +
+            "GROUP BY fund_code) latest ON e.fund_code = latest.fund_code AND e.estimate_time = latest.estimate_time " +
+            "WHERE e.trade_date = #{tradeDate}" +
+            "</script>")
+    List<FundEstimateIntraday> selectLatestByFunds(@Param("fundCodes") Collection<String> fundCodes,
+                                                   @Param("tradeDate") LocalDate tradeDate);
+    
+    /**
+     * 估值表最大ID（每写入一个估值点即递增，用作估值版本号）
+     */
+    @Select("SELECT MAX(id) FROM fund_estimate_intraday")
+    Long selectMaxId();
+    
+    /**
+     * 按ID顺序流式读取某交易日的估值点（内存缓存启动加载用）
+     */
+    @Select("SELECT * FROM fund_estimate_intraday WHERE trade_date = #{tradeDate} AND id <= #{maxId} ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultType(FundEstimateIntraday.class)
+    void streamByTradeDate(@Param("tradeDate") LocalDate tradeDate, @Param("maxId") long maxId,
+                           ResultHandler<FundEstimateIntraday> handler);
+    
+    /**
+     * 读取指定ID之后新写入的估值点（内存缓存增量同步用）
+     */
+    @Select("SELECT * FROM fund_estimate_intraday WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<FundEstimateIntraday> selectAfterId(@Param("afterId") long afterId, @Param("limit") int limit);
+    
+    /**
+     * 多行批量写入估值点（回填自增ID）
+     */
+    @Insert("<script>" +
+            "INSERT INTO fund_estimate_intraday (fund_code, estimate_time, estimate_nav, estimate_change_pct, " +
+            "estimate_change_amt, pre_close_nav, trade_date, data_source, is_trading_time) VALUES " +
+            "<foreach collection='list' item='e' separator=','>" +
+            "(#{e.fundCode}, #{e.estimateTime}, #{e.estimateNav}, #{e.estimateChangePct}, #{e.estimateChangeAmt}, " +
+            "#{e.preCloseNav}, #{e.tradeDate}, #{e.dataSource}, #{e.isTradingTime})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insertBatch(List<FundEstimateIntraday> list);
+    
     @Select("SELECT * FROM fund_estimate_intraday WHERE fund_code = #{fundCode} AND estimate_time > #{time} ORDER BY estimate_time")
     List<FundEstimateIntraday> selectAfterTime(@Param("fundCode") String fundCode, @Param("time") LocalDateTime time);
 }
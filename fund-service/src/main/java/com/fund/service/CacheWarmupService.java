@@ -13,6 +13,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Async;
@@ -44,19 +46,22 @@ public class CacheWarmupService implements ApplicationRunner {
     private final CacheUtil cacheUtil;
     private final RedissonClient redissonClient;
     private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
     
     public CacheWarmupService(FundInfoMapper fundInfoMapper,
                               FundMetricsMapper fundMetricsMapper,
                               FundService fundService,
                               CacheUtil cacheUtil,
                               RedissonClient redissonClient,
-                              StringRedisTemplate redisTemplate) {
+                              StringRedisTemplate redisTemplate,
+                              CacheManager cacheManager) {
         this.fundInfoMapper = fundInfoMapper;
         this.fundMetricsMapper = fundMetricsMapper;
         this.fundService = fundService;
         this.cacheUtil = cacheUtil;
         this.redissonClient = redissonClient;
         this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
     }
     
     /**
@@ -259,9 +264,22 @@ public class CacheWarmupService implements ApplicationRunner {
         redisTemplate.delete(RedisConfig.CACHE_FUND_TOP + "::" + fundCode);
         redisTemplate.delete(RedisConfig.CACHE_FUND_TOP + "::metrics:" + fundCode);
         
+        // 经缓存管理器删除，同时让各节点的本地一级缓存失效
+        evict(RedisConfig.CACHE_FUND_DETAIL, fundCode + "_v2");
+        evict(RedisConfig.CACHE_FUND_METRICS, fundCode);
+        evict(RedisConfig.CACHE_FUND_TOP, fundCode);
+        evict(RedisConfig.CACHE_FUND_TOP, "metrics:" + fundCode);
+        
         log.info("已清除基金缓存: {}", fundCode);
     }
     
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+    
     /**
      * 获取缓存统计信息
      */
@@ -4,6 +4,7 @@ import com.fund.entity.FundInfo;
 import com.fund.entity.FundMetrics;
 import com.fund.entity.FundNav;
 import com.fund.service.collect.CollectResult;
+import com.fund.service.collect.CollectorGuard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -12,13 +13,51 @@ import java.util.List;
 
 /**
  * 采集降级服务
- * 当 Python 服务不可用时的降级处理
+ * 当 Python 服务不可用时的降级处理：采集接口熔断时不再排队等待，直接回退到本地库中的旧数据
  */
 @Service
 public class CollectFallbackService {
 
     private static final Logger log = LoggerFactory.getLogger(CollectFallbackService.class);
 
+    private final CollectorGuard collectorGuard;
+
+    public CollectFallbackService(CollectorGuard collectorGuard) {
+        this.collectorGuard = collectorGuard;
+    }
+
+    /**
+     * 采集接口当前是否可调用（熔断未打开）
+     *
+     * @param dataType 数据类型（info/metrics/nav）
+     * @return false - 应直接降级
+     */
+    public boolean isCollectorAvailable(String dataType) {
+        return collectorGuard.isAvailable(dataType);
+    }
+
+    /**
+     * 采集结果是否应走降级：超时、服务异常、熔断限流（而不是"数据确实不存在"）
+     */
+    public boolean shouldFallback(CollectResult<?> result) {
+        return result == null || result.isTransientFailure();
+    }
+
+    /**
+     * 回退到本地旧数据（可能不完整或为空），不写空值缓存
+     *
+     * @param fundCode 基金代码
+     * @param dataType 数据类型
+     * @param stale    本地库中的旧数据
+     * @param reason   降级原因
+     * @return 旧数据
+     */
+    public <T> T fallbackToStale(String fundCode, String dataType, T stale, String reason) {
+        log.warn("采集服务不可用，基金[{}]{}回退到本地数据（{}）: {}", fundCode, dataType,
+                stale != null ? "旧数据" : "无数据", reason);
+        return stale;
+    }
+
     /**
      * 获取基金信息降级处理
      * 当采集服务不可用时返回部分数据或null
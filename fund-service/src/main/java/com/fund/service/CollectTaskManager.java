@@ -1,17 +1,23 @@
 package com.fund.service;
 
+import com.fund.service.collect.ClusterSingleFlight;
+import com.fund.service.collect.CollectExecutor;
+import com.fund.service.collect.CollectPriority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
  * 采集任务管理器
- * 防止对同一基金的并发请求触发多次 Python 采集
+ * 防止对同一基金的并发请求触发多次 Python 采集：本节点内按任务key合并，多节点间经 Redis 租约合并；
+ * 任务交给按数据类型划分的采集执行器执行
  */
 @Component
 public class CollectTaskManager {
@@ -24,19 +30,33 @@ public class CollectTaskManager {
     // 默认超时时间：15秒
     private static final long DEFAULT_TIMEOUT_SECONDS = 15;
 
+    private static final String KEY_PREFIX = "collect:";
+
+    // 非 collect:type:code 格式的 key 使用的线程池
+    private static final String DEFAULT_TYPE = "default";
+
+    private final CollectExecutor collectExecutor;
+    private final ClusterSingleFlight singleFlight;
+
+    public CollectTaskManager(CollectExecutor collectExecutor, ClusterSingleFlight singleFlight) {
+        this.collectExecutor = collectExecutor;
+        this.singleFlight = singleFlight;
+    }
+
     /**
      * 执行任务（带并发控制）
      * 如果同一key的任务正在进行，则等待该任务完成并返回结果
      * 如果没有进行中的任务，则创建新任务执行
      *
      * @param taskKey    任务唯一标识
+     * @param priority   优先级
      * @param task       任务执行逻辑
      * @param timeoutSec 超时时间（秒）
      * @param <T>        返回类型
-     * @return 任务结果
+     * @return 任务结果；采集队列已满时返回 null
      */
     @SuppressWarnings("unchecked")
-    public <T> T execute(String taskKey, Supplier<T> task, long timeoutSec) {
+    public <T> T execute(String taskKey, CollectPriority priority, Supplier<T> task, long timeoutSec) {
         // 检查是否已有进行中的任务
         CompletableFuture<T> future = (CompletableFuture<T>) pendingTasks.get(taskKey);
 
@@ -50,18 +70,8 @@ public class CollectTaskManager {
             }
         }
 
-        // 创建新任务
-        CompletableFuture<T> newFuture = CompletableFuture.supplyAsync(() -> {
-            try {
-                log.info("开始执行任务[{}]", taskKey);
-                return task.get();
-            } catch (Exception e) {
-                log.error("任务[{}]执行异常", taskKey, e);
-                throw new RuntimeException(e);
-            }
-        });
-
-        // 放入任务池（仅当不存在时才放入）
+        // 先占位再提交，保证同一key只提交一次
+        CompletableFuture<T> newFuture = new CompletableFuture<>();
         CompletableFuture<?> existing = pendingTasks.putIfAbsent(taskKey, newFuture);
 
         if (existing != null) {
@@ -75,9 +85,40 @@ public class CollectTaskManager {
             }
         }
 
-        // 任务完成后清理
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSec);
+        CompletableFuture<T> running;
+        try {
+            running = collectExecutor.submit(dataTypeOf(taskKey), priority, () -> {
+                try {
+                    log.info("开始执行任务[{}]", taskKey);
+                    // 等待其他节点最多用去剩余时间的一半，留出超时后本节点自行采集的时间
+                    Duration maxWait = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()) / 2);
+                    return singleFlight.execute(taskKey, task, maxWait);
+                } catch (Exception e) {
+                    log.error("任务[{}]执行异常", taskKey, e);
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("任务[{}]被拒绝: {}", taskKey, e.getMessage());
+            pendingTasks.remove(taskKey, newFuture);
+            newFuture.completeExceptionally(e);
+            return null;
+        }
+        running.whenComplete((result, ex) -> {
+            if (ex != null) {
+                newFuture.completeExceptionally(ex);
+            } else {
+                newFuture.complete(result);
+            }
+        });
+
+        // 任务完成后清理（只移除本任务的占位，不误删同一key下新注册的任务；取消时一并撤下尚未开始的执行）
         newFuture.whenComplete((result, ex) -> {
-            pendingTasks.remove(taskKey);
+            pendingTasks.remove(taskKey, newFuture);
+            if (newFuture.isCancelled()) {
+                running.cancel(false);
+            }
             if (ex != null) {
                 log.error("任务[{}]完成但发生异常", taskKey, ex);
             } else {
@@ -90,11 +131,38 @@ public class CollectTaskManager {
             return newFuture.get(timeoutSec, TimeUnit.SECONDS);
         } catch (Exception e) {
             log.error("等待任务[{}]结果超时或异常", taskKey, e);
-            pendingTasks.remove(taskKey);
+            // 调用方已放弃：取消后排队中的执行会被采集线程池跳过
+            newFuture.cancel(false);
             return null;
         }
     }
 
+    /**
+     * 执行任务（用户请求优先级）
+     *
+     * @param taskKey    任务唯一标识
+     * @param task       任务执行逻辑
+     * @param timeoutSec 超时时间（秒）
+     * @param <T>        返回类型
+     * @return 任务结果
+     */
+    public <T> T execute(String taskKey, Supplier<T> task, long timeoutSec) {
+        return execute(taskKey, CollectPriority.USER, task, timeoutSec);
+    }
+
+    /**
+     * 执行任务（指定优先级，使用默认超时时间）
+     *
+     * @param taskKey  任务唯一标识
+     * @param priority 优先级
+     * @param task     任务执行逻辑
+     * @param <T>      返回类型
+     * @return 任务结果
+     */
+    public <T> T execute(String taskKey, CollectPriority priority, Supplier<T> task) {
+        return execute(taskKey, priority, task, DEFAULT_TIMEOUT_SECONDS);
+    }
+
     /**
      * 执行任务（使用默认超时时间）
      *
@@ -150,6 +218,19 @@ public class CollectTaskManager {
      * @return 任务key
      */
     public static String buildTaskKey(String dataType, String fundCode) {
-        return "collect:" + dataType + ":" + fundCode;
+        return KEY_PREFIX + dataType + ":" + fundCode;
+    }
+
+    /**
+     * 从任务key解析数据类型（collect:type:code）
+     */
+    static String dataTypeOf(String taskKey) {
+        if (taskKey.startsWith(KEY_PREFIX)) {
+            int end = taskKey.indexOf(':', KEY_PREFIX.length());
+            if (end > KEY_PREFIX.length()) {
+                return taskKey.substring(KEY_PREFIX.length(), end);
+            }
+        }
+        return DEFAULT_TYPE;
     }
 }
@@ -4,12 +4,14 @@ import com.fund.dto.FundEstimateDTO;
 import com.fund.dto.FundEstimateVO;
 import com.fund.entity.FundInfo;
 import com.fund.mapper.FundInfoMapper;
-import org.redisson.api.RMap;
-import org.redisson.api.RedissonClient;
-import org.redisson.client.RedisException;
+import com.fund.config.RedisConfig;
+import com.fund.service.collect.ClusterSingleFlight;
+import com.fund.service.collect.EstimateBatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
@@ -27,20 +29,23 @@ public class EstimateService {
     private static final Logger log = LoggerFactory.getLogger(EstimateService.class);
 
     private final FundInfoMapper fundInfoMapper;
-    private final CollectClient collectClient;
+    private final EstimateBatcher estimateBatcher;
+    private final ClusterSingleFlight singleFlight;
 
     @Autowired(required = false)
-    private RedissonClient redissonClient;
+    private CacheManager cacheManager;
 
-    public EstimateService(FundInfoMapper fundInfoMapper, CollectClient collectClient) {
+    public EstimateService(FundInfoMapper fundInfoMapper, EstimateBatcher estimateBatcher,
+                           ClusterSingleFlight singleFlight) {
         this.fundInfoMapper = fundInfoMapper;
-        this.collectClient = collectClient;
+        this.estimateBatcher = estimateBatcher;
+        this.singleFlight = singleFlight;
     }
 
     /**
      * 获取基金实时估值（带缓存异常降级）
      * 从Python采集服务获取真实实时数据
-     * 缓存2分钟
+     * 缓存5分钟（fund:estimate）
      */
     public FundEstimateVO getEstimate(String fundCode) {
         log.debug("获取基金实时估值: {}", fundCode);
@@ -60,20 +65,11 @@ public class EstimateService {
     }
 
     /**
-     * 从缓存获取估值
+     * 从缓存获取估值（与 @CacheEvict 共用 fund:estimate 缓存及其编码）
      */
     private FundEstimateVO getEstimateFromCache(String fundCode) {
-        if (redissonClient == null) {
-            return null;
-        }
-        try {
-            RMap<String, FundEstimateVO> map = redissonClient.getMap("fund:estimate");
-            return map.get(fundCode);
-        } catch (RedisException e) {
-            log.error("缓存格式错误，清除缓存后重试: {}", e.getMessage());
-            clearCorruptedCache("fund:estimate");
-            return null;
-        }
+        Cache cache = estimateCache();
+        return cache != null ? cache.get(fundCode, FundEstimateVO.class) : null;
     }
 
     /**
@@ -81,10 +77,10 @@ public class EstimateService {
      */
     private FundEstimateVO getEstimateFromSource(String fundCode) {
         FundEstimateVO estimate = doGetEstimate(fundCode);
-        if (estimate != null && redissonClient != null) {
+        Cache cache = estimateCache();
+        if (estimate != null && cache != null) {
             try {
-                RMap<String, FundEstimateVO> map = redissonClient.getMap("fund:estimate");
-                map.put(fundCode, estimate);
+                cache.put(fundCode, estimate);
             } catch (Exception e) {
                 log.warn("写入缓存失败: {}", e.getMessage());
             }
@@ -92,17 +88,8 @@ public class EstimateService {
         return estimate;
     }
 
-    /**
-     * 清除损坏的缓存
-     */
-    private void clearCorruptedCache(String cacheKey) {
-        try {
-            redissonClient.getKeys().delete(cacheKey);
-            redissonClient.getKeys().delete("redisson__timeout__set:{" + cacheKey + "}");
-            log.info("已清除损坏的缓存: {}", cacheKey);
-        } catch (Exception ex) {
-            log.error("清除缓存失败: {}", ex.getMessage());
-        }
+    private Cache estimateCache() {
+        return cacheManager != null ? cacheManager.getCache(RedisConfig.CACHE_ESTIMATE) : null;
     }
 
     /**
@@ -121,8 +108,10 @@ public class EstimateService {
             return null;
         }
 
-        // 调用Python采集服务获取实时估值
-        FundEstimateDTO dto = collectClient.collectEstimate(fundCode);
+        // 调用Python采集服务获取实时估值：多节点间同一基金只由一个节点采集，
+        // 本节点内与其他基金的并发请求合批、同一基金在途请求合并；等待其他节点最多用去合批等待上限的一半
+        FundEstimateDTO dto = singleFlight.execute(CollectTaskManager.buildTaskKey("estimate", fundCode),
+                () -> estimateBatcher.collect(fundCode), estimateBatcher.waitTimeout().dividedBy(2));
 
         if (dto == null) {
             log.warn("无法获取实时估值: {}", fundCode);
@@ -7,7 +7,11 @@ import com.fund.mapper.FundInfoMapper;
 import com.fund.mapper.FundMetricsMapper;
 import com.fund.mapper.FundNavMapper;
 import com.fund.service.collect.CollectClient;
+import com.fund.service.collect.CollectPriority;
 import com.fund.service.collect.CollectResult;
+import com.fund.service.metrics.RollingMetricsEngine;
+import com.fund.service.navstore.NavSeriesStore;
+import com.fund.service.search.FundSearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +21,7 @@ import org.springframework.util.StringUtils;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * 基金数据获取服务
@@ -46,6 +51,18 @@ public class FundDataFetchService {
     @Autowired
     private CollectTaskManager collectTaskManager;
 
+    @Autowired
+    private CollectFallbackService collectFallbackService;
+
+    @Autowired
+    private FundSearchIndex fundSearchIndex;
+
+    @Autowired
+    private NavSeriesStore navSeriesStore;
+
+    @Autowired
+    private RollingMetricsEngine rollingMetricsEngine;
+
     // 空值缓存TTL
     private static final Duration EMPTY_CACHE_TTL = Duration.ofMinutes(30);
 
@@ -106,6 +123,11 @@ public class FundDataFetchService {
                     StringUtils.hasText(fundInfo.getCompanyName()) ? "✓" : "✗");
             }
             
+            // 采集接口熔断中：直接返回本地数据，不排队等待
+            if (!collectFallbackService.isCollectorAvailable("info")) {
+                return collectFallbackService.fallbackToStale(fundCode, "基本信息", fundInfo, "熔断中");
+            }
+            
             // 触发采集（带并发控制）
             String taskKey = CollectTaskManager.buildTaskKey("info", fundCode);
             CollectResult<FundInfo> result = collectTaskManager.execute(taskKey, () -> {
@@ -120,6 +142,7 @@ public class FundDataFetchService {
                     if (fundInfo == null) {
                         fundInfoMapper.insert(newInfo);
                         fundInfo = newInfo;
+                        fundSearchIndex.upsert(fundInfoMapper.selectById(fundCode));
                         log.info("基金[{}]基本信息自动采集完成并保存", fundCode);
                     } else {
                         // 更新现有记录，保留已有数据
@@ -127,11 +150,16 @@ public class FundDataFetchService {
                         fundInfoMapper.updateById(newInfo);
                         // 重新查询获取更新后的数据
                         fundInfo = fundInfoMapper.selectById(fundCode);
+                        fundSearchIndex.upsert(fundInfo);
                         log.info("基金[{}]基本信息自动补全完成", fundCode);
                     }
                 } catch (Exception e) {
                     log.error("基金[{}]基本信息自动保存失败: {}", fundCode, e.getMessage());
                 }
+            } else if (collectFallbackService.shouldFallback(result)) {
+                // 暂时性失败不代表基金不存在，不写空值缓存
+                return collectFallbackService.fallbackToStale(fundCode, "基本信息", fundInfo,
+                        result != null ? result.getMessage() : "采集超时");
             } else {
                 // 采集失败，只有原数据不存在时才设置空值缓存
                 if (fundInfo == null) {
@@ -172,6 +200,22 @@ public class FundDataFetchService {
                 log.info("基金[{}]指标数据不完整，触发自动补全", fundCode);
             }
             
+            // 本地有足够净值时直接计算，不走远程采集
+            FundMetrics local = rollingMetricsEngine.compute(fundCode);
+            if (isMetricsComplete(local)) {
+                try {
+                    fundMetricsMapper.upsertBatch(List.of(local));
+                    log.info("基金[{}]指标数据本地计算完成", fundCode);
+                } catch (Exception e) {
+                    log.error("基金[{}]指标数据本地计算结果保存失败: {}", fundCode, e.getMessage());
+                }
+                return local;
+            }
+            
+            if (!collectFallbackService.isCollectorAvailable("metrics")) {
+                return collectFallbackService.fallbackToStale(fundCode, "指标数据", metrics, "熔断中");
+            }
+            
             String taskKey = CollectTaskManager.buildTaskKey("metrics", fundCode);
             CollectResult<FundMetrics> result = collectTaskManager.execute(taskKey, () -> {
                 log.info("自动采集基金[{}]指标数据", fundCode);
@@ -192,6 +236,9 @@ public class FundDataFetchService {
                 } catch (Exception e) {
                     log.error("基金[{}]指标数据自动保存失败: {}", fundCode, e.getMessage());
                 }
+            } else if (collectFallbackService.shouldFallback(result)) {
+                return collectFallbackService.fallbackToStale(fundCode, "指标数据", metrics,
+                        result != null ? result.getMessage() : "采集超时");
             } else {
                 if (metrics == null) {
                     emptyCacheService.setEmptyCache(fundCode, EmptyCacheService.DataType.METRICS, EMPTY_CACHE_TTL);
@@ -223,6 +270,11 @@ public class FundDataFetchService {
             log.info("基金[{}]NAV历史不足{}条（当前{}条），触发自动采集", 
                 fundCode, 10, navList != null ? navList.size() : 0);
             
+            if (!collectFallbackService.isCollectorAvailable("nav")) {
+                return collectFallbackService.fallbackToStale(fundCode, "NAV历史",
+                        navList != null ? navList : List.<FundNav>of(), "熔断中");
+            }
+            
             String taskKey = CollectTaskManager.buildTaskKey("nav", fundCode);
             CollectResult<List<FundNav>> result = collectTaskManager.execute(taskKey, () -> {
                 log.info("自动采集基金[{}]NAV历史", fundCode);
@@ -241,6 +293,7 @@ public class FundDataFetchService {
                                 // 忽略重复插入错误
                             }
                         }
+                        navSeriesStore.refresh(fundCode);
                         // 重新查询
                         navList = fundNavMapper.selectRecentByCode(fundCode, 30);
                         log.info("基金[{}]NAV历史自动采集完成，共{}条", fundCode, navList.size());
@@ -248,6 +301,10 @@ public class FundDataFetchService {
                         log.error("基金[{}]NAV历史自动保存失败: {}", fundCode, e.getMessage());
                     }
                 }
+            } else if (collectFallbackService.shouldFallback(result)) {
+                return collectFallbackService.fallbackToStale(fundCode, "NAV历史",
+                        navList != null ? navList : List.<FundNav>of(),
+                        result != null ? result.getMessage() : "采集超时");
             } else {
                 if (navList == null || navList.isEmpty()) {
                     emptyCacheService.setEmptyCache(fundCode, EmptyCacheService.DataType.NAV, EMPTY_CACHE_TTL);
@@ -263,10 +320,15 @@ public class FundDataFetchService {
      * 强制刷新基金基本信息（手动兜底）
      */
     public CollectResult<FundInfo> refreshFundInfo(String fundCode) {
+        return refreshFundInfo(fundCode, CollectPriority.USER);
+    }
+
+    private CollectResult<FundInfo> refreshFundInfo(String fundCode, CollectPriority priority) {
         log.info("强制刷新基金[{}]基本信息", fundCode);
         emptyCacheService.clearEmptyCache(fundCode, EmptyCacheService.DataType.INFO);
         
-        CollectResult<FundInfo> result = collectClient.collectFundInfo(fundCode);
+        CollectResult<FundInfo> result = collect("info", fundCode, priority,
+                () -> collectClient.collectFundInfo(fundCode));
         if (result.isSuccess()) {
             FundInfo fundInfo = result.getData();
             try {
@@ -276,6 +338,8 @@ public class FundDataFetchService {
                 } else {
                     fundInfoMapper.insert(fundInfo);
                 }
+                // 同步刷新内存检索索引（以数据库中的完整记录为准）
+                fundSearchIndex.upsert(fundInfoMapper.selectById(fundCode));
                 log.info("基金[{}]基本信息手动刷新完成", fundCode);
             } catch (Exception e) {
                 log.error("基金[{}]基本信息手动刷新保存失败: {}", fundCode, e.getMessage());
@@ -288,10 +352,15 @@ public class FundDataFetchService {
      * 强制刷新基金指标数据（手动兜底）
      */
     public CollectResult<FundMetrics> refreshFundMetrics(String fundCode) {
+        return refreshFundMetrics(fundCode, CollectPriority.USER);
+    }
+
+    private CollectResult<FundMetrics> refreshFundMetrics(String fundCode, CollectPriority priority) {
         log.info("强制刷新基金[{}]指标数据", fundCode);
         emptyCacheService.clearEmptyCache(fundCode, EmptyCacheService.DataType.METRICS);
         
-        CollectResult<FundMetrics> result = collectClient.collectFundMetrics(fundCode);
+        CollectResult<FundMetrics> result = collect("metrics", fundCode, priority,
+                () -> collectClient.collectFundMetrics(fundCode));
         if (result.isSuccess()) {
             FundMetrics metrics = result.getData();
             try {
@@ -313,10 +382,15 @@ public class FundDataFetchService {
      * 强制刷新基金NAV历史（手动兜底）
      */
     public CollectResult<List<FundNav>> refreshNavHistory(String fundCode) {
+        return refreshNavHistory(fundCode, CollectPriority.USER);
+    }
+
+    private CollectResult<List<FundNav>> refreshNavHistory(String fundCode, CollectPriority priority) {
         log.info("强制刷新基金[{}]NAV历史", fundCode);
         emptyCacheService.clearEmptyCache(fundCode, EmptyCacheService.DataType.NAV);
         
-        CollectResult<List<FundNav>> result = collectClient.collectNavHistory(fundCode);
+        CollectResult<List<FundNav>> result = collect("nav", fundCode, priority,
+                () -> collectClient.collectNavHistory(fundCode));
         if (result.isSuccess()) {
             List<FundNav> navList = result.getData();
             if (navList != null && !navList.isEmpty()) {
@@ -325,6 +399,7 @@ public class FundDataFetchService {
                     for (FundNav nav : navList) {
                         fundNavMapper.insert(nav);
                     }
+                    navSeriesStore.refresh(fundCode);
                     log.info("基金[{}]NAV历史手动刷新完成，共{}条", fundCode, navList.size());
                 } catch (Exception e) {
                     log.error("基金[{}]NAV历史手动刷新保存失败: {}", fundCode, e.getMessage());
@@ -335,7 +410,7 @@ public class FundDataFetchService {
     }
 
     /**
-     * 批量刷新基金数据（手动兜底 - 批量模式）
+     * 批量刷新基金数据（手动兜底 - 批量模式，走后台优先级，不挤占用户请求）
      */
     public List<String> batchRefreshFunds(List<String> fundCodes) {
         log.info("批量刷新{}只基金数据", fundCodes.size());
@@ -344,9 +419,9 @@ public class FundDataFetchService {
         for (String fundCode : fundCodes) {
             try {
                 // 刷新所有类型数据
-                refreshFundInfo(fundCode);
-                refreshFundMetrics(fundCode);
-                refreshNavHistory(fundCode);
+                refreshFundInfo(fundCode, CollectPriority.BACKGROUND);
+                refreshFundMetrics(fundCode, CollectPriority.BACKGROUND);
+                refreshNavHistory(fundCode, CollectPriority.BACKGROUND);
                 results.add(fundCode + ": 成功");
             } catch (Exception e) {
                 results.add(fundCode + ": 失败 - " + e.getMessage());
@@ -355,4 +430,14 @@ public class FundDataFetchService {
         
         return results;
     }
+
+    /**
+     * 经采集执行器执行采集（同一基金同类型并发合并）；被拒绝或超时时返回失败结果
+     */
+    private <T> CollectResult<T> collect(String dataType, String fundCode, CollectPriority priority,
+                                         Supplier<CollectResult<T>> task) {
+        CollectResult<T> result = collectTaskManager.execute(
+                CollectTaskManager.buildTaskKey(dataType, fundCode), priority, task);
+        return result != null ? result : CollectResult.serviceError("采集任务被拒绝或超时: " + fundCode);
+    }
 }
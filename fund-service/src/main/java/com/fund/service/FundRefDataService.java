@@ -0,0 +1,70 @@
+package com.fund.service;
+
+import com.fund.entity.FundInfo;
+import com.fund.mapper.FundInfoMapper;
+import com.fund.service.search.FundSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基金基础数据批量解析
+ * 优先从内存检索索引取名称/类型/风险等级，未命中的基金（如已下架）合并为一次 IN 查询，
+ * 供各列表接口组装VO使用，避免逐行 selectById。返回的实体为共享对象，调用方不得修改
+ */
+@Service
+public class FundRefDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(FundRefDataService.class);
+
+    private final FundInfoMapper fundInfoMapper;
+    private final FundSearchIndex fundSearchIndex;
+
+    public FundRefDataService(FundInfoMapper fundInfoMapper, FundSearchIndex fundSearchIndex) {
+        this.fundInfoMapper = fundInfoMapper;
+        this.fundSearchIndex = fundSearchIndex;
+    }
+
+    /**
+     * 批量解析基金信息（不存在的代码不在结果中）
+     */
+    public Map<String, FundInfo> resolve(Collection<String> fundCodes) {
+        if (fundCodes == null || fundCodes.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, FundInfo> result = new HashMap<>(fundCodes.size() * 2);
+        List<String> missing = new ArrayList<>();
+        for (String code : new LinkedHashSet<>(fundCodes)) {
+            FundInfo info = fundSearchIndex.get(code);
+            if (info != null) {
+                result.put(code, info);
+            } else if (code != null) {
+                missing.add(code);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (FundInfo info : fundInfoMapper.selectBatchIds(missing)) {
+                result.put(info.getFundCode(), info);
+            }
+            log.debug("基金基础数据批量回源: 请求{}只, 回源{}只", fundCodes.size(), missing.size());
+        }
+        return result;
+    }
+
+    /**
+     * 解析单只基金信息
+     */
+    public FundInfo get(String fundCode) {
+        FundInfo info = fundSearchIndex.get(fundCode);
+        return info != null ? info : fundInfoMapper.selectById(fundCode);
+    }
+}
@@ -1,8 +1,11 @@
 package com.fund.service;
 
+import com.fund.dto.ChartRange;
 import com.fund.dto.FundInfoVO;
 import com.fund.dto.FundMetricsVO;
 import com.fund.dto.FundNavVO;
+import com.fund.dto.FundScreenRequest;
+import com.fund.dto.FundScreenResult;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
 import java.time.LocalDate;
@@ -39,6 +42,16 @@ public interface FundService {
      */
     List<FundNavVO> getNavHistory(String fundCode, LocalDate startDate, LocalDate endDate);
     
+    /**
+     * 获取净值历史并降采样到不超过 points 个点
+     */
+    List<FundNavVO> getNavHistory(String fundCode, LocalDate startDate, LocalDate endDate, int points);
+    
+    /**
+     * 获取标准区间（1M/3M/1Y/3Y/ALL）的降采样净值走势（缓存）
+     */
+    List<FundNavVO> getNavChart(String fundCode, ChartRange range, int points);
+    
     /**
      * 获取近期净值
      */
@@ -59,4 +72,9 @@ public interface FundService {
      */
     IPage<FundInfoVO> filterFundsByMetrics(IPage<FundInfoVO> page, String fundType,
                                            Double minSharpe, Double maxDrawdown);
+    
+    /**
+     * 多条件指标筛选（含类型分面统计）
+     */
+    FundScreenResult screenFunds(FundScreenRequest request);
 }
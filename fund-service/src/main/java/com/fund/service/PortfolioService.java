@@ -7,6 +7,7 @@ import com.fund.dto.TradeRequest;
 import com.fund.entity.FundInfo;
 import com.fund.entity.FundMetrics;
 import com.fund.entity.FundNav;
+import com.fund.entity.PortfolioPosition;
 import com.fund.entity.PortfolioTrade;
 import com.fund.mapper.FundInfoMapper;
 import com.fund.mapper.FundMetricsMapper;
@@ -15,44 +16,89 @@ import com.fund.dto.HoldingWithEstimateVO;
 import com.fund.dto.PortfolioSummary;
 import com.fund.dto.PortfolioSummaryVO;
 import com.fund.entity.watchlist.FundEstimateIntraday;
-import com.fund.mapper.watchlist.FundEstimateIntradayMapper;
+import com.fund.service.navstore.NavSeriesStore;
+import com.fund.service.rule.SignalRuleService;
+import com.fund.service.snapshot.MetricsSnapshot;
+import com.fund.service.snapshot.MetricsSnapshotService;
+import com.fund.service.watchlist.IntradayEstimateCache;
 import com.fund.service.watchlist.TradingCalendarService;
+import com.fund.util.FixedPoint;
+import com.fund.mapper.PortfolioPositionMapper;
 import com.fund.mapper.PortfolioTradeMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 持仓服务
+ * 交易流水为唯一事实来源，portfolio_position 在写交易的同一事务内增量维护，
+ * 持仓查询只读汇总表，不再回放全部交易
  */
 @Service
 public class PortfolioService {
     
+    private static final Logger log = LoggerFactory.getLogger(PortfolioService.class);
+    
+    // 估值缓存最长存活时间
+    private static final long VALUATION_MAX_AGE_MS = 60 * 1000;
+    
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    
     private final PortfolioTradeMapper tradeMapper;
+    private final PortfolioPositionMapper positionMapper;
     private final FundInfoMapper fundInfoMapper;
     private final FundNavMapper fundNavMapper;
+    private final NavSeriesStore navSeriesStore;
     private final FundMetricsMapper fundMetricsMapper;
-    private final FundEstimateIntradayMapper estimateMapper;
+    private final IntradayEstimateCache estimateCache;
     private final TradingCalendarService calendarService;
-
+    private final FundRefDataService fundRefDataService;
+    private final MetricsSnapshotService metricsSnapshotService;
+    private final SignalRuleService signalRuleService;
+    private final TransactionTemplate transactionTemplate;
+    
+    // 持仓版本：每次持仓变化的事务提交后递增
+    private final AtomicLong positionVersion = new AtomicLong();
+    private final Object valuationLock = new Object();
+    private volatile CachedValuation valuationCache;
     
     public PortfolioService(PortfolioTradeMapper tradeMapper,
+                          PortfolioPositionMapper positionMapper,
                           FundInfoMapper fundInfoMapper,
                           FundNavMapper fundNavMapper,
+                          NavSeriesStore navSeriesStore,
                           FundMetricsMapper fundMetricsMapper,
-                          FundEstimateIntradayMapper estimateMapper,
-                          TradingCalendarService calendarService) {
+                          IntradayEstimateCache estimateCache,
+                          TradingCalendarService calendarService,
+                          FundRefDataService fundRefDataService,
+                          MetricsSnapshotService metricsSnapshotService,
+                          SignalRuleService signalRuleService,
+                          TransactionTemplate transactionTemplate) {
         this.tradeMapper = tradeMapper;
+        this.positionMapper = positionMapper;
         this.fundInfoMapper = fundInfoMapper;
         this.fundNavMapper = fundNavMapper;
+        this.navSeriesStore = navSeriesStore;
         this.fundMetricsMapper = fundMetricsMapper;
-        this.estimateMapper = estimateMapper;
+        this.estimateCache = estimateCache;
         this.calendarService = calendarService;
+        this.fundRefDataService = fundRefDataService;
+        this.metricsSnapshotService = metricsSnapshotService;
+        this.signalRuleService = signalRuleService;
+        this.transactionTemplate = transactionTemplate;
     }
     
     /**
@@ -79,24 +125,91 @@ public class PortfolioService {
         trade.setTradeAmount(amount);
         trade.setRemark(request.getRemark());
         
+        insertTrade(trade);
+    }
+    
+    /**
+     * 写入交易并同步增量更新持仓汇总（调用方须处于事务中）
+     */
+    private void insertTrade(PortfolioTrade trade) {
         tradeMapper.insert(trade);
+        
+        // 口径与原逐笔回放一致：买入加份额与成本（含手续费），卖出只减份额
+        BigDecimal shareDelta = BigDecimal.ZERO;
+        BigDecimal costDelta = BigDecimal.ZERO;
+        if (trade.getTradeType() == 1) {
+            shareDelta = trade.getTradeShare();
+            costDelta = trade.getTradeAmount().add(trade.getTradeFee() != null ? trade.getTradeFee() : BigDecimal.ZERO);
+        } else if (trade.getTradeType() == 2) {
+            shareDelta = trade.getTradeShare().negate();
+        }
+        positionMapper.applyDelta(trade.getFundCode(), shareDelta, costDelta, trade.getId());
+        bumpPositionVersion();
+    }
+    
+    // 事务提交后再使估值缓存失效，避免提交前重算读到旧持仓并被缓存
+    private void bumpPositionVersion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    positionVersion.incrementAndGet();
+                }
+            });
+        } else {
+            positionVersion.incrementAndGet();
+        }
+    }
+    
+    /**
+     * 按交易流水重建持仓汇总（数据修复用），返回持仓记录数
+     */
+    @Transactional
+    public int rebuildPositions() {
+        long start = System.currentTimeMillis();
+        positionMapper.deleteAll();
+        int count = positionMapper.rebuildFromTrades();
+        bumpPositionVersion();
+        log.info("持仓汇总重建完成: {}只基金, 耗时{}ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+    
+    /**
+     * 启动时若汇总表为空而已有交易（首次升级），自动重建
+     * 自调用不经过代理，@Transactional 不生效，删除与重建须显式放在同一事务中
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initPositions() {
+        try {
+            if (positionMapper.selectCount(null) == 0 && tradeMapper.selectCount(null) > 0) {
+                transactionTemplate.executeWithoutResult(status -> rebuildPositions());
+            }
+        } catch (Exception e) {
+            log.error("持仓汇总初始化失败，可调用重建接口修复", e);
+        }
     }
     
     /**
      * 获取所有持仓
      */
     public List<HoldingVO> getHoldings() {
-        // 查询所有交易过的基金
-        List<String> fundCodes = tradeMapper.selectList(null).stream()
-                .map(PortfolioTrade::getFundCode)
-                .distinct()
-                .toList();
-        
-        List<HoldingVO> holdings = new ArrayList<>();
+        List<PortfolioPosition> positions = positionMapper.selectHeld();
+        if (positions.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        for (String fundCode : fundCodes) {
-            HoldingVO holding = calculateHolding(fundCode);
-            if (holding != null && holding.getTotalShares().compareTo(BigDecimal.ZERO) > 0) {
+        // 基金名称、最新净值、最新指标批量解析
+        List<String> fundCodes = positions.stream().map(PortfolioPosition::getFundCode).toList();
+        Map<String, FundInfo> infoMap = fundRefDataService.resolve(fundCodes);
+        Map<String, FundNav> navMap = latestNavs(fundCodes);
+        Map<String, FundMetrics> metricsMap = latestMetrics(fundCodes);
+        
+        List<HoldingVO> holdings = new ArrayList<>(positions.size());
+        for (PortfolioPosition position : positions) {
+            String fundCode = position.getFundCode();
+            HoldingVO holding = toHolding(position, infoMap.get(fundCode), navMap.get(fundCode),
+                    metricsMap.get(fundCode));
+            if (holding != null) {
                 holdings.add(holding);
             }
         }
@@ -108,25 +221,80 @@ public class PortfolioService {
      * 计算单个基金持仓
      */
     public HoldingVO calculateHolding(String fundCode) {
-        List<PortfolioTrade> trades = tradeMapper.selectByFundCode(fundCode);
-        if (trades.isEmpty()) {
+        return toHolding(positionMapper.selectById(fundCode));
+    }
+    
+    private HoldingVO toHolding(PortfolioPosition position) {
+        if (position == null) {
             return null;
         }
-        
-        BigDecimal totalShares = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
-        
-        for (PortfolioTrade trade : trades) {
-            if (trade.getTradeType() == 1) { // 买入
-                totalShares = totalShares.add(trade.getTradeShare());
-                BigDecimal cost = trade.getTradeAmount().add(trade.getTradeFee() != null ? trade.getTradeFee() : BigDecimal.ZERO);
-                totalCost = totalCost.add(cost);
-            } else if (trade.getTradeType() == 2) { // 卖出
-                totalShares = totalShares.subtract(trade.getTradeShare());
+        String fundCode = position.getFundCode();
+        return toHolding(position, fundRefDataService.get(fundCode), latestNav(fundCode), latestMetrics(fundCode));
+    }
+    
+    /**
+     * 最新净值：优先读净值序列存储，未收录时查库
+     */
+    private FundNav latestNav(String fundCode) {
+        FundNav nav = navSeriesStore.latest(fundCode);
+        return nav != null ? nav : fundNavMapper.selectLatestNav(fundCode);
+    }
+    
+    private Map<String, FundNav> latestNavs(List<String> fundCodes) {
+        Map<String, FundNav> navMap = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String fundCode : fundCodes) {
+            FundNav nav = navSeriesStore.latest(fundCode);
+            if (nav != null) {
+                navMap.put(fundCode, nav);
+            } else {
+                missing.add(fundCode);
             }
         }
+        if (!missing.isEmpty()) {
+            for (FundNav nav : fundNavMapper.selectLatestNavs(missing)) {
+                navMap.put(nav.getFundCode(), nav);
+            }
+        }
+        return navMap;
+    }
+    
+    /**
+     * 最新指标：优先取指标快照，未收录时查库
+     */
+    private FundMetrics latestMetrics(String fundCode) {
+        MetricsSnapshot snapshot = metricsSnapshotService.current();
+        int row = snapshot.rowOf(fundCode);
+        return row >= 0 ? snapshot.toMetrics(row) : fundMetricsMapper.selectLatestByFundCode(fundCode);
+    }
+    
+    private Map<String, FundMetrics> latestMetrics(List<String> fundCodes) {
+        MetricsSnapshot snapshot = metricsSnapshotService.current();
+        Map<String, FundMetrics> metricsMap = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String fundCode : fundCodes) {
+            int row = snapshot.rowOf(fundCode);
+            if (row >= 0) {
+                metricsMap.put(fundCode, snapshot.toMetrics(row));
+            } else {
+                missing.add(fundCode);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (FundMetrics metrics : fundMetricsMapper.selectLatestByFundCodes(missing)) {
+                metricsMap.put(metrics.getFundCode(), metrics);
+            }
+        }
+        return metricsMap;
+    }
+    
+    private HoldingVO toHolding(PortfolioPosition position, FundInfo fundInfo, FundNav latestNav,
+                                FundMetrics metrics) {
+        String fundCode = position.getFundCode();
+        BigDecimal totalShares = position.getTotalShares();
+        BigDecimal totalCost = position.getTotalCost();
         
-        if (totalShares.compareTo(BigDecimal.ZERO) <= 0) {
+        if (totalShares == null || totalShares.compareTo(BigDecimal.ZERO) <= 0) {
             return null;
         }
         
@@ -134,7 +302,6 @@ public class PortfolioService {
         BigDecimal avgCost = totalCost.divide(totalShares, 4, RoundingMode.HALF_UP);
         
         // 当前净值
-        FundNav latestNav = fundNavMapper.selectLatestNav(fundCode);
         BigDecimal currentNav = latestNav != null ? latestNav.getUnitNav() : avgCost;
         
         // 当前市值
@@ -144,13 +311,12 @@ public class PortfolioService {
         BigDecimal totalReturn = currentValue.subtract(totalCost);
         BigDecimal returnRate = totalCost.compareTo(BigDecimal.ZERO) > 0 
                 ? totalReturn.divide(totalCost, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
+                        .multiply(HUNDRED)
                 : BigDecimal.ZERO;
         
         HoldingVO holding = new HoldingVO();
         holding.setFundCode(fundCode);
         
-        FundInfo fundInfo = fundInfoMapper.selectById(fundCode);
         if (fundInfo != null) {
             holding.setFundName(fundInfo.getFundName());
         }
@@ -163,15 +329,10 @@ public class PortfolioService {
         holding.setTotalReturn(totalReturn);
         holding.setReturnRate(returnRate);
         
-        // 质量等级
-        FundMetrics metrics = fundMetricsMapper.selectLatestByFundCode(fundCode);
-        if (metrics != null && metrics.getSharpeRatio1y() != null) {
-            BigDecimal sharpe = metrics.getSharpeRatio1y();
-            if (sharpe.compareTo(new BigDecimal("2")) >= 0) holding.setQualityLevel("S");
-            else if (sharpe.compareTo(new BigDecimal("1.5")) >= 0) holding.setQualityLevel("A");
-            else if (sharpe.compareTo(BigDecimal.ONE) >= 0) holding.setQualityLevel("B");
-            else if (sharpe.compareTo(new BigDecimal("0.5")) >= 0) holding.setQualityLevel("C");
-            else holding.setQualityLevel("D");
+        // 质量等级（与信号规则的质量等级配置一致，无指标时留空）
+        String level = signalRuleService.current().qualityLevel(metrics);
+        if (!"-".equals(level)) {
+            holding.setQualityLevel(level);
         }
         
         return holding;
@@ -193,6 +354,9 @@ public class PortfolioService {
         Map<String, Integer> typeDist = new HashMap<>();
         Map<String, Integer> qualityDist = new HashMap<>();
         
+        Map<String, FundInfo> infoMap = fundRefDataService.resolve(
+                holdings.stream().map(HoldingVO::getFundCode).toList());
+        
         for (HoldingVO holding : holdings) {
             totalCost = totalCost.add(holding.getTotalCost());
             totalValue = totalValue.add(holding.getCurrentValue());
@@ -202,7 +366,7 @@ public class PortfolioService {
             qualityDist.merge(quality, 1, Integer::sum);
             
             // 类型和风险分布（简化）
-            FundInfo info = fundInfoMapper.selectById(holding.getFundCode());
+            FundInfo info = infoMap.get(holding.getFundCode());
             if (info != null) {
                 String type = info.getFundType() != null ? info.getFundType() : "未知";
                 typeDist.merge(type, 1, Integer::sum);
@@ -217,7 +381,7 @@ public class PortfolioService {
         
         BigDecimal totalReturn = totalValue.subtract(totalCost);
         BigDecimal returnRate = totalCost.compareTo(BigDecimal.ZERO) > 0 
-                ? totalReturn.divide(totalCost, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
+                ? totalReturn.divide(totalCost, 4, RoundingMode.HALF_UP).multiply(HUNDRED)
                 : BigDecimal.ZERO;
         
         analysis.setTotalReturn(totalReturn);
@@ -229,10 +393,37 @@ public class PortfolioService {
         return analysis;
     }
     
-        /**
+    /**
      * 获取持仓带实时估值
+     * 交易时段被持续轮询：结果按 (估值缓存版本, 持仓版本, 交易日) 缓存，有新估值点或持仓变化时才重算
      */
     public PortfolioSummaryVO getHoldingsWithEstimate() {
+        LocalDate tradeDate = calendarService.getCurrentTradeDate();
+        ValuationKey key = new ValuationKey(estimateCache.getVersion(), positionVersion.get(), tradeDate);
+        
+        CachedValuation cached = valuationCache;
+        if (cached == null || !cached.matches(key)) {
+            synchronized (valuationLock) {
+                cached = valuationCache;
+                if (cached == null || !cached.matches(key)) {
+                    cached = new CachedValuation(key, valuate(tradeDate));
+                    valuationCache = cached;
+                }
+            }
+        }
+        
+        // 共享缓存对象不可修改，交易时段标志每次单独返回
+        PortfolioSummaryVO result = new PortfolioSummaryVO();
+        result.setHoldings(cached.value.getHoldings());
+        result.setSummary(cached.value.getSummary());
+        result.setIsTradingTime(calendarService.isTradingTime());
+        return result;
+    }
+    
+    /**
+     * 一次性估值全部持仓：批量取最新估值，定点数逐只累加
+     */
+    private PortfolioSummaryVO valuate(LocalDate tradeDate) {
         PortfolioSummaryVO result = new PortfolioSummaryVO();
         
         // 1. 获取基础持仓
@@ -246,31 +437,30 @@ public class PortfolioService {
             emptySummary.setTotalReturn(BigDecimal.ZERO);
             emptySummary.setTotalReturnPct(BigDecimal.ZERO);
             result.setSummary(emptySummary);
-            result.setIsTradingTime(calendarService.isTradingTime());
             return result;
         }
         
-        // 2. 获取当前交易日
-        LocalDate tradeDate = calendarService.getCurrentTradeDate();
-        boolean isTradingTime = calendarService.isTradingTime();
+        // 2. 批量取当前交易日最新估值（内存缓存）
+        Map<String, FundEstimateIntraday> estimates = estimateCache.getLatest(
+                baseHoldings.stream().map(HoldingVO::getFundCode).toList(), tradeDate);
         
         // 3. 组装带估值的持仓列表
-        List<HoldingWithEstimateVO> holdingsWithEstimate = new ArrayList<>();
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalMarketValue = BigDecimal.ZERO;
-        BigDecimal totalDailyReturn = BigDecimal.ZERO;
+        List<HoldingWithEstimateVO> holdingsWithEstimate = new ArrayList<>(baseHoldings.size());
+        long totalCost = 0;
+        long totalMarketValue = 0;
+        long totalDailyReturn = 0;
         
         for (HoldingVO holding : baseHoldings) {
-            // 获取实时估值
-            FundEstimateIntraday estimate = estimateMapper.selectLatest(holding.getFundCode());
+            FundEstimateIntraday estimate = estimates.get(holding.getFundCode());
             
             BigDecimal estimateNav;
             BigDecimal estimateChangePct;
             LocalDateTime lastUpdateTime;
             
-            if (estimate != null && estimate.getTradeDate().equals(tradeDate)) {
+            if (estimate != null && estimate.getEstimateNav() != null) {
                 estimateNav = estimate.getEstimateNav();
-                estimateChangePct = estimate.getEstimateChangePct();
+                estimateChangePct = estimate.getEstimateChangePct() != null
+                        ? estimate.getEstimateChangePct() : BigDecimal.ZERO;
                 lastUpdateTime = estimate.getEstimateTime();
             } else {
                 estimateNav = holding.getCurrentNav();
@@ -278,18 +468,12 @@ public class PortfolioService {
                 lastUpdateTime = null;
             }
             
-            // 计算市值和收益
-            BigDecimal estimateMarketValue = estimateNav.multiply(holding.getTotalShares());
-            BigDecimal estimateDailyReturn = estimateChangePct
-                    .multiply(holding.getTotalShares())
-                    .multiply(estimateNav)
-                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            
-            BigDecimal totalReturn = estimateMarketValue.subtract(holding.getTotalCost());
-            BigDecimal totalReturnPct = holding.getTotalCost().compareTo(BigDecimal.ZERO) > 0
-                    ? totalReturn.divide(holding.getTotalCost(), 4, RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"))
-                    : BigDecimal.ZERO;
+            // 计算市值和收益（4位小数定点数）
+            long shares = FixedPoint.of(holding.getTotalShares());
+            long cost = FixedPoint.of(holding.getTotalCost());
+            long marketValue = FixedPoint.mul(FixedPoint.of(estimateNav), shares);
+            long dailyReturn = FixedPoint.mulDiv(FixedPoint.of(estimateChangePct), marketValue, 100 * FixedPoint.ONE);
+            long totalReturn = marketValue - cost;
             
             HoldingWithEstimateVO vo = new HoldingWithEstimateVO();
             vo.setFundCode(holding.getFundCode());
@@ -299,40 +483,65 @@ public class PortfolioService {
             vo.setTotalCost(holding.getTotalCost());
             vo.setEstimateNav(estimateNav);
             vo.setEstimateChangePct(estimateChangePct);
-            vo.setEstimateMarketValue(estimateMarketValue);
-            vo.setEstimateDailyReturn(estimateDailyReturn);
-            vo.setTotalReturn(totalReturn);
-            vo.setTotalReturnPct(totalReturnPct);
+            vo.setEstimateMarketValue(FixedPoint.toDecimal(marketValue));
+            vo.setEstimateDailyReturn(FixedPoint.toDecimal(dailyReturn).setScale(2, RoundingMode.HALF_UP));
+            vo.setTotalReturn(FixedPoint.toDecimal(totalReturn));
+            vo.setTotalReturnPct(returnPct(totalReturn, cost));
             vo.setLastUpdateTime(lastUpdateTime);
             
             holdingsWithEstimate.add(vo);
             
-            totalCost = totalCost.add(holding.getTotalCost());
-            totalMarketValue = totalMarketValue.add(estimateMarketValue);
-            totalDailyReturn = totalDailyReturn.add(estimateDailyReturn);
+            totalCost += cost;
+            totalMarketValue += marketValue;
+            totalDailyReturn += dailyReturn;
         }
         
         // 4. 计算汇总
-        BigDecimal sumTotalReturn = totalMarketValue.subtract(totalCost);
-        BigDecimal sumTotalReturnPct = totalCost.compareTo(BigDecimal.ZERO) > 0
-                ? sumTotalReturn.divide(totalCost, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
-                : BigDecimal.ZERO;
+        long sumTotalReturn = totalMarketValue - totalCost;
         
         PortfolioSummary summary = new PortfolioSummary();
-        summary.setTotalCost(totalCost);
-        summary.setTotalMarketValue(totalMarketValue);
-        summary.setTotalDailyReturn(totalDailyReturn);
-        summary.setTotalReturn(sumTotalReturn);
-        summary.setTotalReturnPct(sumTotalReturnPct);
+        summary.setTotalCost(FixedPoint.toDecimal(totalCost));
+        summary.setTotalMarketValue(FixedPoint.toDecimal(totalMarketValue));
+        summary.setTotalDailyReturn(FixedPoint.toDecimal(totalDailyReturn).setScale(2, RoundingMode.HALF_UP));
+        summary.setTotalReturn(FixedPoint.toDecimal(sumTotalReturn));
+        summary.setTotalReturnPct(returnPct(sumTotalReturn, totalCost));
         
-        result.setHoldings(holdingsWithEstimate);
+        result.setHoldings(Collections.unmodifiableList(holdingsWithEstimate));
         result.setSummary(summary);
-        result.setIsTradingTime(isTradingTime);
         
         return result;
     }
-
+    
+    // 收益率%：保留两位有效小数，与原 BigDecimal 口径（比率4位小数×100）一致
+    private static BigDecimal returnPct(long totalReturn, long cost) {
+        if (cost <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(FixedPoint.div(totalReturn, cost), 2).setScale(FixedPoint.SCALE);
+    }
+    
+    /**
+     * 估值缓存键
+     */
+    private record ValuationKey(long estimateVersion, long positionVersion, LocalDate tradeDate) {
+    }
+    
+    private static final class CachedValuation {
+        private final ValuationKey key;
+        private final PortfolioSummaryVO value;
+        private final long createdAt = System.currentTimeMillis();
+        
+        CachedValuation(ValuationKey key, PortfolioSummaryVO value) {
+            this.key = key;
+            this.value = value;
+        }
+        
+        // 净值每日更新不产生估值点，另设最长存活时间兜底
+        boolean matches(ValuationKey other) {
+            return key.equals(other) && System.currentTimeMillis() - createdAt < VALUATION_MAX_AGE_MS;
+        }
+    }
+    
     /**
      * 更新持仓（修改份额或成本价）
      */
@@ -353,7 +562,7 @@ public class PortfolioService {
      * 调整份额
      */
     private void adjustShares(String fundCode, BigDecimal targetShares) {
-        HoldingVO current = calculateHolding(fundCode);
+        HoldingVO current = toHolding(positionMapper.selectForUpdate(fundCode));
         if (current == null) {
             throw new IllegalArgumentException("持仓不存在: " + fundCode);
         }
@@ -364,7 +573,7 @@ public class PortfolioService {
         }
         
         // 使用当前净值作为调整价格
-        FundNav latestNav = fundNavMapper.selectLatestNav(fundCode);
+        FundNav latestNav = latestNav(fundCode);
         BigDecimal price = latestNav != null ? latestNav.getUnitNav() : current.getCurrentNav();
         
         PortfolioTrade trade = new PortfolioTrade();
@@ -377,14 +586,14 @@ public class PortfolioService {
         trade.setTradeFee(BigDecimal.ZERO);
         trade.setRemark("持仓调整-份额");
         
-        tradeMapper.insert(trade);
+        insertTrade(trade);
     }
     
     /**
      * 调整成本价
      */
     private void adjustCost(String fundCode, BigDecimal targetCost, String remark) {
-        HoldingVO current = calculateHolding(fundCode);
+        HoldingVO current = toHolding(positionMapper.selectForUpdate(fundCode));
         if (current == null) {
             throw new IllegalArgumentException("持仓不存在: " + fundCode);
         }
@@ -408,7 +617,7 @@ public class PortfolioService {
         trade.setTradeFee(BigDecimal.ZERO);
         trade.setRemark("持仓调整-成本" + (remark != null ? ": " + remark : ""));
         
-        tradeMapper.insert(trade);
+        insertTrade(trade);
     }
     
     /**
@@ -416,7 +625,7 @@ public class PortfolioService {
      */
     @Transactional
     public void deleteHolding(String fundCode) {
-        HoldingVO current = calculateHolding(fundCode);
+        HoldingVO current = toHolding(positionMapper.selectForUpdate(fundCode));
         if (current == null) {
             throw new IllegalArgumentException("持仓不存在: " + fundCode);
         }
@@ -432,6 +641,6 @@ public class PortfolioService {
         trade.setTradeFee(BigDecimal.ZERO);
         trade.setRemark("持仓删除-清仓");
         
-        tradeMapper.insert(trade);
+        insertTrade(trade);
     }
 }
@@ -0,0 +1,369 @@
+package com.fund.service;
+
+import com.fund.dto.TradeSignal;
+import com.fund.entity.FundInfo;
+import com.fund.entity.FundSignal;
+import com.fund.mapper.FundSignalMapper;
+import com.fund.service.rule.SignalRuleService;
+import com.fund.service.rule.SignalRuleSet;
+import com.fund.service.snapshot.MetricColumn;
+import com.fund.service.snapshot.MetricsSnapshot;
+import com.fund.service.snapshot.MetricsSnapshotReloadedEvent;
+import com.fund.service.snapshot.MetricsSnapshotService;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 全市场信号批量计算
+ * 指标快照每次重载后，按行分块在专用 ForkJoinPool 上并行跑规则，
+ * 结果在同一事务内分批写入 fund_signal 表；单基金信号接口改为按主键查表。
+ * 多副本同时重算时由集群锁串行化，避免互相清理对方刚写入的批次。
+ * 规则热加载后同样触发全量重算，重算完成前规则版本不一致的存量信号按新规则实时计算
+ */
+@Service
+public class SignalBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SignalBatchService.class);
+
+    // 并行计算的最小分块行数
+    private static final int EVAL_CHUNK = 1024;
+
+    // 每次批量写入的行数
+    private static final int WRITE_CHUNK = 500;
+
+    // 全量重算的集群锁；等待其他副本完成当前批次的最长时间
+    private static final String RECOMPUTE_LOCK = "lock:signal:recompute";
+    private static final long LOCK_WAIT_MINUTES = 5;
+
+    private final SignalEngine signalEngine;
+    private final FundSignalMapper signalMapper;
+    private final FundRefDataService fundRefDataService;
+    private final SignalRuleService signalRuleService;
+    private final MetricsSnapshotService metricsSnapshotService;
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ForkJoinPool evalPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                worker.setName("signal-eval-" + worker.getPoolIndex());
+                return worker;
+            }, null, false);
+
+    // 批次调度线程：串行执行计算+落库，期间到达的新快照只保留最新一份
+    private final ExecutorService batchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "signal-batch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicReference<MetricsSnapshot> pending = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public SignalBatchService(SignalEngine signalEngine,
+                              FundSignalMapper signalMapper,
+                              FundRefDataService fundRefDataService,
+                              SignalRuleService signalRuleService,
+                              MetricsSnapshotService metricsSnapshotService,
+                              RedissonClient redissonClient,
+                              TransactionTemplate transactionTemplate) {
+        this.signalEngine = signalEngine;
+        this.signalMapper = signalMapper;
+        this.fundRefDataService = fundRefDataService;
+        this.signalRuleService = signalRuleService;
+        this.metricsSnapshotService = metricsSnapshotService;
+        this.redissonClient = redissonClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 指标快照重载后自动重算
+     */
+    @EventListener
+    public void onMetricsReloaded(MetricsSnapshotReloadedEvent event) {
+        submit(event.getSnapshot());
+    }
+
+    /**
+     * 异步提交一次重算
+     */
+    public void submit(MetricsSnapshot snapshot) {
+        pending.set(snapshot);
+        if (running.compareAndSet(false, true)) {
+            batchExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * 热加载信号规则，版本变化时按最新快照重算全部信号
+     */
+    public SignalRuleSet reloadRules() {
+        long previous = signalRuleService.current().getVersion();
+        SignalRuleSet rules = signalRuleService.reload();
+        if (rules.getVersion() != previous && metricsSnapshotService.isReady()) {
+            submit(metricsSnapshotService.current());
+        }
+        return rules;
+    }
+
+    /**
+     * 同步重算全部信号，返回写入条数（其他副本持锁超时未释放时跳过，返回 0）
+     */
+    public int recompute(MetricsSnapshot snapshot) {
+        if (snapshot.size() == 0) {
+            log.warn("指标快照为空，跳过信号批量计算");
+            return 0;
+        }
+        RLock lock = redissonClient.getLock(RECOMPUTE_LOCK);
+        try {
+            // 不指定租期，由看门狗续期到计算结束
+            if (!lock.tryLock(LOCK_WAIT_MINUTES, TimeUnit.MINUTES)) {
+                log.warn("其他节点的信号批量计算未在{}分钟内结束，跳过本次计算", LOCK_WAIT_MINUTES);
+                return 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        try {
+            return recomputeLocked(snapshot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int recomputeLocked(MetricsSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        int n = snapshot.size();
+
+        // 1. 并行计算（整批使用同一版本规则）
+        SignalRuleSet rules = signalRuleService.current();
+        FundSignal[] signals = new FundSignal[n];
+        long calcBatch = System.currentTimeMillis();
+        evalPool.invoke(new EvaluateTask(snapshot, rules, signals, 0, n, calcBatch));
+        long evalCost = System.currentTimeMillis() - start;
+
+        // 2. 同一事务内分批落库并清理本批次未覆盖的旧信号，中途失败整体回滚
+        List<FundSignal> all = Arrays.asList(signals);
+        Integer removed = transactionTemplate.execute(status -> {
+            for (int from = 0; from < n; from += WRITE_CHUNK) {
+                signalMapper.batchUpsert(all.subList(from, Math.min(from + WRITE_CHUNK, n)));
+            }
+            return signalMapper.deleteOtherBatches(calcBatch);
+        });
+
+        log.info("信号批量计算完成: {}只基金, 规则版本={}, 计算{}ms, 总耗时{}ms, 清理旧信号{}条",
+                n, rules.getVersion(), evalCost, System.currentTimeMillis() - start, removed);
+        return n;
+    }
+
+    /**
+     * 查询单只基金信号（优先取当前规则版本的预计算结果）
+     */
+    public TradeSignal getSignal(String fundCode) {
+        SignalRuleSet rules = signalRuleService.current();
+        FundSignal stored = signalMapper.selectById(fundCode);
+        if (stored == null || stored.getRuleVersion() == null || stored.getRuleVersion() != rules.getVersion()) {
+            return evaluateLive(fundCode, rules);
+        }
+        TradeSignal signal = toTradeSignal(stored, rules);
+        FundInfo info = fundRefDataService.get(fundCode);
+        if (info != null) {
+            signal.setFundName(info.getFundName());
+        }
+        return signal;
+    }
+
+    /**
+     * 按信号类型列出全部基金（置信度降序）；存量信号中有规则版本不一致的记录时，
+     * 与单基金接口一致，按当前规则基于内存快照实时计算
+     */
+    public List<TradeSignal> listSignals(TradeSignal.SignalType type) {
+        SignalRuleSet rules = signalRuleService.current();
+        if (metricsSnapshotService.isReady() && signalMapper.countOtherRuleVersions(rules.getVersion()) > 0) {
+            return listLive(type, rules);
+        }
+        List<FundSignal> stored = signalMapper.selectBySignalType(toTypeCode(type));
+        Map<String, FundInfo> infoMap = fundRefDataService.resolve(
+                stored.stream().map(FundSignal::getFundCode).collect(Collectors.toList()));
+        return stored.stream()
+                .map(s -> {
+                    TradeSignal signal = toTradeSignal(s, rules);
+                    FundInfo info = infoMap.get(s.getFundCode());
+                    if (info != null) {
+                        signal.setFundName(info.getFundName());
+                    }
+                    return signal;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // 规则已变而重算未完成：遍历快照按当前规则筛出该类型信号，排序与表查询一致
+    private List<TradeSignal> listLive(TradeSignal.SignalType type, SignalRuleSet rules) {
+        MetricsSnapshot snapshot = metricsSnapshotService.current();
+        double[] record = new double[MetricColumn.values().length];
+        LocalDateTime now = LocalDateTime.now();
+        List<TradeSignal> signals = new ArrayList<>();
+        for (int row = 0; row < snapshot.size(); row++) {
+            snapshot.readRow(row, record);
+            TradeSignal signal = rules.evaluate(snapshot.fundCode(row), record);
+            if (signal.getSignal() == type) {
+                signal.setFundName(snapshot.fundName(row));
+                signal.setGenerateTime(now);
+                signals.add(signal);
+            }
+        }
+        signals.sort(Comparator.comparing(TradeSignal::getConfidence, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(TradeSignal::getFundCode));
+        return signals;
+    }
+
+    // 预计算结果缺失或规则已变：优先用内存快照，快照中没有时查库
+    private TradeSignal evaluateLive(String fundCode, SignalRuleSet rules) {
+        MetricsSnapshot snapshot = metricsSnapshotService.current();
+        int row = snapshot.rowOf(fundCode);
+        if (row < 0) {
+            return signalEngine.generateSignal(fundCode);
+        }
+        double[] record = new double[MetricColumn.values().length];
+        snapshot.readRow(row, record);
+        TradeSignal signal = rules.evaluate(fundCode, record);
+        signal.setFundName(snapshot.fundName(row));
+        signal.setGenerateTime(LocalDateTime.now());
+        return signal;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+        evalPool.shutdownNow();
+    }
+
+    private void drain() {
+        try {
+            MetricsSnapshot snapshot;
+            while ((snapshot = pending.getAndSet(null)) != null) {
+                try {
+                    recompute(snapshot);
+                } catch (Exception e) {
+                    log.error("信号批量计算失败", e);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        // 退出前又有新快照到达时重新调度
+        if (pending.get() != null && running.compareAndSet(false, true)) {
+            batchExecutor.execute(this::drain);
+        }
+    }
+
+    private FundSignal toEntity(TradeSignal signal, MetricsSnapshot snapshot, int row, long calcBatch,
+                                long ruleVersion) {
+        FundSignal entity = new FundSignal();
+        entity.setFundCode(snapshot.fundCode(row));
+        entity.setCalcDate(snapshot.calcDate(row));
+        entity.setSignalType(toTypeCode(signal.getSignal()));
+        entity.setReasonMask(signal.getReasonMask());
+        entity.setPePercentile(Double.isNaN(signal.getReasonPe()) ? null : (int) signal.getReasonPe());
+        entity.setSharpeRatio(Double.isNaN(signal.getReasonSharpe()) ? null
+                : BigDecimal.valueOf(signal.getReasonSharpe()).setScale(4, RoundingMode.HALF_UP));
+        entity.setBuyScore(signal.getBuyScore());
+        entity.setSellScore(signal.getSellScore());
+        entity.setQualityLevel(signal.getQualityLevel());
+        entity.setConfidence(signal.getConfidence());
+        entity.setCalcBatch(calcBatch);
+        entity.setRuleVersion(ruleVersion);
+        return entity;
+    }
+
+    private static TradeSignal toTradeSignal(FundSignal entity, SignalRuleSet rules) {
+        TradeSignal.SignalType type = switch (entity.getSignalType()) {
+            case 1 -> TradeSignal.SignalType.BUY;
+            case 3 -> TradeSignal.SignalType.SELL;
+            default -> TradeSignal.SignalType.HOLD;
+        };
+        TradeSignal signal = TradeSignal.of(type,
+                entity.getReasonMask() != null ? entity.getReasonMask() : 0,
+                entity.getPePercentile() != null ? entity.getPePercentile() : Double.NaN,
+                entity.getSharpeRatio() != null ? entity.getSharpeRatio().doubleValue() : Double.NaN);
+        signal.setFundCode(entity.getFundCode());
+        signal.setReasonThresholds(rules.reasonThresholds());
+        signal.setBuyScore(entity.getBuyScore());
+        signal.setSellScore(entity.getSellScore());
+        signal.setQualityLevel(entity.getQualityLevel());
+        signal.setConfidence(entity.getConfidence());
+        signal.setGenerateTime(entity.getUpdateTime());
+        return signal;
+    }
+
+    private static int toTypeCode(TradeSignal.SignalType type) {
+        return switch (type) {
+            case BUY -> 1;
+            case HOLD -> 2;
+            case SELL -> 3;
+        };
+    }
+
+    /**
+     * 按行区间二分的并行计算任务
+     */
+    private class EvaluateTask extends RecursiveAction {
+        private final MetricsSnapshot snapshot;
+        private final SignalRuleSet rules;
+        private final FundSignal[] out;
+        private final int from;
+        private final int to;
+        private final long calcBatch;
+
+        EvaluateTask(MetricsSnapshot snapshot, SignalRuleSet rules, FundSignal[] out, int from, int to,
+                     long calcBatch) {
+            this.snapshot = snapshot;
+            this.rules = rules;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.calcBatch = calcBatch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EVAL_CHUNK) {
+                // 每个分块复用同一扁平记录数组
+                double[] record = new double[MetricColumn.values().length];
+                for (int row = from; row < to; row++) {
+                    snapshot.readRow(row, record);
+                    TradeSignal signal = rules.evaluate(snapshot.fundCode(row), record);
+                    out[row] = toEntity(signal, snapshot, row, calcBatch, rules.getVersion());
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(snapshot, rules, out, from, mid, calcBatch),
+                    new EvaluateTask(snapshot, rules, out, mid, to, calcBatch));
+        }
+    }
+}
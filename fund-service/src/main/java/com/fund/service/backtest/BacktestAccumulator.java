@@ -0,0 +1,229 @@
+package com.fund.service.backtest;
+
+import com.fund.dto.BacktestResult;
+import com.fund.dto.TradeSignal;
+import com.fund.service.rule.SignalRuleSet;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 回测累加器
+ * 按日历日下标累加各规则组合的持仓收益与持仓数，逐只基金模拟后丢弃该基金数据；
+ * 不同线程各持一份，最后合并，组合净值曲线在合并后统一计算
+ */
+final class BacktestAccumulator {
+
+    private static final int TRADING_DAYS_PER_YEAR = 250;
+
+    private static final byte BUY = 1;
+    private static final byte SELL = 2;
+
+    private final SignalRuleSet[] variants;
+    private final int startDay;
+    private final int days;
+    private final int horizon;
+
+    // [variant][day]
+    private final double[][] returnSum;
+    private final int[][] held;
+    private final boolean[] tradingDay;
+
+    private final long[] buySignals;
+    private final long[] sellSignals;
+    private final long[] hits;
+    private final long[] judged;
+    private final long[] trades;
+
+    private int fundCount;
+    private long navRows;
+    private long metricsRows;
+
+    // 单线程复用的缓冲
+    private final double[] record = new double[FundSeries.STRIDE];
+    private byte[][] decisions = new byte[0][];
+
+    BacktestAccumulator(SignalRuleSet[] variants, int startDay, int endDay, int horizon) {
+        this.variants = variants;
+        this.startDay = startDay;
+        this.days = endDay - startDay + 1;
+        this.horizon = horizon;
+        this.returnSum = new double[variants.length][days];
+        this.held = new int[variants.length][days];
+        this.tradingDay = new boolean[days];
+        this.buySignals = new long[variants.length];
+        this.sellSignals = new long[variants.length];
+        this.hits = new long[variants.length];
+        this.judged = new long[variants.length];
+        this.trades = new long[variants.length];
+    }
+
+    /**
+     * 模拟一只基金：指标日 d 产生的信号从 d 之后的第一个净值日起生效，避免未来函数
+     */
+    void simulate(FundSeries series) {
+        int m = series.metricsCount();
+        int n = series.navCount();
+        fundCount++;
+        metricsRows += m;
+        navRows += n;
+        // 无净值的基金不返回：其信号仍计数，只是无法判定命中、不产生持仓
+        for (int i = 0; i < n; i++) {
+            tradingDay[series.navDay(i) - startDay] = true;
+        }
+        if (m == 0) {
+            return;
+        }
+
+        // 1. 每行指标对全部组合判定一次
+        if (decisions.length < variants.length || decisions[0].length < m) {
+            decisions = new byte[variants.length][Math.max(m, 256)];
+        }
+        for (int row = 0; row < m; row++) {
+            series.readMetrics(row, record);
+            for (int v = 0; v < variants.length; v++) {
+                TradeSignal.SignalType type = variants[v].decide(record);
+                decisions[v][row] = type == TradeSignal.SignalType.BUY ? BUY
+                        : type == TradeSignal.SignalType.SELL ? SELL : 0;
+            }
+        }
+
+        // 2. 按组合沿净值日期推进
+        for (int v = 0; v < variants.length; v++) {
+            byte[] decision = decisions[v];
+            double[] sum = returnSum[v];
+            int[] count = held[v];
+            boolean holding = false;
+            int row = 0;
+            for (int i = 0; i < n; i++) {
+                int day = series.navDay(i);
+                while (row < m && series.metricDay(row) < day) {
+                    byte d = decision[row];
+                    if (d != 0) {
+                        judge(v, d, series, i - 1);
+                        if ((d == BUY) != holding) {
+                            holding = d == BUY;
+                            trades[v]++;
+                        }
+                    }
+                    row++;
+                }
+                if (holding) {
+                    sum[day - startDay] += series.dailyReturn(i);
+                    count[day - startDay]++;
+                }
+            }
+            // 净值结束后的信号只计数，无法判定命中
+            for (; row < m; row++) {
+                if (decision[row] != 0) {
+                    judge(v, decision[row], series, -1);
+                }
+            }
+        }
+    }
+
+    // 信号命中：以信号日最近净值为基准，horizon 个交易日后买入信号上涨/卖出信号下跌即命中
+    private void judge(int v, byte decision, FundSeries series, int base) {
+        if (decision == BUY) {
+            buySignals[v]++;
+        } else {
+            sellSignals[v]++;
+        }
+        if (base < 0 || base + horizon >= series.navCount()) {
+            return;
+        }
+        double forward = series.navIndex(base + horizon) / series.navIndex(base) - 1;
+        judged[v]++;
+        if (decision == BUY ? forward > 0 : forward < 0) {
+            hits[v]++;
+        }
+    }
+
+    /**
+     * 合并另一份累加器（组合与日期区间须一致）
+     */
+    void merge(BacktestAccumulator other) {
+        for (int v = 0; v < variants.length; v++) {
+            for (int d = 0; d < days; d++) {
+                returnSum[v][d] += other.returnSum[v][d];
+                held[v][d] += other.held[v][d];
+            }
+            buySignals[v] += other.buySignals[v];
+            sellSignals[v] += other.sellSignals[v];
+            hits[v] += other.hits[v];
+            judged[v] += other.judged[v];
+            trades[v] += other.trades[v];
+        }
+        for (int d = 0; d < days; d++) {
+            tradingDay[d] |= other.tradingDay[d];
+        }
+        fundCount += other.fundCount;
+        navRows += other.navRows;
+        metricsRows += other.metricsRows;
+    }
+
+    int fundCount() {
+        return fundCount;
+    }
+
+    long navRows() {
+        return navRows;
+    }
+
+    long metricsRows() {
+        return metricsRows;
+    }
+
+    /**
+     * 汇总第 v 个组合：组合每日收益为当日所有持仓基金收益的等权平均，空仓日收益为 0
+     */
+    BacktestResult.Variant summarize(int v, String ruleSetName) {
+        double equity = 1;
+        double peak = 1;
+        double maxDrawdown = 0;
+        long tradingDays = 0;
+        long holdingSum = 0;
+        for (int d = 0; d < days; d++) {
+            if (!tradingDay[d]) {
+                continue;
+            }
+            tradingDays++;
+            int count = held[v][d];
+            holdingSum += count;
+            if (count > 0) {
+                equity *= 1 + returnSum[v][d] / count;
+            }
+            peak = Math.max(peak, equity);
+            maxDrawdown = Math.min(maxDrawdown, equity / peak - 1);
+        }
+        double years = (double) tradingDays / TRADING_DAYS_PER_YEAR;
+        double avgHoldings = tradingDays > 0 ? (double) holdingSum / tradingDays : 0;
+
+        BacktestResult.Variant result = new BacktestResult.Variant();
+        SignalRuleSet rules = variants[v];
+        result.setRuleSet(ruleSetName);
+        result.setStrongBuyScore(rules.getStrongBuyScore());
+        result.setBuyScore(rules.getBuyScore());
+        result.setSellScore(rules.getSellScore());
+        result.setBuySignals(buySignals[v]);
+        result.setSellSignals(sellSignals[v]);
+        result.setTrades(trades[v]);
+        result.setHitRate(judged[v] > 0 ? percent((double) hits[v] / judged[v]) : null);
+        result.setTotalReturn(percent(equity - 1));
+        result.setAnnualReturn(years > 0 && equity > 0 ? percent(Math.pow(equity, 1 / years) - 1) : null);
+        result.setMaxDrawdown(percent(maxDrawdown));
+        // 换手率：年均往返交易次数 / 平均持仓数
+        result.setAnnualTurnover(years > 0 && avgHoldings > 0
+                ? scale(trades[v] / 2.0 / years / avgHoldings) : null);
+        result.setAvgHoldings(scale(avgHoldings));
+        return result;
+    }
+
+    private static BigDecimal percent(double value) {
+        return scale(value * 100);
+    }
+
+    private static BigDecimal scale(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.fund.service.backtest;
+
+/**
+ * 已有回测任务在运行，新任务未提交
+ */
+public class BacktestBusyException extends RuntimeException {
+
+    public BacktestBusyException(String message) {
+        super(message);
+    }
+}
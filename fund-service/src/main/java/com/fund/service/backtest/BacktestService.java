@@ -0,0 +1,326 @@
+package com.fund.service.backtest;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fund.dto.BacktestJob;
+import com.fund.dto.BacktestRequest;
+import com.fund.dto.BacktestResult;
+import com.fund.entity.FundInfo;
+import com.fund.entity.FundMetrics;
+import com.fund.entity.FundNav;
+import com.fund.mapper.FundInfoMapper;
+import com.fund.mapper.FundMetricsMapper;
+import com.fund.mapper.FundNavMapper;
+import com.fund.service.rule.SignalRuleCompiler;
+import com.fund.service.rule.SignalRuleService;
+import com.fund.service.rule.SignalRuleSet;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 信号回测服务
+ * 基金按分块并行：每块先流式读入指标历史，再按 (基金, 日期) 顺序流式读取净值，
+ * 一只基金的净值读完即对全部规则/参数组合完成模拟并释放，内存只与分块大小有关。
+ * 回测耗时数分钟，提交后在后台执行，调用方按任务ID轮询结果
+ */
+@Service
+public class BacktestService {
+
+    private static final Logger log = LoggerFactory.getLogger(BacktestService.class);
+
+    // 每个并行分块的基金数
+    private static final int FUND_CHUNK = 100;
+
+    // 回测区间与组合数上限
+    private static final int MAX_YEARS = 10;
+    private static final int MAX_VARIANTS = 200;
+
+    private static final String CURRENT_RULES = "current";
+
+    // 保留的已结束任务数
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    private final FundInfoMapper fundInfoMapper;
+    private final FundMetricsMapper fundMetricsMapper;
+    private final FundNavMapper fundNavMapper;
+    private final SignalRuleService signalRuleService;
+
+    // 每个线程同时占用一个数据库连接，线程数不宜超过连接池的一小部分
+    private final ExecutorService executor;
+
+    // 任务主线程：展开分块、合并结果，与分块线程分开避免占用分块线程
+    private final ExecutorService jobExecutor;
+
+    // 同一时间只允许一个回测任务
+    private final Semaphore running = new Semaphore(1);
+
+    // 任务ID -> 任务状态（结束时整体替换，不修改已发布的对象）
+    private final Map<String, BacktestJob> jobs = new ConcurrentHashMap<>();
+
+    public BacktestService(FundInfoMapper fundInfoMapper,
+                           FundMetricsMapper fundMetricsMapper,
+                           FundNavMapper fundNavMapper,
+                           SignalRuleService signalRuleService) {
+        this.fundInfoMapper = fundInfoMapper;
+        this.fundMetricsMapper = fundMetricsMapper;
+        this.fundNavMapper = fundNavMapper;
+        this.signalRuleService = signalRuleService;
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "backtest-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.jobExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "backtest-job");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 提交回测任务（异步，全市场数年数据约数分钟）
+     * 参数与规则在提交时校验，有误直接抛出；已有任务在运行时抛出 BacktestBusyException
+     */
+    public BacktestJob submit(BacktestRequest request) {
+        validate(request);
+        List<String> names = new ArrayList<>();
+        SignalRuleSet[] variants = expandVariants(request, names);
+        if (!running.tryAcquire()) {
+            throw new BacktestBusyException("已有回测任务在运行，请稍后重试");
+        }
+
+        BacktestJob job = new BacktestJob();
+        job.setJobId(UUID.randomUUID().toString().replace("-", ""));
+        job.setStatus(BacktestJob.Status.RUNNING);
+        job.setSubmitTime(LocalDateTime.now());
+        jobs.put(job.getJobId(), job);
+        try {
+            jobExecutor.execute(() -> execute(job, request, variants, names));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            running.release();
+            throw new BacktestBusyException("回测服务正在关闭");
+        }
+        evictFinishedJobs();
+        return job;
+    }
+
+    /**
+     * 查询回测任务，不存在（或已被清理）时抛出参数错误
+     */
+    public BacktestJob getJob(String jobId) {
+        BacktestJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("回测任务不存在: " + jobId);
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void execute(BacktestJob submitted, BacktestRequest request, SignalRuleSet[] variants,
+                         List<String> names) {
+        BacktestJob finished = new BacktestJob();
+        finished.setJobId(submitted.getJobId());
+        finished.setSubmitTime(submitted.getSubmitTime());
+        try {
+            finished.setResult(doRun(request, variants, names));
+            finished.setStatus(BacktestJob.Status.SUCCESS);
+        } catch (Exception e) {
+            log.error("信号回测失败: {}", submitted.getJobId(), e);
+            finished.setStatus(BacktestJob.Status.FAILED);
+            finished.setError(e.getMessage());
+        } finally {
+            finished.setFinishTime(LocalDateTime.now());
+            jobs.put(finished.getJobId(), finished);
+            running.release();
+        }
+    }
+
+    // 已结束的任务只保留最近若干个
+    private void evictFinishedJobs() {
+        List<BacktestJob> finished = jobs.values().stream()
+                .filter(job -> job.getStatus() != BacktestJob.Status.RUNNING)
+                .sorted(Comparator.comparing(BacktestJob::getSubmitTime).reversed())
+                .collect(Collectors.toList());
+        for (int i = MAX_FINISHED_JOBS; i < finished.size(); i++) {
+            jobs.remove(finished.get(i).getJobId());
+        }
+    }
+
+    private BacktestResult doRun(BacktestRequest request, SignalRuleSet[] variants, List<String> names) {
+        long start = System.currentTimeMillis();
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+
+        // 基金分块并行模拟
+        List<String> fundCodes = resolveFundCodes(request);
+        int startDay = (int) startDate.toEpochDay();
+        int endDay = (int) endDate.toEpochDay();
+        int horizon = request.getHorizonDays();
+        CompletionService<BacktestAccumulator> completion = new ExecutorCompletionService<>(executor);
+        int chunks = 0;
+        for (int from = 0; from < fundCodes.size(); from += FUND_CHUNK) {
+            List<String> chunk = fundCodes.subList(from, Math.min(from + FUND_CHUNK, fundCodes.size()));
+            completion.submit(() -> runChunk(chunk, startDate, endDate,
+                    new BacktestAccumulator(variants, startDay, endDay, horizon)));
+            chunks++;
+        }
+
+        // 按完成顺序合并
+        BacktestAccumulator total = new BacktestAccumulator(variants, startDay, endDay, horizon);
+        try {
+            for (int i = 0; i < chunks; i++) {
+                total.merge(completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("回测被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("回测执行失败", e.getCause());
+        }
+
+        List<BacktestResult.Variant> results = new ArrayList<>(variants.length);
+        for (int v = 0; v < variants.length; v++) {
+            results.add(total.summarize(v, names.get(v)));
+        }
+        results.sort(Comparator.comparing(BacktestResult.Variant::getAnnualReturn,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+
+        BacktestResult result = new BacktestResult();
+        result.setStartDate(startDate);
+        result.setEndDate(endDate);
+        result.setFundCount(total.fundCount());
+        result.setNavRows(total.navRows());
+        result.setMetricsRows(total.metricsRows());
+        result.setCostMs(System.currentTimeMillis() - start);
+        result.setVariants(results);
+        log.info("信号回测完成: {}只基金, {}个组合, 净值{}行, 指标{}行, 耗时{}ms", total.fundCount(),
+                variants.length, total.navRows(), total.metricsRows(), result.getCostMs());
+        return result;
+    }
+
+    /**
+     * 单个分块：先读指标，再按基金顺序流式读净值，基金切换时立即模拟并释放
+     */
+    private BacktestAccumulator runChunk(List<String> fundCodes, LocalDate startDate, LocalDate endDate,
+                                         BacktestAccumulator accumulator) {
+        Map<String, FundSeries> seriesMap = new HashMap<>();
+        fundMetricsMapper.streamHistory(fundCodes, startDate, endDate, context -> {
+            FundMetrics metrics = context.getResultObject();
+            seriesMap.computeIfAbsent(metrics.getFundCode(), FundSeries::new).addMetrics(metrics);
+        });
+
+        FundSeries[] current = new FundSeries[1];
+        fundNavMapper.streamHistory(fundCodes, startDate, endDate, context -> {
+            FundNav nav = context.getResultObject();
+            if (current[0] == null || !current[0].fundCode().equals(nav.getFundCode())) {
+                if (current[0] != null) {
+                    accumulator.simulate(seriesMap.remove(current[0].fundCode()));
+                }
+                current[0] = seriesMap.computeIfAbsent(nav.getFundCode(), FundSeries::new);
+            }
+            current[0].addNav(nav);
+        });
+        if (current[0] != null) {
+            accumulator.simulate(seriesMap.remove(current[0].fundCode()));
+        }
+        // 有指标无净值的基金只统计信号数
+        seriesMap.values().forEach(accumulator::simulate);
+        return accumulator;
+    }
+
+    private SignalRuleSet[] expandVariants(BacktestRequest request, List<String> names) {
+        Map<String, SignalRuleSet> ruleSets = new LinkedHashMap<>();
+        if (request.getRuleSets() == null || request.getRuleSets().isEmpty()) {
+            ruleSets.put(CURRENT_RULES, signalRuleService.current());
+        } else {
+            request.getRuleSets().forEach((name, yaml) -> {
+                try {
+                    ruleSets.put(name, SignalRuleCompiler.compile(yaml));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("规则集[" + name + "]: " + e.getMessage());
+                }
+            });
+        }
+
+        List<SignalRuleSet> variants = new ArrayList<>();
+        for (Map.Entry<String, SignalRuleSet> entry : ruleSets.entrySet()) {
+            SignalRuleSet base = entry.getValue();
+            for (int strongBuy : gridOf(request.getStrongBuyScores(), base.getStrongBuyScore())) {
+                for (int buy : gridOf(request.getBuyScores(), base.getBuyScore())) {
+                    for (int sell : gridOf(request.getSellScores(), base.getSellScore())) {
+                        variants.add(base.withDecision(strongBuy, buy, sell));
+                        names.add(entry.getKey());
+                    }
+                }
+            }
+        }
+        if (variants.size() > MAX_VARIANTS) {
+            throw new IllegalArgumentException("规则与参数组合数不能超过" + MAX_VARIANTS + ", 当前" + variants.size());
+        }
+        return variants.toArray(new SignalRuleSet[0]);
+    }
+
+    private static List<Integer> gridOf(List<Integer> values, int defaultValue) {
+        return values == null || values.isEmpty() ? List.of(defaultValue) : values;
+    }
+
+    private List<String> resolveFundCodes(BacktestRequest request) {
+        if (request.getFundCodes() != null && !request.getFundCodes().isEmpty()) {
+            return request.getFundCodes().stream().distinct().sorted().collect(Collectors.toList());
+        }
+        LambdaQueryWrapper<FundInfo> wrapper = new LambdaQueryWrapper<FundInfo>()
+                .select(FundInfo::getFundCode)
+                .eq(FundInfo::getStatus, 1)
+                .eq(StringUtils.hasText(request.getFundType()), FundInfo::getFundType, request.getFundType())
+                .orderByAsc(FundInfo::getFundCode);
+        return fundInfoMapper.selectList(wrapper).stream()
+                .map(FundInfo::getFundCode)
+                .collect(Collectors.toList());
+    }
+
+    private static void validate(BacktestRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException("回测开始/结束日期不能为空");
+        }
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new IllegalArgumentException("回测开始日期不能晚于结束日期");
+        }
+        if (ChronoUnit.YEARS.between(request.getStartDate(), request.getEndDate()) >= MAX_YEARS) {
+            throw new IllegalArgumentException("回测区间不能超过" + MAX_YEARS + "年");
+        }
+        if (request.getHorizonDays() == null || request.getHorizonDays() < 1 || request.getHorizonDays() > 250) {
+            throw new IllegalArgumentException("前瞻交易日数须在1-250之间");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.fund.service.backtest;
+
+import com.fund.entity.FundMetrics;
+import com.fund.entity.FundNav;
+import com.fund.service.snapshot.MetricColumn;
+
+import java.util.Arrays;
+
+/**
+ * 单只基金的回测序列（按日期升序）
+ * 指标按行展开为扁平 double 数组（步长为 MetricColumn 数量），净值存日收益率与累计净值指数
+ */
+final class FundSeries {
+
+    static final int STRIDE = MetricColumn.values().length;
+
+    private final String fundCode;
+
+    private int metricsCount;
+    private int[] metricDays = new int[16];
+    private double[] records = new double[16 * STRIDE];
+
+    private int navCount;
+    private int[] navDays = new int[64];
+    private double[] returns = new double[64];
+    private double[] index = new double[64];
+    private double lastUnitNav = Double.NaN;
+
+    FundSeries(String fundCode) {
+        this.fundCode = fundCode;
+    }
+
+    String fundCode() {
+        return fundCode;
+    }
+
+    /**
+     * 追加一行指标（调用方保证按计算日期升序）
+     */
+    void addMetrics(FundMetrics metrics) {
+        if (metrics.getCalcDate() == null) {
+            return;
+        }
+        if (metricsCount == metricDays.length) {
+            metricDays = Arrays.copyOf(metricDays, metricsCount * 2);
+            records = Arrays.copyOf(records, metricsCount * 2 * STRIDE);
+        }
+        int offset = metricsCount * STRIDE;
+        for (MetricColumn column : MetricColumn.values()) {
+            records[offset + column.ordinal()] = column.read(metrics);
+        }
+        metricDays[metricsCount++] = (int) metrics.getCalcDate().toEpochDay();
+    }
+
+    /**
+     * 追加一条净值（调用方保证按净值日期升序）；优先用日增长率，缺失时由单位净值推算
+     */
+    void addNav(FundNav nav) {
+        if (nav.getNavDate() == null) {
+            return;
+        }
+        double unitNav = nav.getUnitNav() != null ? nav.getUnitNav().doubleValue() : Double.NaN;
+        double r;
+        if (nav.getDailyReturn() != null) {
+            r = nav.getDailyReturn().doubleValue() / 100;
+        } else if (!Double.isNaN(unitNav) && !Double.isNaN(lastUnitNav) && lastUnitNav > 0) {
+            r = unitNav / lastUnitNav - 1;
+        } else {
+            r = 0;
+        }
+        if (!Double.isNaN(unitNav)) {
+            lastUnitNav = unitNav;
+        }
+        if (navCount == navDays.length) {
+            navDays = Arrays.copyOf(navDays, navCount * 2);
+            returns = Arrays.copyOf(returns, navCount * 2);
+            index = Arrays.copyOf(index, navCount * 2);
+        }
+        navDays[navCount] = (int) nav.getNavDate().toEpochDay();
+        returns[navCount] = r;
+        index[navCount] = (navCount == 0 ? 1 : index[navCount - 1]) * (1 + r);
+        navCount++;
+    }
+
+    int metricsCount() {
+        return metricsCount;
+    }
+
+    int metricDay(int i) {
+        return metricDays[i];
+    }
+
+    /**
+     * 将第 i 行指标复制到 into（下标为 MetricColumn 序号）
+     */
+    void readMetrics(int i, double[] into) {
+        System.arraycopy(records, i * STRIDE, into, 0, STRIDE);
+    }
+
+    int navCount() {
+        return navCount;
+    }
+
+    int navDay(int i) {
+        return navDays[i];
+    }
+
+    double dailyReturn(int i) {
+        return returns[i];
+    }
+
+    /**
+     * 累计净值指数（首日为 1+首日收益）
+     */
+    double navIndex(int i) {
+        return index[i];
+    }
+}
@@ -0,0 +1,205 @@
+package com.fund.service.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.redisson.spring.cache.NullValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Redis 缓存值编码
+ * 格式：魔数(1) 版本(1) 标志(1) [原始长度(4)] 内容。内容为 Smile 二进制 JSON，按属性名读写并带类型名，
+ * 类增删字段、枚举新增取值后旧数据仍可读；超过阈值的内容用 LZ4 压缩。
+ * 无法识别的数据（旧编码、类已删除）按未命中处理，由调用方重新计算覆盖，不再需要启动时清空缓存
+ */
+public class CacheValueCodec extends BaseCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheValueCodec.class);
+
+    // 当前编码标识，写入 Redis 用于判断是否需要一次性清理旧编码数据
+    public static final String FORMAT_NAME = "smile-v1";
+
+    private static final byte MAGIC = (byte) 0xFC;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_LZ4 = 0x01;
+    private static final byte FLAG_NULL = 0x02;
+    private static final int HEADER = 3;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final ObjectMapper mapper;
+    private final int compressThreshold;
+    private final ClassLoader classLoader;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter undecodableCounter;
+    private final Counter compressedCounter;
+    private final DistributionSummary encodedBytes;
+
+    private final Encoder encoder = this::encode;
+    private final Decoder<Object> decoder = (buf, state) -> decode(buf);
+
+    public CacheValueCodec() {
+        this(null, 1024, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param compressThreshold 内容超过该字节数时压缩，0 表示不压缩
+     */
+    public CacheValueCodec(ClassLoader classLoader, int compressThreshold, MeterRegistry meterRegistry) {
+        this.classLoader = classLoader;
+        this.compressThreshold = compressThreshold;
+        this.meterRegistry = meterRegistry;
+        this.mapper = createMapper(classLoader);
+        this.undecodableCounter = meterRegistry.counter("fund.cache.codec", "event", "undecodable");
+        this.compressedCounter = meterRegistry.counter("fund.cache.codec", "event", "compressed");
+        this.encodedBytes = DistributionSummary.builder("fund.cache.codec.bytes").baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Redisson 在不同类加载器下复制编码器时使用
+     */
+    public CacheValueCodec(ClassLoader classLoader, CacheValueCodec codec) {
+        this(classLoader, codec.compressThreshold, codec.meterRegistry);
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader != null ? classLoader : super.getClassLoader();
+    }
+
+    ByteBuf encode(Object value) throws IOException {
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            if (value instanceof NullValue) {
+                out.writeByte(MAGIC).writeByte(VERSION).writeByte(FLAG_NULL);
+                return out;
+            }
+            byte[] body = mapper.writerFor(Object.class).writeValueAsBytes(value);
+            byte[] compressed = compress(body);
+            if (compressed != null) {
+                compressedCounter.increment();
+                out.writeByte(MAGIC).writeByte(VERSION).writeByte(FLAG_LZ4).writeInt(body.length).writeBytes(compressed);
+            } else {
+                out.writeByte(MAGIC).writeByte(VERSION).writeByte(0).writeBytes(body);
+            }
+            encodedBytes.record(out.readableBytes());
+            return out;
+        } catch (IOException | RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    Object decode(ByteBuf buf) {
+        int length = buf.readableBytes();
+        if (length < HEADER || buf.getByte(buf.readerIndex()) != MAGIC || buf.getByte(buf.readerIndex() + 1) > VERSION) {
+            buf.skipBytes(length);
+            undecodableCounter.increment();
+            return null;
+        }
+        buf.skipBytes(2);
+        byte flags = buf.readByte();
+        if ((flags & FLAG_NULL) != 0) {
+            return NullValue.INSTANCE;
+        }
+        try {
+            byte[] body;
+            if ((flags & FLAG_LZ4) != 0) {
+                int originalLength = buf.readInt();
+                byte[] compressed = new byte[buf.readableBytes()];
+                buf.readBytes(compressed);
+                body = decompress(compressed, originalLength);
+            } else {
+                body = new byte[buf.readableBytes()];
+                buf.readBytes(body);
+            }
+            return mapper.readValue(body, Object.class);
+        } catch (Exception e) {
+            buf.skipBytes(buf.readableBytes());
+            undecodableCounter.increment();
+            log.debug("缓存值无法解码，按未命中处理: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] compress(byte[] body) {
+        if (compressThreshold <= 0 || body.length < compressThreshold) {
+            return null;
+        }
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        byte[] out = new byte[compressor.maxCompressedLength(body.length)];
+        int n = compressor.compress(body, 0, body.length, out, 0, out.length);
+        // 压缩收益不足 10% 时存原文，省去读取时的解压
+        return n < body.length * 0.9 ? Arrays.copyOf(out, n) : null;
+    }
+
+    private static byte[] decompress(byte[] compressed, int originalLength) {
+        LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+        byte[] out = new byte[originalLength];
+        int n = decompressor.decompress(compressed, 0, compressed.length, out, 0, originalLength);
+        if (n != originalLength) {
+            throw new IllegalStateException("LZ4 解压长度不符: " + n + " != " + originalLength);
+        }
+        return out;
+    }
+
+    private static ObjectMapper createMapper(ClassLoader classLoader) {
+        // 重复的短字符串（类型名、基金类型等）写为回引用；该特性需要 Smile 头
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        // 只允许反序列化业务类与 JDK 常用值类型
+        BasicPolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.fund.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.math.")
+                .allowIfSubType("java.lang.")
+                .allowIfSubTypeIsArray()
+                .build();
+        mapper.activateDefaultTyping(validator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        if (classLoader != null) {
+            mapper.setTypeFactory(TypeFactory.defaultInstance().withClassLoader(classLoader));
+        }
+        return mapper;
+    }
+}
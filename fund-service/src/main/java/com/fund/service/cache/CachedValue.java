@@ -0,0 +1,36 @@
+package com.fund.service.cache;
+
+import java.io.Serializable;
+
+/**
+ * 可提前刷新缓存的存储格式：缓存值、重新计算耗时与逻辑过期时间
+ * Redis 中的物理过期晚于逻辑过期，两者之间的旧值可继续返回，同时后台重建
+ */
+public class CachedValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Object value;
+    // 上次计算耗时（毫秒），用于提前刷新的概率估计
+    private long deltaMillis;
+    // 逻辑过期时间戳（毫秒）
+    private long expireAt;
+
+    public CachedValue() {
+    }
+
+    public CachedValue(Object value, long deltaMillis, long expireAt) {
+        this.value = value;
+        this.deltaMillis = deltaMillis;
+        this.expireAt = expireAt;
+    }
+
+    public Object getValue() { return value; }
+    public void setValue(Object value) { this.value = value; }
+
+    public long getDeltaMillis() { return deltaMillis; }
+    public void setDeltaMillis(long deltaMillis) { this.deltaMillis = deltaMillis; }
+
+    public long getExpireAt() { return expireAt; }
+    public void setExpireAt(long expireAt) { this.expireAt = expireAt; }
+}
@@ -0,0 +1,205 @@
+package com.fund.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 过期前后台重建的缓存（stale-while-revalidate + XFetch 概率提前刷新）
+ * 值连同计算耗时与逻辑过期时间一起存储。带加载函数的读取（@Cacheable(sync = true)）：
+ * 逻辑过期前按 XFetch 以 now - delta * beta * ln(rand) >= expireAt 的概率提前刷新，
+ * 越接近过期、计算越慢，提前的概率越大；逻辑过期后到物理过期前返回旧值。
+ * 两种情况都只由本节点一个后台任务重建，请求线程不等待
+ */
+class RefreshingCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingCache.class);
+
+    private final String name;
+    private final Cache delegate;
+    private final long ttlMillis;
+    private final double beta;
+    private final CacheRefreshExecutor executor;
+    private final LongSupplier clock;
+
+    // 正在后台重建的键
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter freshCounter;
+    private final Counter earlyCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+    private final Timer refreshSuccess;
+    private final Timer refreshError;
+
+    RefreshingCache(String name, Cache delegate, long ttlMillis, double beta, CacheRefreshExecutor executor,
+                    MeterRegistry meterRegistry, LongSupplier clock) {
+        this.name = name;
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.beta = beta;
+        this.executor = executor;
+        this.clock = clock;
+        this.freshCounter = meterRegistry.counter("fund.cache.refresh.serve", "cache", name, "state", "fresh");
+        this.earlyCounter = meterRegistry.counter("fund.cache.refresh.serve", "cache", name, "state", "early");
+        this.staleCounter = meterRegistry.counter("fund.cache.refresh.serve", "cache", name, "state", "stale");
+        this.missCounter = meterRegistry.counter("fund.cache.refresh.serve", "cache", name, "state", "miss");
+        this.refreshSuccess = meterRegistry.timer("fund.cache.refresh", "cache", name, "outcome", "success");
+        this.refreshError = meterRegistry.timer("fund.cache.refresh", "cache", name, "outcome", "error");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    /**
+     * 无加载函数的读取无法后台重建，逻辑过期即视为未命中
+     */
+    @Override
+    public ValueWrapper get(Object key) {
+        CachedValue cached = lookup(key);
+        if (cached == null || clock.getAsLong() >= cached.getExpireAt()) {
+            return null;
+        }
+        return new SimpleValueWrapper(cached.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配: " + type.getName() + ", 实际 " + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CachedValue cached = lookup(key);
+        if (cached == null) {
+            missCounter.increment();
+            CachedValue loaded = delegate.get(key, () -> compute(valueLoader));
+            return loaded != null ? (T) loaded.getValue() : null;
+        }
+
+        long now = clock.getAsLong();
+        if (now >= cached.getExpireAt()) {
+            staleCounter.increment();
+            refreshAsync(key, valueLoader);
+        } else if (shouldRefreshEarly(cached, now)) {
+            earlyCounter.increment();
+            refreshAsync(key, valueLoader);
+        } else {
+            freshCounter.increment();
+        }
+        return (T) cached.getValue();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, new CachedValue(value, 0, clock.getAsLong() + ttlMillis));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, new CachedValue(value, 0, clock.getAsLong() + ttlMillis));
+        if (existing != null && existing.get() instanceof CachedValue cached) {
+            return new SimpleValueWrapper(cached.getValue());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    /**
+     * XFetch：now - delta * beta * ln(rand) >= expireAt 时提前刷新
+     */
+    boolean shouldRefreshEarly(CachedValue cached, long now) {
+        if (cached.getDeltaMillis() <= 0 || beta <= 0) {
+            return false;
+        }
+        double rand = ThreadLocalRandom.current().nextDouble();
+        return now - cached.getDeltaMillis() * beta * Math.log(rand) >= cached.getExpireAt();
+    }
+
+    /**
+     * 取存储的值；旧格式（重启前写入的裸值）删除后按未命中处理
+     */
+    private CachedValue lookup(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        if (wrapper.get() instanceof CachedValue cached) {
+            return cached;
+        }
+        delegate.evict(key);
+        return null;
+    }
+
+    private CachedValue compute(Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        long delta = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new CachedValue(value, Math.max(1, delta), clock.getAsLong() + ttlMillis);
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        boolean submitted = executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                delegate.put(key, compute(valueLoader));
+                refreshSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                refreshError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.warn("缓存后台重建失败: {}::{}, 继续使用旧值: {}", name, key, e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+        if (!submitted) {
+            refreshing.remove(key);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fund.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为指定缓存加上过期前后台重建（{@link RefreshingCache}），其余缓存原样交给下层管理器
+ * 下层缓存的物理 TTL 需长于这里的逻辑 TTL，多出的部分即允许返回旧值的时间
+ */
+public class RefreshingCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager delegate;
+    private final Map<String, Long> ttlMillis;
+    private final double beta;
+    private final CacheRefreshExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttlMillis 启用后台重建的缓存名 -> 逻辑过期时间（毫秒）
+     * @param beta      XFetch 提前刷新系数，越大越早刷新，0 关闭提前刷新
+     */
+    public RefreshingCacheManager(CacheManager delegate, Map<String, Long> ttlMillis, double beta,
+                                  CacheRefreshExecutor executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttlMillis = Map.copyOf(ttlMillis);
+        this.beta = beta;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null || !ttlMillis.containsKey(name)) {
+            return target;
+        }
+        return caches.computeIfAbsent(name, n -> new RefreshingCache(n, target, ttlMillis.get(n), beta, executor,
+                meterRegistry, System::currentTimeMillis));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+}
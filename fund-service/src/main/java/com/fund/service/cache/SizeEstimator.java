@@ -0,0 +1,126 @@
+package com.fund.service.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存值内存占用估算（字节）
+ * 按对象图浅层遍历：字符串、数值、日期按固定开销计算，集合与数组抽样前几个元素按比例外推，
+ * 普通对象按字段累加，嵌套超过 4 层按固定开销计。只用于本地缓存按容量淘汰，不追求精确
+ */
+final class SizeEstimator {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int MAX_DEPTH = 4;
+    private static final int SAMPLE = 8;
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(f.getModifiers()) && f.trySetAccessible()) {
+                        fields.add(f);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private SizeEstimator() {
+    }
+
+    static long estimate(Object value) {
+        return estimate(value, 0);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence s) {
+            return 40 + 2L * s.length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>) {
+            return value instanceof BigDecimal || value instanceof BigInteger ? 64 : 24;
+        }
+        if (value instanceof Temporal) {
+            return 48;
+        }
+        if (depth >= MAX_DEPTH) {
+            return 64;
+        }
+        if (value instanceof Collection<?> c) {
+            return 40 + sampled(c.iterator(), c.size(), depth);
+        }
+        if (value instanceof Map<?, ?> m) {
+            return 48 + 32L * m.size()
+                    + sampled(m.keySet().iterator(), m.size(), depth)
+                    + sampled(m.values().iterator(), m.size(), depth);
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            Class<?> component = type.getComponentType();
+            if (component.isPrimitive()) {
+                return OBJECT_HEADER + (long) length * primitiveSize(component);
+            }
+            long sampledBytes = 0;
+            int n = Math.min(length, SAMPLE);
+            for (int i = 0; i < n; i++) {
+                sampledBytes += estimate(Array.get(value, i), depth + 1);
+            }
+            return OBJECT_HEADER + (long) length * REFERENCE + (n == 0 ? 0 : sampledBytes * length / n);
+        }
+        long size = OBJECT_HEADER;
+        for (Field f : FIELDS.get(type)) {
+            Class<?> fieldType = f.getType();
+            if (fieldType.isPrimitive()) {
+                size += primitiveSize(fieldType);
+                continue;
+            }
+            size += REFERENCE;
+            try {
+                size += estimate(f.get(value), depth + 1);
+            } catch (IllegalAccessException e) {
+                size += 64;
+            }
+        }
+        return size;
+    }
+
+    private static long sampled(Iterator<?> it, int size, int depth) {
+        long sampledBytes = 0;
+        int n = 0;
+        while (n < SAMPLE && it.hasNext()) {
+            sampledBytes += REFERENCE + estimate(it.next(), depth + 1);
+            n++;
+        }
+        return n == 0 ? 0 : sampledBytes * size / n;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,175 @@
+package com.fund.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 两级缓存：进程内一级缓存在前，Redis 二级缓存在后
+ * 读先查一级，未命中再查二级并回填（读取期间收到失效则撤回回填）；写入、删除、清空先改二级再丢弃本地副本，
+ * 并通过 {@link TwoLevelCacheManager} 广播让其他节点也丢弃
+ */
+class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final TwoLevelCacheManager manager;
+
+    private final Counter l1Hit;
+    private final Counter l1Miss;
+    private final Counter l2Hit;
+    private final Counter l2Miss;
+
+    TwoLevelCache(String name, Cache remote, TwoLevelCacheManager manager, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.remote = remote;
+        this.manager = manager;
+        this.l1Hit = meterRegistry.counter("fund.cache.gets", "cache", name, "tier", "l1", "result", "hit");
+        this.l1Miss = meterRegistry.counter("fund.cache.gets", "cache", name, "tier", "l1", "result", "miss");
+        this.l2Hit = meterRegistry.counter("fund.cache.gets", "cache", name, "tier", "l2", "result", "hit");
+        this.l2Miss = meterRegistry.counter("fund.cache.gets", "cache", name, "tier", "l2", "result", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object local = manager.getLocal(name, key);
+        if (local != null) {
+            l1Hit.increment();
+            return new SimpleValueWrapper(fromStore(local));
+        }
+        l1Miss.increment();
+        long generation = manager.generation(name, key);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            l2Miss.increment();
+            return null;
+        }
+        l2Hit.increment();
+        manager.fillLocal(name, key, toStore(wrapper.get()), generation);
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配: " + type.getName() + ", 实际 " + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object local = manager.getLocal(name, key);
+        if (local != null) {
+            l1Hit.increment();
+            return (T) fromStore(local);
+        }
+        l1Miss.increment();
+        long generation = manager.generation(name, key);
+        boolean[] loaded = new boolean[1];
+        T value = remote.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        (loaded[0] ? l2Miss : l2Hit).increment();
+        manager.fillLocal(name, key, toStore(value), generation);
+        if (loaded[0]) {
+            manager.publishEvict(name, key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        manager.putLocal(name, key, toStore(value));
+        manager.publishEvict(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        manager.evictLocal(name, key);
+        if (existing == null) {
+            manager.publishEvict(name, key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        manager.evictLocal(name, key);
+        manager.publishEvict(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        manager.evictLocal(name, key);
+        manager.publishEvict(name, key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        manager.clearLocal(name);
+        manager.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        manager.clearLocal(name);
+        manager.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * 两级命中统计
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("l1Hits", (long) l1Hit.count());
+        stats.put("l1Misses", (long) l1Miss.count());
+        stats.put("l1HitRate", rate(l1Hit.count(), l1Miss.count()));
+        stats.put("l2Hits", (long) l2Hit.count());
+        stats.put("l2Misses", (long) l2Miss.count());
+        stats.put("l2HitRate", rate(l2Hit.count(), l2Miss.count()));
+        return stats;
+    }
+
+    private static double rate(double hit, double miss) {
+        double total = hit + miss;
+        return total == 0 ? 0 : Math.round(hit / total * 10_000) / 10_000.0;
+    }
+
+    private static Object toStore(Object value) {
+        return value != null ? value : NullValue.INSTANCE;
+    }
+
+    private static Object fromStore(Object stored) {
+        return stored == NullValue.INSTANCE ? null : stored;
+    }
+}
@@ -0,0 +1,247 @@
+package com.fund.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 两级缓存管理器
+ * 指定的缓存在 Redis 缓存前加一层进程内缓存（Caffeine），所有缓存共享一个按估算字节数淘汰的容量上限，
+ * 过期时间沿用各缓存在 Redis 的 TTL；写入、删除、清空通过 Redis 主题广播，其他节点收到后丢弃本地副本。
+ * 读二级缓存到回填一级缓存之间若收到失效，按失效代数撤回回填，旧值不会留在一级缓存直到过期。
+ * 未列出的缓存直接使用 Redis 缓存
+ */
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    static final String TOPIC = "cache:invalidate";
+
+    // 广播消息：节点ID \n 缓存名 \n 操作 \n 键
+    private static final String OP_EVICT = "evict";
+    private static final String OP_CLEAR = "clear";
+
+    // 失效代数按键哈希分段计数
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final CacheManager remote;
+    private final Map<String, Long> localTtlMillis;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final com.github.benmanes.caffeine.cache.Cache<LocalKey, Object> local;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    // 每次失效先递增代数再丢弃本地副本；清空递增全局代数
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    private final RTopic topic;
+    private final int listenerId;
+
+    /**
+     * @param remote         Redis 缓存管理器
+     * @param redissonClient 用于广播失效消息；为 null 时只在本节点失效
+     * @param localTtlMillis 启用一级缓存的缓存名 -> 一级缓存过期时间（毫秒）
+     * @param maxLocalBytes  一级缓存总容量（估算字节数）
+     */
+    public TwoLevelCacheManager(CacheManager remote, RedissonClient redissonClient, Map<String, Long> localTtlMillis,
+                                long maxLocalBytes, MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.localTtlMillis = Map.copyOf(localTtlMillis);
+        this.meterRegistry = meterRegistry;
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(maxLocalBytes)
+                .weigher((LocalKey key, Object value) -> (int) Math.min(Integer.MAX_VALUE, SizeEstimator.estimate(value) + 64))
+                .expireAfter(new LocalExpiry())
+                .build();
+        Gauge.builder("fund.cache.local.size", local, c -> c.estimatedSize()).register(meterRegistry);
+        Gauge.builder("fund.cache.local.bytes", local,
+                c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L)).register(meterRegistry);
+
+        RTopic subscribed = null;
+        int id = -1;
+        if (redissonClient != null) {
+            try {
+                subscribed = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+                id = subscribed.addListener(String.class, (channel, message) -> onMessage(message));
+            } catch (Exception e) {
+                log.warn("缓存失效主题订阅失败，一级缓存只能依赖过期时间: {}", e.getMessage());
+                subscribed = null;
+            }
+        }
+        this.topic = subscribed;
+        this.listenerId = id;
+        log.info("两级缓存已启用: {}, 一级容量 {}MB", this.localTtlMillis.keySet(), maxLocalBytes >> 20);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> localTtlMillis.containsKey(n)
+                ? new TwoLevelCache(n, remoteCache, this, meterRegistry)
+                : remoteCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * 各两级缓存的分层命中统计
+     */
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String name : localTtlMillis.keySet()) {
+            if (getCache(name) instanceof TwoLevelCache cache) {
+                stats.put(name, cache.stats());
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        if (topic != null) {
+            try {
+                topic.removeListener(listenerId);
+            } catch (Exception e) {
+                log.debug("取消缓存失效订阅失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    Object getLocal(String cacheName, Object key) {
+        return local.getIfPresent(new LocalKey(cacheName, key));
+    }
+
+    /**
+     * 写入新值；先推进代数，使并发进行中的旧值回填被撤回而不会覆盖新值
+     */
+    void putLocal(String cacheName, Object key, Object value) {
+        LocalKey localKey = new LocalKey(cacheName, key);
+        generations.incrementAndGet(stripe(localKey));
+        local.put(localKey, value);
+    }
+
+    /**
+     * 键的当前失效代数，读二级缓存前取得，回填时传给 {@link #fillLocal}
+     */
+    long generation(String cacheName, Object key) {
+        return generations.get(stripe(new LocalKey(cacheName, key))) + clearGeneration.get();
+    }
+
+    /**
+     * 回填从二级缓存读到的值；读取期间该键收到过失效（代数已变化）时撤回本次回填
+     */
+    void fillLocal(String cacheName, Object key, Object value, long generation) {
+        LocalKey localKey = new LocalKey(cacheName, key);
+        local.put(localKey, value);
+        if (generation(cacheName, key) != generation) {
+            local.asMap().remove(localKey, value);
+        }
+    }
+
+    void evictLocal(String cacheName, Object key) {
+        LocalKey localKey = new LocalKey(cacheName, key);
+        generations.incrementAndGet(stripe(localKey));
+        local.invalidate(localKey);
+    }
+
+    void clearLocal(String cacheName) {
+        clearGeneration.incrementAndGet();
+        local.asMap().keySet().removeIf(k -> k.cache().equals(cacheName));
+    }
+
+    private static int stripe(LocalKey key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    /**
+     * 广播单个键失效；非字符串键无法跨节点还原，改为清空该缓存的本地副本
+     */
+    void publishEvict(String cacheName, Object key) {
+        if (key instanceof String s) {
+            publish(cacheName, OP_EVICT, s);
+        } else {
+            publish(cacheName, OP_CLEAR, "");
+        }
+    }
+
+    void publishClear(String cacheName) {
+        publish(cacheName, OP_CLEAR, "");
+    }
+
+    private void publish(String cacheName, String op, String key) {
+        if (topic == null) {
+            return;
+        }
+        try {
+            topic.publishAsync(nodeId + '\n' + cacheName + '\n' + op + '\n' + key);
+        } catch (Exception e) {
+            log.warn("缓存失效广播失败: {} {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    void onMessage(String message) {
+        String[] parts = message.split("\n", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[2])) {
+            clearLocal(parts[1]);
+        } else {
+            evictLocal(parts[1], parts[3]);
+        }
+    }
+
+    record LocalKey(String cache, Object key) {
+    }
+
+    /**
+     * 按缓存名取过期时间；读取不续期
+     */
+    private final class LocalExpiry implements Expiry<LocalKey, Object> {
+
+        @Override
+        public long expireAfterCreate(LocalKey key, Object value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(localTtlMillis.getOrDefault(key.cache(), 0L));
+        }
+
+        @Override
+        public long expireAfterUpdate(LocalKey key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(LocalKey key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.fund.service.collect;
+
+/**
+ * 计数窗口熔断器
+ * 最近 N 次调用中失败（含慢调用）占比达到阈值即打开；打开一段时间后半开，放行少量探测请求，
+ * 探测全部成功则关闭，任一失败重新打开
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // 环形窗口：true 表示失败
+    private final boolean[] outcomes;
+    private int head;
+    private int count;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openMillis, int halfOpenCalls) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.outcomes = new boolean[this.windowSize];
+    }
+
+    /**
+     * 是否放行本次调用；半开状态下占用一个探测名额
+     */
+    synchronized boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenIssued = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenIssued >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenIssued++;
+        }
+        return true;
+    }
+
+    /**
+     * 归还未实际发出的调用名额（如被限流拒绝）
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenIssued > 0) {
+            halfOpenIssued--;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                reset();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        onFailure(System.nanoTime());
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && count >= minimumCalls
+                && failures * 100 >= failureRateThreshold * count) {
+            open(now);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (count == windowSize) {
+            if (outcomes[head]) {
+                failures--;
+            }
+        } else {
+            count++;
+        }
+        outcomes[head] = failed;
+        if (failed) {
+            failures++;
+        }
+        head = (head + 1) % windowSize;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        head = 0;
+        count = 0;
+        failures = 0;
+    }
+}
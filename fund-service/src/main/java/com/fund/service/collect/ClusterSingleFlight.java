@@ -0,0 +1,220 @@
+package com.fund.service.collect;
+
+import com.fund.config.CollectProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 跨节点采集合并（分布式 single-flight）
+ * 第一个拿到租约的节点执行采集，成功的结果短暂写入 Redis 并通过主题通知；其他节点等待通知后读取结果。
+ * 执行节点失败或宕机（租约到期）时等待节点接手执行；Redis 不可用或等待超时时直接在本节点采集。
+ * 等待时长不超过租约与调用方给出的上限，保证调用方放弃前还来得及在本节点采集
+ */
+@Component
+public class ClusterSingleFlight {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterSingleFlight.class);
+
+    private static final String LEASE_PREFIX = "collect:lease:";
+    private static final String RESULT_PREFIX = "collect:result:";
+    private static final String TOPIC = "collect:done";
+
+    private final RedissonClient redissonClient;
+    private final CollectProperties.SingleFlight config;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 本节点正在等待的任务 -> 完成通知
+    private final Map<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+    private final Counter fallbackCounter;
+
+    private volatile boolean subscribed = false;
+
+    public ClusterSingleFlight(ObjectProvider<RedissonClient> redissonClient,
+                               CollectProperties collectProperties,
+                               MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient.getIfAvailable();
+        this.config = collectProperties.getSingleFlight();
+        this.leaderCounter = meterRegistry.counter("fund.collect.singleflight", "role", "leader");
+        this.followerCounter = meterRegistry.counter("fund.collect.singleflight", "role", "follower");
+        this.fallbackCounter = meterRegistry.counter("fund.collect.singleflight", "role", "fallback");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!config.isEnabled() || redissonClient == null) {
+            return;
+        }
+        try {
+            RTopic topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+            topic.addListener(String.class, (channel, taskKey) -> {
+                CompletableFuture<Void> signal = waiters.remove(taskKey);
+                if (signal != null) {
+                    signal.complete(null);
+                }
+            });
+            subscribed = true;
+        } catch (Exception e) {
+            log.warn("采集完成通知订阅失败，跨节点合并不可用: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 在集群范围内合并执行同一任务，最多等待其他节点一个租约时长
+     *
+     * @param taskKey 任务唯一标识
+     * @param task    采集逻辑
+     * @return 本节点或其他节点的采集结果
+     */
+    public <T> T execute(String taskKey, Supplier<T> task) {
+        return execute(taskKey, task, leaseDuration());
+    }
+
+    /**
+     * 在集群范围内合并执行同一任务
+     *
+     * @param taskKey 任务唯一标识
+     * @param task    采集逻辑
+     * @param maxWait 等待其他节点结果的上限（超过租约时按租约），到期后本节点直接采集
+     * @return 本节点或其他节点的采集结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String taskKey, Supplier<T> task, Duration maxWait) {
+        if (!subscribed) {
+            return task.get();
+        }
+        RBucket<String> lease;
+        RBucket<Object> result;
+        try {
+            lease = redissonClient.getBucket(LEASE_PREFIX + taskKey, StringCodec.INSTANCE);
+            result = redissonClient.getBucket(RESULT_PREFIX + taskKey);
+            Object shared = result.get();
+            if (shared != null) {
+                followerCounter.increment();
+                return (T) shared;
+            }
+            if (lease.setIfAbsent(nodeId, leaseDuration())) {
+                return lead(taskKey, task, lease, result);
+            }
+        } catch (Exception e) {
+            log.warn("跨节点合并不可用，本节点直接采集[{}]: {}", taskKey, e.getMessage());
+            fallbackCounter.increment();
+            return task.get();
+        }
+        return follow(taskKey, task, lease, result, maxWait);
+    }
+
+    private <T> T lead(String taskKey, Supplier<T> task, RBucket<String> lease, RBucket<Object> result) {
+        leaderCounter.increment();
+        T value;
+        try {
+            value = task.get();
+        } catch (RuntimeException e) {
+            release(taskKey, lease);
+            throw e;
+        }
+        try {
+            if (shareable(value)) {
+                result.set(value, Duration.ofSeconds(config.getResultTtlSeconds()));
+            }
+        } catch (Exception e) {
+            log.warn("采集结果共享失败[{}]: {}", taskKey, e.getMessage());
+        }
+        release(taskKey, lease);
+        return value;
+    }
+
+    /**
+     * 只共享成功的结果；失败结果（超时、限流等）不写入，等待节点拿到租约后自行重试
+     */
+    private static boolean shareable(Object value) {
+        return value != null && (!(value instanceof CollectResult<?> collectResult) || collectResult.isSuccess());
+    }
+
+    /**
+     * 释放租约并通知等待节点；没有共享结果时等待节点会发现租约已释放而接手执行
+     */
+    private void release(String taskKey, RBucket<String> lease) {
+        try {
+            lease.compareAndSet(nodeId, null);
+            redissonClient.getTopic(TOPIC, StringCodec.INSTANCE).publish(taskKey);
+        } catch (Exception e) {
+            log.warn("采集租约释放失败[{}]: {}", taskKey, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T follow(String taskKey, Supplier<T> task, RBucket<String> lease, RBucket<Object> result,
+                         Duration maxWait) {
+        log.debug("任务[{}]正由其他节点执行，等待结果", taskKey);
+        long deadline = System.currentTimeMillis() + Math.min(leaseDuration().toMillis(), maxWait.toMillis());
+        CompletableFuture<Void> signal = null;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                signal = waiters.computeIfAbsent(taskKey, k -> new CompletableFuture<>());
+                Object shared = result.get();
+                if (shared != null) {
+                    followerCounter.increment();
+                    return (T) shared;
+                }
+                // 执行节点已结束但没有结果（失败），或宕机后租约到期：接手执行
+                if (lease.setIfAbsent(nodeId, leaseDuration())) {
+                    return lead(taskKey, task, lease, result);
+                }
+                try {
+                    signal.get(Math.max(1, Math.min(config.getPollIntervalMs(), deadline - System.currentTimeMillis())),
+                            TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ignored) {
+                    // 定期检查，兼顾错过的通知
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待采集结果被中断: " + taskKey, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (Exception e) {
+            log.warn("等待其他节点采集结果失败[{}]: {}", taskKey, e.getMessage());
+        } finally {
+            // 主题通知只在收到时移除，超时、接手或异常退出时在这里清理
+            if (signal != null) {
+                waiters.remove(taskKey, signal);
+            }
+        }
+        log.warn("等待其他节点采集[{}]超时，本节点直接采集", taskKey);
+        fallbackCounter.increment();
+        return task.get();
+    }
+
+    /**
+     * 本节点等待中的任务数
+     */
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    private Duration leaseDuration() {
+        return Duration.ofSeconds(config.getLeaseSeconds());
+    }
+}
@@ -0,0 +1,164 @@
+package com.fund.service.collect;
+
+import com.fund.config.CollectProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 采集执行器
+ * 每种数据类型（info/metrics/nav）独立的有界线程池，互不抢占；
+ * 队列按优先级出队，后台任务最多占用部分队列，队列满时拒绝并计数
+ */
+@Component
+public class CollectExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectExecutor.class);
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final CollectProperties.Executor config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public CollectExecutor(CollectProperties collectProperties, MeterRegistry meterRegistry) {
+        this.config = collectProperties.getExecutor();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 提交采集任务
+     *
+     * @param dataType 数据类型，决定使用的线程池
+     * @param priority 优先级
+     * @param task     任务执行逻辑
+     * @return 任务结果
+     * @throws RejectedExecutionException 队列已满
+     */
+    public <T> CompletableFuture<T> submit(String dataType, CollectPriority priority, Supplier<T> task) {
+        Lane lane = lanes.computeIfAbsent(dataType, this::createLane);
+        int limit = priority == CollectPriority.USER
+                ? lane.queueCapacity
+                : Math.max(1, (int) (lane.queueCapacity * config.getBackgroundQueueRatio()));
+        if (lane.queued.incrementAndGet() > limit) {
+            lane.queued.decrementAndGet();
+            lane.rejected(priority).increment();
+            throw new RejectedExecutionException("采集队列已满: " + dataType + "/" + priority);
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        PrioritizedTask command = new PrioritizedTask(priority, lane.seq.getAndIncrement(), () -> {
+            lane.queued.decrementAndGet();
+            // 等待方已超时取消的任务不再执行
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        try {
+            lane.pool.execute(command);
+        } catch (RejectedExecutionException e) {
+            lane.queued.decrementAndGet();
+            lane.rejected(priority).increment();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * 某类型当前排队任务数
+     */
+    public int queued(String dataType) {
+        Lane lane = lanes.get(dataType);
+        return lane != null ? lane.queued.get() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.pool.shutdownNow());
+    }
+
+    private Lane createLane(String dataType) {
+        CollectProperties.Pool pool = config.pool(dataType);
+        int threads = Math.max(1, pool.getThreads());
+        AtomicInteger seq = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "collect-" + dataType + "-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        Lane lane = new Lane(executor, Math.max(1, pool.getQueueCapacity()), dataType, meterRegistry);
+        Gauge.builder("fund.collect.queue", lane.queued, AtomicInteger::get)
+                .tag("type", dataType)
+                .register(meterRegistry);
+        Gauge.builder("fund.collect.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("type", dataType)
+                .register(meterRegistry);
+        log.info("采集线程池已创建: type={}, threads={}, queue={}", dataType, threads, lane.queueCapacity);
+        return lane;
+    }
+
+    /**
+     * 单个数据类型的线程池与计数
+     */
+    private static final class Lane {
+        final ThreadPoolExecutor pool;
+        final int queueCapacity;
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicLong seq = new AtomicLong();
+        final Counter userRejected;
+        final Counter backgroundRejected;
+
+        Lane(ThreadPoolExecutor pool, int queueCapacity, String dataType, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.queueCapacity = queueCapacity;
+            this.userRejected = meterRegistry.counter("fund.collect.rejected", "type", dataType, "priority", "user");
+            this.backgroundRejected = meterRegistry.counter("fund.collect.rejected", "type", dataType, "priority", "background");
+        }
+
+        Counter rejected(CollectPriority priority) {
+            return priority == CollectPriority.USER ? userRejected : backgroundRejected;
+        }
+    }
+
+    /**
+     * 按优先级、再按提交顺序出队的任务
+     */
+    private record PrioritizedTask(CollectPriority priority, long seq, Runnable body)
+            implements Runnable, Comparable<PrioritizedTask> {
+
+        @Override
+        public void run() {
+            body.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int c = priority.compareTo(other.priority);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.fund.service.collect;
+
+/**
+ * 采集任务优先级
+ * 同一线程池内按枚举顺序出队：用户请求触发的缓存未命中排在后台刷新之前
+ */
+public enum CollectPriority {
+
+    /**
+     * 用户请求（缓存未命中、手动刷新）
+     */
+    USER,
+
+    /**
+     * 后台任务（批量刷新、预热）
+     */
+    BACKGROUND
+}
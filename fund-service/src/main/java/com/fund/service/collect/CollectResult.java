@@ -50,6 +50,11 @@ public class CollectResult<T> {
      */
     public static final String ERR_INVALID_PARAM = "INVALID_PARAM";
     
+    /**
+     * 采集服务暂不可用（熔断或限流，未实际调用）
+     */
+    public static final String ERR_UNAVAILABLE = "UNAVAILABLE";
+    
     // ============ 构造方法 ============
     
     public CollectResult() {
@@ -177,6 +182,22 @@ public class CollectResult<T> {
         return fail(ERR_SERVICE_ERROR, "服务异常: " + message);
     }
     
+    /**
+     * 创建"采集服务暂不可用"失败结果
+     */
+    public static <T> CollectResult<T> unavailable(String message) {
+        return fail(ERR_UNAVAILABLE, "采集服务暂不可用: " + message);
+    }
+    
+    /**
+     * 是否为暂时性失败（超时、服务异常、熔断限流），区别于"数据确实不存在"
+     */
+    public boolean isTransientFailure() {
+        return !success && (ERR_TIMEOUT.equals(errorCode)
+                || ERR_SERVICE_ERROR.equals(errorCode)
+                || ERR_UNAVAILABLE.equals(errorCode));
+    }
+    
     @Override
     public String toString() {
         return "CollectResult{" +
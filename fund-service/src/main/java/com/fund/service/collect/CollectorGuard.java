@@ -0,0 +1,159 @@
+package com.fund.service.collect;
+
+import com.fund.config.CollectProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 采集接口保护
+ * 每个采集接口（info/metrics/nav/estimate/batch ...）一个熔断器和一个自适应并发限制：
+ * 熔断打开或在途数超过当前上限时立即拒绝，调用方回退到本地库中的旧数据
+ */
+@Component
+public class CollectorGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectorGuard.class);
+
+    private final CollectProperties.Resilience config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public CollectorGuard(CollectProperties collectProperties, MeterRegistry meterRegistry) {
+        this.config = collectProperties.getResilience();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 申请一次调用许可
+     *
+     * @throws CollectorUnavailableException 熔断打开或超出并发上限
+     */
+    public Permit acquire(String endpoint) {
+        if (!config.isEnabled()) {
+            return Permit.NOOP;
+        }
+        Endpoint ep = endpoints.computeIfAbsent(endpoint, this::createEndpoint);
+        if (!ep.breaker.tryAcquire()) {
+            ep.openRejected.increment();
+            throw new CollectorUnavailableException("采集接口熔断中: " + endpoint);
+        }
+        if (!ep.limiter.tryAcquire()) {
+            ep.breaker.release();
+            ep.limitRejected.increment();
+            throw new CollectorUnavailableException("采集接口并发已达上限: " + endpoint + "/" + ep.limiter.limit());
+        }
+        return new Permit(ep);
+    }
+
+    /**
+     * 接口是否可调用（熔断未打开）；用于在排队前快速失败
+     */
+    public boolean isAvailable(String endpoint) {
+        Endpoint ep = endpoints.get(endpoint);
+        return ep == null || ep.breaker.state() != CircuitBreaker.State.OPEN || !config.isEnabled();
+    }
+
+    private Endpoint createEndpoint(String endpoint) {
+        Endpoint ep = new Endpoint(endpoint,
+                new CircuitBreaker(config.getWindowSize(), config.getMinimumCalls(), config.getFailureRateThreshold(),
+                        config.getOpenSeconds() * 1000, config.getHalfOpenCalls()),
+                new GradientLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                        config.getRttTolerance(), config.getSmoothing()),
+                config.slowCallMsFor(endpoint) * 1_000_000L);
+        Gauge.builder("fund.collect.breaker.state", ep.breaker, b -> b.state().ordinal())
+                .description("熔断状态：0 关闭，1 打开，2 半开")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("fund.collect.limit", ep.limiter, GradientLimiter::limit)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("fund.collect.inflight", ep.limiter, GradientLimiter::inflight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        ep.openRejected = meterRegistry.counter("fund.collect.short.circuit", "endpoint", endpoint, "reason", "open");
+        ep.limitRejected = meterRegistry.counter("fund.collect.short.circuit", "endpoint", endpoint, "reason", "limit");
+        return ep;
+    }
+
+    /**
+     * 单次调用许可，调用结束后必须上报结果
+     */
+    public static class Permit {
+
+        static final Permit NOOP = new Permit(null);
+
+        private final Endpoint endpoint;
+
+        Permit(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * 收到响应（非 5xx）；慢调用计入熔断失败
+         */
+        public void onSuccess(long nanos) {
+            if (endpoint == null) {
+                return;
+            }
+            endpoint.limiter.onComplete(nanos, false);
+            if (nanos >= endpoint.slowCallNanos) {
+                endpoint.failed();
+            } else {
+                endpoint.breaker.onSuccess();
+            }
+        }
+
+        /**
+         * 调用失败；超时同时收缩并发上限
+         */
+        public void onFailure(long nanos, boolean timeout) {
+            if (endpoint == null) {
+                return;
+            }
+            endpoint.limiter.onComplete(nanos, timeout);
+            endpoint.failed();
+        }
+
+        /**
+         * 许可未使用
+         */
+        public void release() {
+            if (endpoint == null) {
+                return;
+            }
+            endpoint.limiter.release();
+            endpoint.breaker.release();
+        }
+    }
+
+    static final class Endpoint {
+        final String name;
+        final CircuitBreaker breaker;
+        final GradientLimiter limiter;
+        final long slowCallNanos;
+        Counter openRejected;
+        Counter limitRejected;
+
+        Endpoint(String name, CircuitBreaker breaker, GradientLimiter limiter, long slowCallNanos) {
+            this.name = name;
+            this.breaker = breaker;
+            this.limiter = limiter;
+            this.slowCallNanos = slowCallNanos;
+        }
+
+        void failed() {
+            CircuitBreaker.State before = breaker.state();
+            breaker.onFailure();
+            if (before != CircuitBreaker.State.OPEN && breaker.state() == CircuitBreaker.State.OPEN) {
+                log.warn("采集接口[{}]熔断打开", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.fund.service.collect;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fund.config.CollectProperties;
+import com.fund.entity.FundNav;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Python采集服务 HTTP 客户端
+ * 基于 JDK HttpClient：连接池复用 keep-alive 连接，请求异步发送，同时在途请求数有上限；
+ * 响应按目标类型直接反序列化为实体（不经过 Map），每次调用按接口记录耗时；
+ * 调用前经 {@link CollectorGuard} 检查熔断与自适应并发，结果回报给对应接口；
+ * 配置了对冲的只读接口在主请求超过 p95 延迟未返回时补发一次，取先成功的响应并取消另一个，
+ * 对冲预算按请求覆盖的基金数计费（批量估值一次覆盖多只）
+ */
+@Component
+public class CollectorHttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectorHttpClient.class);
+
+    private static final String TIMER_NAME = "fund.collect.http";
+
+    // 不受熔断限流约束的接口（健康检查用于判断服务是否恢复）
+    private static final String UNGUARDED_OP = "health";
+
+    private final String baseUrl;
+    private final CollectProperties.Http config;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final CollectorGuard guard;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    // 启用对冲的接口 -> 对冲策略
+    private final Map<String, HedgePolicy> hedges = new HashMap<>();
+
+    public CollectorHttpClient(CollectProperties collectProperties,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               CollectorGuard guard,
+                               @Value("${collector.url:http://localhost:5005}") String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.config = collectProperties.getHttp();
+        this.objectMapper = collectorMapper(objectMapper);
+        this.meterRegistry = meterRegistry;
+        this.guard = guard;
+        this.permits = new Semaphore(Math.max(1, config.getMaxConcurrent()));
+        CollectProperties.Hedge hedge = collectProperties.getHedge();
+        if (hedge.isEnabled()) {
+            for (String endpoint : hedge.getEndpoints()) {
+                hedges.put(endpoint, new HedgePolicy(endpoint, hedge.getDelayMs(), hedge.getMinDelayMs(),
+                        hedge.getBudgetPercent(), meterRegistry));
+            }
+        }
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "collector-http-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // 采集服务是 Flask（HTTP/1.1），固定版本避免每个连接的 h2c 升级尝试
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * 异步 GET
+     *
+     * @param op       接口名，用作耗时指标标签
+     * @param path     请求路径
+     * @param dataType data 字段类型
+     */
+    public <T> CompletableFuture<CollectorResponse<T>> getAsync(String op, String path, JavaType dataType) {
+        return send(op, request(path).GET().build(), dataType, 1);
+    }
+
+    /**
+     * 异步 POST（JSON 请求体）
+     */
+    public <T> CompletableFuture<CollectorResponse<T>> postAsync(String op, String path, Object body, JavaType dataType) {
+        return postAsync(op, path, body, dataType, 1);
+    }
+
+    /**
+     * 异步 POST（JSON 请求体）
+     *
+     * @param cost 请求覆盖的基金数，对冲预算按此计费
+     */
+    public <T> CompletableFuture<CollectorResponse<T>> postAsync(String op, String path, Object body, JavaType dataType,
+                                                                 int cost) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+        return send(op, request, dataType, cost);
+    }
+
+    public <T> CollectorResponse<T> get(String op, String path, JavaType dataType) {
+        return await(getAsync(op, path, dataType));
+    }
+
+    public <T> CollectorResponse<T> post(String op, String path, Object body, JavaType dataType) {
+        return await(postAsync(op, path, body, dataType));
+    }
+
+    /**
+     * 完整请求地址
+     */
+    public String url(String path) {
+        return baseUrl + path;
+    }
+
+    public JavaType type(Class<?> type) {
+        return objectMapper.getTypeFactory().constructType(type);
+    }
+
+    public JavaType listType(Class<?> elementType) {
+        return objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(url(path)))
+                .timeout(Duration.ofMillis(config.getReadTimeoutMs()))
+                .header("Accept", "application/json");
+    }
+
+    private <T> CompletableFuture<CollectorResponse<T>> send(String op, HttpRequest request, JavaType dataType,
+                                                           int cost) {
+        HedgePolicy hedge = hedges.get(op);
+        if (hedge == null) {
+            return this.<T>attempt(op, request, dataType, config.getAcquireTimeoutMs(), null).result;
+        }
+        return hedged(op, request, dataType, hedge, cost);
+    }
+
+    /**
+     * 对冲发送：主请求在延迟阈值内未成功时补发一次，先成功者胜出，另一个被取消；两者都失败才算失败。
+     * 延迟样本只取主请求（从主请求发出算起）：主请求成功时为其耗时，对冲胜出时为主请求被取消时已耗时，
+     * 即本次调用的实际延迟；落败请求不丢样本，p95 不会因慢请求被对冲掉而偏低
+     */
+    private <T> CompletableFuture<CollectorResponse<T>> hedged(String op, HttpRequest request, JavaType dataType,
+                                                             HedgePolicy hedge, int cost) {
+        long delayNanos = hedge.onRequest(cost);
+        Attempt<T> primary = attempt(op, request, dataType, config.getAcquireTimeoutMs(), hedge);
+        if (delayNanos < 0 || primary.result.isDone()) {
+            return primary.result;
+        }
+
+        CompletableFuture<CollectorResponse<T>> winner = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        // 0 - 未发对冲，1 - 已发对冲，-1 - 不再发对冲
+        AtomicInteger hedgeState = new AtomicInteger();
+        AtomicReference<Attempt<T>> secondary = new AtomicReference<>();
+
+        primary.result.whenComplete((response, ex) -> {
+            if (ex == null) {
+                hedgeState.compareAndSet(0, -1);
+                if (settled.compareAndSet(false, true)) {
+                    Attempt<T> second = secondary.get();
+                    if (second != null) {
+                        second.cancel();
+                    }
+                    winner.complete(response);
+                }
+            } else if (hedgeState.compareAndSet(0, -1) || failures.incrementAndGet() == 2) {
+                // 对冲未发出，或对冲也已失败
+                winner.completeExceptionally(ex);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor).execute(() -> {
+            if (winner.isDone() || !hedgeState.compareAndSet(0, 1)) {
+                return;
+            }
+            if (!hedge.tryHedge(cost)) {
+                finishWithoutHedge(primary, winner, hedgeState);
+                return;
+            }
+            Attempt<T> second = attempt(op, request, dataType, 0, null);
+            secondary.set(second);
+            second.result.whenComplete((response, ex) -> {
+                if (ex == null) {
+                    if (settled.compareAndSet(false, true)) {
+                        hedge.won.increment();
+                        primary.cancel();
+                        winner.complete(response);
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(ex);
+                }
+            });
+        });
+        return winner;
+    }
+
+    /**
+     * 放弃对冲后结果只取决于主请求
+     */
+    private static <T> void finishWithoutHedge(Attempt<T> primary, CompletableFuture<CollectorResponse<T>> winner,
+                                               AtomicInteger hedgeState) {
+        hedgeState.set(-1);
+        primary.result.whenComplete((response, ex) -> {
+            if (ex == null) {
+                winner.complete(response);
+            } else {
+                winner.completeExceptionally(ex);
+            }
+        });
+    }
+
+    /**
+     * 发出一次请求
+     *
+     * @param acquireTimeoutMs 等待在途名额的时间；对冲请求不等待
+     * @param hedge            对冲策略，主请求传入以记录延迟样本；对冲请求与不对冲的接口为 null
+     */
+    private <T> Attempt<T> attempt(String op, HttpRequest request, JavaType dataType, long acquireTimeoutMs,
+                                   HedgePolicy hedge) {
+        CollectorGuard.Permit permit;
+        try {
+            permit = UNGUARDED_OP.equals(op) ? CollectorGuard.Permit.NOOP : guard.acquire(op);
+        } catch (CollectorUnavailableException e) {
+            record(op, "short_circuit", 0);
+            return Attempt.failed(e);
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                permit.release();
+                record(op, "rejected", 0);
+                return Attempt.failed(new RejectedExecutionException("采集服务在途请求已满: " + config.getMaxConcurrent()));
+            }
+        } catch (InterruptedException e) {
+            permit.release();
+            Thread.currentThread().interrupt();
+            return Attempt.failed(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> future;
+        try {
+            future = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            permits.release();
+            permit.onFailure(System.nanoTime() - start, false);
+            record(op, "exception", System.nanoTime() - start);
+            return Attempt.failed(e);
+        }
+        CompletableFuture<CollectorResponse<T>> result = future.handle((response, ex) -> {
+            permits.release();
+            long elapsed = System.nanoTime() - start;
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof CancellationException) {
+                    // 对冲落败被取消，不计入熔断与限流；主请求记录取消时已耗时（截尾样本）
+                    permit.release();
+                    if (hedge != null) {
+                        hedge.recordLatency(elapsed);
+                    }
+                    record(op, "cancelled", elapsed);
+                    throw new CompletionException(cause);
+                }
+                boolean timeout = cause instanceof HttpTimeoutException;
+                permit.onFailure(elapsed, timeout);
+                record(op, timeout ? "timeout" : "exception", elapsed);
+                throw new CompletionException(cause);
+            }
+            // 4xx（如基金不存在）是正常业务响应，只有 5xx 计为采集服务故障
+            if (response.statusCode() >= 500) {
+                permit.onFailure(elapsed, false);
+            } else {
+                permit.onSuccess(elapsed);
+                if (hedge != null) {
+                    hedge.recordLatency(elapsed);
+                }
+            }
+            record(op, response.statusCode() / 100 == 2 ? "success" : "error", elapsed);
+            return parse(response, dataType);
+        });
+        return new Attempt<>(future, result);
+    }
+
+    private <T> CollectorResponse<T> parse(HttpResponse<byte[]> response, JavaType dataType) {
+        byte[] body = response.body();
+        CollectorResponse<T> result = null;
+        if (body != null && body.length > 0) {
+            try {
+                ObjectReader reader = objectMapper.readerFor(
+                        objectMapper.getTypeFactory().constructParametricType(CollectorResponse.class, dataType));
+                result = reader.readValue(body);
+            } catch (IOException e) {
+                // 非 JSON（如网关错误页）或字段类型不符
+                log.warn("采集服务响应解析失败: {} HTTP {} - {}", response.uri().getPath(), response.statusCode(), e.getMessage());
+            }
+        }
+        if (result == null) {
+            result = new CollectorResponse<>();
+            result.setSuccess(false);
+            result.setError("采集服务响应无法解析: HTTP " + response.statusCode());
+        }
+        result.setHttpStatus(response.statusCode());
+        result.setBody(body);
+        return result;
+    }
+
+    private void record(String op, String outcome, long nanos) {
+        Timer.builder(TIMER_NAME)
+                .tag("op", op)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * 采集服务专用 ObjectMapper：忽略未知字段；兼容 Flask 的日期格式与净值接口的下划线字段名
+     */
+    private static ObjectMapper collectorMapper(ObjectMapper base) {
+        SimpleModule module = new SimpleModule("collector");
+        module.addDeserializer(LocalDate.class, new FlexibleLocalDateDeserializer());
+        return base.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addMixIn(FundNav.class, FundNavMixin.class)
+                .registerModule(module);
+    }
+
+    /**
+     * 日期反序列化：yyyy-MM-dd、ISO 日期时间、或 Flask jsonify 输出的 RFC 1123（Tue, 02 Jan 2024 00:00:00 GMT）
+     */
+    static final class FlexibleLocalDateDeserializer extends JsonDeserializer<LocalDate> {
+        @Override
+        public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String text = p.getValueAsString();
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            text = text.trim();
+            if (Character.isDigit(text.charAt(0))) {
+                return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+            }
+            return ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME).toLocalDate();
+        }
+    }
+
+    /**
+     * 净值接口直接返回数据库列名（nav_date、unit_nav ...）
+     */
+    abstract static class FundNavMixin {
+        @JsonAlias("fund_code")
+        String fundCode;
+        @JsonAlias("nav_date")
+        LocalDate navDate;
+        @JsonAlias("unit_nav")
+        BigDecimal unitNav;
+        @JsonAlias("accum_nav")
+        BigDecimal accumNav;
+        @JsonAlias("adjust_nav")
+        BigDecimal adjustNav;
+        @JsonAlias("daily_return")
+        BigDecimal dailyReturn;
+    }
+
+    /**
+     * 一次已发出的请求：底层 HTTP 交换与解析后的结果
+     */
+    private record Attempt<T>(CompletableFuture<HttpResponse<byte[]>> exchange,
+                              CompletableFuture<CollectorResponse<T>> result) {
+
+        static <T> Attempt<T> failed(Throwable e) {
+            return new Attempt<>(null, CompletableFuture.failedFuture(e));
+        }
+
+        void cancel() {
+            if (exchange != null) {
+                exchange.cancel(true);
+            }
+        }
+    }
+}
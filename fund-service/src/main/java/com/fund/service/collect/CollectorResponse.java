@@ -0,0 +1,96 @@
+package com.fund.service.collect;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Python采集服务响应信封：{ success, data, error | errorCode + message }
+ *
+ * @param <T> data 类型
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CollectorResponse<T> {
+
+    private boolean success;
+    private T data;
+    private String error;
+    private String errorCode;
+    private String message;
+
+    @JsonIgnore
+    private int httpStatus;
+
+    @JsonIgnore
+    private byte[] body;
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(int httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    /**
+     * 失败原因：优先 error，其次 message
+     */
+    public String errorMessage() {
+        return error != null ? error : (message != null ? message : "采集服务返回失败: HTTP " + httpStatus);
+    }
+
+    /**
+     * 原始响应文本（截断），用于调用追踪
+     */
+    public String bodyText(int maxBytes) {
+        if (body == null) {
+            return "";
+        }
+        return new String(body, 0, Math.min(body.length, maxBytes), StandardCharsets.UTF_8);
+    }
+}
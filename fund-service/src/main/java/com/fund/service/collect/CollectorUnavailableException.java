@@ -0,0 +1,11 @@
+package com.fund.service.collect;
+
+/**
+ * 采集服务暂不可用（熔断打开或超出自适应并发上限），调用未发出
+ */
+public class CollectorUnavailableException extends RuntimeException {
+
+    public CollectorUnavailableException(String message) {
+        super(message);
+    }
+}
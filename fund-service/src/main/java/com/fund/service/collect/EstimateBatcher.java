@@ -0,0 +1,196 @@
+package com.fund.service.collect;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fund.config.CollectProperties;
+import com.fund.dto.FundEstimateDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 估值请求合批器
+ * 并发的单基金估值请求在几毫秒的时间窗内（或攒够一批）合并为一次 /api/collect/batch 调用，
+ * 结果按基金代码分发给各自的等待方；同一基金在途期间的重复请求共用同一结果。
+ * 启用对冲时批次按基金数计入对冲预算，只有小批次（如单个页面的几只基金）会在超过 p95 时补发
+ */
+@Component
+public class EstimateBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EstimateBatcher.class);
+
+    private static final String BATCH_PATH = "/api/collect/batch";
+
+    private final CollectorHttpClient httpClient;
+    private final CollectProperties.Batch config;
+    private final long waitTimeoutMs;
+    private final JavaType batchType;
+    private final DistributionSummary batchSize;
+
+    // 等待发送的基金代码
+    private final LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>();
+
+    // 排队或在途的请求：基金代码 -> 结果
+    private final Map<String, CompletableFuture<FundEstimateDTO>> inflight = new ConcurrentHashMap<>();
+
+    private Thread dispatcher;
+    private volatile boolean running = true;
+
+    public EstimateBatcher(CollectorHttpClient httpClient, CollectProperties collectProperties,
+                           MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.config = collectProperties.getBatch();
+        this.waitTimeoutMs = collectProperties.getHttp().getReadTimeoutMs() + config.getWindowMs() + 1000;
+        this.batchType = httpClient.type(BatchData.class);
+        this.batchSize = DistributionSummary.builder("fund.collect.batch.size")
+                .description("每次批量估值采集的基金数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatchLoop, "estimate-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * 提交单只基金的估值请求；采集失败或该基金无估值时结果为 null
+     */
+    public CompletableFuture<FundEstimateDTO> submit(String fundCode) {
+        CompletableFuture<FundEstimateDTO> created = new CompletableFuture<>();
+        CompletableFuture<FundEstimateDTO> existing = inflight.putIfAbsent(fundCode, created);
+        if (existing != null) {
+            return existing;
+        }
+        queue.add(fundCode);
+        return created;
+    }
+
+    /**
+     * 同步获取估值（等待所在批次完成）
+     */
+    public FundEstimateDTO collect(String fundCode) {
+        try {
+            return submit(fundCode).get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("批量估值等待失败: {} - {}", fundCode, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 单次估值等待上限（读超时 + 合批时间窗 + 余量）
+     */
+    public Duration waitTimeout() {
+        return Duration.ofMillis(waitTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        inflight.values().forEach(f -> f.complete(null));
+    }
+
+    private void dispatchLoop() {
+        int maxSize = Math.max(1, config.getMaxSize());
+        List<String> batch = new ArrayList<>(maxSize);
+        while (running) {
+            try {
+                String first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getWindowMs());
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, maxSize - batch.size());
+                        break;
+                    }
+                    String next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                send(new ArrayList<>(batch));
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("估值合批发送异常", e);
+                batch.forEach(code -> finish(code, null));
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<String> fundCodes) {
+        batchSize.record(fundCodes.size());
+        log.debug("批量采集估值: {}只基金", fundCodes.size());
+        httpClient.<BatchData>postAsync("batch", BATCH_PATH, Map.of("fundCodes", fundCodes), batchType, fundCodes.size())
+                .whenComplete((response, ex) -> {
+                    Map<String, FundEstimateDTO> byCode = new HashMap<>();
+                    if (ex != null) {
+                        log.warn("批量估值采集失败: {}只基金 - {}", fundCodes.size(), ex.getMessage());
+                    } else if (!response.isSuccess() || response.getData() == null) {
+                        log.warn("批量估值采集失败: {}只基金 - {}", fundCodes.size(), response.errorMessage());
+                    } else if (response.getData().getResults() != null) {
+                        LocalDateTime now = LocalDateTime.now();
+                        // 与单基金接口相同的完整性校验：缺少任一字段的估值不分发（否则会被缓存）
+                        for (FundEstimateDTO dto : response.getData().getResults()) {
+                            if (dto.getFundCode() != null && dto.getEstimateNav() != null
+                                    && dto.getEstimateChangePct() != null && dto.getPreCloseNav() != null) {
+                                dto.setEstimateTime(now);
+                                byCode.put(dto.getFundCode(), dto);
+                            }
+                        }
+                    }
+                    for (String code : fundCodes) {
+                        finish(code, byCode.get(code));
+                    }
+                });
+    }
+
+    private void finish(String fundCode, FundEstimateDTO estimate) {
+        CompletableFuture<FundEstimateDTO> future = inflight.remove(fundCode);
+        if (future != null) {
+            future.complete(estimate);
+        }
+    }
+
+    /**
+     * /api/collect/batch 的 data 字段
+     */
+    public static class BatchData {
+        private List<FundEstimateDTO> results;
+
+        public List<FundEstimateDTO> getResults() {
+            return results;
+        }
+
+        public void setResults(List<FundEstimateDTO> results) {
+            this.results = results;
+        }
+    }
+}
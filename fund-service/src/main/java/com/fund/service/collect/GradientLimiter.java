@@ -0,0 +1,108 @@
+package com.fund.service.collect;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 梯度式自适应并发限制（思路同 Netflix concurrency-limits 的 Gradient2）
+ * 以延迟的长期指数均值为无负载基线，近期延迟相对基线升高时按比例收缩并发上限，
+ * 延迟平稳时按 √limit 逐步放宽；超时视为丢弃，直接收缩
+ */
+final class GradientLimiter {
+
+    // 长期延迟基线的指数平均窗口（样本数）
+    private static final int LONG_WINDOW = 600;
+
+    // 近期延迟的指数平均窗口（样本数）
+    private static final int SHORT_WINDOW = 10;
+
+    // 超时后的收缩比例
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1.0, tolerance);
+        this.smoothing = smoothing;
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * 在途数未达上限时占用一个名额
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还名额并以本次延迟调整上限
+     *
+     * @param rttNanos 调用耗时
+     * @param dropped  是否超时/被丢弃
+     */
+    void onComplete(long rttNanos, boolean dropped) {
+        int inflightBefore = inflight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                limit = clamp(limit * BACKOFF_RATIO);
+                return;
+            }
+            double rtt = rttNanos;
+            if (longRtt == 0) {
+                longRtt = rtt;
+                shortRtt = rtt;
+                return;
+            }
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+            // 基线漂移过高（如长时间拥塞后恢复）时快速回落
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+
+            // 请求量远低于上限时不放宽，避免空闲期上限虚高
+            if (inflightBefore < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+        }
+    }
+
+    /**
+     * 名额未使用即归还（不调整上限）
+     */
+    void release() {
+        inflight.decrementAndGet();
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,94 @@
+package com.fund.service.collect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+
+/**
+ * 单个采集接口的对冲策略
+ * 记录最近主请求的延迟（含被对冲取消的截尾样本）估算 p95 作为对冲延迟；对冲名额按令牌桶发放，
+ * 令牌按请求覆盖的基金数计：主请求每只基金累积 budgetPercent% 个令牌，对冲消耗与其基金数相同的令牌，
+ * 额外采集的基金数不超过该比例；令牌有上限，超过上限的大批次不会被对冲
+ */
+final class HedgePolicy {
+
+    // 延迟样本窗口
+    private static final int SAMPLE_WINDOW = 200;
+
+    // 至少多少个样本才估算 p95
+    private static final int MIN_SAMPLES = 20;
+
+    // 每隔多少个样本重新计算一次 p95
+    private static final int RECOMPUTE_EVERY = 20;
+
+    // 令牌上限（允许的突发对冲基金数，也是可对冲的最大批次）
+    private static final double MAX_TOKENS = 10;
+
+    private final long fixedDelayNanos;
+    private final long minDelayNanos;
+    private final double tokensPerUnit;
+
+    private final long[] samples = new long[SAMPLE_WINDOW];
+    private int sampleCount;
+    private int sampleHead;
+    private long p95Nanos = -1;
+    private double tokens;
+
+    final Counter sent;
+    final Counter won;
+    final Counter budgetExhausted;
+
+    HedgePolicy(String endpoint, long fixedDelayMs, long minDelayMs, double budgetPercent, MeterRegistry meterRegistry) {
+        this.fixedDelayNanos = fixedDelayMs * 1_000_000L;
+        this.minDelayNanos = minDelayMs * 1_000_000L;
+        this.tokensPerUnit = Math.max(0, budgetPercent) / 100;
+        this.sent = meterRegistry.counter("fund.collect.hedge", "endpoint", endpoint, "event", "sent");
+        this.won = meterRegistry.counter("fund.collect.hedge", "endpoint", endpoint, "event", "won");
+        this.budgetExhausted = meterRegistry.counter("fund.collect.hedge", "endpoint", endpoint, "event", "budget_exhausted");
+    }
+
+    /**
+     * 主请求发出时调用：按覆盖的基金数累积对冲令牌，返回本次的对冲延迟（纳秒），无法确定时返回 -1
+     */
+    synchronized long onRequest(int cost) {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerUnit * cost);
+        if (fixedDelayNanos > 0) {
+            return Math.max(minDelayNanos, fixedDelayNanos);
+        }
+        return p95Nanos < 0 ? -1 : Math.max(minDelayNanos, p95Nanos);
+    }
+
+    /**
+     * 领取对冲名额，消耗与请求基金数相同的令牌
+     */
+    synchronized boolean tryHedge(int cost) {
+        if (tokens < cost) {
+            budgetExhausted.increment();
+            return false;
+        }
+        tokens -= cost;
+        sent.increment();
+        return true;
+    }
+
+    /**
+     * 记录一次主请求的延迟：成功响应的耗时，或对冲胜出、主请求被取消时已耗时（实际延迟的下界）
+     */
+    synchronized void recordLatency(long nanos) {
+        samples[sampleHead] = nanos;
+        sampleHead = (sampleHead + 1) % SAMPLE_WINDOW;
+        if (sampleCount < SAMPLE_WINDOW) {
+            sampleCount++;
+        }
+        if (sampleCount >= MIN_SAMPLES && (p95Nanos < 0 || sampleHead % RECOMPUTE_EVERY == 0)) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(sampleCount * 0.95) - 1];
+        }
+    }
+
+    synchronized long p95Nanos() {
+        return p95Nanos;
+    }
+}
@@ -1,6 +1,6 @@
 package com.fund.service.collect.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fund.dto.ApiResponse;
 import com.fund.entity.ApiCallLog;
 import com.fund.entity.FundInfo;
@@ -9,56 +9,51 @@ import com.fund.entity.FundNav;
 import com.fund.service.ApiTraceService;
 import com.fund.service.collect.CollectClient;
 import com.fund.service.collect.CollectResult;
+import com.fund.service.collect.CollectorHttpClient;
+import com.fund.service.collect.CollectorResponse;
+import com.fund.service.collect.CollectorUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class CollectClientImpl implements CollectClient {
 
     private static final Logger log = LoggerFactory.getLogger(CollectClientImpl.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
 
-    @Autowired
-    private ApiTraceService traceService;
+    // 追踪记录中保留的 Python 原始响应长度
+    private static final int TRACE_BODY_BYTES = 2000;
 
-    @Value("${collector.url:http://localhost:5005}")
-    private String collectorUrl;
+    private final CollectorHttpClient httpClient;
+    private final ApiTraceService traceService;
+    private final JavaType mapType;
+    private final JavaType fundInfoType;
+    private final JavaType fundMetricsType;
+    private final JavaType fundNavListType;
+
+    public CollectClientImpl(CollectorHttpClient httpClient, ApiTraceService traceService) {
+        this.httpClient = httpClient;
+        this.traceService = traceService;
+        this.mapType = httpClient.type(Map.class);
+        this.fundInfoType = httpClient.type(FundInfo.class);
+        this.fundMetricsType = httpClient.type(FundMetrics.class);
+        this.fundNavListType = httpClient.listType(FundNav.class);
+    }
 
     @Override
     public ApiResponse<Map<String, Object>> collectEstimate(String fundCode) {
         try {
-            String url = collectorUrl + "/api/collect/estimate";
-            Map<String, String> requestBody = new HashMap<>();
-            requestBody.put("fundCode", fundCode);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, String>> request = new HttpEntity<>(requestBody, headers);
-            
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
-            
-            if (response.getStatusCode() != HttpStatus.OK) {
-                return ApiResponse.error("采集服务调用失败");
-            }
-            
-            Map<String, Object> result = response.getBody();
-            if (result != null && Boolean.TRUE.equals(result.get("success"))) {
-                return ApiResponse.success((Map<String, Object>) result.get("data"));
-            } else {
-                return ApiResponse.error((String) (result != null ? result.get("error") : "未知错误"));
-            }
+            CollectorResponse<Map<String, Object>> response = httpClient.post(
+                    "estimate", "/api/collect/estimate", Map.of("fundCode", fundCode), mapType);
+            return response.isSuccess()
+                    ? ApiResponse.success(response.getData())
+                    : ApiResponse.error(response.errorMessage());
         } catch (Exception e) {
             return ApiResponse.error("采集服务不可用: " + e.getMessage());
         }
@@ -67,26 +62,11 @@ public class CollectClientImpl implements CollectClient {
     @Override
     public ApiResponse<Map<String, Object>> collectBatch(List<String> fundCodes) {
         try {
-            String url = collectorUrl + "/api/collect/batch";
-            Map<String, List<String>> requestBody = new HashMap<>();
-            requestBody.put("fundCodes", fundCodes);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, List<String>>> request = new HttpEntity<>(requestBody, headers);
-            
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
-            
-            if (response.getStatusCode() != HttpStatus.OK) {
-                return ApiResponse.error("批量采集服务调用失败");
-            }
-            
-            Map<String, Object> result = response.getBody();
-            if (result != null && Boolean.TRUE.equals(result.get("success"))) {
-                return ApiResponse.success((Map<String, Object>) result.get("data"));
-            } else {
-                return ApiResponse.error((String) (result != null ? result.get("error") : "未知错误"));
-            }
+            CollectorResponse<Map<String, Object>> response = httpClient.post(
+                    "batch", "/api/collect/batch", Map.of("fundCodes", fundCodes), mapType);
+            return response.isSuccess()
+                    ? ApiResponse.success(response.getData())
+                    : ApiResponse.error(response.errorMessage());
         } catch (Exception e) {
             return ApiResponse.error("采集服务不可用: " + e.getMessage());
         }
@@ -95,9 +75,8 @@ public class CollectClientImpl implements CollectClient {
     @Override
     public boolean healthCheck() {
         try {
-            String url = collectorUrl + "/health";
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getStatusCode() == HttpStatus.OK;
+            CollectorResponse<Map<String, Object>> response = httpClient.get("health", "/health", mapType);
+            return response.getHttpStatus() == 200;
         } catch (Exception e) {
             log.warn("采集服务健康检查失败: {}", e.getMessage());
             return false;
@@ -106,129 +85,58 @@ public class CollectClientImpl implements CollectClient {
 
     @Override
     public CollectResult<FundInfo> collectFundInfo(String fundCode) {
-        String url = collectorUrl + "/api/collect/fund/" + fundCode;
-        ApiCallLog trace = traceService.startTrace(fundCode, "info", url);
-        
-        try {
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null, Map.class);
-            
-            String bodyStr = objectMapper.writeValueAsString(response.getBody());
-            traceService.recordPythonSuccess(trace, response.getStatusCodeValue(), bodyStr);
-            
-            Map<String, Object> result = response.getBody();
-            Boolean success = (Boolean) result.get("success");
-            
-            if (Boolean.TRUE.equals(success)) {
-                Map<String, Object> data = (Map<String, Object>) result.get("data");
-                FundInfo fundInfo = convertToFundInfo(data);
-                
-                traceService.recordJavaResponse(trace, fundInfo);
-                traceService.endTrace(trace, true, null);
-                
-                return CollectResult.success(fundInfo);
-            } else {
-                String error = (String) result.get("error");
-                traceService.endTrace(trace, false, error);
-                return CollectResult.fail("COLLECT_ERROR", error);
-            }
-            
-        } catch (Exception e) {
-            traceService.recordPythonError(trace, e.getMessage());
-            traceService.endTrace(trace, false, e.getMessage());
-            return CollectResult.serviceError(e.getMessage());
-        }
+        return fetch(fundCode, "info", "/api/collect/fund/" + fundCode, fundInfoType);
     }
 
     @Override
     public CollectResult<FundMetrics> collectFundMetrics(String fundCode) {
-        String url = collectorUrl + "/api/collect/metrics/" + fundCode;
-        ApiCallLog trace = traceService.startTrace(fundCode, "metrics", url);
-        
-        try {
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null, Map.class);
-            
-            String bodyStr = objectMapper.writeValueAsString(response.getBody());
-            traceService.recordPythonSuccess(trace, response.getStatusCodeValue(), bodyStr);
-            
-            Map<String, Object> result = response.getBody();
-            Boolean success = (Boolean) result.get("success");
-            
-            if (Boolean.TRUE.equals(success)) {
-                Map<String, Object> data = (Map<String, Object>) result.get("data");
-                FundMetrics metrics = convertToFundMetrics(data);
-                
-                traceService.recordJavaResponse(trace, metrics);
-                traceService.endTrace(trace, true, null);
-                
-                return CollectResult.success(metrics);
-            } else {
-                String error = (String) result.get("error");
-                traceService.endTrace(trace, false, error);
-                return CollectResult.fail("COLLECT_ERROR", error);
-            }
-            
-        } catch (Exception e) {
-            traceService.recordPythonError(trace, e.getMessage());
-            traceService.endTrace(trace, false, e.getMessage());
-            return CollectResult.serviceError(e.getMessage());
-        }
+        return fetch(fundCode, "metrics", "/api/collect/metrics/" + fundCode, fundMetricsType);
     }
 
     @Override
     public CollectResult<List<FundNav>> collectNavHistory(String fundCode) {
-        String url = collectorUrl + "/api/collect/nav/" + fundCode;
-        ApiCallLog trace = traceService.startTrace(fundCode, "nav", url);
-        
+        CollectResult<List<FundNav>> result = fetch(fundCode, "nav", "/api/collect/nav/" + fundCode, fundNavListType);
+        if (result.isSuccess() && result.getData() != null) {
+            // 净值接口不回传基金代码
+            result.getData().forEach(nav -> nav.setFundCode(fundCode));
+        }
+        return result;
+    }
+
+    /**
+     * 调用采集接口并把 data 直接反序列化为目标类型，全程记录调用追踪
+     */
+    private <T> CollectResult<T> fetch(String fundCode, String apiType, String path, JavaType dataType) {
+        ApiCallLog trace = traceService.startTrace(fundCode, apiType, httpClient.url(path));
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null, Map.class);
-            
-            String bodyStr = objectMapper.writeValueAsString(response.getBody());
-            traceService.recordPythonSuccess(trace, response.getStatusCodeValue(), bodyStr);
-            
-            Map<String, Object> result = response.getBody();
-            Boolean success = (Boolean) result.get("success");
-            
-            if (Boolean.TRUE.equals(success)) {
-                List<Map<String, Object>> dataList = (List<Map<String, Object>>) result.get("data");
-                List<FundNav> navList = convertToFundNavList(fundCode, dataList);
-                
-                traceService.recordJavaResponse(trace, navList);
+            CollectorResponse<T> response = httpClient.get(apiType, path, dataType);
+            traceService.recordPythonSuccess(trace, response.getHttpStatus(), response.bodyText(TRACE_BODY_BYTES));
+
+            if (response.isSuccess() && response.getData() != null) {
+                traceService.recordJavaResponse(trace, response.getData());
                 traceService.endTrace(trace, true, null);
-                
-                return CollectResult.success(navList);
-            } else {
-                String error = (String) result.get("error");
-                traceService.endTrace(trace, false, error);
-                return CollectResult.fail("COLLECT_ERROR", error);
+                return CollectResult.success(response.getData());
+            }
+            String error = response.errorMessage();
+            traceService.endTrace(trace, false, error);
+            if (CollectResult.ERR_FUND_NOT_FOUND.equals(response.getErrorCode())) {
+                return CollectResult.notFound(fundCode);
             }
-            
+            return CollectResult.fail("COLLECT_ERROR", error);
+        } catch (CollectorUnavailableException | RejectedExecutionException e) {
+            // 熔断或限流：未发出调用，快速失败
+            traceService.endTrace(trace, false, e.getMessage());
+            return CollectResult.unavailable(e.getMessage());
+        } catch (UncheckedIOException e) {
+            traceService.recordPythonError(trace, e.getMessage());
+            traceService.endTrace(trace, false, e.getMessage());
+            return e.getCause() instanceof HttpTimeoutException
+                    ? CollectResult.timeout(e.getMessage())
+                    : CollectResult.serviceError(e.getMessage());
         } catch (Exception e) {
             traceService.recordPythonError(trace, e.getMessage());
             traceService.endTrace(trace, false, e.getMessage());
             return CollectResult.serviceError(e.getMessage());
         }
     }
-
-    private FundInfo convertToFundInfo(Map<String, Object> data) {
-        FundInfo info = new FundInfo();
-        info.setFundCode((String) data.get("fundCode"));
-        info.setFundName((String) data.get("fundName"));
-        info.setFundType((String) data.get("fundType"));
-        info.setManagerName((String) data.get("managerName"));
-        info.setCompanyName((String) data.get("companyName"));
-        return info;
-    }
-
-    private FundMetrics convertToFundMetrics(Map<String, Object> data) {
-        FundMetrics metrics = new FundMetrics();
-        metrics.setFundCode((String) data.get("fundCode"));
-        return metrics;
-    }
-
-    private List<FundNav> convertToFundNavList(String fundCode, List<Map<String, Object>> dataList) {
-        return List.of();
-    }
 }
@@ -3,25 +3,50 @@ package com.fund.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fund.config.RedisConfig;
+import com.fund.dto.ChartRange;
 import com.fund.dto.FundInfoVO;
 import com.fund.dto.FundMetricsVO;
 import com.fund.dto.FundNavVO;
+import com.fund.dto.FundScreenRequest;
+import com.fund.dto.FundScreenResult;
 import com.fund.entity.FundInfo;
 import com.fund.entity.FundMetrics;
 import com.fund.entity.FundNav;
 import com.fund.mapper.FundInfoMapper;
 import com.fund.mapper.FundMetricsMapper;
 import com.fund.mapper.FundNavMapper;
+import com.fund.service.FundRefDataService;
 import com.fund.service.FundService;
+import com.fund.service.search.FundAutocompleteEngine;
+import com.fund.service.search.FundSearchIndex;
+import com.fund.service.rule.SignalRuleService;
+import com.fund.service.snapshot.FundScreener;
+import com.fund.service.snapshot.MetricColumn;
+import com.fund.service.snapshot.MetricsSnapshot;
+import com.fund.service.navstore.NavSeries;
+import com.fund.service.navstore.NavSeriesStore;
+import com.fund.service.snapshot.MetricsSnapshotReloadedEvent;
+import com.fund.service.snapshot.MetricsSnapshotService;
+import com.fund.util.Downsampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -35,18 +60,44 @@ public class FundServiceImpl implements FundService {
     private final FundInfoMapper fundInfoMapper;
     private final FundMetricsMapper fundMetricsMapper;
     private final FundNavMapper fundNavMapper;
+    private final FundSearchIndex fundSearchIndex;
+    private final FundAutocompleteEngine autocompleteEngine;
+    private final MetricsSnapshotService metricsSnapshotService;
+    private final FundScreener fundScreener;
+    private final FundRefDataService fundRefDataService;
+    private final NavSeriesStore navSeriesStore;
+    private final SignalRuleService signalRuleService;
     
     public FundServiceImpl(FundInfoMapper fundInfoMapper, 
                           FundMetricsMapper fundMetricsMapper,
-                          FundNavMapper fundNavMapper) {
+                          FundNavMapper fundNavMapper,
+                          FundSearchIndex fundSearchIndex,
+                          FundAutocompleteEngine autocompleteEngine,
+                          MetricsSnapshotService metricsSnapshotService,
+                          FundScreener fundScreener,
+                          FundRefDataService fundRefDataService,
+                          NavSeriesStore navSeriesStore,
+                          SignalRuleService signalRuleService) {
         this.fundInfoMapper = fundInfoMapper;
         this.fundMetricsMapper = fundMetricsMapper;
         this.fundNavMapper = fundNavMapper;
+        this.fundSearchIndex = fundSearchIndex;
+        this.autocompleteEngine = autocompleteEngine;
+        this.metricsSnapshotService = metricsSnapshotService;
+        this.fundScreener = fundScreener;
+        this.fundRefDataService = fundRefDataService;
+        this.navSeriesStore = navSeriesStore;
+        this.signalRuleService = signalRuleService;
     }
     
     @Override
     public IPage<FundInfoVO> listFunds(Integer page, Integer size, 
                                      String fundType, Integer riskLevel, String keyword) {
+        // 关键词搜索走内存索引，避免 LIKE '%kw%' 全表扫描
+        if (StringUtils.hasText(keyword) && fundSearchIndex.isReady()) {
+            return listFundsFromIndex(page, size, fundType, riskLevel, keyword);
+        }
+        
         Page<FundInfo> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<FundInfo> wrapper = new LambdaQueryWrapper<>();
         
@@ -78,6 +129,26 @@ public class FundServiceImpl implements FundService {
         return entityPage.convert(this::convertToFundInfoVO);
     }
     
+    /**
+     * 基于内存索引的分页搜索（先过滤后分页，总数准确）
+     */
+    private IPage<FundInfoVO> listFundsFromIndex(Integer page, Integer size,
+                                                 String fundType, Integer riskLevel, String keyword) {
+        List<FundInfo> matched = fundSearchIndex.search(keyword).stream()
+                .filter(f -> !StringUtils.hasText(fundType)
+                        || (f.getFundType() != null && f.getFundType().contains(fundType)))
+                .filter(f -> riskLevel == null || riskLevel.equals(f.getRiskLevel()))
+                .collect(Collectors.toList());
+        
+        Page<FundInfoVO> result = new Page<>(page, size, matched.size());
+        int from = (int) Math.min((long) (page - 1) * size, matched.size());
+        int to = Math.min(from + size, matched.size());
+        result.setRecords(matched.subList(from, to).stream()
+                .map(this::convertToFundInfoVO)
+                .collect(Collectors.toList()));
+        return result;
+    }
+    
     @Override
     @Cacheable(value = "fund:detail", key = "#fundCode + '_v2'", unless = "#result == null")
     public FundInfoVO getFundDetail(String fundCode) {
@@ -89,12 +160,34 @@ public class FundServiceImpl implements FundService {
     }
     
     @Override
-    @Cacheable(value = "fund:search", key = "#keyword + '-' + #limit", unless = "#result == null or #result.isEmpty()")
+    @Cacheable(value = RedisConfig.CACHE_FUND_SEARCH, key = "#keyword + '-' + #limit",
+            condition = "!@fundSearchIndex.isReady()", unless = "#result == null or #result.isEmpty()")
     public List<FundInfoVO> searchSuggest(String keyword, Integer limit) {
         if (!StringUtils.hasText(keyword)) {
             return List.of();
         }
         
+        // 内存索引直接返回（微秒级，无需再走Redis缓存；缓存只在索引未就绪、回退查库时生效）
+        if (fundSearchIndex.isReady()) {
+            // 拼音/汉字前缀联想优先，不足limit时用子串匹配补齐
+            Map<String, FundInfo> merged = new LinkedHashMap<>();
+            for (FundInfo fund : autocompleteEngine.suggest(keyword, limit)) {
+                merged.put(fund.getFundCode(), fund);
+            }
+            if (merged.size() < limit) {
+                for (FundInfo fund : fundSearchIndex.suggest(keyword, limit)) {
+                    merged.putIfAbsent(fund.getFundCode(), fund);
+                    if (merged.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            return merged.values().stream()
+                    .map(this::convertToFundInfoVO)
+                    .collect(Collectors.toList());
+        }
+        
+        // 索引未就绪时回退到数据库查询
         String kw = "%" + keyword + "%";
         LambdaQueryWrapper<FundInfo> wrapper = new LambdaQueryWrapper<>();
         wrapper.and(w -> w.like(FundInfo::getFundName, kw)
@@ -122,7 +215,49 @@ public class FundServiceImpl implements FundService {
     
     @Override
     public List<FundNavVO> getNavHistory(String fundCode, LocalDate startDate, LocalDate endDate) {
-        List<FundNav> list = fundNavMapper.selectByDateRange(fundCode, startDate, endDate);
+        List<FundNav> list = loadNavRange(fundCode, startDate, endDate);
+        return list.stream().map(this::convertToFundNavVO).collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<FundNavVO> getNavHistory(String fundCode, LocalDate startDate, LocalDate endDate, int points) {
+        return downsample(loadNavRange(fundCode, startDate, endDate), points);
+    }
+    
+    @Override
+    @Cacheable(value = RedisConfig.CACHE_NAV_CHART, key = "#fundCode + ':' + #range.code + ':' + #points",
+            unless = "#result == null || #result.isEmpty()")
+    public List<FundNavVO> getNavChart(String fundCode, ChartRange range, int points) {
+        LocalDate endDate = LocalDate.now();
+        return downsample(loadNavRange(fundCode, range.startDate(endDate), endDate), points);
+    }
+    
+    /**
+     * 区间净值（日期倒序）：优先读净值序列存储，未收录时查库
+     */
+    private List<FundNav> loadNavRange(String fundCode, LocalDate startDate, LocalDate endDate) {
+        NavSeries series = startDate != null && endDate != null ? navSeriesStore.get(fundCode) : null;
+        if (series == null) {
+            return fundNavMapper.selectByDateRange(fundCode, startDate, endDate);
+        }
+        return series.range(startDate, endDate);
+    }
+    
+    /**
+     * 按单位净值（缺失时用累计净值）做 LTTB 降采样，保持原有日期倒序
+     */
+    private List<FundNavVO> downsample(List<FundNav> list, int points) {
+        if (points < list.size()) {
+            double[] x = new double[list.size()];
+            double[] y = new double[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                FundNav nav = list.get(i);
+                BigDecimal value = nav.getUnitNav() != null ? nav.getUnitNav() : nav.getAccumNav();
+                x[i] = nav.getNavDate().toEpochDay();
+                y[i] = value != null ? value.doubleValue() : (i > 0 ? y[i - 1] : 0);
+            }
+            list = Downsampler.select(list, Downsampler.lttb(x, y, points));
+        }
         return list.stream().map(this::convertToFundNavVO).collect(Collectors.toList());
     }
     
@@ -158,25 +293,22 @@ public class FundServiceImpl implements FundService {
         return vo;
     }
     
-    private String calculateQualityLevel(FundMetrics metrics) {
-        if (metrics.getSharpeRatio1y() == null) {
-            return "-";
-        }
-        BigDecimal sharpe = metrics.getSharpeRatio1y();
-        if (sharpe.compareTo(new BigDecimal("2")) >= 0) return "S";
-        if (sharpe.compareTo(new BigDecimal("1.5")) >= 0) return "A";
-        if (sharpe.compareTo(new BigDecimal("1")) >= 0) return "B";
-        if (sharpe.compareTo(new BigDecimal("0.5")) >= 0) return "C";
-        return "D";
-    }
-    
+    /**
+     * 排行只包含计算日期为全局最新 calc_date 的基金（快照与数据库查询口径一致）。
+     * 快照就绪后取 TOP-K 不访问数据库，结果仍写入排名缓存，由缓存负责过期前后台重建
+     */
     @Override
-    @Cacheable(value = "fund:ranking", key = "#sortBy + '-' + #fundType + '-' + #limit")
+    @Cacheable(value = RedisConfig.CACHE_FUND_RANKING, key = "#sortBy + '-' + #fundType + '-' + #limit", sync = true)
     public List<FundMetricsVO> getTopFunds(String sortBy, String fundType, Integer limit) {
         // 限制最大数量
         if (limit > 50) limit = 50;
         if (limit < 1) limit = 10;
         
+        // 指标快照就绪时在内存中取TOP-K，不再访问数据库
+        if (metricsSnapshotService.isReady()) {
+            return getTopFundsFromSnapshot(sortBy, fundType, limit);
+        }
+        
         // 验证排序字段
         String orderBy = switch (sortBy) {
             case "return1y" -> "return_1y";
@@ -191,9 +323,38 @@ public class FundServiceImpl implements FundService {
         // 查询TOP基金
         List<FundMetrics> metricsList = fundMetricsMapper.selectTopByOrder(orderBy, fundType, limit);
         
-        return metricsList.stream()
-                .map(this::convertToFundMetricsVO)
-                .collect(Collectors.toList());
+        return convertToFundMetricsVOs(metricsList);
+    }
+    
+    /**
+     * 指标快照重载后排名已变化，清空排名缓存
+     */
+    @EventListener
+    @CacheEvict(value = RedisConfig.CACHE_FUND_RANKING, allEntries = true)
+    public void onMetricsReloaded(MetricsSnapshotReloadedEvent event) {
+        log.debug("指标快照已重载，清空排名缓存");
+    }
+    
+    private List<FundMetricsVO> getTopFundsFromSnapshot(String sortBy, String fundType, int limit) {
+        MetricsSnapshot snapshot = metricsSnapshotService.current();
+        MetricColumn column = MetricColumn.fromKey(sortBy, MetricColumn.SHARPE_1Y);
+        
+        // 与数据库查询口径一致：只在全局最新计算日期的基金中排名，未按时更新指标的基金不参与
+        IntPredicate filter = snapshot::onLatestCalcDate;
+        if (fundType != null) {
+            int typeId = snapshot.typeIdOf(fundType);
+            if (typeId < 0) {
+                return List.of();
+            }
+            filter = filter.and(row -> snapshot.typeId(row) == typeId);
+        }
+        
+        int[] rows = snapshot.topK(column, limit, filter);
+        List<FundMetricsVO> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(convertToFundMetricsVO(snapshot.toMetrics(row), snapshot.fundName(row)));
+        }
+        return result;
     }
     
     @Override
@@ -202,57 +363,139 @@ public class FundServiceImpl implements FundService {
             return List.of();
         }
         
-        return fundCodes.stream()
-                .map(this::getLatestMetrics)
-                .filter(vo -> vo != null)
-                .collect(Collectors.toList());
+        // 快照中已有的基金直接取用，其余一次批量查询最新指标
+        MetricsSnapshot snapshot = metricsSnapshotService.current();
+        Map<String, FundMetrics> metricsMap = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String fundCode : fundCodes) {
+            int row = snapshot.rowOf(fundCode);
+            if (row >= 0) {
+                metricsMap.put(fundCode, snapshot.toMetrics(row));
+            } else {
+                missing.add(fundCode);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (FundMetrics metrics : fundMetricsMapper.selectLatestByFundCodes(missing)) {
+                metricsMap.put(metrics.getFundCode(), metrics);
+            }
+        }
+        List<FundMetrics> metricsList = new ArrayList<>(fundCodes.size());
+        for (String fundCode : fundCodes) {
+            FundMetrics metrics = metricsMap.get(fundCode);
+            if (metrics != null) {
+                metricsList.add(metrics);
+            }
+        }
+        return convertToFundMetricsVOs(metricsList);
     }
     
     @Override
     public IPage<FundInfoVO> filterFundsByMetrics(IPage<FundInfoVO> page, String fundType,
                                                    Double minSharpe, Double maxDrawdown) {
-        // 先获取基金列表
-        LambdaQueryWrapper<FundInfo> wrapper = new LambdaQueryWrapper<>();
-        
-        if (StringUtils.hasText(fundType)) {
-            wrapper.eq(FundInfo::getFundType, fundType);
+        Map<MetricColumn, double[]> ranges = new EnumMap<>(MetricColumn.class);
+        if (minSharpe != null) {
+            ranges.put(MetricColumn.SHARPE_1Y, new double[]{minSharpe, Double.NaN});
+        }
+        if (maxDrawdown != null) {
+            // 回撤以负数存储，最大回撤 20 即 max_drawdown_1y >= -20
+            ranges.put(MetricColumn.MAX_DRAWDOWN_1Y, new double[]{-Math.abs(maxDrawdown), Double.NaN});
         }
-        wrapper.eq(FundInfo::getStatus, 1);
         
-        Page<FundInfo> pageParam = new Page<>(page.getCurrent(), page.getSize());
-        IPage<FundInfo> entityPage = fundInfoMapper.selectPage(pageParam, wrapper);
+        MetricsSnapshot snapshot = metricsSnapshotService.currentOrLoad();
+        FundScreener.Result result = fundScreener.screen(snapshot, emptyToNull(fundType), ranges,
+                MetricColumn.SHARPE_1Y, false, offset(page.getCurrent(), page.getSize()), (int) page.getSize());
         
-        // 过滤并转换
-        List<FundInfoVO> filteredList = entityPage.getRecords().stream()
-                .map(this::convertToFundInfoVO)
-                .filter(vo -> {
-                    FundMetricsVO metrics = getLatestMetrics(vo.getFundCode());
-                    if (metrics == null) return false;
-                    
-                    if (minSharpe != null) {
-                        if (metrics.getSharpeRatio1y() == null || 
-                            metrics.getSharpeRatio1y().doubleValue() < minSharpe) {
-                            return false;
-                        }
-                    }
-                    
-                    if (maxDrawdown != null) {
-                        if (metrics.getMaxDrawdown1y() == null || 
-                            metrics.getMaxDrawdown1y().doubleValue() > -maxDrawdown) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(Collectors.toList());
+        // 当前页基金信息批量解析
+        List<String> codes = new ArrayList<>(result.getRows().length);
+        for (int row : result.getRows()) {
+            codes.add(snapshot.fundCode(row));
+        }
+        Map<String, FundInfo> infoMap = fundRefDataService.resolve(codes);
         
-        page.setRecords(filteredList);
-        page.setTotal(filteredList.size());
+        page.setRecords(codes.stream()
+                .map(infoMap::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToFundInfoVO)
+                .collect(Collectors.toList()));
+        page.setTotal(result.getTotal());
         return page;
     }
     
+    @Override
+    public FundScreenResult screenFunds(FundScreenRequest request) {
+        int page = request.getPage() == null || request.getPage() < 1 ? 1 : request.getPage();
+        int size = request.getSize() == null || request.getSize() < 1 ? 20 : Math.min(request.getSize(), 100);
+        
+        Map<MetricColumn, double[]> ranges = new EnumMap<>(MetricColumn.class);
+        if (request.getRanges() != null) {
+            request.getRanges().forEach((key, range) -> {
+                MetricColumn column = MetricColumn.fromKey(key, null);
+                if (column == null) {
+                    throw new IllegalArgumentException("不支持的筛选指标: " + key);
+                }
+                if (range != null && (range.getMin() != null || range.getMax() != null)) {
+                    ranges.put(column, new double[]{
+                            range.getMin() != null ? range.getMin() : Double.NaN,
+                            range.getMax() != null ? range.getMax() : Double.NaN});
+                }
+            });
+        }
+        MetricColumn sortBy = MetricColumn.fromKey(request.getSortBy(), MetricColumn.SHARPE_1Y);
+        boolean ascending = sortBy.isAscendingByDefault();
+        if (StringUtils.hasText(request.getSortOrder())) {
+            ascending = switch (request.getSortOrder().toLowerCase()) {
+                case "asc" -> true;
+                case "desc" -> false;
+                default -> throw new IllegalArgumentException("不支持的排序方向: " + request.getSortOrder());
+            };
+        }
+        
+        MetricsSnapshot snapshot = metricsSnapshotService.currentOrLoad();
+        FundScreener.Result result = fundScreener.screen(snapshot, emptyToNull(request.getFundType()),
+                ranges, sortBy, ascending, offset(page, size), size);
+        
+        List<FundMetricsVO> records = new ArrayList<>(result.getRows().length);
+        for (int row : result.getRows()) {
+            records.add(convertToFundMetricsVO(snapshot.toMetrics(row), snapshot.fundName(row)));
+        }
+        
+        FundScreenResult screenResult = new FundScreenResult();
+        screenResult.setTotal(result.getTotal());
+        screenResult.setCurrent(page);
+        screenResult.setSize(size);
+        screenResult.setRecords(records);
+        screenResult.setTypeFacets(result.getTypeFacets());
+        return screenResult;
+    }
+    
+    private static int offset(long page, long size) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, (page - 1) * size));
+    }
+    
+    private static String emptyToNull(String s) {
+        return StringUtils.hasText(s) ? s : null;
+    }
+    
     private FundMetricsVO convertToFundMetricsVO(FundMetrics metrics) {
+        // 获取基金名称
+        FundInfo fundInfo = fundRefDataService.get(metrics.getFundCode());
+        return convertToFundMetricsVO(metrics, fundInfo != null ? fundInfo.getFundName() : null);
+    }
+    
+    private List<FundMetricsVO> convertToFundMetricsVOs(List<FundMetrics> metricsList) {
+        // 基金名称批量解析
+        Map<String, FundInfo> infoMap = fundRefDataService.resolve(
+                metricsList.stream().map(FundMetrics::getFundCode).collect(Collectors.toList()));
+        return metricsList.stream()
+                .map(m -> {
+                    FundInfo info = infoMap.get(m.getFundCode());
+                    return convertToFundMetricsVO(m, info != null ? info.getFundName() : null);
+                })
+                .collect(Collectors.toList());
+    }
+    
+    private FundMetricsVO convertToFundMetricsVO(FundMetrics metrics, String fundName) {
         FundMetricsVO vo = new FundMetricsVO();
         vo.setFundCode(metrics.getFundCode());
         vo.setCalcDate(metrics.getCalcDate());
@@ -263,14 +506,9 @@ public class FundServiceImpl implements FundService {
         vo.setSharpeRatio1y(metrics.getSharpeRatio1y());
         vo.setMaxDrawdown1y(metrics.getMaxDrawdown1y());
         vo.setVolatility1y(metrics.getVolatility1y());
+        vo.setFundName(fundName);
         
-        // 获取基金名称
-        FundInfo fundInfo = fundInfoMapper.selectById(metrics.getFundCode());
-        if (fundInfo != null) {
-            vo.setFundName(fundInfo.getFundName());
-        }
-        
-        vo.setQualityLevel(calculateQualityLevel(metrics));
+        vo.setQualityLevel(signalRuleService.current().qualityLevel(metrics));
         return vo;
     }
 }
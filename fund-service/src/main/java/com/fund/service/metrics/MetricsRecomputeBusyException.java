@@ -0,0 +1,11 @@
+package com.fund.service.metrics;
+
+/**
+ * 已有全量指标重算任务在运行，新任务未提交
+ */
+public class MetricsRecomputeBusyException extends RuntimeException {
+
+    public MetricsRecomputeBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,279 @@
+package com.fund.service.metrics;
+
+import com.fund.entity.FundMetrics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * 单只基金滚动指标状态
+ * 最近 756 个交易日（3年）的单位净值与日收益率存于环形数组，1年/3年窗口各维护一组收益率矩
+ * （和、平方和、下行和、下行平方和），每追加一个净值点 O(1) 更新；最大回撤按窗口扫描 O(窗口)。
+ * 口径与采集服务 metrics_engine.py 一致：样本标准差、年化 252 日、无风险利率 2.5%
+ */
+final class RollingMetrics {
+
+    static final int WINDOW_1Y = 252;
+    static final int WINDOW_3Y = 756;
+    static final int MIN_POINTS = 60;
+
+    private static final double RISK_FREE_RATE = 0.025;
+    private static final double TRADING_DAYS = 252;
+
+    private final double[] navs = new double[WINDOW_3Y];
+    private final double[] returns = new double[WINDOW_3Y];
+    private int head;
+    private int size;
+
+    private final Moments moments1y = new Moments();
+    private final Moments moments3y = new Moments();
+
+    // 已接收点数（含已移出窗口的），用于判断后续净值能否增量追加
+    private int total;
+    private int lastDay = Integer.MIN_VALUE;
+    private double lastNav = Double.NaN;
+    private long updates;
+
+    /**
+     * 追加一个净值点（按日期升序）；日增长率缺失时由相邻单位净值推算，单位净值缺失的点忽略
+     *
+     * @param dailyReturnPct 日增长率%，NaN 表示缺失
+     */
+    void add(int day, double unitNav, double dailyReturnPct) {
+        total++;
+        lastDay = day;
+        if (Double.isNaN(unitNav)) {
+            return;
+        }
+        double r;
+        if (!Double.isNaN(dailyReturnPct)) {
+            r = dailyReturnPct / 100;
+        } else if (!Double.isNaN(lastNav) && lastNav > 0) {
+            r = unitNav / lastNav - 1;
+        } else {
+            lastNav = unitNav;
+            return;  // 首个点且无日增长率，与 pandas dropna 一致地丢弃
+        }
+        lastNav = unitNav;
+
+        if (size >= WINDOW_1Y) {
+            moments1y.remove(returns[index(size - WINDOW_1Y)]);
+        }
+        if (size == WINDOW_3Y) {
+            moments3y.remove(returns[head]);
+            head = (head + 1) % WINDOW_3Y;
+            size--;
+        }
+        int slot = index(size);
+        navs[slot] = unitNav;
+        returns[slot] = r;
+        size++;
+        moments1y.add(r);
+        moments3y.add(r);
+
+        // 定期按窗口重新求和，消除加减累积的浮点误差
+        if (++updates % WINDOW_3Y == 0) {
+            resum();
+        }
+    }
+
+    int total() {
+        return total;
+    }
+
+    int lastDay() {
+        return lastDay;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 当前窗口的指标；有效点不足 60 个时返回 null
+     */
+    FundMetrics toMetrics(String fundCode) {
+        if (size < MIN_POINTS) {
+            return null;
+        }
+        int n1y = Math.min(size, WINDOW_1Y);
+        FundMetrics m = new FundMetrics();
+        m.setFundCode(fundCode);
+        m.setCalcDate(LocalDate.ofEpochDay(lastDay));
+        m.setReturn1m(periodReturn(21));
+        m.setReturn3m(periodReturn(63));
+        Double annual1y = annualReturn(n1y);
+        Double annual3y = annualReturn(size);
+        m.setReturn1y(decimal(annual1y));
+        m.setReturn3y(decimal(annual3y));
+        m.setSharpeRatio1y(decimal(sharpe(moments1y)));
+        m.setSharpeRatio3y(decimal(sharpe(moments3y)));
+        m.setSortinoRatio1y(decimal(sortino(moments1y)));
+        Double mdd1y = maxDrawdown(n1y);
+        Double mdd3y = maxDrawdown(size);
+        m.setMaxDrawdown1y(decimal(mdd1y));
+        m.setMaxDrawdown3y(decimal(mdd3y));
+        m.setVolatility1y(decimal(volatility(moments1y)));
+        m.setVolatility3y(decimal(volatility(moments3y)));
+        if (size >= WINDOW_1Y && annual3y != null && mdd3y != null && round(mdd3y) < 0) {
+            m.setCalmarRatio3y(decimal(round(annual3y) / Math.abs(round(mdd3y))));
+        }
+        // 无基准数据，与采集服务一致取中性值
+        m.setAlpha1y(BigDecimal.ZERO);
+        m.setBeta1y(BigDecimal.ONE);
+        m.setInformationRatio1y(BigDecimal.ZERO);
+        return m;
+    }
+
+    private BigDecimal periodReturn(int days) {
+        if (size < days) {
+            return null;
+        }
+        double start = navs[index(size - days)];
+        if (start <= 0) {
+            return null;
+        }
+        return decimal((navs[index(size - 1)] / start - 1) * 100);
+    }
+
+    private Double annualReturn(int n) {
+        if (n < MIN_POINTS) {
+            return null;
+        }
+        double start = navs[index(size - n)];
+        if (start <= 0) {
+            return null;
+        }
+        double totalReturn = navs[index(size - 1)] / start - 1;
+        double years = n / TRADING_DAYS;
+        return (Math.pow(1 + totalReturn, 1 / years) - 1) * 100;
+    }
+
+    private static Double sharpe(Moments m) {
+        if (m.count < MIN_POINTS) {
+            return null;
+        }
+        double std = m.std() * Math.sqrt(TRADING_DAYS);
+        if (std == 0) {
+            return 0.0;
+        }
+        return (m.mean() * TRADING_DAYS - RISK_FREE_RATE) / std;
+    }
+
+    private static Double sortino(Moments m) {
+        if (m.count < MIN_POINTS || m.downCount < 10) {
+            return null;
+        }
+        double downStd = m.downStd() * Math.sqrt(TRADING_DAYS);
+        if (downStd == 0) {
+            return null;
+        }
+        return (m.mean() * TRADING_DAYS - RISK_FREE_RATE) / downStd;
+    }
+
+    private static Double volatility(Moments m) {
+        if (m.count < 30) {
+            return null;
+        }
+        return m.std() * Math.sqrt(TRADING_DAYS) * 100;
+    }
+
+    private Double maxDrawdown(int n) {
+        if (n < 30) {
+            return null;
+        }
+        double peak = Double.NEGATIVE_INFINITY;
+        double maxDd = 0;
+        for (int i = size - n; i < size; i++) {
+            double nav = navs[index(i)];
+            peak = Math.max(peak, nav);
+            maxDd = Math.min(maxDd, (nav - peak) / peak);
+        }
+        return maxDd * 100;
+    }
+
+    private void resum() {
+        moments1y.clear();
+        moments3y.clear();
+        for (int i = 0; i < size; i++) {
+            double r = returns[index(i)];
+            moments3y.add(r);
+            if (i >= size - WINDOW_1Y) {
+                moments1y.add(r);
+            }
+        }
+    }
+
+    private int index(int logical) {
+        return (head + logical) % WINDOW_3Y;
+    }
+
+    private static double round(double v) {
+        return BigDecimal.valueOf(v).setScale(4, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static BigDecimal decimal(Double v) {
+        return v == null || v.isNaN() || v.isInfinite() ? null : BigDecimal.valueOf(v).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 收益率一、二阶矩（全部与下行部分）
+     */
+    private static final class Moments {
+        int count;
+        double sum;
+        double sumSq;
+        int downCount;
+        double downSum;
+        double downSumSq;
+
+        void add(double r) {
+            count++;
+            sum += r;
+            sumSq += r * r;
+            if (r < 0) {
+                downCount++;
+                downSum += r;
+                downSumSq += r * r;
+            }
+        }
+
+        void remove(double r) {
+            count--;
+            sum -= r;
+            sumSq -= r * r;
+            if (r < 0) {
+                downCount--;
+                downSum -= r;
+                downSumSq -= r * r;
+            }
+        }
+
+        void clear() {
+            count = 0;
+            sum = sumSq = 0;
+            downCount = 0;
+            downSum = downSumSq = 0;
+        }
+
+        double mean() {
+            return sum / count;
+        }
+
+        double std() {
+            return sampleStd(count, sum, sumSq);
+        }
+
+        double downStd() {
+            return sampleStd(downCount, downSum, downSumSq);
+        }
+
+        private static double sampleStd(int n, double s, double ss) {
+            if (n < 2) {
+                return 0;
+            }
+            return Math.sqrt(Math.max(0, (ss - s * s / n) / (n - 1)));
+        }
+    }
+}
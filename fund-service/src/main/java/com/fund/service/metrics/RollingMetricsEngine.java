@@ -0,0 +1,279 @@
+package com.fund.service.metrics;
+
+import com.fund.dto.MetricsRecomputeJob;
+import com.fund.entity.FundMetrics;
+import com.fund.entity.FundNav;
+import com.fund.mapper.FundMetricsMapper;
+import com.fund.mapper.FundNavMapper;
+import com.fund.service.navstore.NavSeries;
+import com.fund.service.navstore.NavSeriesStore;
+import com.fund.service.navstore.NavSeriesUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 本地滚动指标引擎
+ * 从净值序列存储计算收益、夏普、索提诺、卡玛、回撤、波动率（口径同采集服务 metrics_engine.py）。
+ * 最近用过的基金保留滚动状态，新净值到达时只追加新增的点；全量重算按基金分块并行，
+ * 手动触发的全量重算在后台执行，同一时间只允许一个
+ */
+@Service
+public class RollingMetricsEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RollingMetricsEngine.class);
+
+    // 保留滚动状态的基金数（每只约 12KB）
+    private static final int STATE_CACHE_SIZE = 4096;
+
+    // 并行分块与批量写入大小
+    private static final int FUND_CHUNK = 500;
+
+    private final NavSeriesStore navSeriesStore;
+    private final FundNavMapper fundNavMapper;
+    private final FundMetricsMapper fundMetricsMapper;
+    private final boolean autoUpdate;
+    private final ExecutorService executor;
+
+    // 全量重算任务主线程：合并分块结果，与分块线程分开避免占用分块线程
+    private final ExecutorService jobExecutor;
+
+    // 同一时间只允许一个全量重算任务
+    private final Semaphore recomputing = new Semaphore(1);
+
+    // 最近一次全量重算任务（结束时整体替换，不修改已发布的对象）
+    private final AtomicReference<MetricsRecomputeJob> lastJob = new AtomicReference<>();
+
+    private final Map<String, RollingMetrics> states = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RollingMetrics> eldest) {
+            return size() > STATE_CACHE_SIZE;
+        }
+    };
+
+    public RollingMetricsEngine(NavSeriesStore navSeriesStore,
+                                FundNavMapper fundNavMapper,
+                                FundMetricsMapper fundMetricsMapper,
+                                @Value("${metrics.rolling.auto-update:true}") boolean autoUpdate) {
+        this.navSeriesStore = navSeriesStore;
+        this.fundNavMapper = fundNavMapper;
+        this.fundMetricsMapper = fundMetricsMapper;
+        this.autoUpdate = autoUpdate;
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "rolling-metrics-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.jobExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "rolling-metrics-job");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 计算单只基金的最新指标（不落库）；净值不足 60 个交易日时返回 null
+     */
+    public FundMetrics compute(String fundCode) {
+        RollingMetrics state = advance(fundCode);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            return state.toMetrics(fundCode);
+        }
+    }
+
+    /**
+     * 重算并写入指定基金的指标，返回写入条数
+     */
+    public int recompute(Collection<String> fundCodes) {
+        long start = System.currentTimeMillis();
+        List<String> codes = new ArrayList<>(fundCodes);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < codes.size(); i += FUND_CHUNK) {
+            List<String> chunk = codes.subList(i, Math.min(i + FUND_CHUNK, codes.size()));
+            futures.add(executor.submit(() -> computeAndSave(chunk)));
+        }
+        int written = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                written += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("指标重算被中断", e);
+            } catch (ExecutionException e) {
+                log.error("指标分块重算失败", e.getCause());
+            }
+        }
+        log.info("滚动指标重算完成: {}只基金, 写入{}条, 耗时{}ms", codes.size(), written,
+                System.currentTimeMillis() - start);
+        return written;
+    }
+
+    /**
+     * 提交后台任务全量重算净值序列存储中的全部基金；已有任务在运行时抛出 MetricsRecomputeBusyException
+     */
+    public MetricsRecomputeJob submitRecomputeAll() {
+        if (!recomputing.tryAcquire()) {
+            throw new MetricsRecomputeBusyException("已有指标重算任务在运行，请稍后重试");
+        }
+        MetricsRecomputeJob job = new MetricsRecomputeJob();
+        job.setJobId(UUID.randomUUID().toString().replace("-", ""));
+        job.setStatus(MetricsRecomputeJob.Status.RUNNING);
+        job.setSubmitTime(LocalDateTime.now());
+        lastJob.set(job);
+        try {
+            jobExecutor.execute(() -> runJob(job));
+        } catch (RejectedExecutionException e) {
+            recomputing.release();
+            throw new MetricsRecomputeBusyException("指标重算服务正在关闭");
+        }
+        return job;
+    }
+
+    /**
+     * 最近一次全量重算任务（运行中或已结束），从未提交时为 null
+     */
+    public MetricsRecomputeJob getLastJob() {
+        return lastJob.get();
+    }
+
+    /**
+     * 净值更新后增量刷新对应基金的指标
+     */
+    @Async
+    @EventListener
+    public void onNavUpdated(NavSeriesUpdatedEvent event) {
+        if (autoUpdate) {
+            recompute(event.fundCodes());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void runJob(MetricsRecomputeJob submitted) {
+        MetricsRecomputeJob finished = new MetricsRecomputeJob();
+        finished.setJobId(submitted.getJobId());
+        finished.setSubmitTime(submitted.getSubmitTime());
+        try {
+            Collection<String> fundCodes = navSeriesStore.fundCodes();
+            finished.setFundCount(fundCodes.size());
+            finished.setWritten(recompute(fundCodes));
+            finished.setStatus(MetricsRecomputeJob.Status.SUCCESS);
+        } catch (Exception e) {
+            log.error("全量指标重算失败: {}", submitted.getJobId(), e);
+            finished.setStatus(MetricsRecomputeJob.Status.FAILED);
+            finished.setError(e.getMessage());
+        } finally {
+            finished.setFinishTime(LocalDateTime.now());
+            lastJob.set(finished);
+            recomputing.release();
+        }
+    }
+
+    private int computeAndSave(List<String> fundCodes) {
+        List<FundMetrics> batch = new ArrayList<>(fundCodes.size());
+        for (String fundCode : fundCodes) {
+            try {
+                FundMetrics metrics = compute(fundCode);
+                if (metrics != null) {
+                    batch.add(metrics);
+                }
+            } catch (Exception e) {
+                log.warn("基金 {} 滚动指标计算失败: {}", fundCode, e.getMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            fundMetricsMapper.upsertBatch(batch);
+        }
+        return batch.size();
+    }
+
+    /**
+     * 取基金滚动状态并追加新净值点：已有状态且历史未变化时只追加新增的点，否则按最近 3 年重建
+     */
+    private RollingMetrics advance(String fundCode) {
+        NavSeries series = navSeriesStore.get(fundCode);
+        if (series == null) {
+            return rebuildFromDb(fundCode);
+        }
+        RollingMetrics state;
+        synchronized (states) {
+            state = states.get(fundCode);
+        }
+        if (state != null) {
+            synchronized (state) {
+                int from = series.lowerBound(LocalDate.ofEpochDay(state.lastDay()).plusDays(1));
+                if (from == state.total() && from <= series.size()) {
+                    for (int i = from; i < series.size(); i++) {
+                        addPoint(state, series, i);
+                    }
+                    return state;
+                }
+            }
+        }
+
+        RollingMetrics rebuilt = new RollingMetrics();
+        for (int i = 0; i < series.size(); i++) {
+            addPoint(rebuilt, series, i);
+        }
+        synchronized (states) {
+            states.put(fundCode, rebuilt);
+        }
+        return rebuilt;
+    }
+
+    private static void addPoint(RollingMetrics state, NavSeries series, int i) {
+        int unit = series.unitNav(i);
+        int ret = series.dailyReturn(i);
+        state.add((int) series.navDate(i).toEpochDay(),
+                unit == Integer.MIN_VALUE ? Double.NaN : unit / 10_000.0,
+                ret == Integer.MIN_VALUE ? Double.NaN : ret / 10_000.0);
+    }
+
+    /**
+     * 存储未收录该基金时从数据库读取最近 3 年净值（不缓存状态）
+     */
+    private RollingMetrics rebuildFromDb(String fundCode) {
+        List<FundNav> navs = fundNavMapper.selectRecentByCode(fundCode, RollingMetrics.WINDOW_3Y + 1);
+        if (navs.isEmpty()) {
+            return null;
+        }
+        RollingMetrics state = new RollingMetrics();
+        for (int i = navs.size() - 1; i >= 0; i--) {
+            FundNav nav = navs.get(i);
+            state.add((int) nav.getNavDate().toEpochDay(),
+                    nav.getUnitNav() != null ? nav.getUnitNav().doubleValue() : Double.NaN,
+                    nav.getDailyReturn() != null ? nav.getDailyReturn().doubleValue() : Double.NaN);
+        }
+        return state;
+    }
+}
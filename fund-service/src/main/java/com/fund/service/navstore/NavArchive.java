@@ -0,0 +1,175 @@
+package com.fund.service.navstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 追加写的净值归档文件（按段切分，每段整体内存映射）
+ * 每条记录为 int 总长度 + int CRC32 + 正文；先写正文、校验和与下一条的 0 长度哨兵，最后写长度字段。
+ * 打开时顺序扫描，遇到长度为 0 处即段的逻辑末尾；长度越界或校验和不符视为中断写入的残缺记录，
+ * 从该条起截断（其后的段一并丢弃），进程中断只会丢失未完成的最后一条。
+ * 位置编码为 (段号 &lt;&lt; 32) | 段内偏移。写入需由调用方串行化，读取线程安全
+ */
+final class NavArchive implements AutoCloseable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    // 长度 + CRC32
+    static final int HEADER_BYTES = 8;
+
+    private static final String SEGMENT_PREFIX = "nav-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private long totalBytes;
+
+    NavArchive(Path dir, int segmentSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)).sorted().toList();
+        }
+        boolean torn = false;
+        for (Path file : files) {
+            if (torn) {
+                // 残缺记录之后的段不可信
+                Files.delete(file);
+                continue;
+            }
+            Segment segment = Segment.open(file, segmentSize);
+            segments.add(segment);
+            totalBytes += segment.end;
+            torn = segment.torn;
+        }
+    }
+
+    /**
+     * 追加一条记录正文，返回位置
+     */
+    long append(ByteBuffer payload) throws IOException {
+        int length = HEADER_BYTES + payload.remaining();
+        if (length > segmentSize) {
+            throw new IOException("净值记录超过段大小: " + length);
+        }
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.end + length > segmentSize) {
+            Path file = dir.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+            segment = Segment.open(file, segmentSize);
+            segments.add(segment);
+        }
+        int offset = segment.end;
+        ByteBuffer target = segment.buffer.duplicate();
+        target.position(offset + HEADER_BYTES);
+        target.put(payload.duplicate());
+        segment.buffer.putInt(offset + 4, crc(segment.buffer, offset + HEADER_BYTES, length - HEADER_BYTES));
+        if (offset + length + 4 <= segmentSize) {
+            segment.buffer.putInt(offset + length, 0);
+        }
+        segment.buffer.putInt(offset, length);
+        segment.end += length;
+        totalBytes += length;
+        return ((long) (segments.size() - 1) << 32) | offset;
+    }
+
+    /**
+     * 读取记录正文（返回映射区切片，不复制）
+     */
+    ByteBuffer read(long location) {
+        Segment segment = segments.get((int) (location >>> 32));
+        int offset = (int) location;
+        int length = segment.buffer.getInt(offset);
+        return segment.buffer.slice(offset + HEADER_BYTES, length - HEADER_BYTES);
+    }
+
+    /**
+     * 顺序遍历全部记录（位置, 正文）
+     */
+    void scan(BiConsumer<Long, ByteBuffer> consumer) {
+        for (int s = 0; s < segments.size(); s++) {
+            Segment segment = segments.get(s);
+            int offset = 0;
+            while (offset < segment.end) {
+                long location = ((long) s << 32) | offset;
+                consumer.accept(location, read(location));
+                offset += segment.buffer.getInt(offset);
+            }
+        }
+    }
+
+    long totalBytes() {
+        return totalBytes;
+    }
+
+    Path dir() {
+        return dir;
+    }
+
+    void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int end;
+        boolean torn;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            // 定位逻辑末尾：长度为 0 处正常截止，越界或校验和不符（未写完）处截断
+            int offset = 0;
+            while (offset + HEADER_BYTES <= size) {
+                int length = segment.buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (length < HEADER_BYTES || offset + length > size
+                        || segment.buffer.getInt(offset + 4) != crc(segment.buffer, offset + HEADER_BYTES, length - HEADER_BYTES)) {
+                    segment.torn = true;
+                    segment.buffer.putInt(offset, 0);
+                    break;
+                }
+                offset += length;
+            }
+            segment.end = offset;
+            return segment;
+        }
+    }
+}
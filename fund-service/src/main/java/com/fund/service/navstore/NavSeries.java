@@ -0,0 +1,118 @@
+package com.fund.service.navstore;
+
+import com.fund.entity.FundNav;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单只基金净值序列（按净值日期升序）
+ * 日期解码为 int 数组，净值列直接读取归档文件映射区，不复制
+ */
+public final class NavSeries {
+
+    private final String fundCode;
+    private final int[] days;
+    private final ByteBuffer record;
+    private final int unitOffset;
+    private final int accumOffset;
+    private final int returnOffset;
+
+    NavSeries(String fundCode, int[] days, ByteBuffer record, int columnsOffset) {
+        this.fundCode = fundCode;
+        this.days = days;
+        this.record = record;
+        this.unitOffset = columnsOffset;
+        this.accumOffset = columnsOffset + days.length * 4;
+        this.returnOffset = columnsOffset + days.length * 8;
+    }
+
+    public String getFundCode() {
+        return fundCode;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public LocalDate navDate(int i) {
+        return LocalDate.ofEpochDay(days[i]);
+    }
+
+    /**
+     * 单位净值（4 位小数定点数，缺失为 Integer.MIN_VALUE）
+     */
+    public int unitNav(int i) {
+        return record.getInt(unitOffset + i * 4);
+    }
+
+    public int accumNav(int i) {
+        return record.getInt(accumOffset + i * 4);
+    }
+
+    /**
+     * 日增长率%（4 位小数定点数）
+     */
+    public int dailyReturn(int i) {
+        return record.getInt(returnOffset + i * 4);
+    }
+
+    /**
+     * 第一个净值日期不早于 date 的下标（全部早于时返回 size）
+     */
+    public int lowerBound(LocalDate date) {
+        int key = (int) date.toEpochDay();
+        int lo = 0;
+        int hi = days.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 区间内净值（含两端，按净值日期倒序，与 FundNavMapper.selectByDateRange 一致）
+     */
+    public List<FundNav> range(LocalDate startDate, LocalDate endDate) {
+        int from = lowerBound(startDate);
+        int to = lowerBound(endDate.plusDays(1));
+        List<FundNav> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = to - 1; i >= from; i--) {
+            result.add(toEntity(i));
+        }
+        return result;
+    }
+
+    /**
+     * 最近 limit 条净值（倒序）
+     */
+    public List<FundNav> recent(int limit) {
+        int from = Math.max(0, days.length - limit);
+        List<FundNav> result = new ArrayList<>(days.length - from);
+        for (int i = days.length - 1; i >= from; i--) {
+            result.add(toEntity(i));
+        }
+        return result;
+    }
+
+    public FundNav latest() {
+        return days.length == 0 ? null : toEntity(days.length - 1);
+    }
+
+    public FundNav toEntity(int i) {
+        FundNav nav = new FundNav();
+        nav.setFundCode(fundCode);
+        nav.setNavDate(navDate(i));
+        nav.setUnitNav(NavSeriesCodec.toDecimal(unitNav(i)));
+        nav.setAccumNav(NavSeriesCodec.toDecimal(accumNav(i)));
+        nav.setDailyReturn(NavSeriesCodec.toDecimal(dailyReturn(i)));
+        return nav;
+    }
+}
@@ -0,0 +1,234 @@
+package com.fund.service.navstore;
+
+import com.fund.entity.FundNav;
+import com.fund.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 单只基金净值序列的二进制编码（归档记录正文，长度为 4 的倍数）
+ * <pre>
+ * long   上一条记录位置（增量记录只含新增的点并指向前一条，完整记录为 NO_PREV）
+ * int    本条点数 n
+ * int    首个净值日期（epoch day）
+ * int    最后净值日期（epoch day）
+ * short  基金代码长度 + ASCII 基金代码
+ * n-1 个 varint 日期差
+ * 补齐到 4 字节
+ * int[n] 单位净值、int[n] 累计净值、int[n] 日增长率（均为 4 位小数定点数，缺失为 NULL）
+ * </pre>
+ */
+final class NavSeriesCodec {
+
+    static final int NULL = Integer.MIN_VALUE;
+
+    static final long NO_PREV = -1L;
+
+    private static final int COUNT_OFFSET = 8;
+    private static final int FIRST_DAY_OFFSET = 12;
+    private static final int LAST_DAY_OFFSET = 16;
+    private static final int CODE_OFFSET = 20;
+
+    private NavSeriesCodec() {
+    }
+
+    /**
+     * 编码（navs 按净值日期升序、日期不重复、非空）；数值超出 int 定点范围时返回 null，由调用方回退数据库
+     */
+    static ByteBuffer encode(String fundCode, List<FundNav> navs, long prev) {
+        int n = navs.size();
+        int[] days = new int[n];
+        int[] unit = new int[n];
+        int[] accum = new int[n];
+        int[] ret = new int[n];
+        for (int i = 0; i < n; i++) {
+            FundNav nav = navs.get(i);
+            days[i] = (int) nav.getNavDate().toEpochDay();
+            try {
+                unit[i] = scaled(nav.getUnitNav());
+                accum[i] = scaled(nav.getAccumNav());
+                ret[i] = scaled(nav.getDailyReturn());
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return encode(fundCode, prev, days, unit, accum, ret);
+    }
+
+    /**
+     * 把（可能由多条增量记录拼成的）序列重新编码为一条完整记录，压缩时使用
+     */
+    static ByteBuffer encode(NavSeries series) {
+        int n = series.size();
+        int[] days = new int[n];
+        int[] unit = new int[n];
+        int[] accum = new int[n];
+        int[] ret = new int[n];
+        for (int i = 0; i < n; i++) {
+            days[i] = (int) series.navDate(i).toEpochDay();
+            unit[i] = series.unitNav(i);
+            accum[i] = series.accumNav(i);
+            ret[i] = series.dailyReturn(i);
+        }
+        return encode(series.getFundCode(), NO_PREV, days, unit, accum, ret);
+    }
+
+    private static ByteBuffer encode(String fundCode, long prev, int[] days, int[] unit, int[] accum, int[] ret) {
+        int n = days.length;
+        byte[] code = fundCode.getBytes(StandardCharsets.US_ASCII);
+        byte[] deltas = new byte[Math.max(0, n - 1) * 5];
+        int deltaLen = 0;
+        for (int i = 1; i < n; i++) {
+            deltaLen = writeVarint(deltas, deltaLen, days[i] - days[i - 1]);
+        }
+
+        int columnsOffset = align(CODE_OFFSET + 2 + code.length + deltaLen);
+        int length = columnsOffset + n * 12;
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buf.putLong(prev);
+        buf.putInt(n);
+        buf.putInt(n > 0 ? days[0] : 0);
+        buf.putInt(n > 0 ? days[n - 1] : 0);
+        buf.putShort((short) code.length);
+        buf.put(code);
+        buf.put(deltas, 0, deltaLen);
+        buf.position(columnsOffset);
+        for (int v : unit) {
+            buf.putInt(v);
+        }
+        for (int v : accum) {
+            buf.putInt(v);
+        }
+        for (int v : ret) {
+            buf.putInt(v);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * 读取记录中的基金代码
+     */
+    static String fundCode(ByteBuffer record) {
+        int codeLen = record.getShort(CODE_OFFSET);
+        byte[] code = new byte[codeLen];
+        record.get(CODE_OFFSET + 2, code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    static long prev(ByteBuffer record) {
+        return record.getLong(0);
+    }
+
+    static int count(ByteBuffer record) {
+        return record.getInt(COUNT_OFFSET);
+    }
+
+    static int lastDay(ByteBuffer record) {
+        return record.getInt(LAST_DAY_OFFSET);
+    }
+
+    /**
+     * 最后一点的单位净值、累计净值、日增长率（数值列位于记录末尾，无需解码日期）
+     */
+    static int lastUnitNav(ByteBuffer record) {
+        return record.getInt(record.limit() - count(record) * 8 - 4);
+    }
+
+    static int lastAccumNav(ByteBuffer record) {
+        return record.getInt(record.limit() - count(record) * 4 - 4);
+    }
+
+    static int lastDailyReturn(ByteBuffer record) {
+        return record.getInt(record.limit() - 4);
+    }
+
+    /**
+     * 解码：chain 为按写入先后排列的完整记录及其后的增量记录。
+     * 单条记录时日期差还原为日期数组，数值列直接引用记录缓冲区（不复制）；多条时拼接为一份堆内列
+     */
+    static NavSeries decode(ByteBuffer... chain) {
+        String fundCode = fundCode(chain[0]);
+        if (chain.length == 1) {
+            int[] days = new int[count(chain[0])];
+            return new NavSeries(fundCode, days, chain[0], decodeDays(chain[0], days, 0));
+        }
+        int total = 0;
+        for (ByteBuffer record : chain) {
+            total += count(record);
+        }
+        int[] days = new int[total];
+        ByteBuffer columns = ByteBuffer.allocate(total * 12);
+        int at = 0;
+        for (ByteBuffer record : chain) {
+            int n = count(record);
+            int columnsOffset = decodeDays(record, days, at);
+            for (int c = 0; c < 3; c++) {
+                columns.put(c * total * 4 + at * 4, record, columnsOffset + c * n * 4, n * 4);
+            }
+            at += n;
+        }
+        return new NavSeries(fundCode, days, columns, 0);
+    }
+
+    /**
+     * 该点与存储中的定点数值是否一致（超出定点范围视为不一致）
+     */
+    static boolean matches(FundNav nav, int unitNav, int accumNav, int dailyReturn) {
+        try {
+            return scaled(nav.getUnitNav()) == unitNav
+                    && scaled(nav.getAccumNav()) == accumNav
+                    && scaled(nav.getDailyReturn()) == dailyReturn;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    static BigDecimal toDecimal(int scaled) {
+        return scaled == NULL ? null : FixedPoint.toDecimal(scaled);
+    }
+
+    /**
+     * 日期差还原到 days[at..]，返回数值列起始偏移
+     */
+    private static int decodeDays(ByteBuffer record, int[] days, int at) {
+        int n = count(record);
+        int pos = CODE_OFFSET + 2 + record.getShort(CODE_OFFSET);
+        int day = record.getInt(FIRST_DAY_OFFSET);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = record.get(pos++);
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                day += delta;
+            }
+            days[at + i] = day;
+        }
+        return align(pos);
+    }
+
+    private static int scaled(BigDecimal value) {
+        return value == null ? NULL : Math.toIntExact(FixedPoint.of(value));
+    }
+
+    private static int writeVarint(byte[] out, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int align(int n) {
+        return (n + 3) & ~3;
+    }
+}
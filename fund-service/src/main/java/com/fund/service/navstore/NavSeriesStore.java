@@ -0,0 +1,448 @@
+package com.fund.service.navstore;
+
+import com.fund.dto.FundNavStat;
+import com.fund.entity.FundNav;
+import com.fund.mapper.FundNavMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 净值序列存储
+ * 每只基金的净值历史编码为记录追加到内存映射归档文件，进程内按基金代码索引最新记录位置与最后一点；
+ * 启动时扫描归档重建索引，再与 fund_nav 的 (最新日期, 条数) 比对增量补齐，之后定时同步。
+ * 库中只是在末尾新增了净值时追加只含新增点的增量记录并链到前一条，历史被改写或链过长时整条重写，
+ * 旧记录成为垃圾，超过一半时把每只基金合并为一条完整记录压缩到新一代目录。
+ * 归档损坏无法打开时丢弃本地归档，从数据库全量重建
+ */
+@Service
+public class NavSeriesStore implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(NavSeriesStore.class);
+
+    // 每次流式加载的基金数
+    private static final int LOAD_CHUNK = 200;
+
+    // 压缩阈值：归档总量超过 nav.store.compact-min-mb（默认 64MB）且垃圾占比过半
+    private static final double COMPACT_GARBAGE_RATIO = 0.5;
+
+    // 增量记录链的最大长度，超过时整条重写
+    private static final int MAX_CHAIN = 16;
+
+    private static final String GEN_PREFIX = "gen-";
+
+    private final FundNavMapper fundNavMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path baseDir;
+    private final long compactMinBytes;
+
+    // 归档与索引整体替换（压缩时），读线程总能拿到一致的一对
+    private volatile State state;
+    private volatile boolean ready = false;
+
+    public NavSeriesStore(FundNavMapper fundNavMapper,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${nav.store.dir:data/nav-store}") String dir,
+                          @Value("${nav.store.compact-min-mb:64}") long compactMinMb) {
+        this.fundNavMapper = fundNavMapper;
+        this.eventPublisher = eventPublisher;
+        this.baseDir = Paths.get(dir);
+        this.compactMinBytes = compactMinMb * 1024 * 1024;
+    }
+
+    /**
+     * 系统启动时打开归档并与数据库同步
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            openOrReset();
+            sync();
+        } catch (Exception e) {
+            log.error("净值序列存储初始化失败，净值查询暂时回退到数据库", e);
+        }
+    }
+
+    /**
+     * 定时同步（采集服务直接写库的净值）
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    public void scheduledSync() {
+        try {
+            if (state == null) {
+                openOrReset();
+            }
+            sync();
+        } catch (Exception e) {
+            log.error("净值序列存储同步失败", e);
+        }
+    }
+
+    /**
+     * 基金净值序列；存储未就绪或无该基金时返回 null（调用方回退数据库）
+     */
+    public NavSeries get(String fundCode) {
+        State current = state;
+        if (!ready || current == null) {
+            return null;
+        }
+        Entry entry = current.index.get(fundCode);
+        return entry != null ? read(current, entry) : null;
+    }
+
+    /**
+     * 基金最新净值，直接取索引中的最后一点，不解码序列；存储未就绪或无该基金时返回 null
+     */
+    public FundNav latest(String fundCode) {
+        State current = state;
+        if (!ready || current == null) {
+            return null;
+        }
+        Entry entry = current.index.get(fundCode);
+        if (entry == null) {
+            return null;
+        }
+        FundNav nav = new FundNav();
+        nav.setFundCode(fundCode);
+        nav.setNavDate(LocalDate.ofEpochDay(entry.lastDay));
+        nav.setUnitNav(NavSeriesCodec.toDecimal(entry.lastUnitNav));
+        nav.setAccumNav(NavSeriesCodec.toDecimal(entry.lastAccumNav));
+        nav.setDailyReturn(NavSeriesCodec.toDecimal(entry.lastDailyReturn));
+        return nav;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 已收录的基金代码
+     */
+    public List<String> fundCodes() {
+        State current = state;
+        return current != null ? new ArrayList<>(current.index.keySet()) : List.of();
+    }
+
+    /**
+     * 与 fund_nav 比对，重新加载最新日期或条数不一致的基金
+     */
+    public synchronized int sync() throws IOException {
+        long start = System.currentTimeMillis();
+        State current = state;
+        List<FundNavStat> stats = fundNavMapper.selectNavStats();
+        Set<String> present = new HashSet<>(stats.size() * 2);
+        List<String> stale = new ArrayList<>();
+        for (FundNavStat stat : stats) {
+            present.add(stat.getFundCode());
+            Entry entry = current.index.get(stat.getFundCode());
+            if (entry == null || stat.getLastNavDate() == null
+                    || entry.lastDay != stat.getLastNavDate().toEpochDay()
+                    || entry.count != stat.getNavCount()) {
+                stale.add(stat.getFundCode());
+            }
+        }
+        for (String fundCode : new ArrayList<>(current.index.keySet())) {
+            if (!present.contains(fundCode)) {
+                current.remove(fundCode);
+            }
+        }
+        for (int i = 0; i < stale.size(); i += LOAD_CHUNK) {
+            load(current, stale.subList(i, Math.min(i + LOAD_CHUNK, stale.size())));
+        }
+        current.archive.force();
+        ready = true;
+        log.info("净值序列存储同步完成: {}只基金, 更新{}只, 归档{}MB, 耗时{}ms", current.index.size(), stale.size(),
+                current.archive.totalBytes() >> 20, System.currentTimeMillis() - start);
+
+        maybeCompact(current);
+        if (!stale.isEmpty()) {
+            eventPublisher.publishEvent(new NavSeriesUpdatedEvent(stale));
+        }
+        return stale.size();
+    }
+
+    /**
+     * 重新加载单只基金（服务内写入净值后调用）
+     */
+    public synchronized void refresh(String fundCode) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        try {
+            load(current, List.of(fundCode));
+            eventPublisher.publishEvent(new NavSeriesUpdatedEvent(List.of(fundCode)));
+        } catch (IOException e) {
+            log.warn("净值序列刷新失败: {}, 移出存储改走数据库: {}", fundCode, e.getMessage());
+            current.remove(fundCode);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        State current = state;
+        if (current != null) {
+            try {
+                current.archive.close();
+            } catch (IOException e) {
+                log.warn("净值归档关闭失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 打开归档；损坏（扫描或解码失败）时删除本地归档并从空归档开始，由随后的同步从数据库重建
+     */
+    synchronized void openOrReset() throws IOException {
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            log.error("净值归档损坏，丢弃后从数据库重建: {}", baseDir, e);
+            deleteDir(baseDir);
+            Files.createDirectories(baseDir);
+            state = new State(0, new NavArchive(baseDir.resolve(GEN_PREFIX + 0), NavArchive.DEFAULT_SEGMENT_SIZE));
+            ready = false;
+        }
+    }
+
+    /**
+     * 打开最新一代归档并扫描重建索引（同一基金以最后一条记录为准，增量记录接在前一条之后），清理旧代目录
+     */
+    private void open() throws IOException {
+        Files.createDirectories(baseDir);
+        List<Path> gens;
+        try (Stream<Path> list = Files.list(baseDir)) {
+            gens = list.filter(p -> p.getFileName().toString().startsWith(GEN_PREFIX))
+                    .sorted(Comparator.comparingInt(NavSeriesStore::generationOf))
+                    .toList();
+        }
+        int gen = gens.isEmpty() ? 0 : generationOf(gens.get(gens.size() - 1));
+        for (Path old : gens) {
+            if (generationOf(old) != gen) {
+                deleteDir(old);
+            }
+        }
+
+        State loaded = new State(gen, new NavArchive(baseDir.resolve(GEN_PREFIX + gen), NavArchive.DEFAULT_SEGMENT_SIZE));
+        try {
+            loaded.archive.scan((location, record) -> {
+                String fundCode = NavSeriesCodec.fundCode(record);
+                long prev = NavSeriesCodec.prev(record);
+                Entry previous = null;
+                if (prev != NavSeriesCodec.NO_PREV) {
+                    previous = loaded.index.get(fundCode);
+                    if (previous == null || previous.location != prev) {
+                        // 链断裂：移出索引，由同步从数据库整条重载
+                        loaded.remove(fundCode);
+                        return;
+                    }
+                }
+                loaded.put(fundCode, entry(previous, location, record));
+            });
+        } catch (RuntimeException e) {
+            loaded.archive.close();
+            throw e;
+        }
+        state = loaded;
+        ready = !loaded.index.isEmpty();
+        log.info("净值归档已打开: {}, {}只基金, {}MB", loaded.archive.dir(), loaded.index.size(),
+                loaded.archive.totalBytes() >> 20);
+    }
+
+    /**
+     * 流式读取一批基金的全部净值并各追加一条记录；库中已无净值的基金移出索引
+     */
+    private void load(State current, List<String> fundCodes) throws IOException {
+        Set<String> missing = new HashSet<>(fundCodes);
+        List<FundNav> buffer = new ArrayList<>();
+        String[] fundCode = new String[1];
+        try {
+            fundNavMapper.streamByFunds(fundCodes, context -> {
+                FundNav nav = context.getResultObject();
+                if (nav.getNavDate() == null) {
+                    return;
+                }
+                if (!nav.getFundCode().equals(fundCode[0])) {
+                    flush(current, fundCode[0], buffer);
+                    fundCode[0] = nav.getFundCode();
+                    missing.remove(fundCode[0]);
+                }
+                buffer.add(nav);
+            });
+            flush(current, fundCode[0], buffer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (String code : missing) {
+            current.remove(code);
+        }
+    }
+
+    private void flush(State current, String fundCode, List<FundNav> navs) {
+        if (fundCode == null || navs.isEmpty()) {
+            return;
+        }
+        Entry old = current.index.get(fundCode);
+        int from = appendFrom(old, navs);
+        if (from == navs.size()) {
+            navs.clear();
+            return;
+        }
+        ByteBuffer record = NavSeriesCodec.encode(fundCode, navs.subList(from, navs.size()),
+                from > 0 ? old.location : NavSeriesCodec.NO_PREV);
+        navs.clear();
+        if (record == null) {
+            log.warn("基金 {} 净值超出定点存储范围，改走数据库", fundCode);
+            current.remove(fundCode);
+            return;
+        }
+        try {
+            current.put(fundCode, entry(from > 0 ? old : null, current.archive.append(record), record));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 库中净值只是在已存储序列末尾新增时返回需写入的起始下标（只写新增点，无新增时为 navs.size()），
+     * 否则返回 0 整条重写
+     */
+    private static int appendFrom(Entry old, List<FundNav> navs) {
+        if (old == null || navs.size() < old.count) {
+            return 0;
+        }
+        FundNav last = navs.get(old.count - 1);
+        if (last.getNavDate().toEpochDay() != old.lastDay
+                || !NavSeriesCodec.matches(last, old.lastUnitNav, old.lastAccumNav, old.lastDailyReturn)) {
+            return 0;
+        }
+        if (navs.size() == old.count) {
+            return old.count;
+        }
+        return old.chain < MAX_CHAIN ? old.count : 0;
+    }
+
+    /**
+     * 垃圾过半时把每只基金的记录链合并为一条完整记录写入新一代归档并整体切换
+     */
+    private void maybeCompact(State current) throws IOException {
+        long total = current.archive.totalBytes();
+        if (total < compactMinBytes || total - current.liveBytes <= total * COMPACT_GARBAGE_RATIO) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int gen = current.generation + 1;
+        State compacted = new State(gen, new NavArchive(baseDir.resolve(GEN_PREFIX + gen), NavArchive.DEFAULT_SEGMENT_SIZE));
+        for (Map.Entry<String, Entry> e : current.index.entrySet()) {
+            ByteBuffer record = NavSeriesCodec.encode(read(current, e.getValue()));
+            compacted.put(e.getKey(), entry(null, compacted.archive.append(record), record));
+        }
+        compacted.archive.force();
+        state = compacted;
+        current.archive.close();
+        deleteDir(current.archive.dir());
+        log.info("净值归档压缩完成: {}MB -> {}MB, 耗时{}ms", total >> 20,
+                compacted.archive.totalBytes() >> 20, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 沿增量链读回全部记录并解码
+     */
+    private static NavSeries read(State current, Entry entry) {
+        ByteBuffer[] chain = new ByteBuffer[entry.chain];
+        long location = entry.location;
+        for (int i = entry.chain - 1; i >= 0; i--) {
+            chain[i] = current.archive.read(location);
+            location = NavSeriesCodec.prev(chain[i]);
+        }
+        return NavSeriesCodec.decode(chain);
+    }
+
+    /**
+     * 新记录对应的索引项；previous 为其链上的前一项（完整记录为 null）
+     */
+    private static Entry entry(Entry previous, long location, ByteBuffer record) {
+        int length = NavArchive.HEADER_BYTES + record.remaining();
+        int count = NavSeriesCodec.count(record);
+        return new Entry(location,
+                previous != null ? previous.chain + 1 : 1,
+                previous != null ? previous.count + count : count,
+                previous != null ? previous.length + length : length,
+                NavSeriesCodec.lastDay(record),
+                NavSeriesCodec.lastUnitNav(record),
+                NavSeriesCodec.lastAccumNav(record),
+                NavSeriesCodec.lastDailyReturn(record));
+    }
+
+    private static int generationOf(Path dir) {
+        try {
+            return Integer.parseInt(dir.getFileName().toString().substring(GEN_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteDir(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * 索引项：最新记录位置、链长、总点数、链上记录总字节数，以及最后一点的日期与数值
+     */
+    private record Entry(long location, int chain, int count, int length,
+                         int lastDay, int lastUnitNav, int lastAccumNav, int lastDailyReturn) {
+    }
+
+    private static final class State {
+        final int generation;
+        final NavArchive archive;
+        final Map<String, Entry> index = new ConcurrentHashMap<>();
+        long liveBytes;
+
+        State(int generation, NavArchive archive) {
+            this.generation = generation;
+            this.archive = archive;
+        }
+
+        void put(String fundCode, Entry entry) {
+            Entry old = index.put(fundCode, entry);
+            liveBytes += entry.length - (old != null ? old.length : 0);
+        }
+
+        void remove(String fundCode) {
+            Entry old = index.remove(fundCode);
+            if (old != null) {
+                liveBytes -= old.length;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.fund.service.navstore;
+
+import java.util.List;
+
+/**
+ * 净值序列存储中有基金的净值被重新加载
+ */
+public record NavSeriesUpdatedEvent(List<String> fundCodes) {
+}
@@ -0,0 +1,357 @@
+package com.fund.service.rule;
+
+import com.fund.dto.SignalReason;
+import com.fund.service.snapshot.MetricColumn;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 信号规则编译器：YAML 文本 -> SignalRuleSet
+ * 条件表达式语法：expr := and ('or' and)* ; and := atom ('and' atom)* ; atom := '(' expr ')' | 指标 比较符 数值，
+ * 解析时直接生成后缀代码（比较、AND、OR），所有规则的代码拼接在同一组平行数组中
+ * 规则有误时抛出 IllegalArgumentException，调用方保留旧规则
+ */
+public final class SignalRuleCompiler {
+
+    private SignalRuleCompiler() {
+    }
+
+    /**
+     * 编译规则文本
+     */
+    @SuppressWarnings("unchecked")
+    public static SignalRuleSet compile(String yamlText) {
+        Object root = new Yaml(new SafeConstructor(new LoaderOptions())).load(yamlText);
+        if (!(root instanceof Map)) {
+            throw new IllegalArgumentException("信号规则格式错误: 根节点必须是对象");
+        }
+        Map<String, Object> doc = (Map<String, Object>) root;
+
+        // 1. 规则
+        Map<String, Object> rules = map(doc, "rules");
+        Code code = new Code();
+        List<Integer> codeStart = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        List<Boolean> sides = new ArrayList<>();
+        List<Integer> reasons = new ArrayList<>();
+        List<Integer> groups = new ArrayList<>();
+        Map<String, Integer> groupIds = new HashMap<>();
+        double[] thresholds = new double[SignalReason.values().length];
+        Arrays.fill(thresholds, Double.NaN);
+        for (String side : List.of("buy", "sell")) {
+            Object list = rules.get(side);
+            if (list == null) {
+                continue;
+            }
+            if (!(list instanceof List)) {
+                throw new IllegalArgumentException("信号规则格式错误: rules." + side + " 必须是列表");
+            }
+            int index = 0;
+            for (Object item : (List<Object>) list) {
+                String path = "rules." + side + "[" + index++ + "]";
+                if (!(item instanceof Map)) {
+                    throw new IllegalArgumentException("信号规则格式错误: " + path + " 必须是对象");
+                }
+                Map<String, Object> rule = (Map<String, Object>) item;
+                if (scores.size() >= SignalRuleSet.MAX_RULES) {
+                    throw new IllegalArgumentException("信号规则格式错误: 规则数量不能超过" + SignalRuleSet.MAX_RULES);
+                }
+                int start = code.size;
+                codeStart.add(start);
+                parseCondition(string(rule, "when", path), code);
+                scores.add(integer(rule, "score", path));
+                sides.add("buy".equals(side));
+                SignalReason reason = reason(string(rule, "reason", path), path);
+                reasons.add(reason.bit());
+                // 后缀代码的第一条必为比较指令，其数值即理由文本中的阈值
+                if (Double.isNaN(thresholds[reason.ordinal()])) {
+                    thresholds[reason.ordinal()] = code.values[start];
+                }
+                Object group = rule.get("group");
+                if (group == null) {
+                    groups.add(-1);
+                } else {
+                    int id = groupIds.computeIfAbsent(group.toString(), g -> groupIds.size());
+                    if (id >= Long.SIZE) {
+                        throw new IllegalArgumentException("信号规则格式错误: 互斥组数量不能超过" + Long.SIZE);
+                    }
+                    groups.add(id);
+                }
+            }
+        }
+
+        // 2. 决策阈值
+        Map<String, Object> decision = map(doc, "decision");
+        String vetoLevel = string(decision, "veto-level", "decision");
+        List<String> strongBuyLevels = new ArrayList<>();
+        Object levels = decision.get("strong-buy-levels");
+        if (levels instanceof List) {
+            ((List<Object>) levels).forEach(l -> strongBuyLevels.add(l.toString()));
+        }
+
+        // 3. 质量等级
+        Map<String, Object> quality = map(doc, "quality");
+        int qualityColumn = column(string(quality, "metric", "quality")).ordinal();
+        Object levelList = quality.get("levels");
+        if (!(levelList instanceof List)) {
+            throw new IllegalArgumentException("信号规则格式错误: quality.levels 必须是列表");
+        }
+        List<Map<String, Object>> levelMaps = (List<Map<String, Object>>) levelList;
+        int n = levelMaps.size();
+        double[] mins = new double[n];
+        String[] names = new String[n];
+        int[] bonus = new int[n];
+        boolean[] strongBuy = new boolean[n];
+        boolean[] veto = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            String path = "quality.levels[" + i + "]";
+            names[i] = string(levelMaps.get(i), "level", path);
+            mins[i] = number(levelMaps.get(i), "min", path);
+            bonus[i] = integer(levelMaps.get(i), "confidence", path);
+            strongBuy[i] = strongBuyLevels.contains(names[i]);
+            veto[i] = names[i].equals(vetoLevel);
+            if (i > 0 && mins[i] > mins[i - 1]) {
+                throw new IllegalArgumentException("信号规则格式错误: quality.levels 须按 min 从高到低排列");
+            }
+        }
+        Map<String, Object> fallback = map(quality, "fallback");
+        String fallbackLevel = string(fallback, "level", "quality.fallback");
+        if (!fallbackLevel.equals(vetoLevel) && !Arrays.asList(names).contains(vetoLevel)) {
+            throw new IllegalArgumentException("信号规则格式错误: decision.veto-level 不是已定义的质量等级: " + vetoLevel);
+        }
+        codeStart.add(code.size);
+
+        return new SignalRuleSet(version(yamlText),
+                Arrays.copyOf(code.ops, code.size),
+                Arrays.copyOf(code.columns, code.size),
+                Arrays.copyOf(code.values, code.size),
+                codeStart.stream().mapToInt(Integer::intValue).toArray(),
+                scores.stream().mapToInt(Integer::intValue).toArray(),
+                toBooleans(sides),
+                reasons.stream().mapToInt(Integer::intValue).toArray(),
+                groups.stream().mapToInt(Integer::intValue).toArray(),
+                thresholds,
+                qualityColumn, mins, names, bonus, strongBuy, veto,
+                fallbackLevel, integer(fallback, "confidence", "quality.fallback"),
+                strongBuyLevels.contains(fallbackLevel), fallbackLevel.equals(vetoLevel),
+                integer(decision, "strong-buy-score", "decision"),
+                integer(decision, "buy-score", "decision"),
+                integer(decision, "sell-score", "decision"));
+    }
+
+    /**
+     * 编译单个条件表达式，返回生成的代码
+     */
+    static Code parseCondition(String expression) {
+        Code code = new Code();
+        parseCondition(expression, code);
+        return code;
+    }
+
+    /**
+     * 编译单个条件表达式，代码追加到 code 末尾
+     */
+    static void parseCondition(String expression, Code code) {
+        Parser parser = new Parser(expression, code);
+        code.depth = 0;
+        parser.parseOr();
+        if (parser.peek() != null) {
+            throw new IllegalArgumentException("条件表达式多余内容: " + expression);
+        }
+    }
+
+    private static long version(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static MetricColumn column(String key) {
+        MetricColumn column = MetricColumn.fromKey(key, null);
+        if (column == null) {
+            throw new IllegalArgumentException("不支持的指标: " + key);
+        }
+        return column;
+    }
+
+    private static SignalReason reason(String code, String path) {
+        try {
+            return SignalReason.valueOf(code);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("信号规则格式错误: " + path + " 理由编码不存在: " + code);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> parent, String key) {
+        Object value = parent.get(key);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("信号规则格式错误: 缺少 " + key);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String string(Map<String, Object> map, String key, String path) {
+        Object value = map.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("信号规则格式错误: " + path + " 缺少 " + key);
+        }
+        return value.toString();
+    }
+
+    private static double number(Map<String, Object> map, String key, String path) {
+        Object value = map.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("信号规则格式错误: " + path + "." + key + " 必须是数值");
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    private static int integer(Map<String, Object> map, String key, String path) {
+        Object value = map.get(key);
+        if (!(value instanceof Integer)) {
+            throw new IllegalArgumentException("信号规则格式错误: " + path + "." + key + " 必须是整数");
+        }
+        return (Integer) value;
+    }
+
+    private static boolean[] toBooleans(List<Boolean> list) {
+        boolean[] result = new boolean[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 条件代码缓冲区（平行数组，AND/OR 的列与阈值不使用）
+     */
+    static final class Code {
+        byte[] ops = new byte[16];
+        int[] columns = new int[16];
+        double[] values = new double[16];
+        int size;
+        // 当前布尔栈深度
+        int depth;
+
+        void emit(byte op, int column, double value) {
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                columns = Arrays.copyOf(columns, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            ops[size] = op;
+            columns[size] = column;
+            values[size] = value;
+            size++;
+            if (op == SignalRuleSet.OP_AND || op == SignalRuleSet.OP_OR) {
+                depth--;
+            } else if (++depth > SignalRuleSet.MAX_DEPTH) {
+                throw new IllegalArgumentException("条件表达式嵌套过深");
+            }
+        }
+    }
+
+    /**
+     * 条件表达式递归下降解析，边解析边输出后缀代码
+     */
+    private static final class Parser {
+        private final String text;
+        private final Code code;
+        private final List<String> tokens = new ArrayList<>();
+        private int pos;
+
+        Parser(String text, Code code) {
+            this.text = text;
+            this.code = code;
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if (c == '<' || c == '>') {
+                    boolean eq = i + 1 < text.length() && text.charAt(i + 1) == '=';
+                    tokens.add(eq ? c + "=" : String.valueOf(c));
+                    i += eq ? 2 : 1;
+                } else {
+                    int start = i;
+                    while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                            && "()<>".indexOf(text.charAt(i)) < 0) {
+                        i++;
+                    }
+                    tokens.add(text.substring(start, i));
+                }
+            }
+        }
+
+        String peek() {
+            return pos < tokens.size() ? tokens.get(pos) : null;
+        }
+
+        String next() {
+            String token = peek();
+            if (token == null) {
+                throw new IllegalArgumentException("条件表达式不完整: " + text);
+            }
+            pos++;
+            return token;
+        }
+
+        void parseOr() {
+            parseAnd();
+            while ("or".equalsIgnoreCase(peek())) {
+                next();
+                parseAnd();
+                code.emit(SignalRuleSet.OP_OR, 0, 0);
+            }
+        }
+
+        void parseAnd() {
+            parseAtom();
+            while ("and".equalsIgnoreCase(peek())) {
+                next();
+                parseAtom();
+                code.emit(SignalRuleSet.OP_AND, 0, 0);
+            }
+        }
+
+        void parseAtom() {
+            if ("(".equals(peek())) {
+                next();
+                parseOr();
+                if (!")".equals(next())) {
+                    throw new IllegalArgumentException("条件表达式括号不匹配: " + text);
+                }
+                return;
+            }
+            int column = column(next()).ordinal();
+            String op = next();
+            double value;
+            try {
+                value = Double.parseDouble(next());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("条件表达式数值错误: " + text);
+            }
+            byte opcode = switch (op) {
+                case ">" -> SignalRuleSet.OP_GT;
+                case ">=" -> SignalRuleSet.OP_GE;
+                case "<" -> SignalRuleSet.OP_LT;
+                case "<=" -> SignalRuleSet.OP_LE;
+                default -> throw new IllegalArgumentException("不支持的比较符: " + op);
+            };
+            code.emit(opcode, column, value);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fund.service.rule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 信号规则服务
+ * 启动时编译 signal-rules.yml，之后可热加载；编译失败时保留当前规则
+ */
+@Service
+public class SignalRuleService {
+
+    private static final Logger log = LoggerFactory.getLogger(SignalRuleService.class);
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final AtomicReference<SignalRuleSet> current = new AtomicReference<>();
+
+    public SignalRuleService(ResourceLoader resourceLoader,
+                             @Value("${signal.rules.location:classpath:signal-rules.yml}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        // 启动时规则错误直接失败，避免带着空规则运行
+        current.set(load());
+        log.info("信号规则加载完成: {}条, 版本={}", current.get().ruleCount(), current.get().getVersion());
+    }
+
+    /**
+     * 当前生效的规则集
+     */
+    public SignalRuleSet current() {
+        return current.get();
+    }
+
+    /**
+     * 重新加载规则，返回新规则集；规则有误时抛出 IllegalArgumentException 且不替换
+     */
+    public synchronized SignalRuleSet reload() {
+        SignalRuleSet rules = load();
+        SignalRuleSet previous = current.getAndSet(rules);
+        if (previous.getVersion() != rules.getVersion()) {
+            log.info("信号规则已更新: {}条, 版本 {} -> {}", rules.ruleCount(), previous.getVersion(), rules.getVersion());
+        }
+        return rules;
+    }
+
+    private SignalRuleSet load() {
+        Resource resource = resourceLoader.getResource(location);
+        String text;
+        try (InputStream in = resource.getInputStream()) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("读取信号规则失败: " + location, e);
+        }
+        return SignalRuleCompiler.compile(text);
+    }
+}
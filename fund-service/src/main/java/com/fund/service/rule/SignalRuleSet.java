@@ -0,0 +1,270 @@
+package com.fund.service.rule;
+
+import com.fund.dto.SignalReason;
+import com.fund.dto.TradeSignal;
+import com.fund.entity.FundMetrics;
+import com.fund.service.snapshot.MetricColumn;
+
+/**
+ * 编译后的信号规则集（不可变，可多线程共享）
+ * 条件编译为后缀表达式，按规则拼接为平行数组（操作码、指标列、阈值），
+ * 求值时以 long 的各位作为布尔栈；规则/等级同样展开为平行数组，
+ * 评估时除返回的信号对象外不做任何分配
+ */
+public final class SignalRuleSet {
+
+    // 条件操作码：比较指标列与阈值后压栈；AND/OR 弹出两个结果合并后压栈
+    static final byte OP_GT = 0;
+    static final byte OP_GE = 1;
+    static final byte OP_LT = 2;
+    static final byte OP_LE = 3;
+    static final byte OP_AND = 4;
+    static final byte OP_OR = 5;
+
+    // 布尔栈最大深度、规则最大数量（命中规则以 long 位集表示）
+    static final int MAX_DEPTH = Long.SIZE;
+    static final int MAX_RULES = Long.SIZE;
+
+    private static final String QUALITY_NONE = "-";
+
+    private static final int PE = MetricColumn.PE_PERCENTILE.ordinal();
+    private static final int SHARPE = MetricColumn.SHARPE_1Y.ordinal();
+    private static final MetricColumn[] COLUMNS = MetricColumn.values();
+
+    private final long version;
+
+    // 条件代码：第 i 条规则为 [codeStart[i], codeStart[i + 1])
+    private final byte[] ops;
+    private final int[] operandColumns;
+    private final double[] operandValues;
+    private final int[] codeStart;
+
+    // 规则（买入在前、卖出在后，按书写顺序）
+    private final int[] scores;
+    private final boolean[] buySide;
+    private final int[] reasonBits;
+    private final int[] groups;  // 互斥组编号，-1 表示不分组
+    // 按 SignalReason 序号的条件阈值（取该理由首条规则条件中的第一个比较数值，无则 NaN），渲染理由文本用
+    private final double[] reasonThresholds;
+
+    // 质量等级
+    private final int qualityColumn;
+    private final double[] levelMins;
+    private final String[] levelNames;
+    private final int[] levelBonus;
+    private final boolean[] levelStrongBuy;
+    private final boolean[] levelVeto;
+    private final String fallbackLevel;
+    private final int fallbackBonus;
+    private final boolean fallbackStrongBuy;
+    private final boolean fallbackVeto;
+
+    // 决策阈值
+    private final int strongBuyScore;
+    private final int buyScore;
+    private final int sellScore;
+
+    SignalRuleSet(long version, byte[] ops, int[] operandColumns, double[] operandValues, int[] codeStart,
+                  int[] scores, boolean[] buySide, int[] reasonBits, int[] groups, double[] reasonThresholds,
+                  int qualityColumn, double[] levelMins, String[] levelNames, int[] levelBonus, boolean[] levelStrongBuy,
+                  boolean[] levelVeto, String fallbackLevel, int fallbackBonus, boolean fallbackStrongBuy,
+                  boolean fallbackVeto, int strongBuyScore, int buyScore, int sellScore) {
+        this.version = version;
+        this.ops = ops;
+        this.operandColumns = operandColumns;
+        this.operandValues = operandValues;
+        this.codeStart = codeStart;
+        this.scores = scores;
+        this.buySide = buySide;
+        this.reasonBits = reasonBits;
+        this.groups = groups;
+        this.reasonThresholds = reasonThresholds;
+        this.qualityColumn = qualityColumn;
+        this.levelMins = levelMins;
+        this.levelNames = levelNames;
+        this.levelBonus = levelBonus;
+        this.levelStrongBuy = levelStrongBuy;
+        this.levelVeto = levelVeto;
+        this.fallbackLevel = fallbackLevel;
+        this.fallbackBonus = fallbackBonus;
+        this.fallbackStrongBuy = fallbackStrongBuy;
+        this.fallbackVeto = fallbackVeto;
+        this.strongBuyScore = strongBuyScore;
+        this.buyScore = buyScore;
+        this.sellScore = sellScore;
+    }
+
+    /**
+     * 规则版本（规则文本的哈希，内容不变则版本不变）
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 各理由的条件阈值（按 SignalReason 序号，只读），为按理由编码还原的信号渲染文本
+     */
+    public double[] reasonThresholds() {
+        return reasonThresholds;
+    }
+
+    public int ruleCount() {
+        return scores.length;
+    }
+
+    public int getStrongBuyScore() {
+        return strongBuyScore;
+    }
+
+    public int getBuyScore() {
+        return buyScore;
+    }
+
+    public int getSellScore() {
+        return sellScore;
+    }
+
+    /**
+     * 复制规则集并替换决策阈值（回测参数网格用，版本号不变）
+     */
+    public SignalRuleSet withDecision(int strongBuyScore, int buyScore, int sellScore) {
+        return new SignalRuleSet(version, ops, operandColumns, operandValues, codeStart, scores, buySide,
+                reasonBits, groups, reasonThresholds, qualityColumn, levelMins, levelNames, levelBonus,
+                levelStrongBuy, levelVeto, fallbackLevel, fallbackBonus, fallbackStrongBuy, fallbackVeto, strongBuyScore, buyScore, sellScore);
+    }
+
+    /**
+     * 按规则中的质量等级配置评定基金质量等级，质量指标为空时返回 "-"
+     */
+    public String qualityLevel(FundMetrics metrics) {
+        int idx = metrics != null ? levelIndex(COLUMNS[qualityColumn].read(metrics)) : -1;
+        return idx < 0 ? QUALITY_NONE : idx < levelMins.length ? levelNames[idx] : fallbackLevel;
+    }
+
+    /**
+     * 只判定信号类型，不生成信号对象与理由（回测等高频场景用）
+     */
+    public TradeSignal.SignalType decide(double[] record) {
+        long hits = matchRules(record);
+        return decide(score(hits, true), score(hits, false), levelIndex(record[qualityColumn]));
+    }
+
+    /**
+     * 评估一条扁平指标记录（下标为 MetricColumn 序号，空值为 NaN）
+     */
+    public TradeSignal evaluate(String fundCode, double[] record) {
+        long hits = matchRules(record);
+        int buy = score(hits, true);
+        int sell = score(hits, false);
+        int idx = levelIndex(record[qualityColumn]);
+        TradeSignal.SignalType type = decide(buy, sell, idx);
+
+        int mask = switch (type) {
+            case BUY -> reasons(hits, true);
+            case SELL -> reasons(hits, false);
+            case HOLD -> isVeto(idx) && buy > 0 ? SignalReason.HOLD_QUALITY_VETO.bit()
+                    : buy > sell ? SignalReason.HOLD_POSITIVE.bit()
+                    : sell > buy ? SignalReason.HOLD_CAUTIOUS.bit()
+                    : SignalReason.HOLD_NEUTRAL.bit();
+        };
+        String level = idx < 0 ? QUALITY_NONE : idx < levelMins.length ? levelNames[idx] : fallbackLevel;
+        int bonus = idx < 0 ? 0 : idx < levelMins.length ? levelBonus[idx] : fallbackBonus;
+
+        TradeSignal signal = TradeSignal.of(type, mask, record[PE], record[SHARPE]);
+        signal.setFundCode(fundCode);
+        signal.setReasonThresholds(reasonThresholds);
+        signal.setQualityLevel(level);
+        signal.setBuyScore(buy);
+        signal.setSellScore(sell);
+        signal.setConfidence(Math.max(0, Math.min(100, 50 + Math.abs(buy - sell) * 5 + bonus)));
+        return signal;
+    }
+
+    // 逐条匹配规则，返回命中规则的位集；同一互斥组只保留第一条命中的规则
+    private long matchRules(double[] record) {
+        long hits = 0;
+        long groupHit = 0;
+        for (int i = 0; i < scores.length; i++) {
+            int group = groups[i];
+            if (group >= 0 && (groupHit & (1L << group)) != 0) {
+                continue;
+            }
+            if (!test(i, record)) {
+                continue;
+            }
+            hits |= 1L << i;
+            if (group >= 0) {
+                groupHit |= 1L << group;
+            }
+        }
+        return hits;
+    }
+
+    // 执行第 rule 条规则的条件代码
+    private boolean test(int rule, double[] r) {
+        long stack = 0;
+        for (int pc = codeStart[rule], end = codeStart[rule + 1]; pc < end; pc++) {
+            stack = switch (ops[pc]) {
+                case OP_GT -> stack << 1 | (r[operandColumns[pc]] > operandValues[pc] ? 1 : 0);
+                case OP_GE -> stack << 1 | (r[operandColumns[pc]] >= operandValues[pc] ? 1 : 0);
+                case OP_LT -> stack << 1 | (r[operandColumns[pc]] < operandValues[pc] ? 1 : 0);
+                case OP_LE -> stack << 1 | (r[operandColumns[pc]] <= operandValues[pc] ? 1 : 0);
+                case OP_AND -> (stack >>> 2) << 1 | (stack & (stack >>> 1) & 1);
+                case OP_OR -> (stack >>> 2) << 1 | ((stack | (stack >>> 1)) & 1);
+                default -> throw new IllegalStateException("未知操作码: " + ops[pc]);
+            };
+        }
+        return (stack & 1) != 0;
+    }
+
+    private int score(long hits, boolean buy) {
+        int score = 0;
+        for (long h = hits; h != 0; h &= h - 1) {
+            int i = Long.numberOfTrailingZeros(h);
+            if (buySide[i] == buy) {
+                score += scores[i];
+            }
+        }
+        return score;
+    }
+
+    private int reasons(long hits, boolean buy) {
+        int mask = 0;
+        for (long h = hits; h != 0; h &= h - 1) {
+            int i = Long.numberOfTrailingZeros(h);
+            if (buySide[i] == buy) {
+                mask |= reasonBits[i];
+            }
+        }
+        return mask;
+    }
+
+    // 综合决策：否决评级有买入分时持有，其次买入、卖出，否则持有
+    private TradeSignal.SignalType decide(int buy, int sell, int levelIdx) {
+        if (isVeto(levelIdx) && buy > 0) {
+            return TradeSignal.SignalType.HOLD;
+        }
+        boolean strongBuyLevel = levelIdx >= 0
+                && (levelIdx < levelMins.length ? levelStrongBuy[levelIdx] : fallbackStrongBuy);
+        if ((buy >= strongBuyScore && strongBuyLevel) || buy >= buyScore) {
+            return TradeSignal.SignalType.BUY;
+        }
+        return sell >= sellScore ? TradeSignal.SignalType.SELL : TradeSignal.SignalType.HOLD;
+    }
+
+    private boolean isVeto(int levelIdx) {
+        return levelIdx >= 0 && (levelIdx < levelMins.length ? levelVeto[levelIdx] : fallbackVeto);
+    }
+
+    // 质量等级下标：-1 表示指标为空，levelMins.length 表示落入 fallback
+    private int levelIndex(double q) {
+        if (Double.isNaN(q)) {
+            return -1;
+        }
+        int idx = 0;
+        while (idx < levelMins.length && q < levelMins[idx]) {
+            idx++;
+        }
+        return idx;
+    }
+}
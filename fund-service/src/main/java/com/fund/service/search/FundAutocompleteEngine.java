@@ -0,0 +1,138 @@
+package com.fund.service.search;
+
+import com.fund.entity.FundInfo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基金拼音联想引擎
+ * 持有不可变的 PinyinSuggestTrie 快照，读路径无锁；
+ * 增量变更先写入基金表，再防抖合并后后台重建字典树。
+ * 基金表的增量写入与全量替换在同一把锁下进行，重建互斥且在锁内取快照，
+ * 后发起的重建总是基于更新的基金表，不会被先取快照的重建覆盖
+ */
+@Component
+public class FundAutocompleteEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FundAutocompleteEngine.class);
+
+    // 增量变更合并窗口
+    private static final long REBUILD_DELAY_MS = 2000;
+
+    // 基金表，读写均需持有 this 锁；全量替换时整体换成新表
+    private Map<String, FundInfo> funds = new HashMap<>();
+
+    private final Object buildLock = new Object();
+
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fund-autocomplete-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile PinyinSuggestTrie trie;
+
+    private ScheduledFuture<?> pendingRebuild;
+
+    /**
+     * 全量替换并立即重建
+     */
+    public void replaceAll(Collection<FundInfo> source) {
+        Map<String, FundInfo> replaced = new HashMap<>(source.size() * 2);
+        for (FundInfo fund : source) {
+            if (fund.getFundCode() != null) {
+                replaced.put(fund.getFundCode(), fund);
+            }
+        }
+        synchronized (this) {
+            funds = replaced;
+        }
+        rebuildNow();
+    }
+
+    /**
+     * 增量新增/修改（下架基金应调用remove）
+     */
+    public void upsert(FundInfo fund) {
+        synchronized (this) {
+            funds.put(fund.getFundCode(), fund);
+        }
+        scheduleRebuild();
+    }
+
+    /**
+     * 增量移除
+     */
+    public void remove(String fundCode) {
+        boolean removed;
+        synchronized (this) {
+            removed = funds.remove(fundCode) != null;
+        }
+        if (removed) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * 拼音/汉字混合前缀联想，字典树未就绪时返回空列表
+     */
+    public List<FundInfo> suggest(String keyword, int limit) {
+        PinyinSuggestTrie current = trie;
+        return current != null ? current.suggest(keyword, limit) : List.of();
+    }
+
+    public boolean isReady() {
+        return trie != null;
+    }
+
+    /**
+     * 立即重建字典树（与其他重建互斥）
+     */
+    public void rebuildNow() {
+        synchronized (buildLock) {
+            long start = System.currentTimeMillis();
+            List<FundInfo> snapshot;
+            synchronized (this) {
+                snapshot = new ArrayList<>(funds.values());
+            }
+            PinyinSuggestTrie built = PinyinSuggestTrie.build(snapshot);
+            trie = built;
+            log.info("基金拼音联想字典树构建完成: {}只基金, {}个节点, 耗时{}ms",
+                    built.fundCount(), built.nodeCount(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private synchronized void scheduleRebuild() {
+        if (pendingRebuild != null) {
+            return;
+        }
+        pendingRebuild = rebuildExecutor.schedule(() -> {
+            // 先清除标记再取快照，重建期间的新变更会再排一次
+            synchronized (this) {
+                pendingRebuild = null;
+            }
+            try {
+                rebuildNow();
+            } catch (Exception e) {
+                log.error("基金拼音联想字典树重建失败", e);
+            }
+        }, REBUILD_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
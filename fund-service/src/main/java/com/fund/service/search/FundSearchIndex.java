@@ -0,0 +1,549 @@
+package com.fund.service.search;
+
+import com.fund.entity.FundInfo;
+import com.fund.mapper.FundInfoMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基金内存检索索引
+ * 替代 fund_info 上的 LIKE '%kw%' 全表扫描：
+ * 名称/拼音的1-2元分词倒排 + 代码子串倒排，结果按规模(current_scale)排序
+ */
+@Component
+public class FundSearchIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FundSearchIndex.class);
+
+    // 代码子串词项前缀，与名称/拼音分词分开存放
+    private static final String CODE_TERM = "#";
+
+    private static final int[] EMPTY = new int[0];
+
+    private final FundInfoMapper fundInfoMapper;
+    private final FundAutocompleteEngine autocompleteEngine;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // slot -> 基金条目（删除后置为null，slot可复用）
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> slotByCode = new HashMap<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+
+    // 词项 -> 升序slot数组
+    private Map<String, int[]> postings = new HashMap<>();
+
+    // 全量重建期间到达的增量变更（基金代码 -> 最新信息，null 表示移除），发布前重放到新索引；非重建期间为 null
+    private Map<String, FundInfo> pendingChanges;
+
+    private volatile boolean ready = false;
+
+    public FundSearchIndex(FundInfoMapper fundInfoMapper, FundAutocompleteEngine autocompleteEngine) {
+        this.fundInfoMapper = fundInfoMapper;
+        this.autocompleteEngine = autocompleteEngine;
+    }
+
+    /**
+     * 系统启动时构建索引
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("基金检索索引构建失败，搜索将回退到数据库查询", e);
+        }
+    }
+
+    /**
+     * 定时全量重建（每天凌晨3点半，覆盖Python端批量同步的基础数据）
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("基金检索索引定时重建失败", e);
+        }
+    }
+
+    /**
+     * 全量重建索引
+     * 构建期间的增量变更先记下，发布新索引前重放；发布后到替换联想引擎之间的变更再补发给联想引擎
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<FundInfo> live;
+        int termCount;
+        try {
+            int total = fundInfoMapper.selectAllFundCodes().size();
+            List<FundInfo> funds = total > 0 ? fundInfoMapper.selectTopByScale(total) : List.of();
+
+            List<Entry> newEntries = new ArrayList<>(funds.size());
+            Map<String, Integer> newSlots = new HashMap<>(funds.size() * 2);
+            Map<String, IntList> builder = new HashMap<>();
+
+            for (FundInfo fund : funds) {
+                if (fund.getFundCode() == null || newSlots.containsKey(fund.getFundCode())) {
+                    continue;
+                }
+                int slot = newEntries.size();
+                Entry entry = new Entry(fund);
+                newEntries.add(entry);
+                newSlots.put(fund.getFundCode(), slot);
+                for (String term : entry.terms()) {
+                    builder.computeIfAbsent(term, k -> new IntList()).add(slot);
+                }
+            }
+
+            Map<String, int[]> newPostings = new HashMap<>(builder.size() * 2);
+            builder.forEach((term, list) -> newPostings.put(term, list.toArray()));
+
+            lock.writeLock().lock();
+            try {
+                entries.clear();
+                entries.addAll(newEntries);
+                slotByCode.clear();
+                slotByCode.putAll(newSlots);
+                freeSlots.clear();
+                postings = newPostings;
+                pendingChanges.forEach((code, fund) -> {
+                    if (fund != null) {
+                        applyUpsert(new Entry(fund));
+                    } else {
+                        applyRemove(code);
+                    }
+                });
+                pendingChanges.clear();
+                live = new ArrayList<>(slotByCode.size());
+                for (Entry entry : entries) {
+                    if (entry != null) {
+                        live.add(entry.fund);
+                    }
+                }
+                termCount = postings.size();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        log.info("基金检索索引构建完成: {}只基金, {}个词项, 耗时{}ms",
+                live.size(), termCount, System.currentTimeMillis() - start);
+
+        autocompleteEngine.replaceAll(live);
+
+        // 发布后的增量变更可能先于全量替换到达联想引擎，按索引当前状态补发
+        Set<String> late;
+        lock.writeLock().lock();
+        try {
+            late = new LinkedHashSet<>(pendingChanges.keySet());
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (String fundCode : late) {
+            FundInfo fund = get(fundCode);
+            if (fund != null) {
+                autocompleteEngine.upsert(fund);
+            } else {
+                autocompleteEngine.remove(fundCode);
+            }
+        }
+    }
+
+    /**
+     * 增量更新单只基金（新增/修改/下架）
+     */
+    public void upsert(FundInfo fund) {
+        if (fund == null || fund.getFundCode() == null) {
+            return;
+        }
+        if (fund.getStatus() != null && fund.getStatus() != 1) {
+            remove(fund.getFundCode());
+            return;
+        }
+
+        Entry entry = new Entry(fund);
+        lock.writeLock().lock();
+        try {
+            applyUpsert(entry);
+            if (pendingChanges != null) {
+                pendingChanges.put(fund.getFundCode(), fund);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        autocompleteEngine.upsert(fund);
+        log.debug("基金检索索引增量更新: {}", fund.getFundCode());
+    }
+
+    /**
+     * 从索引中移除基金
+     */
+    public void remove(String fundCode) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = applyRemove(fundCode);
+            if (pendingChanges != null) {
+                pendingChanges.put(fundCode, null);
+            } else if (!removed) {
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        autocompleteEngine.remove(fundCode);
+    }
+
+    // 以下两个方法需持有写锁
+    private void applyUpsert(Entry entry) {
+        Integer slot = slotByCode.get(entry.fund.getFundCode());
+        if (slot != null) {
+            Entry old = entries.get(slot);
+            for (String term : old.terms()) {
+                removePosting(term, slot);
+            }
+            entries.set(slot, entry);
+        } else {
+            slot = freeSlots.isEmpty() ? entries.size() : freeSlots.remove(freeSlots.size() - 1);
+            if (slot == entries.size()) {
+                entries.add(entry);
+            } else {
+                entries.set(slot, entry);
+            }
+            slotByCode.put(entry.fund.getFundCode(), slot);
+        }
+        for (String term : entry.terms()) {
+            addPosting(term, slot);
+        }
+    }
+
+    private boolean applyRemove(String fundCode) {
+        Integer slot = slotByCode.remove(fundCode);
+        if (slot == null) {
+            return false;
+        }
+        for (String term : entries.get(slot).terms()) {
+            removePosting(term, slot);
+        }
+        entries.set(slot, null);
+        freeSlots.add(slot);
+        return true;
+    }
+
+    /**
+     * 搜索建议：返回规模最大的前limit只匹配基金
+     */
+    public List<FundInfo> suggest(String keyword, int limit) {
+        String q = normalize(keyword);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Entry> heap = new PriorityQueue<>(limit + 1, BY_SCALE_ASC);
+            for (int slot : candidates(q)) {
+                Entry entry = entries.get(slot);
+                if (entry == null || !entry.matches(q)) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.offer(entry);
+                } else if (BY_SCALE_ASC.compare(entry, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.offer(entry);
+                }
+            }
+            List<FundInfo> result = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                result.add(heap.poll().fund);
+            }
+            // 堆顶为最小值，翻转为规模降序
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 全量搜索：返回所有匹配基金，按规模降序（供分页列表使用）
+     */
+    public List<FundInfo> search(String keyword) {
+        String q = normalize(keyword);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Entry> matched = new ArrayList<>();
+            for (int slot : candidates(q)) {
+                Entry entry = entries.get(slot);
+                if (entry != null && entry.matches(q)) {
+                    matched.add(entry);
+                }
+            }
+            matched.sort(BY_SCALE_ASC.reversed());
+            List<FundInfo> result = new ArrayList<>(matched.size());
+            for (Entry entry : matched) {
+                result.add(entry.fund);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按基金代码取索引中的基金信息
+     */
+    public FundInfo get(String fundCode) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByCode.get(fundCode);
+            return slot != null ? entries.get(slot).fund : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByCode.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 候选集：代码子串倒排直接命中 ∪ 名称/拼音各分词倒排的交集（从最短的开始）
+     */
+    private int[] candidates(String q) {
+        int[] byCode = postings.getOrDefault(CODE_TERM + q, EMPTY);
+        return union(byCode, intersectGrams(q));
+    }
+
+    private int[] intersectGrams(String q) {
+        List<String> grams = grams(q);
+        int[][] lists = new int[grams.size()][];
+        for (int i = 0; i < grams.size(); i++) {
+            int[] list = postings.get(grams.get(i));
+            if (list == null) {
+                return EMPTY;
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(a -> a.length));
+        int[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    private void addPosting(String term, int slot) {
+        int[] list = postings.getOrDefault(term, EMPTY);
+        int pos = Arrays.binarySearch(list, slot);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        int[] updated = new int[list.length + 1];
+        System.arraycopy(list, 0, updated, 0, insertAt);
+        updated[insertAt] = slot;
+        System.arraycopy(list, insertAt, updated, insertAt + 1, list.length - insertAt);
+        postings.put(term, updated);
+    }
+
+    private void removePosting(String term, int slot) {
+        int[] list = postings.get(term);
+        if (list == null) {
+            return;
+        }
+        int pos = Arrays.binarySearch(list, slot);
+        if (pos < 0) {
+            return;
+        }
+        if (list.length == 1) {
+            postings.remove(term);
+            return;
+        }
+        int[] updated = new int[list.length - 1];
+        System.arraycopy(list, 0, updated, 0, pos);
+        System.arraycopy(list, pos + 1, updated, pos, list.length - pos - 1);
+        postings.put(term, updated);
+    }
+
+    // ============ 分词与集合运算 ============
+
+    static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 查询串分词：单字查询用1-gram，否则用全部2-gram
+     */
+    static List<String> grams(String q) {
+        if (q.length() == 1) {
+            return List.of(q);
+        }
+        List<String> grams = new ArrayList<>(q.length() - 1);
+        for (int i = 0; i + 2 <= q.length(); i++) {
+            grams.add(q.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 字段分词：全部1-gram和2-gram
+     */
+    private static void addFieldGrams(Set<String> terms, String field) {
+        for (int i = 0; i < field.length(); i++) {
+            terms.add(field.substring(i, i + 1));
+            if (i + 2 <= field.length()) {
+                terms.add(field.substring(i, i + 2));
+            }
+        }
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                out[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    // 规模升序（空规模最小），同规模按代码降序，保证结果稳定
+    private static final Comparator<Entry> BY_SCALE_ASC = Comparator
+            .comparingDouble((Entry e) -> e.scale)
+            .thenComparing(e -> e.code, Comparator.reverseOrder());
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+        final FundInfo fund;
+        final String code;
+        final String name;
+        final String pinyin;
+        final double scale;
+
+        Entry(FundInfo fund) {
+            this.fund = fund;
+            this.code = normalize(fund.getFundCode());
+            this.name = normalize(fund.getFundName());
+            this.pinyin = normalize(fund.getNamePinyin());
+            this.scale = fund.getCurrentScale() != null
+                    ? fund.getCurrentScale().doubleValue()
+                    : Double.NEGATIVE_INFINITY;
+        }
+
+        /**
+         * 与 LIKE '%kw%' 语义一致的精确校验
+         */
+        boolean matches(String q) {
+            return name.contains(q) || code.contains(q) || pinyin.contains(q);
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>();
+            addFieldGrams(terms, name);
+            addFieldGrams(terms, pinyin);
+            // 代码较短（6位），直接索引全部子串，前缀输入无需校验即可精确命中
+            for (int i = 0; i < code.length(); i++) {
+                for (int j = i + 1; j <= code.length(); j++) {
+                    terms.add(CODE_TERM + code.substring(i, j));
+                }
+            }
+            return terms;
+        }
+    }
+
+    /**
+     * 构建期使用的简易int列表
+     */
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int v) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.fund.service.search;
+
+import com.fund.entity.FundInfo;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 基金名称拼音前缀字典树（不可变、数组压缩存储）
+ * 支持汉字/全拼/首字母/部分音节混合输入，例如 "zsyh"、"招商yh"、"zhaoshangyinh"
+ * 多音字：每个汉字预计算全部读音，匹配时任一读音命中即可
+ */
+public final class PinyinSuggestTrie {
+
+    /**
+     * 每个节点预计算的TOP-K数量
+     */
+    public static final int TOP_K = 20;
+
+    // 单次查询最多展开的状态数，防止极端输入拖慢响应
+    private static final int MAX_STATES = 4096;
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    // 基金按规模降序排列，slot越小规模越大
+    private final FundInfo[] funds;
+
+    // 节点数组：0为根节点，子节点连续存放且按字符升序
+    private final char[] label;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final int[] topLength;
+    private final int[] topSlots;
+
+    // 汉字 -> 全部读音（多音字有多个）
+    private final Map<Character, String[]> syllables;
+
+    private PinyinSuggestTrie(FundInfo[] funds, char[] label, int[] firstChild, int[] childCount,
+                              int[] topStart, int[] topLength, int[] topSlots,
+                              Map<Character, String[]> syllables) {
+        this.funds = funds;
+        this.label = label;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topLength = topLength;
+        this.topSlots = topSlots;
+        this.syllables = syllables;
+    }
+
+    /**
+     * 构建字典树
+     */
+    public static PinyinSuggestTrie build(Collection<FundInfo> source) {
+        FundInfo[] funds = source.stream()
+                .filter(f -> f.getFundCode() != null && f.getFundName() != null)
+                .sorted(Comparator.comparingDouble(PinyinSuggestTrie::scaleOf).reversed()
+                        .thenComparing(FundInfo::getFundCode))
+                .toArray(FundInfo[]::new);
+
+        // 1. 指针式构建（slot升序插入，节点的前K个slot即规模TOP-K）
+        BuildNode root = new BuildNode('\0');
+        Map<Character, String[]> syllables = new HashMap<>();
+        for (int slot = 0; slot < funds.length; slot++) {
+            String name = normalize(funds[slot].getFundName());
+            BuildNode node = root;
+            node.addTop(slot);
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                node = node.children.computeIfAbsent(c, BuildNode::new);
+                node.addTop(slot);
+                if (!syllables.containsKey(c)) {
+                    syllables.put(c, toSyllables(c));
+                }
+            }
+        }
+        syllables.values().removeIf(s -> s.length == 0);
+
+        // 2. 广度优先展平为数组
+        List<BuildNode> order = new ArrayList<>();
+        order.add(root);
+        int topTotal = 0;
+        for (int i = 0; i < order.size(); i++) {
+            BuildNode node = order.get(i);
+            node.index = i;
+            topTotal += node.topSize;
+            order.addAll(node.children.values());
+        }
+
+        int n = order.size();
+        char[] label = new char[n];
+        int[] firstChild = new int[n];
+        int[] childCount = new int[n];
+        int[] topStart = new int[n];
+        int[] topLength = new int[n];
+        int[] topSlots = new int[topTotal];
+        int cursor = 0;
+        for (BuildNode node : order) {
+            int i = node.index;
+            label[i] = node.label;
+            childCount[i] = node.children.size();
+            firstChild[i] = node.children.isEmpty() ? -1 : node.children.firstEntry().getValue().index;
+            topStart[i] = cursor;
+            topLength[i] = node.topSize;
+            System.arraycopy(node.top, 0, topSlots, cursor, node.topSize);
+            cursor += node.topSize;
+        }
+
+        return new PinyinSuggestTrie(funds, label, firstChild, childCount,
+                topStart, topLength, topSlots, syllables);
+    }
+
+    /**
+     * 前缀联想：返回规模最大的前limit只基金（limit上限为TOP_K）
+     */
+    public List<FundInfo> suggest(String keyword, int limit) {
+        String q = normalize(keyword);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int[] matched = match(q);
+        if (matched.length == 0) {
+            return List.of();
+        }
+
+        // 合并各命中节点的TOP-K（slot越小规模越大）
+        int total = 0;
+        for (int node : matched) {
+            total += topLength[node];
+        }
+        int[] slots = new int[total];
+        int cursor = 0;
+        for (int node : matched) {
+            System.arraycopy(topSlots, topStart[node], slots, cursor, topLength[node]);
+            cursor += topLength[node];
+        }
+        Arrays.sort(slots);
+
+        List<FundInfo> result = new ArrayList<>(Math.min(limit, TOP_K));
+        int last = -1;
+        for (int slot : slots) {
+            if (slot != last) {
+                result.add(funds[slot]);
+                last = slot;
+                if (result.size() >= Math.min(limit, TOP_K)) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 匹配查询串，返回完全消费查询串后到达的节点
+     */
+    int[] match(String q) {
+        int end = q.length();
+        Set<Long> visited = new HashSet<>();
+        ArrayDeque<long[]> stack = new ArrayDeque<>();
+        Set<Integer> matched = new LinkedHashSet<>();
+        stack.push(new long[]{0, 0});
+
+        while (!stack.isEmpty() && visited.size() < MAX_STATES) {
+            long[] state = stack.pop();
+            int node = (int) state[0];
+            int pos = (int) state[1];
+            if (!visited.add(((long) node << 32) | pos)) {
+                continue;
+            }
+            if (pos == end) {
+                matched.add(node);
+                continue;
+            }
+
+            char qc = q.charAt(pos);
+            int from = firstChild[node];
+            for (int k = 0; k < childCount[node]; k++) {
+                int child = from + k;
+                char c = label[child];
+
+                // 原字符直接匹配（汉字、数字、英文字母等）
+                if (c == qc) {
+                    stack.push(new long[]{child, pos + 1});
+                }
+
+                String[] readings = syllables.get(c);
+                if (readings == null || !isLetter(qc)) {
+                    continue;
+                }
+                for (String s : readings) {
+                    if (s.charAt(0) != qc) {
+                        continue;
+                    }
+                    // 首字母
+                    stack.push(new long[]{child, pos + 1});
+                    // 翘舌声母 zh/ch/sh
+                    if (s.length() > 2 && s.charAt(1) == 'h' && q.startsWith(s.substring(0, 2), pos)) {
+                        stack.push(new long[]{child, pos + 2});
+                    }
+                    // 完整音节
+                    if (q.startsWith(s, pos)) {
+                        stack.push(new long[]{child, pos + s.length()});
+                    } else if (s.startsWith(q.substring(pos))) {
+                        // 输入到末尾时允许音节只输入了一部分
+                        stack.push(new long[]{child, end});
+                    }
+                }
+            }
+        }
+
+        return matched.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public int nodeCount() {
+        return label.length;
+    }
+
+    public int fundCount() {
+        return funds.length;
+    }
+
+    static String normalize(String s) {
+        if (s == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            // 全角字母数字转半角，忽略空白
+            if (c >= '！' && c <= '～') {
+                c = (char) (c - 0xFEE0);
+            }
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static String[] toSyllables(char c) {
+        if (Character.UnicodeScript.of(c) != Character.UnicodeScript.HAN) {
+            return new String[0];
+        }
+        try {
+            String[] raw = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+            if (raw == null) {
+                return new String[0];
+            }
+            return new LinkedHashSet<>(Arrays.asList(raw)).toArray(new String[0]);
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            return new String[0];
+        }
+    }
+
+    private static double scaleOf(FundInfo fund) {
+        return fund.getCurrentScale() != null ? fund.getCurrentScale().doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * 构建期节点
+     */
+    private static final class BuildNode {
+        final char label;
+        final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        final int[] top = new int[TOP_K];
+        int topSize;
+        int index;
+
+        BuildNode(char label) {
+            this.label = label;
+        }
+
+        void addTop(int slot) {
+            if (topSize < TOP_K) {
+                top[topSize++] = slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.fund.service.snapshot;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多条件基金筛选引擎
+ * 每个区间条件对整列扫描一次生成 BitSet，条件之间按位与；
+ * 全量过滤后再计数、分面、排序分页，保证 total 准确
+ */
+@Component
+public class FundScreener {
+
+    /**
+     * 筛选
+     *
+     * @param ranges    指标列 -> {min, max}，NaN 表示该端不限；指标为空的基金不满足任何区间条件
+     * @param ascending 是否按排序字段升序
+     * @param offset    分页起始行
+     * @param limit     每页数量
+     */
+    public Result screen(MetricsSnapshot snapshot, String fundType, Map<MetricColumn, double[]> ranges,
+                         MetricColumn sortBy, boolean ascending, int offset, int limit) {
+        int n = snapshot.size();
+
+        // 1. 指标条件按位与
+        BitSet matched = new BitSet(n);
+        matched.set(0, n);
+        for (Map.Entry<MetricColumn, double[]> range : ranges.entrySet()) {
+            matched.and(rangeBits(snapshot.column(range.getKey()), n, range.getValue()[0], range.getValue()[1]));
+            if (matched.isEmpty()) {
+                break;
+            }
+        }
+
+        // 2. 类型分面：统计满足指标条件的各类型数量（不受类型条件本身影响）
+        List<String> dict = snapshot.typeDictionary();
+        int[] counts = new int[dict.size()];
+        for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+            int typeId = snapshot.typeId(row);
+            if (typeId >= 0) {
+                counts[typeId]++;
+            }
+        }
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                facets.put(dict.get(i), counts[i]);
+            }
+        }
+
+        // 3. 类型条件
+        if (fundType != null) {
+            int typeId = snapshot.typeIdOf(fundType);
+            if (typeId < 0) {
+                matched.clear();
+            } else {
+                matched.and(typeBits(snapshot, n, typeId));
+            }
+        }
+
+        // 4. 全量过滤后排序分页：只需前 offset+limit 名
+        int total = matched.cardinality();
+        int[] rows = new int[0];
+        if (offset < total && limit > 0) {
+            int[] top = snapshot.topK(sortBy, (int) Math.min((long) offset + limit, total), matched::get, ascending);
+            rows = Arrays.copyOfRange(top, offset, top.length);
+        }
+        return new Result(total, rows, facets);
+    }
+
+    private static BitSet rangeBits(double[] values, int n, double min, double max) {
+        BitSet bits = new BitSet(n);
+        boolean hasMin = !Double.isNaN(min);
+        boolean hasMax = !Double.isNaN(max);
+        for (int row = 0; row < n; row++) {
+            double v = values[row];
+            // 指标为空（NaN）的基金不满足区间条件
+            if (!Double.isNaN(v) && (!hasMin || v >= min) && (!hasMax || v <= max)) {
+                bits.set(row);
+            }
+        }
+        return bits;
+    }
+
+    private static BitSet typeBits(MetricsSnapshot snapshot, int n, int typeId) {
+        BitSet bits = new BitSet(n);
+        for (int row = 0; row < n; row++) {
+            if (snapshot.typeId(row) == typeId) {
+                bits.set(row);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 筛选结果
+     */
+    public static final class Result {
+        private final int total;
+        private final int[] rows;
+        private final Map<String, Integer> typeFacets;
+
+        Result(int total, int[] rows, Map<String, Integer> typeFacets) {
+            this.total = total;
+            this.rows = rows;
+            this.typeFacets = typeFacets;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * 当前页的快照行号（已按排序字段与方向排序）
+         */
+        public int[] getRows() {
+            return rows;
+        }
+
+        public Map<String, Integer> getTypeFacets() {
+            return typeFacets;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.fund.service.snapshot;
+
+import com.fund.entity.FundMetrics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 指标快照列定义（与 fund_metrics 表的数值列一一对应）
+ */
+public enum MetricColumn {
+
+    RETURN_1M("return1m", FundMetrics::getReturn1m, FundMetrics::setReturn1m),
+    RETURN_3M("return3m", FundMetrics::getReturn3m, FundMetrics::setReturn3m),
+    RETURN_1Y("return1y", FundMetrics::getReturn1y, FundMetrics::setReturn1y),
+    RETURN_3Y("return3y", FundMetrics::getReturn3y, FundMetrics::setReturn3y),
+    RETURN_5Y("return5y", FundMetrics::getReturn5y, FundMetrics::setReturn5y),
+    SHARPE_1Y("sharpe", FundMetrics::getSharpeRatio1y, FundMetrics::setSharpeRatio1y),
+    SHARPE_3Y("sharpe3y", FundMetrics::getSharpeRatio3y, FundMetrics::setSharpeRatio3y),
+    SORTINO_1Y("sortino", FundMetrics::getSortinoRatio1y, FundMetrics::setSortinoRatio1y),
+    CALMAR_3Y("calmar", FundMetrics::getCalmarRatio3y, FundMetrics::setCalmarRatio3y),
+    INFORMATION_1Y("informationRatio", FundMetrics::getInformationRatio1y, FundMetrics::setInformationRatio1y),
+    MAX_DRAWDOWN_1Y("maxDrawdown", FundMetrics::getMaxDrawdown1y, FundMetrics::setMaxDrawdown1y),
+    MAX_DRAWDOWN_3Y("maxDrawdown3y", FundMetrics::getMaxDrawdown3y, FundMetrics::setMaxDrawdown3y),
+    VOLATILITY_1Y("volatility", FundMetrics::getVolatility1y, FundMetrics::setVolatility1y),
+    VOLATILITY_3Y("volatility3y", FundMetrics::getVolatility3y, FundMetrics::setVolatility3y),
+    ALPHA_1Y("alpha", FundMetrics::getAlpha1y, FundMetrics::setAlpha1y),
+    BETA_1Y("beta", FundMetrics::getBeta1y, FundMetrics::setBeta1y),
+    TRACKING_ERROR_1Y("trackingError", FundMetrics::getTrackingError1y, FundMetrics::setTrackingError1y),
+    PE_PERCENTILE("pePercentile", FundMetrics::getPePercentile,
+            (m, v) -> m.setPePercentile(v == null ? null : v.intValue())),
+    PB_PERCENTILE("pbPercentile", FundMetrics::getPbPercentile,
+            (m, v) -> m.setPbPercentile(v == null ? null : v.intValue()));
+
+    private static final Map<String, MetricColumn> BY_KEY = new HashMap<>();
+
+    static {
+        for (MetricColumn column : values()) {
+            BY_KEY.put(column.key, column);
+        }
+    }
+
+    private final String key;
+    private final Function<FundMetrics, Number> getter;
+    private final BiConsumer<FundMetrics, BigDecimal> setter;
+
+    MetricColumn(String key, Function<FundMetrics, Number> getter, BiConsumer<FundMetrics, BigDecimal> setter) {
+        this.key = key;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * 接口排序参数名，如 sharpe、return1y、maxDrawdown
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 值越小越好的风险类指标（波动率、跟踪误差、估值分位），未指定排序方向时默认升序。
+     * 回撤以负数存储，降序即回撤最小，仍按默认降序
+     */
+    public boolean isAscendingByDefault() {
+        return switch (this) {
+            case VOLATILITY_1Y, VOLATILITY_3Y, TRACKING_ERROR_1Y, PE_PERCENTILE, PB_PERCENTILE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * 按接口参数名查找，未知参数返回默认值
+     */
+    public static MetricColumn fromKey(String key, MetricColumn defaultColumn) {
+        MetricColumn column = key != null ? BY_KEY.get(key) : null;
+        return column != null ? column : defaultColumn;
+    }
+
+    /**
+     * 读取实体中的值，null 编码为 NaN
+     */
+    public double read(FundMetrics metrics) {
+        Number value = getter.apply(metrics);
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * 将快照值写回实体（还原为4位小数）
+     */
+    void write(FundMetrics metrics, double value) {
+        setter.accept(metrics, Double.isNaN(value)
+                ? null
+                : BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP));
+    }
+}
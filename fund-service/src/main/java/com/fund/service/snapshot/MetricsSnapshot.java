@@ -0,0 +1,339 @@
+package com.fund.service.snapshot;
+
+import com.fund.dto.MetricsSnapshotRow;
+import com.fund.entity.FundMetrics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * 基金最新指标列式快照（不可变）
+ * 每个指标一列 double[]（null 编码为 NaN），基金类型字典编码，
+ * 排行/筛选在内存中完成，不再访问 MySQL
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * 空快照
+     */
+    public static final MetricsSnapshot EMPTY = new Builder(0).build(null);
+
+    private final int size;
+    private final String[] fundCodes;
+    private final String[] fundNames;
+    private final int[] typeIds;
+    private final String[] typeDict;
+    private final int[] calcDates;
+    private final int latestCalcDate;
+    private final double[][] columns;
+    private final Map<String, Integer> rowByCode;
+    private final Map<String, Integer> typeIdByName;
+    private final LocalDateTime version;
+
+    private MetricsSnapshot(Builder b, LocalDateTime version) {
+        this.size = b.size;
+        this.fundCodes = Arrays.copyOf(b.fundCodes, b.size);
+        this.fundNames = Arrays.copyOf(b.fundNames, b.size);
+        this.typeIds = Arrays.copyOf(b.typeIds, b.size);
+        this.calcDates = Arrays.copyOf(b.calcDates, b.size);
+        int latest = Integer.MIN_VALUE;
+        for (int calcDate : calcDates) {
+            latest = Math.max(latest, calcDate);
+        }
+        this.latestCalcDate = latest;
+        this.columns = new double[b.columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(b.columns[c], b.size);
+        }
+        this.typeDict = b.typeDict.toArray(new String[0]);
+        this.typeIdByName = Map.copyOf(b.typeIdByName);
+        this.rowByCode = Map.copyOf(b.rowByCode);
+        this.version = version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 快照版本（fund_metrics 的 MAX(update_time)）
+     */
+    public LocalDateTime getVersion() {
+        return version;
+    }
+
+    /**
+     * 基金所在行号，不存在返回 -1
+     */
+    public int rowOf(String fundCode) {
+        Integer row = rowByCode.get(fundCode);
+        return row != null ? row : -1;
+    }
+
+    /**
+     * 基金类型的字典编码，不存在返回 -1
+     */
+    public int typeIdOf(String fundType) {
+        Integer id = typeIdByName.get(fundType);
+        return id != null ? id : -1;
+    }
+
+    public String fundCode(int row) {
+        return fundCodes[row];
+    }
+
+    public String fundName(int row) {
+        return fundNames[row];
+    }
+
+    public LocalDate calcDate(int row) {
+        return calcDates[row] != Integer.MIN_VALUE ? LocalDate.ofEpochDay(calcDates[row]) : null;
+    }
+
+    /**
+     * 全部基金中最新的计算日期，空快照返回 null
+     */
+    public LocalDate latestCalcDate() {
+        return latestCalcDate != Integer.MIN_VALUE ? LocalDate.ofEpochDay(latestCalcDate) : null;
+    }
+
+    /**
+     * 该行的计算日期是否为全局最新计算日期
+     */
+    public boolean onLatestCalcDate(int row) {
+        return calcDates[row] == latestCalcDate && latestCalcDate != Integer.MIN_VALUE;
+    }
+
+    public int typeId(int row) {
+        return typeIds[row];
+    }
+
+    public String fundType(int row) {
+        int id = typeIds[row];
+        return id >= 0 ? typeDict[id] : null;
+    }
+
+    /**
+     * 基金类型字典（下标即编码）
+     */
+    public List<String> typeDictionary() {
+        return List.of(typeDict);
+    }
+
+    public double value(MetricColumn column, int row) {
+        return columns[column.ordinal()][row];
+    }
+
+    /**
+     * 将一行展开为扁平指标记录（下标为 MetricColumn 序号），供逐行计算复用同一数组
+     */
+    public void readRow(int row, double[] into) {
+        for (int c = 0; c < columns.length; c++) {
+            into[c] = columns[c][row];
+        }
+    }
+
+    /**
+     * 整列只读视图（调用方不得修改）
+     */
+    double[] column(MetricColumn column) {
+        return columns[column.ordinal()];
+    }
+
+    /**
+     * 按指定列降序取TOP-K行（NaN排在最后），filter为null表示不过滤
+     */
+    public int[] topK(MetricColumn column, int k, IntPredicate filter) {
+        return topK(column, k, filter, false);
+    }
+
+    /**
+     * 按指定列取TOP-K行，ascending 为 true 时取最小的K行；无论方向 NaN 都排在最后
+     */
+    public int[] topK(MetricColumn column, int k, IntPredicate filter, boolean ascending) {
+        if (k <= 0 || size == 0) {
+            return new int[0];
+        }
+        double[] values = columns[column.ordinal()];
+
+        // 堆顶为当前第K名，新行排名高于堆顶时替换
+        int[] heap = new int[Math.min(k, size)];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter != null && !filter.test(row)) {
+                continue;
+            }
+            if (count < heap.length) {
+                heap[count] = row;
+                siftUp(heap, count++, values, ascending);
+            } else if (ranksHigher(values, row, heap[0], ascending)) {
+                heap[0] = row;
+                siftDown(heap, count, values, ascending);
+            }
+        }
+
+        // 依次弹出堆顶得到排名由低到高，倒序写入即为排名顺序
+        int[] result = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--count];
+            siftDown(heap, count, values, ascending);
+        }
+        return result;
+    }
+
+    /**
+     * 将一行还原为指标实体
+     */
+    public FundMetrics toMetrics(int row) {
+        FundMetrics metrics = new FundMetrics();
+        metrics.setFundCode(fundCodes[row]);
+        metrics.setCalcDate(calcDate(row));
+        for (MetricColumn column : MetricColumn.values()) {
+            column.write(metrics, columns[column.ordinal()][row]);
+        }
+        return metrics;
+    }
+
+    // 比较两行：a 排名是否高于 b（按方向比较值，NaN最低，同值按行号稳定排序）
+    private static boolean ranksHigher(double[] values, int a, int b, boolean ascending) {
+        double va = values[a];
+        double vb = values[b];
+        if (Double.isNaN(va) || Double.isNaN(vb)) {
+            if (Double.isNaN(va) && Double.isNaN(vb)) {
+                return a < b;
+            }
+            return Double.isNaN(vb);
+        }
+        if (va == vb) {
+            return a < b;
+        }
+        return ascending ? va < vb : va > vb;
+    }
+
+    private static void siftUp(int[] heap, int i, double[] values, boolean ascending) {
+        int row = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksHigher(values, heap[parent], row, ascending)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = row;
+    }
+
+    private static void siftDown(int[] heap, int n, double[] values, boolean ascending) {
+        if (n == 0) {
+            return;
+        }
+        int row = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && ranksHigher(values, heap[child], heap[child + 1], ascending)) {
+                child++;
+            }
+            if (!ranksHigher(values, row, heap[child], ascending)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = row;
+    }
+
+    /**
+     * 快照构建器（单线程，按行追加）
+     */
+    public static final class Builder {
+
+        private int size;
+        private String[] fundCodes;
+        private String[] fundNames;
+        private int[] typeIds;
+        private int[] calcDates;
+        private final double[][] columns;
+        private final List<String> typeDict = new ArrayList<>();
+        private final Map<String, Integer> typeIdByName = new HashMap<>();
+        private final Map<String, Integer> rowByCode = new HashMap<>();
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            fundCodes = new String[capacity];
+            fundNames = new String[capacity];
+            typeIds = new int[capacity];
+            calcDates = new int[capacity];
+            columns = new double[MetricColumn.values().length][capacity];
+        }
+
+        /**
+         * 追加一行；同一基金出现多次时保留计算日期最新的一行
+         */
+        public Builder add(MetricsSnapshotRow row) {
+            if (row.getFundCode() == null) {
+                return this;
+            }
+            int calcDate = row.getCalcDate() != null ? (int) row.getCalcDate().toEpochDay() : Integer.MIN_VALUE;
+            Integer existing = rowByCode.get(row.getFundCode());
+            int r;
+            if (existing != null) {
+                if (calcDates[existing] >= calcDate) {
+                    return this;
+                }
+                r = existing;
+            } else {
+                ensureCapacity(size + 1);
+                r = size++;
+                rowByCode.put(row.getFundCode(), r);
+            }
+
+            fundCodes[r] = row.getFundCode();
+            fundNames[r] = row.getFundName();
+            typeIds[r] = encodeType(row.getFundType());
+            calcDates[r] = calcDate;
+            for (MetricColumn column : MetricColumn.values()) {
+                columns[column.ordinal()][r] = column.read(row);
+            }
+            return this;
+        }
+
+        public MetricsSnapshot build(LocalDateTime version) {
+            return new MetricsSnapshot(this, version);
+        }
+
+        private int encodeType(String fundType) {
+            if (fundType == null) {
+                return -1;
+            }
+            return typeIdByName.computeIfAbsent(fundType, t -> {
+                typeDict.add(t);
+                return typeDict.size() - 1;
+            });
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= fundCodes.length) {
+                return;
+            }
+            int capacity = Math.max(required, fundCodes.length + (fundCodes.length >> 1));
+            fundCodes = Arrays.copyOf(fundCodes, capacity);
+            fundNames = Arrays.copyOf(fundNames, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+            calcDates = Arrays.copyOf(calcDates, capacity);
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = Arrays.copyOf(columns[c], capacity);
+            }
+        }
+    }
+}
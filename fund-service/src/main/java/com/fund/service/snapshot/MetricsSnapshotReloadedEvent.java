@@ -0,0 +1,17 @@
+package com.fund.service.snapshot;
+
+/**
+ * 指标快照重载完成事件（新指标已可见）
+ */
+public class MetricsSnapshotReloadedEvent {
+
+    private final MetricsSnapshot snapshot;
+
+    public MetricsSnapshotReloadedEvent(MetricsSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public MetricsSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
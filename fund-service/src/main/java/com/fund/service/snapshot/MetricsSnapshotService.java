@@ -0,0 +1,115 @@
+package com.fund.service.snapshot;
+
+import com.fund.mapper.FundMetricsMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 指标快照服务
+ * 启动时加载，之后轮询 fund_metrics 的 MAX(update_time)，有新指标落库时整体替换快照
+ */
+@Service
+public class MetricsSnapshotService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsSnapshotService.class);
+
+    private final FundMetricsMapper fundMetricsMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<MetricsSnapshot> current = new AtomicReference<>(MetricsSnapshot.EMPTY);
+
+    private volatile boolean ready = false;
+
+    public MetricsSnapshotService(FundMetricsMapper fundMetricsMapper,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.fundMetricsMapper = fundMetricsMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 系统启动时加载快照
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("指标快照加载失败，排行将回退到数据库查询", e);
+        }
+    }
+
+    /**
+     * 每分钟检查指标是否有更新
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+    public void checkForUpdates() {
+        try {
+            LocalDateTime latest = fundMetricsMapper.selectMaxUpdateTime();
+            if (!ready || !Objects.equals(latest, current.get().getVersion())) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("指标快照更新检查失败", e);
+        }
+    }
+
+    /**
+     * 每天凌晨3点半全量重载（覆盖基金上下架等 fund_info 变化）
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("指标快照定时重载失败", e);
+        }
+    }
+
+    /**
+     * 全量重载快照
+     */
+    public synchronized MetricsSnapshot reload() {
+        long start = System.currentTimeMillis();
+
+        // 先取版本再加载：加载期间落库的新指标会在下次检查时再触发一次重载
+        LocalDateTime version = fundMetricsMapper.selectMaxUpdateTime();
+        MetricsSnapshot.Builder builder = new MetricsSnapshot.Builder(current.get().size());
+        fundMetricsMapper.streamLatestSnapshot(ctx -> builder.add(ctx.getResultObject()));
+        MetricsSnapshot snapshot = builder.build(version);
+
+        current.set(snapshot);
+        ready = true;
+        log.info("指标快照加载完成: {}只基金, 版本{}, 耗时{}ms",
+                snapshot.size(), version, System.currentTimeMillis() - start);
+
+        eventPublisher.publishEvent(new MetricsSnapshotReloadedEvent(snapshot));
+        return snapshot;
+    }
+
+    /**
+     * 当前快照（未加载时为空快照）
+     */
+    public MetricsSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * 当前快照，未加载时同步加载一次
+     */
+    public MetricsSnapshot currentOrLoad() {
+        return ready ? current.get() : reload();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -0,0 +1,46 @@
+package com.fund.service.watchlist;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 当日分时估值内存缓存
+ * 每只基金一个定长环形缓冲区，数据库只作为持久化日志
+ */
+public interface IntradayEstimateCache {
+
+    /**
+     * 写入一个估值点（须已落库、带ID）
+     */
+    void append(FundEstimateIntraday estimate);
+
+    /**
+     * 基金在指定交易日的全部估值点（按估值时间升序）
+     */
+    List<FundEstimateIntraday> getPoints(String fundCode, LocalDate tradeDate);
+
+    /**
+     * 基金最新估值点
+     */
+    FundEstimateIntraday getLatest(String fundCode);
+
+    /**
+     * 批量取多只基金在指定交易日的最新估值点
+     */
+    Map<String, FundEstimateIntraday> getLatest(Collection<String> fundCodes, LocalDate tradeDate);
+
+    /**
+     * 基金在指定时间之后的估值点
+     */
+    List<FundEstimateIntraday> getAfter(String fundCode, LocalDateTime time);
+
+    /**
+     * 缓存版本：每写入一个新估值点递增
+     */
+    long getVersion();
+}
@@ -0,0 +1,25 @@
+package com.fund.service.watchlist;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+
+/**
+ * 分时估值点异步批量写入
+ * 写入先进入有界队列，按批量大小或时间间隔合并为多行 INSERT 落库，落库后再追加到内存缓存
+ */
+public interface IntradayEstimateWriter {
+
+    /**
+     * 提交一个估值点；队列满时阻塞等待，超时后由调用线程直接写库
+     */
+    void submit(FundEstimateIntraday estimate);
+
+    /**
+     * 立即落库当前队列中的全部点
+     */
+    void flush();
+
+    /**
+     * 当前排队中的点数
+     */
+    int pending();
+}
@@ -0,0 +1,222 @@
+package com.fund.service.watchlist.impl;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import com.fund.mapper.watchlist.FundEstimateIntradayMapper;
+import com.fund.service.watchlist.IntradayEstimateCache;
+import com.fund.service.watchlist.TradingCalendarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 当日分时估值内存缓存
+ * 启动时按当前交易日从数据库加载，之后由刷新/采集写入路径直接追加，
+ * 另按自增ID定时增量同步其他进程写入的点（每次回看已同步ID之前的一段窗口，
+ * 补上晚提交的小ID事务，重复的点由缓冲区去重）；交易日切换时整体重建，
+ * 重建期间写入的点同时追加到正在加载的缓冲区，交换后不丢失
+ */
+@Service
+public class IntradayEstimateCacheImpl implements IntradayEstimateCache, ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IntradayEstimateCacheImpl.class);
+
+    // 每只基金最多保留的点数（一个交易日 240 分钟，按 15 秒一个点计算）
+    private static final int RING_CAPACITY = 1024;
+
+    // 增量同步每批行数
+    private static final int SYNC_BATCH = 2000;
+
+    // 增量同步回看的ID窗口：自增ID按分配顺序而非提交顺序可见，晚提交的事务会留下小于已同步ID的行
+    private static final long SYNC_LOOKBACK_IDS = 1000;
+
+    private final FundEstimateIntradayMapper estimateMapper;
+    private final TradingCalendarService calendarService;
+
+    private volatile Map<String, IntradayRing> rings = new ConcurrentHashMap<>();
+    // 正在重建的缓冲区，非重建期间为 null
+    private volatile Loading loading;
+    private volatile LocalDate tradeDate;
+    private volatile boolean ready = false;
+    private volatile long lastSyncedId;
+    private final AtomicLong version = new AtomicLong();
+
+    public IntradayEstimateCacheImpl(FundEstimateIntradayMapper estimateMapper,
+                                     TradingCalendarService calendarService) {
+        this.estimateMapper = estimateMapper;
+        this.calendarService = calendarService;
+    }
+
+    /**
+     * 系统启动时加载当日估值点
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("分时估值缓存加载失败，读取将回退到数据库", e);
+        }
+    }
+
+    /**
+     * 按当前交易日全量重建
+     */
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        LocalDate date = calendarService.getCurrentTradeDate();
+        Map<String, IntradayRing> loaded = new ConcurrentHashMap<>();
+        // 先登记再取最大ID：登记前已写库的点由流式加载读到，之后追加的点直接写入新缓冲区
+        loading = new Loading(date, loaded);
+        long[] count = new long[1];
+        try {
+            Long maxId = estimateMapper.selectMaxId();
+            long upTo = maxId != null ? maxId : 0L;
+            estimateMapper.streamByTradeDate(date, upTo, context -> {
+                FundEstimateIntraday e = context.getResultObject();
+                if (ringOf(loaded, e.getFundCode(), date).add(e)) {
+                    count[0]++;
+                }
+            });
+
+            rings = loaded;
+            tradeDate = date;
+            lastSyncedId = upTo;
+            ready = true;
+        } finally {
+            loading = null;
+        }
+        version.incrementAndGet();
+        log.info("分时估值缓存加载完成: 交易日={}, {}只基金, {}个点, 耗时{}ms",
+                date, loaded.size(), count[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 定时增量同步（其他实例/采集进程直接写库的点），并处理交易日切换
+     */
+    @Scheduled(fixedDelay = 5000, initialDelay = 5000)
+    public void sync() {
+        try {
+            if (!ready || !calendarService.getCurrentTradeDate().equals(tradeDate)) {
+                reload();
+                return;
+            }
+            long cursor = Math.max(0, lastSyncedId - SYNC_LOOKBACK_IDS);
+            List<FundEstimateIntraday> batch;
+            do {
+                batch = estimateMapper.selectAfterId(cursor, SYNC_BATCH);
+                for (FundEstimateIntraday e : batch) {
+                    append(e);
+                    cursor = Math.max(cursor, e.getId());
+                }
+            } while (batch.size() == SYNC_BATCH);
+            lastSyncedId = Math.max(lastSyncedId, cursor);
+        } catch (Exception e) {
+            log.error("分时估值缓存同步失败", e);
+        }
+    }
+
+    @Override
+    public void append(FundEstimateIntraday estimate) {
+        if (estimate.getFundCode() == null) {
+            return;
+        }
+        Loading pending = loading;
+        if (pending != null && pending.date().equals(estimate.getTradeDate())) {
+            ringOf(pending.rings(), estimate.getFundCode(), pending.date()).add(estimate);
+        }
+        LocalDate date = tradeDate;
+        if (!ready || !date.equals(estimate.getTradeDate())) {
+            return;  // 非当前交易日的点只在库里，交易日切换时重建
+        }
+        if (ringOf(rings, estimate.getFundCode(), date).add(estimate)) {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public List<FundEstimateIntraday> getPoints(String fundCode, LocalDate date) {
+        if (!covers(date)) {
+            return estimateMapper.selectByFundAndDate(fundCode, date);
+        }
+        IntradayRing ring = rings.get(fundCode);
+        return ring != null ? ring.all() : List.of();
+    }
+
+    @Override
+    public FundEstimateIntraday getLatest(String fundCode) {
+        if (ready) {
+            IntradayRing ring = rings.get(fundCode);
+            FundEstimateIntraday latest = ring != null ? ring.latest() : null;
+            if (latest != null) {
+                return latest;
+            }
+        }
+        // 当日尚无估值点：取历史最后一个点
+        return estimateMapper.selectLatest(fundCode);
+    }
+
+    @Override
+    public Map<String, FundEstimateIntraday> getLatest(Collection<String> fundCodes, LocalDate date) {
+        Map<String, FundEstimateIntraday> result = new HashMap<>();
+        if (!covers(date)) {
+            if (!fundCodes.isEmpty()) {
+                for (FundEstimateIntraday e : estimateMapper.selectLatestByFunds(fundCodes, date)) {
+                    result.merge(e.getFundCode(), e, (a, b) -> a.getId() >= b.getId() ? a : b);
+                }
+            }
+            return result;
+        }
+        for (String fundCode : fundCodes) {
+            IntradayRing ring = rings.get(fundCode);
+            FundEstimateIntraday latest = ring != null ? ring.latest() : null;
+            if (latest != null) {
+                result.put(fundCode, latest);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<FundEstimateIntraday> getAfter(String fundCode, LocalDateTime time) {
+        if (!ready) {
+            return estimateMapper.selectAfterTime(fundCode, time);
+        }
+        IntradayRing ring = rings.get(fundCode);
+        if (ring == null) {
+            return List.of();
+        }
+        // 早于当前交易日的起点：缓存只有当日数据，回退数据库
+        if (time.toLocalDate().isBefore(tradeDate)) {
+            return estimateMapper.selectAfterTime(fundCode, time);
+        }
+        return ring.after(time.atZone(IntradayRing.ZONE).toEpochSecond());
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    private boolean covers(LocalDate date) {
+        return ready && date != null && date.equals(tradeDate);
+    }
+
+    private record Loading(LocalDate date, Map<String, IntradayRing> rings) {
+    }
+
+    private static IntradayRing ringOf(Map<String, IntradayRing> map, String fundCode, LocalDate date) {
+        return map.computeIfAbsent(fundCode, code -> new IntradayRing(code, date, RING_CAPACITY));
+    }
+}
@@ -0,0 +1,188 @@
+package com.fund.service.watchlist.impl;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import com.fund.mapper.watchlist.FundEstimateIntradayMapper;
+import com.fund.service.watchlist.IntradayEstimateCache;
+import com.fund.service.watchlist.IntradayEstimateWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分时估值点写后缓冲
+ * 单个后台线程攒批：满 BATCH_SIZE 条或距批内第一条超过 FLUSH_INTERVAL_MS 即写一次多行 INSERT；
+ * 队列有界，满时生产者最多等待 OFFER_TIMEOUT_MS，仍满则在调用线程同步写库（不丢点、内存不膨胀）
+ */
+@Service
+public class IntradayEstimateWriterImpl implements IntradayEstimateWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(IntradayEstimateWriterImpl.class);
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int BATCH_SIZE = 500;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    // 关闭时等待后台线程写完当前批次的时间
+    private static final long SHUTDOWN_WAIT_MS = 5000;
+
+    private final FundEstimateIntradayMapper estimateMapper;
+    private final IntradayEstimateCache estimateCache;
+
+    private final BlockingQueue<FundEstimateIntraday> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter callerRunsCounter;
+
+    public IntradayEstimateWriterImpl(FundEstimateIntradayMapper estimateMapper,
+                                      IntradayEstimateCache estimateCache,
+                                      MeterRegistry meterRegistry) {
+        this.estimateMapper = estimateMapper;
+        this.estimateCache = estimateCache;
+        this.flusher = new Thread(this::runLoop, "estimate-writer");
+        this.flusher.setDaemon(true);
+
+        Gauge.builder("fund.estimate.writer.queue", queue, BlockingQueue::size)
+                .description("待落库的分时估值点数")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("fund.estimate.writer.flush")
+                .description("分时估值批量写入耗时")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("fund.estimate.writer.rows", "result", "success");
+        this.failedCounter = meterRegistry.counter("fund.estimate.writer.rows", "result", "failure");
+        this.callerRunsCounter = meterRegistry.counter("fund.estimate.writer.caller.runs");
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.start();
+    }
+
+    @Override
+    public void submit(FundEstimateIntraday estimate) {
+        try {
+            if (running && queue.offer(estimate, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 队列持续满（数据库跟不上）或已关闭：在调用线程同步写，自然形成背压
+        callerRunsCounter.increment();
+        write(new ArrayList<>(List.of(estimate)));
+    }
+
+    @Override
+    public void flush() {
+        List<FundEstimateIntraday> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            write(batch);
+            batch = new ArrayList<>(BATCH_SIZE);
+        }
+    }
+
+    @Override
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * 停止接收新点并写完队列剩余数据
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            flusher.join(SHUTDOWN_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("分时估值写入器已关闭");
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                FundEstimateIntraday first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<FundEstimateIntraday> batch = new ArrayList<>(BATCH_SIZE);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    queue.drainTo(batch, BATCH_SIZE - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= BATCH_SIZE || remaining <= 0) {
+                        break;
+                    }
+                    FundEstimateIntraday next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("分时估值批量写入线程异常", e);
+            }
+        }
+    }
+
+    /**
+     * 多行写入；整批失败时逐条重试，避免一条坏数据拖垮整批
+     */
+    private void write(List<FundEstimateIntraday> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int written;
+        try {
+            estimateMapper.insertBatch(batch);
+            written = batch.size();
+        } catch (Exception e) {
+            log.warn("分时估值批量写入失败，逐条重试: {}条, {}", batch.size(), e.getMessage());
+            written = 0;
+            List<FundEstimateIntraday> saved = new ArrayList<>(batch.size());
+            for (FundEstimateIntraday estimate : batch) {
+                try {
+                    estimate.setId(null);
+                    estimateMapper.insert(estimate);
+                    saved.add(estimate);
+                    written++;
+                } catch (Exception ex) {
+                    log.error("分时估值写入失败: {} {}", estimate.getFundCode(), estimate.getEstimateTime(), ex);
+                }
+            }
+            failedCounter.increment(batch.size() - written);
+            batch = saved;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        writtenCounter.increment(written);
+
+        for (FundEstimateIntraday estimate : batch) {
+            estimateCache.append(estimate);
+        }
+    }
+}
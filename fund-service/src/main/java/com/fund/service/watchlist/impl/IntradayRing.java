@@ -0,0 +1,195 @@
+package com.fund.service.watchlist.impl;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import com.fund.util.FixedPoint;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单只基金当日估值点环形缓冲区
+ * 估值时间（epoch 秒）、净值、涨跌幅、涨跌额、昨收净值按列存为原始数组（数值为4位小数定点数），
+ * 数据源、是否交易时间同样逐点保存（数据源引用取自缓冲区内的去重表），
+ * 按估值时间升序；写满后覆盖最早的点。线程安全（方法级同步）
+ */
+final class IntradayRing {
+
+    static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final long NULL = Long.MIN_VALUE;
+
+    private static final byte NULL_FLAG = -1;
+
+    private final String fundCode;
+    private final LocalDate tradeDate;
+    private final int capacity;
+
+    private long[] ids;
+    private long[] times;
+    private long[] navs;
+    private long[] pcts;
+    private long[] amts;
+    private long[] preCloses;
+    private String[] sources;
+    private byte[] tradingFlags;
+    private int head;
+    private int size;
+
+    // 已出现的数据源，同名数据源逐点共用一个字符串实例
+    private final List<String> sourceNames = new ArrayList<>(2);
+
+    IntradayRing(String fundCode, LocalDate tradeDate, int capacity) {
+        this.fundCode = fundCode;
+        this.tradeDate = tradeDate;
+        this.capacity = capacity;
+        int initial = Math.min(INITIAL_CAPACITY, capacity);
+        ids = new long[initial];
+        times = new long[initial];
+        navs = new long[initial];
+        pcts = new long[initial];
+        amts = new long[initial];
+        preCloses = new long[initial];
+        sources = new String[initial];
+        tradingFlags = new byte[initial];
+    }
+
+    /**
+     * 写入一个点，ID 已存在时忽略；返回是否写入
+     */
+    synchronized boolean add(FundEstimateIntraday e) {
+        if (e.getId() == null || e.getEstimateTime() == null || e.getEstimateNav() == null) {
+            return false;
+        }
+        long id = e.getId();
+        long time = e.getEstimateTime().atZone(ZONE).toEpochSecond();
+
+        // 插入位置：从尾部向前找第一个不晚于该点的位置
+        int pos = size;
+        while (pos > 0 && times[index(pos - 1)] > time) {
+            pos--;
+        }
+        // 去重：同一个点估值时间相同，只需比对插入位置前估值时间相等的点
+        for (int i = pos - 1; i >= 0 && times[index(i)] == time; i--) {
+            if (ids[index(i)] == id) {
+                return false;
+            }
+        }
+        if (size == capacity) {
+            if (pos == 0) {
+                return false;  // 比缓冲区内所有点都早，直接丢弃
+            }
+            head = (head + 1) % capacity;
+            size--;
+            pos--;
+        } else if (size == ids.length) {
+            grow();
+        }
+        for (int i = size; i > pos; i--) {
+            int to = index(i);
+            int from = index(i - 1);
+            ids[to] = ids[from];
+            times[to] = times[from];
+            navs[to] = navs[from];
+            pcts[to] = pcts[from];
+            amts[to] = amts[from];
+            preCloses[to] = preCloses[from];
+            sources[to] = sources[from];
+            tradingFlags[to] = tradingFlags[from];
+        }
+        int slot = index(pos);
+        ids[slot] = id;
+        times[slot] = time;
+        navs[slot] = FixedPoint.of(e.getEstimateNav());
+        pcts[slot] = e.getEstimateChangePct() != null ? FixedPoint.of(e.getEstimateChangePct()) : NULL;
+        amts[slot] = e.getEstimateChangeAmt() != null ? FixedPoint.of(e.getEstimateChangeAmt()) : NULL;
+        preCloses[slot] = e.getPreCloseNav() != null ? FixedPoint.of(e.getPreCloseNav()) : NULL;
+        sources[slot] = sourceName(e.getDataSource());
+        tradingFlags[slot] = e.getIsTradingTime() != null ? e.getIsTradingTime().byteValue() : NULL_FLAG;
+        size++;
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized FundEstimateIntraday latest() {
+        return size == 0 ? null : toEntity(size - 1);
+    }
+
+    synchronized List<FundEstimateIntraday> all() {
+        List<FundEstimateIntraday> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(toEntity(i));
+        }
+        return result;
+    }
+
+    /**
+     * 估值时间晚于 epochSecond 的点
+     */
+    synchronized List<FundEstimateIntraday> after(long epochSecond) {
+        int from = size;
+        while (from > 0 && times[index(from - 1)] > epochSecond) {
+            from--;
+        }
+        List<FundEstimateIntraday> result = new ArrayList<>(size - from);
+        for (int i = from; i < size; i++) {
+            result.add(toEntity(i));
+        }
+        return result;
+    }
+
+    private FundEstimateIntraday toEntity(int i) {
+        int slot = index(i);
+        FundEstimateIntraday e = new FundEstimateIntraday();
+        e.setId(ids[slot]);
+        e.setFundCode(fundCode);
+        e.setTradeDate(tradeDate);
+        e.setEstimateTime(LocalDateTime.ofInstant(Instant.ofEpochSecond(times[slot]), ZONE));
+        e.setEstimateNav(FixedPoint.toDecimal(navs[slot]));
+        e.setEstimateChangePct(pcts[slot] != NULL ? FixedPoint.toDecimal(pcts[slot]) : null);
+        e.setEstimateChangeAmt(amts[slot] != NULL ? FixedPoint.toDecimal(amts[slot]) : null);
+        e.setPreCloseNav(preCloses[slot] != NULL ? FixedPoint.toDecimal(preCloses[slot]) : null);
+        e.setDataSource(sources[slot]);
+        e.setIsTradingTime(tradingFlags[slot] != NULL_FLAG ? Integer.valueOf(tradingFlags[slot]) : null);
+        return e;
+    }
+
+    private String sourceName(String dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        for (String name : sourceNames) {
+            if (name.equals(dataSource)) {
+                return name;
+            }
+        }
+        sourceNames.add(dataSource);
+        return dataSource;
+    }
+
+    private int index(int logical) {
+        return (head + logical) % ids.length;
+    }
+
+    // 未写满时扩容（此时 head 恒为 0）
+    private void grow() {
+        int length = Math.min(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, length);
+        times = Arrays.copyOf(times, length);
+        navs = Arrays.copyOf(navs, length);
+        pcts = Arrays.copyOf(pcts, length);
+        amts = Arrays.copyOf(amts, length);
+        preCloses = Arrays.copyOf(preCloses, length);
+        sources = Arrays.copyOf(sources, length);
+        tradingFlags = Arrays.copyOf(tradingFlags, length);
+    }
+}
@@ -1,5 +1,6 @@
 package com.fund.util;
 
+import com.fund.service.cache.CacheRefreshExecutor;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
@@ -24,6 +25,7 @@ public class CacheUtil {
     
     private final RedissonClient redissonClient;
     private final StringRedisTemplate redisTemplate;
+    private final CacheRefreshExecutor refreshExecutor;
     
     // 锁等待时间（毫秒）
     private static final long LOCK_WAIT_TIME = 100;
@@ -36,9 +38,11 @@ public class CacheUtil {
     private static final int RANDOM_TTL_MIN = 0;
     private static final int RANDOM_TTL_MAX = 300; // 最多加5分钟随机时间
     
-    public CacheUtil(RedissonClient redissonClient, StringRedisTemplate redisTemplate) {
+    public CacheUtil(RedissonClient redissonClient, StringRedisTemplate redisTemplate,
+                     CacheRefreshExecutor refreshExecutor) {
         this.redissonClient = redissonClient;
         this.redisTemplate = redisTemplate;
+        this.refreshExecutor = refreshExecutor;
     }
     
     /**
@@ -196,17 +200,18 @@ public class CacheUtil {
     
     /**
      * 异步重建缓存
-     * 用于缓存即将过期时的提前重建
+     * 用于缓存即将过期时的提前重建；在缓存重建线程池上执行，队列已满时放弃本次重建
      */
     public <T> void asyncRebuildCache(String lockKey,
                                      Supplier<T> dbLoader,
                                      java.util.function.Consumer<T> cacheSetter) {
         RLock lock = redissonClient.getLock("lock:async:" + lockKey);
+        // 锁在重建线程中释放，按加锁线程的ID解锁
+        long ownerThreadId = Thread.currentThread().getId();
         
         try {
             if (lock.tryLock(0, LOCK_LEASE_TIME, TimeUnit.MILLISECONDS)) {
-                // 异步执行缓存重建
-                new Thread(() -> {
+                boolean submitted = refreshExecutor.submit(() -> {
                     try {
                         T data = dbLoader.get();
                         if (data != null) {
@@ -216,11 +221,13 @@ public class CacheUtil {
                     } catch (Exception e) {
                         log.error("异步缓存重建失败: {}", lockKey, e);
                     } finally {
-                        if (lock.isHeldByCurrentThread()) {
-                            lock.unlock();
-                        }
+                        lock.unlockAsync(ownerThreadId);
                     }
-                }).start();
+                });
+                if (!submitted) {
+                    lock.unlockAsync(ownerThreadId);
+                    log.debug("缓存重建队列已满，跳过: {}", lockKey);
+                }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -0,0 +1,83 @@
+package com.fund.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 曲线降采样（Largest-Triangle-Three-Buckets）
+ * 保留首尾点，中间按桶各选一个与前一选中点、下一桶均值构成三角形面积最大的点，
+ * 在点数大幅减少时仍保留峰谷形状。x 需单调（升序或降序均可）
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * 返回保留点的下标（升序）；threshold 不小于点数或小于 3 时保留全部
+     */
+    public static int[] lttb(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        // 中间 n-2 个点分成 threshold-2 个桶
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // 下一桶均值作为第三个顶点
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextLen = nextEnd - nextStart;
+            avgX /= nextLen;
+            avgY /= nextLen;
+
+            int start = (int) Math.floor(bucket * every) + 1;
+            int end = (int) Math.floor((bucket + 1) * every) + 1;
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[count++] = chosen;
+            a = chosen;
+        }
+        kept[count] = n - 1;
+        return kept;
+    }
+
+    /**
+     * 按下标取子列表
+     */
+    public static <T> List<T> select(List<T> source, int[] indices) {
+        if (indices.length == source.size()) {
+            return source;
+        }
+        List<T> result = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            result.add(source.get(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fund.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 定点数运算（long 存储，固定 4 位小数，四舍五入）
+ * 份额、净值、金额在 DECIMAL(x,4) 精度内可无损表示；乘除溢出 long 时自动退回 BigDecimal 计算
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000L;
+
+    private FixedPoint() {
+    }
+
+    public static long of(BigDecimal value) {
+        return value == null ? 0 : value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    /**
+     * a × b
+     */
+    public static long mul(long a, long b) {
+        return mulDiv(a, b, ONE);
+    }
+
+    /**
+     * a ÷ b，b 为 0 时返回 0
+     */
+    public static long div(long a, long b) {
+        return b == 0 ? 0 : mulDiv(a, ONE, b);
+    }
+
+    /**
+     * a × b ÷ c（中间结果不截断）
+     */
+    public static long mulDiv(long a, long b, long c) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+            return roundDiv(lo, c);
+        }
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+                .divide(BigDecimal.valueOf(c), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static long roundDiv(long n, long d) {
+        long q = n / d;
+        long r = n % d;
+        if (Math.abs(r) * 2 >= Math.abs(d)) {
+            q += (n < 0) == (d < 0) ? 1 : -1;
+        }
+        return q;
+    }
+}
@@ -0,0 +1,201 @@
+package com.fund.service;
+
+import com.fund.dto.HoldingVO;
+import com.fund.dto.HoldingWithEstimateVO;
+import com.fund.dto.PortfolioSummaryVO;
+import com.fund.dto.TradeRequest;
+import com.fund.entity.FundInfo;
+import com.fund.entity.FundMetrics;
+import com.fund.entity.FundNav;
+import com.fund.entity.PortfolioPosition;
+import com.fund.entity.PortfolioTrade;
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import com.fund.mapper.FundInfoMapper;
+import com.fund.mapper.FundMetricsMapper;
+import com.fund.mapper.FundNavMapper;
+import com.fund.mapper.PortfolioPositionMapper;
+import com.fund.mapper.PortfolioTradeMapper;
+import com.fund.service.navstore.NavSeriesStore;
+import com.fund.service.rule.SignalRuleService;
+import com.fund.service.snapshot.MetricsSnapshot;
+import com.fund.service.snapshot.MetricsSnapshotService;
+import com.fund.service.watchlist.IntradayEstimateCache;
+import com.fund.service.watchlist.TradingCalendarService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * PortfolioService 单元测试
+ */
+class PortfolioServiceTest {
+
+    private PortfolioTradeMapper tradeMapper;
+    private PortfolioPositionMapper positionMapper;
+    private FundInfoMapper fundInfoMapper;
+    private FundNavMapper fundNavMapper;
+    private FundRefDataService fundRefDataService;
+    private IntradayEstimateCache estimateCache;
+    private TradingCalendarService calendarService;
+    private FundMetricsMapper fundMetricsMapper;
+    private TransactionTemplate transactionTemplate;
+    private PortfolioService service;
+
+    @BeforeEach
+    void setUp() {
+        tradeMapper = mock(PortfolioTradeMapper.class);
+        positionMapper = mock(PortfolioPositionMapper.class);
+        fundInfoMapper = mock(FundInfoMapper.class);
+        fundNavMapper = mock(FundNavMapper.class);
+        fundRefDataService = mock(FundRefDataService.class);
+        estimateCache = mock(IntradayEstimateCache.class);
+        calendarService = mock(TradingCalendarService.class);
+        MetricsSnapshotService snapshotService = mock(MetricsSnapshotService.class);
+        when(snapshotService.current()).thenReturn(MetricsSnapshot.EMPTY);
+        fundMetricsMapper = mock(FundMetricsMapper.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        service = new PortfolioService(tradeMapper, positionMapper, fundInfoMapper, fundNavMapper, mock(NavSeriesStore.class),
+                fundMetricsMapper, estimateCache, calendarService, fundRefDataService, snapshotService,
+                new SignalRuleService(new DefaultResourceLoader(), "classpath:signal-rules.yml"), transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("测试启动时在事务中重建空的持仓汇总")
+    @SuppressWarnings("unchecked")
+    void testInitPositionsRebuildsInTransaction() {
+        // given
+        when(positionMapper.selectCount(null)).thenReturn(0L);
+        when(tradeMapper.selectCount(null)).thenReturn(3L);
+
+        // when
+        service.initPositions();
+
+        // then - 删除与重建只在事务回调中执行
+        verify(positionMapper, never()).deleteAll();
+        ArgumentCaptor<Consumer<TransactionStatus>> callback = ArgumentCaptor.forClass(Consumer.class);
+        verify(transactionTemplate).executeWithoutResult(callback.capture());
+        callback.getValue().accept(mock(TransactionStatus.class));
+        verify(positionMapper).deleteAll();
+        verify(positionMapper).rebuildFromTrades();
+    }
+
+    @Test
+    @DisplayName("测试交易写入时增量更新持仓")
+    void testRecordTradeAppliesDelta() {
+        // given
+        when(fundInfoMapper.selectById("000001")).thenReturn(new FundInfo());
+        doAnswer(inv -> {
+            inv.<PortfolioTrade>getArgument(0).setId(7L);
+            return 1;
+        }).when(tradeMapper).insert(any(PortfolioTrade.class));
+
+        // when - 买入100份@1.5，手续费2；卖出40份
+        service.recordTrade(trade(1, "100", "1.5", "2"));
+        service.recordTrade(trade(2, "40", "1.6", null));
+
+        // then - 买入加份额与成本，卖出只减份额
+        verify(positionMapper).applyDelta(eq("000001"), argThat(v -> v.compareTo(new BigDecimal("100")) == 0),
+                argThat(v -> v.compareTo(new BigDecimal("152")) == 0), eq(7L));
+        verify(positionMapper).applyDelta(eq("000001"), argThat(v -> v.compareTo(new BigDecimal("-40")) == 0),
+                argThat(v -> v.signum() == 0), eq(7L));
+    }
+
+    @Test
+    @DisplayName("测试持仓查询只读汇总表并批量取净值与指标")
+    void testGetHoldingsFromPositions() {
+        // given
+        when(positionMapper.selectHeld()).thenReturn(List.of(position("000001", "60", "152"),
+                position("000002", "10", "10")));
+        FundNav nav = new FundNav();
+        nav.setFundCode("000001");
+        nav.setUnitNav(new BigDecimal("3.0000"));
+        when(fundNavMapper.selectLatestNavs(anyCollection())).thenReturn(List.of(nav));
+        when(fundRefDataService.resolve(anyCollection())).thenReturn(Map.of());
+        FundMetrics metrics = new FundMetrics();
+        metrics.setFundCode("000001");
+        metrics.setSharpeRatio1y(new BigDecimal("1.6"));
+        when(fundMetricsMapper.selectLatestByFundCodes(anyCollection())).thenReturn(List.of(metrics));
+
+        // when
+        List<HoldingVO> holdings = service.getHoldings();
+
+        // then - 质量等级按规则配置评定，缺指标的基金不评级
+        assertEquals(2, holdings.size());
+        HoldingVO holding = holdings.get(0);
+        assertEquals(0, new BigDecimal("2.5333").compareTo(holding.getAvgCost()));
+        assertEquals(0, new BigDecimal("180").compareTo(holding.getCurrentValue()));
+        assertEquals(0, new BigDecimal("28").compareTo(holding.getTotalReturn()));
+        assertEquals("A", holding.getQualityLevel());
+        assertNull(holdings.get(1).getQualityLevel());
+        verify(tradeMapper, never()).selectList(any());
+        verify(fundNavMapper, never()).selectLatestNav(anyString());
+        verify(fundMetricsMapper, times(1)).selectLatestByFundCodes(anyCollection());
+        verify(fundMetricsMapper, never()).selectLatestByFundCode(anyString());
+    }
+
+    @Test
+    @DisplayName("测试持仓估值批量计算并按估值版本缓存")
+    void testHoldingsWithEstimateCachedPerTick() {
+        // given - 60份，成本152，估值净值3.1，涨幅3.3333%
+        LocalDate today = LocalDate.of(2024, 1, 2);
+        when(calendarService.getCurrentTradeDate()).thenReturn(today);
+        when(positionMapper.selectHeld()).thenReturn(List.of(position("000001", "60", "152")));
+        when(fundNavMapper.selectLatestNavs(anyCollection())).thenReturn(List.of());
+        when(fundRefDataService.resolve(anyCollection())).thenReturn(Map.of());
+        FundEstimateIntraday estimate = new FundEstimateIntraday();
+        estimate.setId(1L);
+        estimate.setFundCode("000001");
+        estimate.setTradeDate(today);
+        estimate.setEstimateNav(new BigDecimal("3.1000"));
+        estimate.setEstimateChangePct(new BigDecimal("3.3333"));
+        when(estimateCache.getLatest(anyCollection(), eq(today))).thenReturn(Map.of("000001", estimate));
+        when(estimateCache.getVersion()).thenReturn(100L, 100L, 101L);
+
+        // when
+        PortfolioSummaryVO first = service.getHoldingsWithEstimate();
+        service.getHoldingsWithEstimate();
+        service.getHoldingsWithEstimate();
+
+        // then - 同一估值版本只计算一次，新估值点到达后重算
+        verify(estimateCache, times(2)).getLatest(anyCollection(), eq(today));
+        HoldingWithEstimateVO vo = first.getHoldings().get(0);
+        assertEquals(new BigDecimal("186.0000"), vo.getEstimateMarketValue());
+        assertEquals(new BigDecimal("6.20"), vo.getEstimateDailyReturn());
+        assertEquals(new BigDecimal("34.0000"), vo.getTotalReturn());
+        assertEquals(new BigDecimal("22.3700"), vo.getTotalReturnPct());
+        assertEquals(new BigDecimal("186.0000"), first.getSummary().getTotalMarketValue());
+    }
+
+    private static TradeRequest trade(int type, String share, String price, String fee) {
+        TradeRequest request = new TradeRequest();
+        request.setFundCode("000001");
+        request.setTradeDate(LocalDate.of(2024, 1, 2));
+        request.setTradeType(type);
+        request.setTradeShare(new BigDecimal(share));
+        request.setTradePrice(new BigDecimal(price));
+        request.setTradeFee(fee != null ? new BigDecimal(fee) : null);
+        return request;
+    }
+
+    private static PortfolioPosition position(String fundCode, String shares, String cost) {
+        PortfolioPosition position = new PortfolioPosition();
+        position.setFundCode(fundCode);
+        position.setTotalShares(new BigDecimal(shares));
+        position.setTotalCost(new BigDecimal(cost));
+        return position;
+    }
+}
@@ -0,0 +1,167 @@
+package com.fund.service;
+
+import com.fund.dto.MetricsSnapshotRow;
+import com.fund.dto.TradeSignal;
+import com.fund.entity.FundSignal;
+import com.fund.mapper.FundMetricsMapper;
+import com.fund.mapper.FundSignalMapper;
+import com.fund.service.rule.SignalRuleService;
+import com.fund.service.snapshot.MetricsSnapshot;
+import com.fund.service.snapshot.MetricsSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * SignalBatchService 单元测试
+ */
+class SignalBatchServiceTest {
+
+    private FundSignalMapper signalMapper;
+    private SignalRuleService ruleService;
+    private MetricsSnapshotService snapshotService;
+    private RLock lock;
+    private TransactionTemplate transactionTemplate;
+    private SignalBatchService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        signalMapper = mock(FundSignalMapper.class);
+        ruleService = new SignalRuleService(new DefaultResourceLoader(), "classpath:signal-rules.yml");
+        SignalEngine engine = new SignalEngine(mock(FundMetricsMapper.class), mock(FundRefDataService.class), ruleService);
+        snapshotService = mock(MetricsSnapshotService.class);
+        lock = mock(RLock.class);
+        when(lock.tryLock(anyLong(), any(TimeUnit.class))).thenReturn(true);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        service = new SignalBatchService(engine, signalMapper, mock(FundRefDataService.class), ruleService,
+                snapshotService, redissonClient, transactionTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("测试全量并行计算并分批落库")
+    void testRecomputeAll() {
+        // given - 3000只基金：偶数为优质低估(买入)，奇数为高估大回撤(卖出)
+        MetricsSnapshot.Builder builder = new MetricsSnapshot.Builder(0);
+        for (int i = 0; i < 3000; i++) {
+            builder.add(i % 2 == 0
+                    ? row(String.format("%06d", i), 20, "2.1", "-10", "15")
+                    : row(String.format("%06d", i), 90, "-0.5", "-35", "-25"));
+        }
+
+        // when
+        int count = service.recompute(builder.build(null));
+
+        // then - 持集群锁、在一个事务内完成写入与清理
+        assertEquals(3000, count);
+        verify(transactionTemplate).execute(any());
+        verify(lock).unlock();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FundSignal>> captor = ArgumentCaptor.forClass(List.class);
+        verify(signalMapper, times(6)).batchUpsert(captor.capture());
+        verify(signalMapper).deleteOtherBatches(anyLong());
+
+        List<FundSignal> all = new ArrayList<>();
+        captor.getAllValues().forEach(all::addAll);
+        assertEquals(3000, all.size());
+        FundSignal buy = all.stream().filter(s -> "000000".equals(s.getFundCode())).findFirst().orElseThrow();
+        FundSignal sell = all.stream().filter(s -> "000001".equals(s.getFundCode())).findFirst().orElseThrow();
+        assertEquals(1, buy.getSignalType());
+        assertEquals("S", buy.getQualityLevel());
+        assertEquals(3, sell.getSignalType());
+        assertEquals(90, sell.getPePercentile());
+        assertNotEquals(0, sell.getReasonMask());
+        assertEquals(LocalDate.of(2024, 1, 2), sell.getCalcDate());
+        assertEquals(ruleService.current().getVersion(), sell.getRuleVersion());
+    }
+
+    @Test
+    @DisplayName("测试空快照不清理已有信号")
+    void testEmptySnapshot() {
+        assertEquals(0, service.recompute(MetricsSnapshot.EMPTY));
+        verify(signalMapper, never()).batchUpsert(anyList());
+        verify(signalMapper, never()).deleteOtherBatches(anyLong());
+    }
+
+    @Test
+    @DisplayName("测试其他节点持有重算锁超时时跳过本次计算")
+    void testRecomputeSkippedWhenLockBusy() throws Exception {
+        // given
+        when(lock.tryLock(anyLong(), any(TimeUnit.class))).thenReturn(false);
+        MetricsSnapshot.Builder builder = new MetricsSnapshot.Builder(0);
+        builder.add(row("000001", 20, "2.1", "-10", "15"));
+
+        // when
+        int count = service.recompute(builder.build(null));
+
+        // then
+        assertEquals(0, count);
+        verify(signalMapper, never()).batchUpsert(anyList());
+        verify(signalMapper, never()).deleteOtherBatches(anyLong());
+        verify(lock, never()).unlock();
+    }
+
+    @Test
+    @DisplayName("测试存量信号规则版本过期时列表按当前规则实时计算")
+    void testListSignalsEvaluatesLiveWhenRuleVersionStale() {
+        // given
+        MetricsSnapshot.Builder builder = new MetricsSnapshot.Builder(0);
+        builder.add(row("000001", 90, "-0.5", "-35", "-25"));
+        builder.add(row("000002", 20, "2.1", "-10", "15"));
+        builder.add(row("000003", 95, "-0.8", "-40", "-30"));
+        when(snapshotService.isReady()).thenReturn(true);
+        when(snapshotService.current()).thenReturn(builder.build(null));
+        when(signalMapper.countOtherRuleVersions(ruleService.current().getVersion())).thenReturn(3L);
+
+        // when
+        List<TradeSignal> sells = service.listSignals(TradeSignal.SignalType.SELL);
+
+        // then
+        verify(signalMapper, never()).selectBySignalType(anyInt());
+        assertEquals(2, sells.size());
+        assertTrue(sells.stream().allMatch(s -> s.getSignal() == TradeSignal.SignalType.SELL));
+        assertTrue(sells.get(0).getConfidence() >= sells.get(1).getConfidence());
+    }
+
+    private static MetricsSnapshotRow row(String code, int pe, String sharpe, String drawdown, String return1y) {
+        MetricsSnapshotRow row = new MetricsSnapshotRow();
+        row.setFundCode(code);
+        row.setCalcDate(LocalDate.of(2024, 1, 2));
+        row.setPePercentile(pe);
+        row.setSharpeRatio1y(new BigDecimal(sharpe));
+        row.setMaxDrawdown1y(new BigDecimal(drawdown));
+        row.setReturn1y(new BigDecimal(return1y));
+        return row;
+    }
+}
@@ -0,0 +1,79 @@
+package com.fund.service;
+
+import com.fund.dto.TradeSignal;
+import com.fund.entity.FundMetrics;
+import com.fund.mapper.FundMetricsMapper;
+import com.fund.service.rule.SignalRuleService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * SignalEngine 单元测试
+ */
+class SignalEngineTest {
+
+    private final SignalEngine engine = new SignalEngine(mock(FundMetricsMapper.class), mock(FundRefDataService.class),
+            new SignalRuleService(new DefaultResourceLoader(), "classpath:signal-rules.yml"));
+
+    @Test
+    @DisplayName("测试买入信号及理由延迟渲染")
+    void testBuySignal() {
+        // when
+        TradeSignal signal = engine.evaluate(metrics(20, "2.1", "-10", "15"));
+
+        // then
+        assertEquals(TradeSignal.SignalType.BUY, signal.getSignal());
+        assertEquals("S", signal.getQualityLevel());
+        assertEquals(9, signal.getBuyScore());
+        assertEquals(0, signal.getSellScore());
+        assertEquals(100, signal.getConfidence());
+        assertEquals("PE估值低位(20%); 夏普比率优秀(2.1000); 回撤控制良好(<20%); 近1年收益为正", signal.getReason());
+    }
+
+    @Test
+    @DisplayName("测试卖出信号与持有信号")
+    void testSellAndHold() {
+        // 卖出：高估 + 大回撤 + 负夏普
+        TradeSignal sell = engine.evaluate(metrics(90, "-0.5", "-35", "-25"));
+        assertEquals(TradeSignal.SignalType.SELL, sell.getSignal());
+        assertEquals("D", sell.getQualityLevel());
+        assertEquals("PE估值高位(90%); 回撤过大(>30%); 夏普比率负值; 亏损超20%，考虑止损", sell.getReason());
+
+        // 评级D有买入分时持有
+        TradeSignal hold = engine.evaluate(metrics(20, "0.2", "-25", "-5"));
+        assertEquals(TradeSignal.SignalType.HOLD, hold.getSignal());
+        assertEquals("综合评级D，暂不建议买入", hold.getReason());
+    }
+
+    @Test
+    @DisplayName("测试空指标不命中任何规则")
+    void testNullMetrics() {
+        // given
+        FundMetrics empty = new FundMetrics();
+        empty.setFundCode("000001");
+
+        // when
+        TradeSignal signal = engine.evaluate(empty);
+
+        // then
+        assertEquals(TradeSignal.SignalType.HOLD, signal.getSignal());
+        assertEquals("-", signal.getQualityLevel());
+        assertEquals("估值合理，建议持有观望", signal.getReason());
+    }
+
+    private static FundMetrics metrics(int pe, String sharpe, String drawdown, String return1y) {
+        FundMetrics m = new FundMetrics();
+        m.setFundCode("000001");
+        m.setPePercentile(pe);
+        m.setSharpeRatio1y(new BigDecimal(sharpe));
+        m.setMaxDrawdown1y(new BigDecimal(drawdown));
+        m.setReturn1y(new BigDecimal(return1y));
+        return m;
+    }
+}
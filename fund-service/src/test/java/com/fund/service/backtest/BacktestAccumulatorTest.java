@@ -0,0 +1,136 @@
+package com.fund.service.backtest;
+
+import com.fund.dto.BacktestResult;
+import com.fund.entity.FundMetrics;
+import com.fund.entity.FundNav;
+import com.fund.service.rule.SignalRuleCompiler;
+import com.fund.service.rule.SignalRuleSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BacktestAccumulator 单元测试
+ */
+class BacktestAccumulatorTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private static final SignalRuleSet RULES = SignalRuleCompiler.compile("""
+            rules:
+              buy:
+                - { when: pePercentile < 30, score: 1, reason: BUY_PE_LOW }
+              sell:
+                - { when: pePercentile > 70, score: 1, reason: SELL_PE_HIGH }
+            quality:
+              metric: sharpe
+              levels:
+                - { level: A, min: 1, confidence: 0 }
+              fallback: { level: D, confidence: 0 }
+            decision:
+              veto-level: D
+              strong-buy-score: 1
+              strong-buy-levels: [A]
+              buy-score: 1
+              sell-score: 1
+            """);
+
+    @Test
+    @DisplayName("测试信号次日生效、持仓收益与命中率")
+    void testSimulate() {
+        // given - 每日上涨1%，第0天低估买入，第5天高估卖出
+        FundSeries series = new FundSeries("000001");
+        series.addMetrics(metrics(0, 20));
+        series.addMetrics(metrics(5, 90));
+        for (int day = 0; day < 10; day++) {
+            series.addNav(nav(day, "1.00"));
+        }
+
+        // when
+        BacktestAccumulator accumulator = new BacktestAccumulator(new SignalRuleSet[]{RULES},
+                (int) START.toEpochDay(), (int) START.plusDays(9).toEpochDay(), 2);
+        accumulator.simulate(series);
+        BacktestResult.Variant result = accumulator.summarize(0, "test");
+
+        // then - 持有第1~5天共5个交易日（信号当日收益不计入）
+        assertEquals(1, result.getBuySignals());
+        assertEquals(1, result.getSellSignals());
+        assertEquals(2, result.getTrades());
+        assertEquals(new BigDecimal("50.0000"), result.getHitRate());
+        assertEquals(Math.pow(1.01, 5) - 1, result.getTotalReturn().doubleValue() / 100, 1e-6);
+        assertEquals(new BigDecimal("0.0000"), result.getMaxDrawdown());
+        assertEquals(new BigDecimal("0.5000"), result.getAvgHoldings());
+    }
+
+    @Test
+    @DisplayName("测试多线程分块结果合并")
+    void testMerge() {
+        // given - 两只基金分别在两个累加器中模拟
+        int startDay = (int) START.toEpochDay();
+        int endDay = (int) START.plusDays(9).toEpochDay();
+        BacktestAccumulator a = new BacktestAccumulator(new SignalRuleSet[]{RULES}, startDay, endDay, 2);
+        BacktestAccumulator b = new BacktestAccumulator(new SignalRuleSet[]{RULES}, startDay, endDay, 2);
+        FundSeries up = new FundSeries("000001");
+        FundSeries down = new FundSeries("000002");
+        up.addMetrics(metrics(0, 20));
+        down.addMetrics(metrics(0, 20));
+        for (int day = 0; day < 10; day++) {
+            up.addNav(nav(day, "2.00"));
+            down.addNav(nav(day, "-1.00"));
+        }
+        a.simulate(up);
+        b.simulate(down);
+
+        // when
+        a.merge(b);
+        BacktestResult.Variant result = a.summarize(0, "test");
+
+        // then - 等权组合每日收益 0.5%
+        assertEquals(2, a.fundCount());
+        assertEquals(20, a.navRows());
+        assertEquals(Math.pow(1.005, 9) - 1, result.getTotalReturn().doubleValue() / 100, 1e-6);
+        assertEquals(new BigDecimal("50.0000"), result.getHitRate());
+    }
+
+    @Test
+    @DisplayName("测试无净值基金的信号仍计数但不判定命中")
+    void testSignalsWithoutNav() {
+        // given
+        FundSeries series = new FundSeries("000001");
+        series.addMetrics(metrics(0, 20));
+        series.addMetrics(metrics(5, 90));
+
+        // when
+        BacktestAccumulator accumulator = new BacktestAccumulator(new SignalRuleSet[]{RULES},
+                (int) START.toEpochDay(), (int) START.plusDays(9).toEpochDay(), 2);
+        accumulator.simulate(series);
+        BacktestResult.Variant result = accumulator.summarize(0, "test");
+
+        // then
+        assertEquals(1, result.getBuySignals());
+        assertEquals(1, result.getSellSignals());
+        assertEquals(0, result.getTrades());
+        assertNull(result.getHitRate());
+        assertEquals(1, accumulator.fundCount());
+    }
+
+    private static FundMetrics metrics(int day, int pe) {
+        FundMetrics metrics = new FundMetrics();
+        metrics.setFundCode("000001");
+        metrics.setCalcDate(START.plusDays(day));
+        metrics.setPePercentile(pe);
+        return metrics;
+    }
+
+    private static FundNav nav(int day, String dailyReturn) {
+        FundNav nav = new FundNav();
+        nav.setNavDate(START.plusDays(day));
+        nav.setUnitNav(BigDecimal.ONE);
+        nav.setDailyReturn(new BigDecimal(dailyReturn));
+        return nav;
+    }
+}
@@ -0,0 +1,126 @@
+package com.fund.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fund.dto.FundInfoVO;
+import com.fund.dto.FundMetricsVO;
+import com.fund.dto.TradeSignal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.spring.cache.NullValue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CacheValueCodec 单元测试
+ */
+class CacheValueCodecTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheValueCodec codec = new CacheValueCodec(null, 256, meterRegistry);
+
+    @Test
+    @DisplayName("缓存值往返：业务对象、不可变列表、后台重建的包装与空值")
+    void roundTripsCachedValues() throws Exception {
+        // given
+        FundInfoVO info = new FundInfoVO();
+        info.setFundCode("000001");
+        info.setFundName("华夏成长");
+        info.setEstablishDate(LocalDate.of(2001, 12, 18));
+        info.setCurrentScale(new BigDecimal("35.2100"));
+
+        TradeSignal signal = new TradeSignal();
+        signal.setFundCode("000001");
+        signal.setSignal(TradeSignal.SignalType.BUY);
+        signal.setGenerateTime(LocalDateTime.of(2024, 1, 3, 15, 0));
+
+        List<FundMetricsVO> ranking = IntStream.range(0, 20).mapToObj(i -> {
+            FundMetricsVO m = new FundMetricsVO();
+            m.setFundCode(String.format("%06d", i));
+            m.setSharpeRatio1y(new BigDecimal("1.2345"));
+            m.setQualityLevel("A");
+            return m;
+        }).toList();
+
+        // when / then
+        FundInfoVO infoBack = (FundInfoVO) roundTrip(info);
+        assertEquals("华夏成长", infoBack.getFundName());
+        assertEquals(LocalDate.of(2001, 12, 18), infoBack.getEstablishDate());
+        assertEquals(new BigDecimal("35.2100"), infoBack.getCurrentScale());
+
+        assertEquals(TradeSignal.SignalType.BUY, ((TradeSignal) roundTrip(signal)).getSignal());
+
+        CachedValue wrapped = (CachedValue) roundTrip(new CachedValue(ranking, 12, 1_700_000_000_000L));
+        List<?> rankingBack = (List<?>) wrapped.getValue();
+        assertEquals(20, rankingBack.size());
+        assertEquals("000019", ((FundMetricsVO) rankingBack.get(19)).getFundCode());
+        assertEquals(12, wrapped.getDeltaMillis());
+
+        assertSame(NullValue.INSTANCE, roundTrip(NullValue.INSTANCE));
+        assertEquals("000001_v2", roundTrip("000001_v2"));
+        assertEquals(1, meterRegistry.counter("fund.cache.codec", "event", "compressed").count());
+    }
+
+    @Test
+    @DisplayName("类增删字段后旧数据仍可读，旧编码数据按未命中处理")
+    void toleratesSchemaChangesAndLegacyBytes() throws Exception {
+        // given：按旧版本写入的数据，含已删除的字段
+        Map<String, Object> old = new LinkedHashMap<>();
+        old.put("@class", FundInfoVO.class.getName());
+        old.put("fundCode", "000001");
+        old.put("removedField", List.of(1, 2, 3));
+        byte[] body = new ObjectMapper(new SmileFactory())
+                .writeValueAsBytes(old);
+        ByteBuf stored = Unpooled.buffer().writeByte(0xFC).writeByte(1).writeByte(0).writeBytes(body);
+
+        // when
+        Object decoded = codec.decode(stored);
+
+        // then
+        assertEquals("000001", ((FundInfoVO) decoded).getFundCode());
+        assertNull(codec.decode(Unpooled.wrappedBuffer(new byte[]{1, 0, 0, 0, 5, 'h', 'e', 'l', 'l', 'o'})));
+        assertEquals(1, meterRegistry.counter("fund.cache.codec", "event", "undecodable").count());
+    }
+
+    @Test
+    @DisplayName("较大的列表压缩后明显小于原始 JSON")
+    void compressesLargeValues() throws Exception {
+        List<FundMetricsVO> ranking = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            FundMetricsVO m = new FundMetricsVO();
+            m.setFundCode(String.format("%06d", i));
+            m.setFundName("测试基金" + i);
+            m.setReturn1y(new BigDecimal("12.3400"));
+            m.setSharpeRatio1y(new BigDecimal("1.2345"));
+            ranking.add(m);
+        }
+        int json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(ranking).length;
+
+        ByteBuf encoded = codec.encode(ranking);
+        int size = encoded.readableBytes();
+
+        assertTrue(size < json / 2, "编码后 " + size + " 字节, JSON " + json + " 字节");
+        assertEquals(50, ((List<?>) codec.decode(encoded)).size());
+    }
+
+    private Object roundTrip(Object value) throws Exception {
+        ByteBuf buf = codec.encode(value);
+        try {
+            return codec.decode(buf);
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.fund.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RefreshingCache 单元测试
+ */
+class RefreshingCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private ConcurrentMapCache store;
+    private CacheRefreshExecutor executor;
+    private RefreshingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        store = new ConcurrentMapCache("fund:ranking");
+        executor = new CacheRefreshExecutor(10, meterRegistry);
+        cache = new RefreshingCache("fund:ranking", store, 60_000, 1.0, executor, meterRegistry, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("逻辑过期后返回旧值，只触发一次后台重建")
+    void servesStaleWhileSingleRefreshRuns() throws Exception {
+        // given：旧值已逻辑过期
+        store.put("sharpe-null-20", new CachedValue("旧排名", 5, now.get() - 1));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        // when：重建阻塞期间并发读取多次
+        for (int i = 0; i < 5; i++) {
+            String value = cache.get("sharpe-null-20", () -> {
+                loads.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return "新排名";
+            });
+            assertEquals("旧排名", value);
+        }
+        release.countDown();
+
+        // then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.timer("fund.cache.refresh", "cache", "fund:ranking", "outcome", "success").count() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("新排名", cache.get("sharpe-null-20").get());
+        assertEquals(1, loads.get());
+        assertEquals(5, meterRegistry.counter("fund.cache.refresh.serve", "cache", "fund:ranking", "state", "stale").count());
+        assertEquals(1, meterRegistry.timer("fund.cache.refresh", "cache", "fund:ranking", "outcome", "success").count());
+    }
+
+    @Test
+    @DisplayName("未命中时同步计算；无加载函数的读取在逻辑过期后视为未命中")
+    void loadsOnMissAndExpiresPlainReads() throws Exception {
+        assertEquals("排名", cache.get("k", () -> "排名"));
+        assertEquals("排名", cache.get("k").get());
+
+        now.addAndGet(60_000);
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("XFetch：临近过期且计算耗时长时提前刷新，远未过期时不刷新")
+    void earlyRefreshDependsOnDeltaAndRemainingTtl() {
+        CachedValue nearExpiry = new CachedValue("v", 10_000, now.get() + 1);
+        CachedValue farFromExpiry = new CachedValue("v", 1, now.get() + 3_600_000);
+
+        int early = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.shouldRefreshEarly(nearExpiry, now.get())) {
+                early++;
+            }
+            assertFalse(cache.shouldRefreshEarly(farFromExpiry, now.get()));
+        }
+        assertTrue(early > 95, "临近过期应几乎总是提前刷新: " + early);
+    }
+}
@@ -0,0 +1,131 @@
+package com.fund.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TwoLevelCacheManager 单元测试（二级缓存用内存实现代替 Redis）
+ */
+class TwoLevelCacheManagerTest {
+
+    private ConcurrentMapCacheManager remote;
+    private TwoLevelCacheManager manager;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager("fund:detail", "fund:search");
+        manager = new TwoLevelCacheManager(remote, null, Map.of("fund:detail", 60_000L), 1024 * 1024, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("二级命中后回填一级，再次读取不再访问二级")
+    void fillsLocalTierFromRemote() {
+        // given：值只在二级缓存
+        remote.getCache("fund:detail").put("000001_v2", "华夏成长");
+        Cache cache = manager.getCache("fund:detail");
+
+        // when
+        assertEquals("华夏成长", cache.get("000001_v2").get());
+        remote.getCache("fund:detail").evict("000001_v2");
+
+        // then：一级缓存仍命中
+        assertEquals("华夏成长", cache.get("000001_v2").get());
+        assertEquals(1, meterRegistry.counter("fund.cache.gets", "cache", "fund:detail", "tier", "l1", "result", "hit").count());
+        assertEquals(1, meterRegistry.counter("fund.cache.gets", "cache", "fund:detail", "tier", "l2", "result", "hit").count());
+    }
+
+    @Test
+    @DisplayName("其他节点的失效消息丢弃本地副本，自身消息忽略")
+    void remoteInvalidationDropsLocalCopy() {
+        // given
+        Cache cache = manager.getCache("fund:detail");
+        cache.put("000001_v2", "旧值");
+        remote.getCache("fund:detail").put("000001_v2", "新值");
+
+        // when：另一节点广播失效
+        manager.onMessage("other-node\nfund:detail\nevict\n000001_v2");
+
+        // then
+        assertEquals("新值", cache.get("000001_v2").get());
+    }
+
+    @Test
+    @DisplayName("读二级缓存期间收到失效时不把读到的旧值回填到一级")
+    void invalidationDuringRemoteReadSkipsFill() {
+        // given：二级读取返回旧值的同时，另一节点写入新值并广播失效
+        ConcurrentMapCacheManager racing = new ConcurrentMapCacheManager("fund:detail") {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    public ValueWrapper get(Object key) {
+                        ValueWrapper stale = super.get(key);
+                        put(key, "新值");
+                        manager.onMessage("other-node\nfund:detail\nevict\n" + key);
+                        return stale;
+                    }
+                };
+            }
+        };
+        manager = new TwoLevelCacheManager(racing, null, Map.of("fund:detail", 60_000L), 1024 * 1024, meterRegistry);
+        racing.getCache("fund:detail").put("000001_v2", "旧值");
+        Cache cache = manager.getCache("fund:detail");
+
+        // when
+        assertEquals("旧值", cache.get("000001_v2").get());
+
+        // then：一级缓存没有留下旧值
+        assertNull(manager.getLocal("fund:detail", "000001_v2"));
+    }
+
+    @Test
+    @DisplayName("读二级缓存期间本节点写入新值时旧值回填不覆盖新值")
+    void localPutDuringRemoteReadWins() {
+        // given：二级读取返回旧值的同时，本节点经同一缓存写入新值
+        ConcurrentMapCacheManager racing = new ConcurrentMapCacheManager("fund:detail") {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    public ValueWrapper get(Object key) {
+                        ValueWrapper stale = super.get(key);
+                        manager.getCache(name).put(key, "新值");
+                        return stale;
+                    }
+                };
+            }
+        };
+        manager = new TwoLevelCacheManager(racing, null, Map.of("fund:detail", 60_000L), 1024 * 1024, meterRegistry);
+        racing.getCache("fund:detail").put("000001_v2", "旧值");
+        Cache cache = manager.getCache("fund:detail");
+
+        // when
+        assertEquals("旧值", cache.get("000001_v2").get());
+
+        // then：一级缓存没有被旧值覆盖
+        assertNotEquals("旧值", manager.getLocal("fund:detail", "000001_v2"));
+    }
+
+    @Test
+    @DisplayName("空值在一级缓存中保留为空，未列出的缓存直接使用二级")
+    void cachesNullAndPassesThroughUnlistedCaches() {
+        Cache cache = manager.getCache("fund:detail");
+        cache.put("999999_v2", null);
+        remote.getCache("fund:detail").evict("999999_v2");
+
+        Cache.ValueWrapper wrapper = cache.get("999999_v2");
+        assertNotNull(wrapper);
+        assertNull(wrapper.get());
+        assertSame(remote.getCache("fund:search"), manager.getCache("fund:search"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.fund.service.collect;
+
+import com.fund.config.CollectProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ClusterSingleFlight 单元测试
+ */
+@SuppressWarnings("unchecked")
+class ClusterSingleFlightTest {
+
+    private static final String KEY = "collect:nav:000001";
+
+    private RedissonClient redissonClient;
+    private RBucket<String> lease;
+    private RBucket<Object> result;
+    private RTopic topic;
+    private ClusterSingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        redissonClient = mock(RedissonClient.class);
+        lease = mock(RBucket.class);
+        result = mock(RBucket.class);
+        topic = mock(RTopic.class);
+        when(redissonClient.getTopic(anyString(), eq(StringCodec.INSTANCE))).thenReturn(topic);
+        when(redissonClient.<String>getBucket(startsWith("collect:lease:"), eq(StringCodec.INSTANCE))).thenReturn(lease);
+        when(redissonClient.getBucket(startsWith("collect:result:"))).thenReturn(result);
+
+        ObjectProvider<RedissonClient> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redissonClient);
+        CollectProperties properties = new CollectProperties();
+        properties.getSingleFlight().setLeaseSeconds(2);
+        properties.getSingleFlight().setPollIntervalMs(20);
+        singleFlight = new ClusterSingleFlight(provider, properties, new SimpleMeterRegistry());
+        singleFlight.subscribe();
+    }
+
+    @Test
+    @DisplayName("拿到租约的节点执行采集并共享结果、通知其他节点")
+    void leaderRunsTaskAndPublishes() {
+        // given
+        when(lease.setIfAbsent(anyString(), any(Duration.class))).thenReturn(true);
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        String value = singleFlight.execute(KEY, () -> "nav-" + calls.incrementAndGet());
+
+        // then
+        assertEquals("nav-1", value);
+        verify(result).set(eq("nav-1"), any(Duration.class));
+        verify(lease).compareAndSet(anyString(), isNull());
+        verify(topic).publish(KEY);
+    }
+
+    @Test
+    @DisplayName("租约被其他节点持有时等待其结果，不重复采集")
+    void followerWaitsForSharedResult() {
+        // given：第二次检查时其他节点的结果已写入
+        when(lease.setIfAbsent(anyString(), any(Duration.class))).thenReturn(false);
+        when(result.get()).thenReturn(null, null, "shared");
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        Object value = singleFlight.execute(KEY, () -> "local-" + calls.incrementAndGet());
+
+        // then
+        assertEquals("shared", value);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("执行节点失败释放租约后由等待节点接手")
+    void followerTakesOverWhenLeaseReleased() {
+        // given：首次抢租约失败，执行节点失败后租约释放
+        when(lease.setIfAbsent(anyString(), any(Duration.class))).thenReturn(false, true);
+
+        // when
+        String value = singleFlight.execute(KEY, () -> "local");
+
+        // then
+        assertEquals("local", value);
+        verify(topic).publish(KEY);
+    }
+
+    @Test
+    @DisplayName("失败的采集结果不共享，只释放租约")
+    void leaderDoesNotShareFailure() {
+        // given
+        when(lease.setIfAbsent(anyString(), any(Duration.class))).thenReturn(true);
+
+        // when
+        CollectResult<String> value = singleFlight.execute(KEY, () -> CollectResult.timeout("read timed out"));
+
+        // then
+        assertFalse(value.isSuccess());
+        verify(result, never()).set(any(), any(Duration.class));
+        verify(topic).publish(KEY);
+    }
+
+    @Test
+    @DisplayName("等待时长受调用方上限约束，超时后本节点采集并清理等待项")
+    void followerWaitBoundedByCaller() {
+        // given：租约一直被其他节点持有（租约 2 秒）
+        when(lease.setIfAbsent(anyString(), any(Duration.class))).thenReturn(false);
+
+        // when
+        String value = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> singleFlight.execute(KEY, () -> "local", Duration.ofMillis(100)));
+
+        // then
+        assertEquals("local", value);
+        assertEquals(0, singleFlight.getWaitingCount());
+    }
+
+    @Test
+    @DisplayName("Redis 异常时本节点直接采集")
+    void fallsBackToLocalWhenRedisFails() {
+        when(result.get()).thenThrow(new IllegalStateException("connection refused"));
+        assertEquals("local", singleFlight.execute(KEY, () -> "local"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.fund.service.collect;
+
+import com.fund.config.CollectProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CollectExecutor 单元测试
+ */
+class CollectExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CollectExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("用户请求排在已排队的后台任务之前执行")
+    void userTasksJumpAheadOfBackground() throws Exception {
+        // given：单线程池被占住，先排两个后台任务
+        executor = newExecutor(1, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.submit("nav", CollectPriority.USER, () -> await(blocker));
+        CompletableFuture<Boolean> bg1 = executor.submit("nav", CollectPriority.BACKGROUND, () -> order.add("bg1"));
+        CompletableFuture<Boolean> bg2 = executor.submit("nav", CollectPriority.BACKGROUND, () -> order.add("bg2"));
+        CompletableFuture<Boolean> user = executor.submit("nav", CollectPriority.USER, () -> order.add("user"));
+
+        // when
+        blocker.countDown();
+        CompletableFuture.allOf(bg1, bg2, user).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(List.of("user", "bg1", "bg2"), order);
+    }
+
+    @Test
+    @DisplayName("后台任务只能占用部分队列，超出后拒绝并计数")
+    void rejectsWhenQueueIsFull() {
+        // given：队列 4，后台最多占 2
+        executor = newExecutor(1, 4);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        executor.submit("info", CollectPriority.USER, () -> {
+            started.countDown();
+            return await(blocker);
+        });
+        await(started);
+        executor.submit("info", CollectPriority.BACKGROUND, () -> true);
+        executor.submit("info", CollectPriority.BACKGROUND, () -> true);
+
+        // when & then
+        assertThrows(RejectedExecutionException.class,
+                () -> executor.submit("info", CollectPriority.BACKGROUND, () -> true));
+        executor.submit("info", CollectPriority.USER, () -> true);
+        executor.submit("info", CollectPriority.USER, () -> true);
+        assertThrows(RejectedExecutionException.class,
+                () -> executor.submit("info", CollectPriority.USER, () -> true));
+
+        assertEquals(1.0, meterRegistry.counter("fund.collect.rejected", "type", "info", "priority", "background").count());
+        assertEquals(1.0, meterRegistry.counter("fund.collect.rejected", "type", "info", "priority", "user").count());
+        blocker.countDown();
+    }
+
+    private CollectExecutor newExecutor(int threads, int queueCapacity) {
+        CollectProperties properties = new CollectProperties();
+        properties.getExecutor().setPools(Map.of(
+                "nav", new CollectProperties.Pool(threads, queueCapacity),
+                "info", new CollectProperties.Pool(threads, queueCapacity)));
+        return new CollectExecutor(properties, meterRegistry);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
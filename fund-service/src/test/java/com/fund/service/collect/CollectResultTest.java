@@ -87,6 +87,19 @@ class CollectResultTest {
         assertTrue(result.getMessage().contains(message));
     }
     
+    @Test
+    @DisplayName("测试熔断限流结果为暂时性失败")
+    void testUnavailableResultIsTransient() {
+        // when
+        CollectResult<Object> unavailable = CollectResult.unavailable("熔断中");
+        CollectResult<Object> notFound = CollectResult.notFound("999999");
+        
+        // then
+        assertEquals(CollectResult.ERR_UNAVAILABLE, unavailable.getErrorCode());
+        assertTrue(unavailable.isTransientFailure());
+        assertFalse(notFound.isTransientFailure());
+    }
+    
     @Test
     @DisplayName("测试 Builder 模式构造")
     void testBuilder() {
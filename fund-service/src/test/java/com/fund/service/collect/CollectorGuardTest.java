@@ -0,0 +1,130 @@
+package com.fund.service.collect;
+
+import com.fund.config.CollectProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CollectorGuard / CircuitBreaker / GradientLimiter 单元测试
+ */
+class CollectorGuardTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    @DisplayName("失败率达到阈值后熔断，半开探测成功后关闭")
+    void breakerOpensAndRecovers() {
+        // given：窗口 10，至少 4 次，失败率 50%，熔断 1 秒，半开 2 次探测
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, 1000, 2);
+        long now = 0;
+
+        // when：2 成功 2 失败
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure(now);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        breaker.onFailure(now);
+
+        // then：熔断期内拒绝
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(now + 500 * MS));
+
+        // 熔断到期后半开，只放行 2 次探测
+        now += 1000 * MS;
+        assertTrue(breaker.tryAcquire(now));
+        assertTrue(breaker.tryAcquire(now));
+        assertFalse(breaker.tryAcquire(now));
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    @DisplayName("半开探测失败重新熔断")
+    void halfOpenFailureReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 50, 1000, 1);
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        assertTrue(breaker.tryAcquire(1000 * MS));
+        breaker.onFailure(1000 * MS);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(1500 * MS));
+    }
+
+    @Test
+    @DisplayName("延迟升高时收缩并发上限，延迟平稳满载时放宽")
+    void limiterFollowsLatency() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 50, 1.5, 0.2);
+
+        // 满载、延迟平稳：上限增长
+        for (int i = 0; i < 50; i++) {
+            fillAndComplete(limiter, 20 * MS);
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 10, "grown=" + grown);
+
+        // 延迟升到 10 倍：上限收缩
+        for (int i = 0; i < 50; i++) {
+            fillAndComplete(limiter, 200 * MS);
+        }
+        assertTrue(limiter.limit() < grown, "limit=" + limiter.limit());
+
+        // 超出上限的请求被拒绝
+        int limit = limiter.limit();
+        for (int i = 0; i < limit; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("熔断打开后立即拒绝并计数")
+    void guardShortCircuitsWhenOpen() {
+        CollectProperties properties = new CollectProperties();
+        properties.getResilience().setMinimumCalls(2);
+        properties.getResilience().setWindowSize(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CollectorGuard guard = new CollectorGuard(properties, meterRegistry);
+
+        guard.acquire("nav").onFailure(10 * MS, false);
+        guard.acquire("nav").onFailure(10 * MS, true);
+
+        assertFalse(guard.isAvailable("nav"));
+        assertTrue(guard.isAvailable("info"));
+        assertThrows(CollectorUnavailableException.class, () -> guard.acquire("nav"));
+        assertEquals(1.0, meterRegistry.counter("fund.collect.short.circuit", "endpoint", "nav", "reason", "open").count());
+        assertEquals(1.0, meterRegistry.get("fund.collect.breaker.state").tag("endpoint", "nav").gauge().value());
+    }
+
+    @Test
+    @DisplayName("慢调用阈值按接口覆盖：批量估值的正常耗时不计入熔断失败")
+    void slowCallThresholdPerEndpoint() {
+        CollectProperties properties = new CollectProperties();
+        properties.getResilience().setMinimumCalls(2);
+        properties.getResilience().setWindowSize(2);
+        CollectorGuard guard = new CollectorGuard(properties, new SimpleMeterRegistry());
+
+        // 7 秒：批量接口未超过 9 秒阈值，单基金接口超过 5 秒默认阈值
+        for (int i = 0; i < 2; i++) {
+            guard.acquire("batch").onSuccess(7000 * MS);
+            guard.acquire("nav").onSuccess(7000 * MS);
+        }
+
+        assertTrue(guard.isAvailable("batch"));
+        assertFalse(guard.isAvailable("nav"));
+    }
+
+    // 占满当前上限后逐个完成
+    private static void fillAndComplete(GradientLimiter limiter, long rtt) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.onComplete(rtt, false);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.fund.service.collect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fund.config.CollectProperties;
+import com.fund.entity.FundInfo;
+import com.fund.entity.FundNav;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CollectorHttpClient 单元测试（本地 HTTP 服务模拟 Flask 响应）
+ */
+class CollectorHttpClientTest {
+
+    private HttpServer server;
+    private CollectorHttpClient client;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        respond("/api/collect/nav/000001", 200, """
+                {"success": true, "count": 2, "data": [
+                  {"nav_date": "Wed, 03 Jan 2024 00:00:00 GMT", "unit_nav": "1.2345", "accum_nav": "2.0000", "daily_return": "0.12"},
+                  {"nav_date": "Tue, 02 Jan 2024 00:00:00 GMT", "unit_nav": "1.2330", "accum_nav": null, "daily_return": "-0.05"}
+                ]}""");
+        respond("/api/collect/fund/999999", 404, """
+                {"success": false, "errorCode": "FUND_NOT_FOUND", "message": "基金 999999 未找到"}""");
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        CollectProperties properties = new CollectProperties();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = new CollectorHttpClient(properties, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry, new CollectorGuard(properties, meterRegistry), url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("净值接口的下划线字段与 RFC 1123 日期直接解析为实体")
+    void parsesNavListIntoEntities() {
+        CollectorResponse<List<FundNav>> response = client.get("nav", "/api/collect/nav/000001", client.listType(FundNav.class));
+
+        assertTrue(response.isSuccess());
+        List<FundNav> navs = response.getData();
+        assertEquals(2, navs.size());
+        assertEquals(LocalDate.of(2024, 1, 3), navs.get(0).getNavDate());
+        assertEquals(0, new BigDecimal("1.2345").compareTo(navs.get(0).getUnitNav()));
+        assertNull(navs.get(1).getAccumNav());
+        assertEquals(1, meterRegistry.timer("fund.collect.http", "op", "nav", "outcome", "success").count());
+    }
+
+    @Test
+    @DisplayName("非 2xx 响应保留错误码与状态")
+    void keepsErrorCodeOnNotFound() {
+        CollectorResponse<FundInfo> response = client.get("info", "/api/collect/fund/999999", client.type(FundInfo.class));
+
+        assertFalse(response.isSuccess());
+        assertEquals(404, response.getHttpStatus());
+        assertEquals("FUND_NOT_FOUND", response.getErrorCode());
+        assertEquals("基金 999999 未找到", response.errorMessage());
+        assertEquals(1, meterRegistry.timer("fund.collect.http", "op", "info", "outcome", "error").count());
+    }
+
+    @Test
+    @DisplayName("小批次主请求超过对冲延迟未返回时补发，先到的对冲响应胜出；超过令牌上限的大批次不对冲")
+    void hedgeWinsWhenPrimaryIsSlow() {
+        // given：首个请求挂起 3 秒，第二个批次的主请求 300ms，其余立即返回；对冲延迟固定 50ms，预算不设限
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext("/api/collect/batch", exchange -> {
+            int call = calls.incrementAndGet();
+            if (call == 1 || call == 3) {
+                try {
+                    Thread.sleep(call == 1 ? 3000 : 300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] bytes = "{\"success\": true, \"data\": {\"fundCode\": \"000001\"}}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException ignored) {
+                // 落败请求已被取消
+            }
+        });
+        CollectProperties properties = new CollectProperties();
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setDelayMs(50);
+        properties.getHedge().setBudgetPercent(100);
+        CollectorHttpClient hedged = new CollectorHttpClient(properties, new ObjectMapper(), meterRegistry,
+                new CollectorGuard(properties, meterRegistry), "http://127.0.0.1:" + server.getAddress().getPort());
+
+        // when：3 只基金的批次
+        long start = System.nanoTime();
+        CollectorResponse<FundInfo> response = hedged.<FundInfo>postAsync("batch", "/api/collect/batch",
+                Map.of("fundCodes", List.of("000001", "000002", "000003")), hedged.type(FundInfo.class), 3).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        assertTrue(response.isSuccess());
+        assertTrue(elapsedMs < 2000, "对冲响应应先于挂起的主请求返回: " + elapsedMs + "ms");
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.counter("fund.collect.hedge", "endpoint", "batch", "event", "sent").count());
+        assertEquals(1, meterRegistry.counter("fund.collect.hedge", "endpoint", "batch", "event", "won").count());
+
+        // when：20 只基金的批次，所需令牌超过上限
+        hedged.<FundInfo>postAsync("batch", "/api/collect/batch", Map.of("fundCodes", List.of()),
+                hedged.type(FundInfo.class), 20).join();
+        hedged.shutdown();
+
+        // then
+        assertEquals(1, meterRegistry.counter("fund.collect.hedge", "endpoint", "batch", "event", "sent").count());
+        assertEquals(1, meterRegistry.counter("fund.collect.hedge", "endpoint", "batch", "event", "budget_exhausted").count());
+    }
+
+    private void respond(String path, int status, String body) {
+        server.createContext(path, exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.fund.service.collect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fund.config.CollectProperties;
+import com.fund.dto.FundEstimateDTO;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EstimateBatcher 单元测试
+ */
+class EstimateBatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private HttpServer server;
+    private CollectorHttpClient httpClient;
+    private EstimateBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 模拟采集服务：除 999999 外每只基金都返回估值，888888 缺少昨收净值
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/collect/batch", exchange -> {
+            batchCalls.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            List<String> results = new ArrayList<>();
+            for (JsonNode code : request.path("fundCodes")) {
+                if ("888888".equals(code.asText())) {
+                    results.add("{\"fundCode\":\"888888\",\"estimateNav\":\"1.1000\",\"estimateChangePct\":\"0.50\"}");
+                } else if (!"999999".equals(code.asText())) {
+                    results.add("{\"fundCode\":\"" + code.asText() + "\",\"estimateNav\":\"1.1000\","
+                            + "\"estimateChangePct\":\"0.50\",\"preCloseNav\":\"1.0945\",\"dataSource\":\"mock\"}");
+                }
+            }
+            byte[] body = ("{\"success\":true,\"data\":{\"results\":[" + String.join(",", results) + "]}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        CollectProperties properties = new CollectProperties();
+        properties.getBatch().setWindowMs(100);
+        properties.getBatch().setMaxSize(50);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        httpClient = new CollectorHttpClient(properties, objectMapper, meterRegistry,
+                new CollectorGuard(properties, meterRegistry), "http://127.0.0.1:" + server.getAddress().getPort());
+        batcher = new EstimateBatcher(httpClient, properties, meterRegistry);
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+        httpClient.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("时间窗内的并发请求合并为一次批量调用并按基金分发结果")
+    void coalescesConcurrentRequests() throws Exception {
+        // given：20 只不同基金，其中一只重复请求、一只无估值、一只估值不完整
+        List<CompletableFuture<FundEstimateDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(batcher.submit(String.format("%06d", i + 1)));
+        }
+        CompletableFuture<FundEstimateDTO> duplicate = batcher.submit("000001");
+        CompletableFuture<FundEstimateDTO> missing = batcher.submit("999999");
+        CompletableFuture<FundEstimateDTO> incomplete = batcher.submit("888888");
+
+        // when
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(1, batchCalls.get());
+        assertEquals("000007", futures.get(6).get().getFundCode());
+        assertEquals(0, new BigDecimal("0.50").compareTo(futures.get(6).get().getEstimateChangePct()));
+        assertSame(futures.get(0).get(), duplicate.get());
+        assertNull(missing.get(5, TimeUnit.SECONDS));
+        assertNull(incomplete.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,69 @@
+package com.fund.service.metrics;
+
+import com.fund.dto.MetricsRecomputeJob;
+import com.fund.mapper.FundMetricsMapper;
+import com.fund.mapper.FundNavMapper;
+import com.fund.service.navstore.NavSeriesStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RollingMetricsEngine 单元测试
+ */
+class RollingMetricsEngineTest {
+
+    private NavSeriesStore navSeriesStore;
+    private RollingMetricsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        navSeriesStore = mock(NavSeriesStore.class);
+        engine = new RollingMetricsEngine(navSeriesStore, mock(FundNavMapper.class), mock(FundMetricsMapper.class), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("全量重算在后台执行，运行中重复提交被拒绝，结束后可查询状态")
+    void submitRecomputeAllRunsInBackground() throws Exception {
+        // given：读取基金列表时阻塞，模拟长时间运行的任务
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(navSeriesStore.fundCodes()).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return List.of();
+        });
+
+        // when
+        MetricsRecomputeJob job = engine.submitRecomputeAll();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(MetricsRecomputeJob.Status.RUNNING, job.getStatus());
+        assertThrows(MetricsRecomputeBusyException.class, () -> engine.submitRecomputeAll());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.getLastJob().getStatus() == MetricsRecomputeJob.Status.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        MetricsRecomputeJob finished = engine.getLastJob();
+        assertEquals(job.getJobId(), finished.getJobId());
+        assertEquals(MetricsRecomputeJob.Status.SUCCESS, finished.getStatus());
+        assertEquals(0, finished.getFundCount());
+        assertNotNull(finished.getFinishTime());
+    }
+}
@@ -0,0 +1,93 @@
+package com.fund.service.metrics;
+
+import com.fund.entity.FundMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RollingMetrics 单元测试
+ */
+class RollingMetricsTest {
+
+    @Test
+    @DisplayName("增量滚动结果与按窗口全量计算一致")
+    void incrementalMatchesFullWindowComputation() {
+        // given：1000 个交易日的随机净值，窗口已多次滑动
+        Random random = new Random(7);
+        int n = 1000;
+        double[] navs = new double[n];
+        double[] returns = new double[n];
+        double nav = 1.0;
+        for (int i = 0; i < n; i++) {
+            double r = Math.round(random.nextGaussian() * 120) / 10_000.0;  // 日增长率%，4 位小数
+            nav = Math.round(nav * (1 + r / 100) * 10_000) / 10_000.0;
+            navs[i] = nav;
+            returns[i] = r;
+        }
+
+        // when
+        RollingMetrics rolling = new RollingMetrics();
+        for (int i = 0; i < n; i++) {
+            rolling.add(19_000 + i, navs[i], returns[i]);
+        }
+        FundMetrics metrics = rolling.toMetrics("000001");
+
+        // then：按 metrics_engine.py 口径直接对最后 252 / 756 个点计算
+        double[] r1y = tail(returns, 252);
+        double[] r3y = tail(returns, 756);
+        assertClose(sharpe(r1y), metrics.getSharpeRatio1y());
+        assertClose(sharpe(r3y), metrics.getSharpeRatio3y());
+        assertClose(std(r1y) * Math.sqrt(252), metrics.getVolatility1y());
+        assertClose(maxDrawdown(tail(navs, 756)) * 100, metrics.getMaxDrawdown3y());
+        assertClose((navs[n - 1] / navs[n - 21] - 1) * 100, metrics.getReturn1m());
+        assertEquals(756, rolling.size());
+        assertEquals(n, rolling.total());
+    }
+
+    @Test
+    @DisplayName("有效点不足 60 个时不出指标")
+    void requiresMinimumPoints() {
+        RollingMetrics rolling = new RollingMetrics();
+        for (int i = 0; i < 59; i++) {
+            rolling.add(19_000 + i, 1.0 + i * 0.001, 0.1);
+        }
+        assertNull(rolling.toMetrics("000001"));
+    }
+
+    private static double[] tail(double[] values, int n) {
+        return Arrays.copyOfRange(values, values.length - n, values.length);
+    }
+
+    // 日增长率%序列 → 年化夏普
+    private static double sharpe(double[] pct) {
+        double mean = Arrays.stream(pct).map(v -> v / 100).average().orElse(0);
+        return (mean * 252 - 0.025) / (std(pct) / 100 * Math.sqrt(252));
+    }
+
+    private static double std(double[] values) {
+        double mean = Arrays.stream(values).average().orElse(0);
+        double ss = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum();
+        return Math.sqrt(ss / (values.length - 1));
+    }
+
+    private static double maxDrawdown(double[] navs) {
+        double peak = navs[0];
+        double mdd = 0;
+        for (double v : navs) {
+            peak = Math.max(peak, v);
+            mdd = Math.min(mdd, (v - peak) / peak);
+        }
+        return mdd;
+    }
+
+    private static void assertClose(double expected, BigDecimal actual) {
+        assertNotNull(actual);
+        assertEquals(expected, actual.doubleValue(), 1e-4);
+    }
+}
@@ -0,0 +1,138 @@
+package com.fund.service.navstore;
+
+import com.fund.entity.FundNav;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NavArchive 单元测试
+ */
+class NavArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("编码后追加、重新打开归档后按最后一条记录还原序列")
+    void appendReopenAndDecode() throws Exception {
+        // given：小段大小，迫使切换到新段
+        List<FundNav> history = history("000001", LocalDate.of(2024, 1, 2), 300);
+        try (NavArchive archive = new NavArchive(dir, 4096)) {
+            archive.append(NavSeriesCodec.encode("000001", history.subList(0, 200), NavSeriesCodec.NO_PREV));
+            archive.append(NavSeriesCodec.encode("000002", history("000002", LocalDate.of(2024, 1, 2), 50), NavSeriesCodec.NO_PREV));
+            archive.append(NavSeriesCodec.encode("000001", history, NavSeriesCodec.NO_PREV));
+        }
+
+        // when
+        Map<String, NavSeries> latest = new HashMap<>();
+        try (NavArchive archive = new NavArchive(dir, 4096)) {
+            archive.scan((location, record) -> {
+                NavSeries series = NavSeriesCodec.decode(record);
+                latest.put(series.getFundCode(), NavSeriesCodec.decode(archive.read(location)));
+            });
+
+            // then
+            NavSeries series = latest.get("000001");
+            assertEquals(300, series.size());
+            assertEquals(50, latest.get("000002").size());
+            FundNav last = history.get(299);
+            assertEquals(last.getNavDate(), series.latest().getNavDate());
+            assertEquals(0, last.getUnitNav().compareTo(series.latest().getUnitNav()));
+            assertNull(series.toEntity(0).getAccumNav());
+
+            List<FundNav> range = series.range(history.get(10).getNavDate(), history.get(19).getNavDate());
+            assertEquals(10, range.size());
+            assertEquals(history.get(19).getNavDate(), range.get(0).getNavDate());
+            assertEquals(0, history.get(10).getDailyReturn().compareTo(range.get(9).getDailyReturn()));
+        }
+    }
+
+    @Test
+    @DisplayName("末尾记录写入中断时重新打开截断到最后一条完整记录，之后可继续追加")
+    void reopenTruncatesTornTail() throws Exception {
+        // given：第二条记录正文写了一半（长度已落盘、校验和不符）
+        List<FundNav> history = history("000001", LocalDate.of(2024, 1, 2), 20);
+        long second;
+        try (NavArchive archive = new NavArchive(dir, 4096)) {
+            archive.append(NavSeriesCodec.encode("000001", history.subList(0, 10), NavSeriesCodec.NO_PREV));
+            second = archive.append(NavSeriesCodec.encode("000002", history, NavSeriesCodec.NO_PREV));
+        }
+        corrupt(dir.resolve("nav-00000.dat"), (int) second + NavArchive.HEADER_BYTES + 40);
+
+        // when
+        List<String> codes = new ArrayList<>();
+        try (NavArchive archive = new NavArchive(dir, 4096)) {
+            archive.scan((location, record) -> codes.add(NavSeriesCodec.fundCode(record)));
+            long appended = archive.append(NavSeriesCodec.encode("000003", history, NavSeriesCodec.NO_PREV));
+
+            // then：残缺记录被丢弃，新记录写在原位置
+            assertEquals(List.of("000001"), codes);
+            assertEquals(second, appended);
+        }
+        codes.clear();
+        try (NavArchive archive = new NavArchive(dir, 4096)) {
+            archive.scan((location, record) -> codes.add(NavSeriesCodec.fundCode(record)));
+        }
+        assertEquals(List.of("000001", "000003"), codes);
+    }
+
+    @Test
+    @DisplayName("中间段出现坏记录时扫描在此停止，其后的段一并丢弃")
+    void badRecordDropsLaterSegments() throws Exception {
+        // given：每段只放得下一条记录
+        List<FundNav> history = history("000001", LocalDate.of(2024, 1, 2), 100);
+        try (NavArchive archive = new NavArchive(dir, 2048)) {
+            archive.append(NavSeriesCodec.encode("000001", history, NavSeriesCodec.NO_PREV));
+            archive.append(NavSeriesCodec.encode("000002", history, NavSeriesCodec.NO_PREV));
+            archive.append(NavSeriesCodec.encode("000003", history, NavSeriesCodec.NO_PREV));
+        }
+        corrupt(dir.resolve("nav-00001.dat"), 100);
+
+        // when
+        List<String> codes = new ArrayList<>();
+        try (NavArchive archive = new NavArchive(dir, 2048)) {
+            archive.scan((location, record) -> codes.add(NavSeriesCodec.fundCode(record)));
+
+            // then
+            assertEquals(List.of("000001"), codes);
+            assertFalse(Files.exists(dir.resolve("nav-00002.dat")));
+        }
+    }
+
+    private static void corrupt(Path file, int offset) throws Exception {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset);
+            raf.writeInt(0x5A5A5A5A);
+        }
+    }
+
+    static List<FundNav> history(String fundCode, LocalDate start, int n) {
+        List<FundNav> list = new ArrayList<>(n);
+        LocalDate date = start;
+        for (int i = 0; i < n; i++) {
+            FundNav nav = new FundNav();
+            nav.setFundCode(fundCode);
+            nav.setNavDate(date);
+            nav.setUnitNav(new BigDecimal("1.0000").add(BigDecimal.valueOf(i, 4)));
+            nav.setAccumNav(i == 0 ? null : new BigDecimal("2.5000"));
+            nav.setDailyReturn(BigDecimal.valueOf(i % 7 - 3, 2));
+            list.add(nav);
+            // 跳过周末
+            date = date.plusDays(date.getDayOfWeek().getValue() == 5 ? 3 : 1);
+        }
+        return list;
+    }
+}
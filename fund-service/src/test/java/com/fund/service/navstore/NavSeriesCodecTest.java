@@ -0,0 +1,115 @@
+package com.fund.service.navstore;
+
+import com.fund.entity.FundNav;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NavSeriesCodec 单元测试
+ */
+class NavSeriesCodecTest {
+
+    private static final LocalDate START = LocalDate.of(2000, 1, 3);
+
+    @Test
+    @DisplayName("日期差跨 varint 字节边界时编解码一致")
+    void varintBoundaries() {
+        // given：1、2、3 字节 varint 的边界值
+        int[] gaps = {1, 127, 128, 16383, 16384, 1};
+        List<FundNav> navs = new ArrayList<>();
+        LocalDate date = START;
+        navs.add(nav(date, "1.0000"));
+        for (int gap : gaps) {
+            date = date.plusDays(gap);
+            navs.add(nav(date, "1.0000"));
+        }
+
+        // when
+        NavSeries series = NavSeriesCodec.decode(NavSeriesCodec.encode("000001", navs, NavSeriesCodec.NO_PREV));
+
+        // then
+        assertEquals(navs.size(), series.size());
+        for (int i = 0; i < navs.size(); i++) {
+            assertEquals(navs.get(i).getNavDate(), series.navDate(i));
+        }
+    }
+
+    @Test
+    @DisplayName("不同长度的基金代码下记录长度与数值列均按 4 字节对齐")
+    void alignment() {
+        for (String code : List.of("1", "12", "123", "000001", "0000001")) {
+            for (int n = 1; n <= 4; n++) {
+                // given
+                List<FundNav> navs = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    navs.add(nav(START.plusDays(i), "1." + i));
+                }
+
+                // when
+                ByteBuffer record = NavSeriesCodec.encode(code, navs, NavSeriesCodec.NO_PREV);
+                NavSeries series = NavSeriesCodec.decode(record);
+
+                // then
+                assertEquals(0, record.remaining() % 4);
+                assertEquals(code, series.getFundCode());
+                assertEquals(0, new BigDecimal("1." + (n - 1)).compareTo(series.latest().getUnitNav()));
+                assertEquals(0, BigDecimal.valueOf(n - 1).compareTo(series.latest().getDailyReturn()));
+                assertEquals((int) START.plusDays(n - 1).toEpochDay(), NavSeriesCodec.lastDay(record));
+                assertEquals(series.unitNav(n - 1), NavSeriesCodec.lastUnitNav(record));
+                assertEquals(series.dailyReturn(n - 1), NavSeriesCodec.lastDailyReturn(record));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("增量记录链按写入顺序拼接，重新编码后与原序列一致")
+    void decodeChainAndReencode() {
+        // given
+        List<FundNav> navs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            navs.add(nav(START.plusDays(i * 2), "1.00" + i));
+        }
+        ByteBuffer full = NavSeriesCodec.encode("000001", navs.subList(0, 7), NavSeriesCodec.NO_PREV);
+        ByteBuffer delta = NavSeriesCodec.encode("000001", navs.subList(7, 10), 42L);
+
+        // when
+        NavSeries chained = NavSeriesCodec.decode(full, delta);
+        NavSeries merged = NavSeriesCodec.decode(NavSeriesCodec.encode(chained));
+
+        // then
+        assertEquals(42L, NavSeriesCodec.prev(delta));
+        for (NavSeries series : List.of(chained, merged)) {
+            assertEquals(10, series.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(navs.get(i).getNavDate(), series.navDate(i));
+                assertEquals(0, navs.get(i).getUnitNav().compareTo(series.toEntity(i).getUnitNav()));
+                assertEquals(0, navs.get(i).getDailyReturn().compareTo(series.toEntity(i).getDailyReturn()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("超出定点范围的净值不编码")
+    void encodeRejectsOverflow() {
+        List<FundNav> history = NavArchiveTest.history("000001", START, 3);
+        history.get(1).setUnitNav(new BigDecimal("999999.9999"));
+        assertNull(NavSeriesCodec.encode("000001", history, NavSeriesCodec.NO_PREV));
+    }
+
+    private static FundNav nav(LocalDate date, String unitNav) {
+        FundNav nav = new FundNav();
+        nav.setFundCode("000001");
+        nav.setNavDate(date);
+        nav.setUnitNav(new BigDecimal(unitNav));
+        nav.setDailyReturn(new BigDecimal(unitNav).subtract(BigDecimal.ONE).movePointRight(1));
+        return nav;
+    }
+}
@@ -0,0 +1,154 @@
+package com.fund.service.navstore;
+
+import com.fund.dto.FundNavStat;
+import com.fund.entity.FundNav;
+import com.fund.mapper.FundNavMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * NavSeriesStore 单元测试
+ */
+class NavSeriesStoreTest {
+
+    @TempDir
+    Path dir;
+
+    // 模拟 fund_nav 表：基金代码 -> 按日期升序的净值
+    private final Map<String, List<FundNav>> db = new TreeMap<>();
+
+    private FundNavMapper fundNavMapper;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        fundNavMapper = mock(FundNavMapper.class);
+        when(fundNavMapper.selectNavStats()).thenAnswer(inv -> {
+            List<FundNavStat> stats = new ArrayList<>();
+            db.forEach((code, navs) -> {
+                FundNavStat stat = new FundNavStat();
+                stat.setFundCode(code);
+                stat.setLastNavDate(navs.get(navs.size() - 1).getNavDate());
+                stat.setNavCount(navs.size());
+                stats.add(stat);
+            });
+            return stats;
+        });
+        doAnswer(inv -> {
+            Collection<String> codes = inv.getArgument(0);
+            ResultHandler<FundNav> handler = inv.getArgument(1);
+            DefaultResultContext<FundNav> context = new DefaultResultContext<>();
+            for (String code : new TreeMap<>(db).keySet()) {
+                if (codes.contains(code)) {
+                    for (FundNav nav : db.get(code)) {
+                        context.nextResultObject(nav);
+                        handler.handleResult(context);
+                    }
+                }
+            }
+            return null;
+        }).when(fundNavMapper).streamByFunds(any(), any());
+    }
+
+    @Test
+    @DisplayName("新增净值只追加增量记录，垃圾过半压缩后存活基金的序列与最新净值不变")
+    void appendDeltaAndCompact() throws Exception {
+        // given
+        db.put("000001", NavArchiveTest.history("000001", LocalDate.of(2024, 1, 2), 100));
+        db.put("000002", NavArchiveTest.history("000002", LocalDate.of(2024, 1, 2), 100));
+        NavSeriesStore store = newStore();
+        store.openOrReset();
+        store.sync();
+
+        // when：000001 末尾新增 5 个点
+        db.put("000001", NavArchiveTest.history("000001", LocalDate.of(2024, 1, 2), 105));
+        store.sync();
+
+        // then：增量记录链可完整读回，最新净值直接取自索引
+        assertEquals(105, store.get("000001").size());
+        assertEquals(db.get("000001").get(104).getNavDate(), store.latest("000001").getNavDate());
+        assertEquals(0, db.get("000001").get(104).getUnitNav().compareTo(store.latest("000001").getUnitNav()));
+
+        // when：000002 历史被反复整体改写，旧记录成为垃圾并触发压缩
+        for (int k = 1; k <= 3; k++) {
+            List<FundNav> rewritten = NavArchiveTest.history("000002", LocalDate.of(2023, 6, 1), 300 + k);
+            BigDecimal shift = BigDecimal.valueOf(k);
+            rewritten.forEach(nav -> nav.setUnitNav(nav.getUnitNav().add(shift)));
+            db.put("000002", rewritten);
+            store.sync();
+        }
+
+        // then
+        assertTrue(Files.exists(dir.resolve("gen-1")));
+        assertFalse(Files.exists(dir.resolve("gen-0")));
+        assertSeries(store, "000001");
+        assertSeries(store, "000002");
+        store.close();
+
+        // 重新打开压缩后的归档，不同步也能读到全部基金
+        NavSeriesStore reopened = newStore();
+        reopened.openOrReset();
+        assertEquals(2, reopened.fundCodes().size());
+        assertSeries(reopened, "000001");
+        assertSeries(reopened, "000002");
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("归档记录无法解码时丢弃本地归档，从数据库重建")
+    void rebuildFromDbWhenArchiveBroken() throws Exception {
+        // given：校验和正确但正文不是合法序列的记录
+        try (NavArchive archive = new NavArchive(dir.resolve("gen-0"), NavArchive.DEFAULT_SEGMENT_SIZE)) {
+            archive.append(ByteBuffer.wrap(new byte[8]));
+        }
+        db.put("000001", NavArchiveTest.history("000001", LocalDate.of(2024, 1, 2), 30));
+        NavSeriesStore store = newStore();
+
+        // when
+        store.openOrReset();
+        int loaded = store.sync();
+
+        // then
+        assertEquals(1, loaded);
+        assertTrue(store.isReady());
+        assertSeries(store, "000001");
+        store.close();
+    }
+
+    private NavSeriesStore newStore() {
+        return new NavSeriesStore(fundNavMapper, mock(ApplicationEventPublisher.class), dir.toString(), 0);
+    }
+
+    private void assertSeries(NavSeriesStore store, String fundCode) {
+        List<FundNav> expected = db.get(fundCode);
+        NavSeries series = store.get(fundCode);
+        assertEquals(expected.size(), series.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getNavDate(), series.navDate(i));
+            assertEquals(0, expected.get(i).getUnitNav().compareTo(series.toEntity(i).getUnitNav()));
+        }
+        FundNav latest = store.latest(fundCode);
+        assertEquals(expected.get(expected.size() - 1).getNavDate(), latest.getNavDate());
+        assertEquals(0, expected.get(expected.size() - 1).getDailyReturn().compareTo(latest.getDailyReturn()));
+    }
+}
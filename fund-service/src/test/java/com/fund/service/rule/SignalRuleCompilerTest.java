@@ -0,0 +1,233 @@
+package com.fund.service.rule;
+
+import com.fund.dto.SignalReason;
+import com.fund.dto.TradeSignal;
+import com.fund.service.snapshot.MetricColumn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SignalRuleCompiler 单元测试
+ */
+class SignalRuleCompilerTest {
+
+    private static final int PE = MetricColumn.PE_PERCENTILE.ordinal();
+    private static final int SHARPE = MetricColumn.SHARPE_1Y.ordinal();
+    private static final int DRAWDOWN = MetricColumn.MAX_DRAWDOWN_1Y.ordinal();
+    private static final int RETURN_1Y = MetricColumn.RETURN_1Y.ordinal();
+
+    private static final String QUALITY = """
+            quality:
+              metric: sharpe
+              levels:
+                - { level: A, min: 1, confidence: 10 }
+              fallback: { level: D, confidence: -10 }
+            decision:
+              veto-level: D
+              strong-buy-score: 5
+              strong-buy-levels: [A]
+              buy-score: 3
+              sell-score: 3
+            """;
+
+    @Test
+    @DisplayName("测试 and/or/括号 条件与互斥组")
+    void testConditionAndGroup() {
+        // given
+        SignalRuleSet rules = SignalRuleCompiler.compile("""
+                rules:
+                  buy:
+                    - when: (pePercentile < 30 or return1y > 10) and sharpe >= 1
+                      score: 3
+                      reason: BUY_PE_LOW
+                    - when: sharpe > 1.5
+                      score: 3
+                      reason: BUY_SHARPE_EXCELLENT
+                      group: sharpe
+                    - when: sharpe > 1
+                      score: 2
+                      reason: BUY_SHARPE_GOOD
+                      group: sharpe
+                """ + QUALITY);
+
+        // when
+        TradeSignal hit = rules.evaluate("000001", record(50, 2, Double.NaN, 12));
+        TradeSignal miss = rules.evaluate("000002", record(20, 0.8, Double.NaN, 12));
+
+        // then - 同组只命中第一条
+        assertEquals(6, hit.getBuyScore());
+        assertEquals(SignalReason.BUY_PE_LOW.bit() | SignalReason.BUY_SHARPE_EXCELLENT.bit(), hit.getReasonMask());
+        assertEquals(TradeSignal.SignalType.BUY, hit.getSignal());
+        assertEquals(0, miss.getBuyScore());
+        assertEquals("D", miss.getQualityLevel());
+    }
+
+    @Test
+    @DisplayName("测试理由文本中的阈值随规则配置变化")
+    void testReasonThresholdFromRule() {
+        // given - 回撤与止损阈值改为 25 / 15
+        SignalRuleSet rules = SignalRuleCompiler.compile("""
+                rules:
+                  sell:
+                    - when: maxDrawdown < -25 and sharpe < 1
+                      score: 3
+                      reason: SELL_DRAWDOWN_EXCESSIVE
+                    - when: return1y < -15.5
+                      score: 2
+                      reason: SELL_STOP_LOSS
+                """ + QUALITY);
+
+        // when
+        TradeSignal sell = rules.evaluate("000001", record(50, 0.5, -28, -16));
+
+        // then
+        assertEquals(TradeSignal.SignalType.SELL, sell.getSignal());
+        assertEquals("回撤过大(>25%); 亏损超15.5%，考虑止损", sell.getReason());
+    }
+
+    @Test
+    @DisplayName("测试规则错误时拒绝编译")
+    void testInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.parseCondition("unknown > 1"));
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.parseCondition("sharpe = 1"));
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.parseCondition("(sharpe > 1"));
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.parseCondition("sharpe > abc"));
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.compile("""
+                rules:
+                  buy:
+                    - when: sharpe > 1
+                      score: 1
+                      reason: NOT_EXISTS
+                """ + QUALITY));
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.compile("rules: []"));
+    }
+
+    @Test
+    @DisplayName("测试默认规则与原硬编码逻辑结果一致")
+    void testDefaultRulesMatchReference() {
+        // given
+        SignalRuleSet rules = new SignalRuleService(new DefaultResourceLoader(), "classpath:signal-rules.yml").current();
+        Random random = new Random(42);
+        double[][] records = new double[200_000][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = record(random.nextInt(10) == 0 ? Double.NaN : random.nextInt(101),
+                    random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * 4 - 1,
+                    random.nextInt(10) == 0 ? Double.NaN : -random.nextDouble() * 50,
+                    random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * 80 - 40);
+        }
+
+        // when & then - 逐条比对
+        for (double[] r : records) {
+            TradeSignal actual = rules.evaluate("000001", r);
+            int[] expected = reference(r);
+            assertEquals(expected[0], actual.getSignal().ordinal(), () -> Arrays.toString(r));
+            assertEquals(expected[0], rules.decide(r).ordinal(), () -> Arrays.toString(r));
+            assertEquals(expected[1], actual.getReasonMask(), () -> Arrays.toString(r));
+            assertEquals(expected[2], actual.getBuyScore());
+            assertEquals(expected[3], actual.getSellScore());
+            assertEquals(expected[4], actual.getConfidence());
+        }
+    }
+
+    @Test
+    @DisplayName("测试否决理由取配置的否决评级")
+    void testVetoReasonFollowsConfiguredLevel() {
+        // given - 否决评级为 C
+        SignalRuleSet rules = SignalRuleCompiler.compile("""
+                rules:
+                  buy:
+                    - when: pePercentile < 30
+                      score: 3
+                      reason: BUY_PE_LOW
+                quality:
+                  metric: sharpe
+                  levels:
+                    - { level: A, min: 1, confidence: 10 }
+                    - { level: C, min: 0.5, confidence: 0 }
+                  fallback: { level: D, confidence: -10 }
+                decision:
+                  veto-level: C
+                  strong-buy-score: 5
+                  strong-buy-levels: [A]
+                  buy-score: 3
+                  sell-score: 3
+                """);
+
+        // when
+        TradeSignal vetoed = rules.evaluate("000001", record(20, 0.8, Double.NaN, Double.NaN));
+        TradeSignal bought = rules.evaluate("000002", record(20, 0.2, Double.NaN, Double.NaN));
+
+        // then
+        assertEquals(TradeSignal.SignalType.HOLD, vetoed.getSignal());
+        assertEquals("综合评级C，暂不建议买入", vetoed.getReason());
+        assertEquals(TradeSignal.SignalType.BUY, bought.getSignal());
+        assertThrows(IllegalArgumentException.class, () -> SignalRuleCompiler.compile(QUALITY.replace("veto-level: D", "veto-level: E")));
+    }
+
+    static double[] record(double pe, double sharpe, double drawdown, double return1y) {
+        double[] r = new double[MetricColumn.values().length];
+        Arrays.fill(r, Double.NaN);
+        r[PE] = pe;
+        r[SHARPE] = sharpe;
+        r[DRAWDOWN] = drawdown;
+        r[RETURN_1Y] = return1y;
+        return r;
+    }
+
+    // 原硬编码规则：{信号类型序号, 理由位, 买入分, 卖出分, 置信度}
+    static int[] reference(double[] r) {
+        double pe = r[PE];
+        double sharpe = r[SHARPE];
+        double drawdown = r[DRAWDOWN];
+        double return1y = r[RETURN_1Y];
+        int buy = 0;
+        int sell = 0;
+        int buyMask = 0;
+        int sellMask = 0;
+        if (pe < 30) { buy += 3; buyMask |= SignalReason.BUY_PE_LOW.bit(); }
+        if (sharpe > 1.5) { buy += 3; buyMask |= SignalReason.BUY_SHARPE_EXCELLENT.bit(); }
+        else if (sharpe > 1) { buy += 2; buyMask |= SignalReason.BUY_SHARPE_GOOD.bit(); }
+        if (drawdown > -20) { buy += 2; buyMask |= SignalReason.BUY_DRAWDOWN_CONTROLLED.bit(); }
+        if (return1y > 0) { buy += 1; buyMask |= SignalReason.BUY_RETURN_POSITIVE.bit(); }
+        if (pe > 80) { sell += 3; sellMask |= SignalReason.SELL_PE_HIGH.bit(); }
+        if (drawdown < -30) { sell += 3; sellMask |= SignalReason.SELL_DRAWDOWN_EXCESSIVE.bit(); }
+        if (sharpe < 0) { sell += 2; sellMask |= SignalReason.SELL_SHARPE_NEGATIVE.bit(); }
+        if (return1y > 25) { sell += 2; sellMask |= SignalReason.SELL_TAKE_PROFIT.bit(); }
+        if (return1y < -20) { sell += 2; sellMask |= SignalReason.SELL_STOP_LOSS.bit(); }
+
+        String level = Double.isNaN(sharpe) ? "-" : sharpe >= 2 ? "S" : sharpe >= 1.5 ? "A"
+                : sharpe >= 1 ? "B" : sharpe >= 0.5 ? "C" : "D";
+        int bonus = switch (level) {
+            case "S" -> 20;
+            case "A" -> 15;
+            case "B" -> 5;
+            case "D" -> -10;
+            default -> 0;
+        };
+
+        TradeSignal.SignalType type;
+        int mask;
+        if ("D".equals(level) && buy > 0) {
+            type = TradeSignal.SignalType.HOLD;
+            mask = SignalReason.HOLD_QUALITY_VETO.bit();
+        } else if ((buy >= 5 && ("S".equals(level) || "A".equals(level))) || buy >= 6) {
+            type = TradeSignal.SignalType.BUY;
+            mask = buyMask;
+        } else if (sell >= 5) {
+            type = TradeSignal.SignalType.SELL;
+            mask = sellMask;
+        } else {
+            type = TradeSignal.SignalType.HOLD;
+            mask = buy > sell ? SignalReason.HOLD_POSITIVE.bit()
+                    : sell > buy ? SignalReason.HOLD_CAUTIOUS.bit() : SignalReason.HOLD_NEUTRAL.bit();
+        }
+        int confidence = Math.max(0, Math.min(100, 50 + Math.abs(buy - sell) * 5 + bonus));
+        return new int[]{type.ordinal(), mask, buy, sell, confidence};
+    }
+}
@@ -0,0 +1,56 @@
+package com.fund.service.rule;
+
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Random;
+
+/**
+ * 信号规则求值性能对比（手动运行，不在单元测试中执行）
+ * 比较编译后的默认规则与原硬编码逻辑在随机记录上的耗时，取多轮最小值：
+ * mvn test-compile 后以 test classpath 运行 main
+ */
+public final class SignalRulePerfHarness {
+
+    private SignalRulePerfHarness() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        SignalRuleSet rules = new SignalRuleService(new DefaultResourceLoader(), "classpath:signal-rules.yml").current();
+        Random random = new Random(42);
+        double[][] records = new double[count][];
+        for (int i = 0; i < count; i++) {
+            records[i] = SignalRuleCompilerTest.record(random.nextInt(101), random.nextDouble() * 4 - 1,
+                    -random.nextDouble() * 50, random.nextDouble() * 80 - 40);
+        }
+
+        long evaluate = Long.MAX_VALUE;
+        long decide = Long.MAX_VALUE;
+        long handWritten = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (double[] r : records) {
+                sink += rules.evaluate("000001", r).getBuyScore();
+            }
+            evaluate = Math.min(evaluate, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (double[] r : records) {
+                sink += rules.decide(r).ordinal();
+            }
+            decide = Math.min(decide, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (double[] r : records) {
+                sink += SignalRuleCompilerTest.reference(r)[2];
+            }
+            handWritten = Math.min(handWritten, System.nanoTime() - start);
+        }
+
+        System.out.printf("records=%d rounds=%d evaluate=%.1fns/op decide=%.1fns/op handWritten=%.1fns/op (sink=%d)%n",
+                count, rounds, (double) evaluate / count, (double) decide / count, (double) handWritten / count, sink);
+    }
+}
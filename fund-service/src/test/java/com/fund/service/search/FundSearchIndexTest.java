@@ -0,0 +1,130 @@
+package com.fund.service.search;
+
+import com.fund.entity.FundInfo;
+import com.fund.mapper.FundInfoMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * FundSearchIndex 单元测试
+ */
+class FundSearchIndexTest {
+
+    private FundSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<FundInfo> funds = List.of(
+                fund("000001", "华夏成长混合", "hxcz", "50"),
+                fund("161725", "招商中证白酒指数", "zszzbj", "600"),
+                fund("110011", "易方达优质精选混合", "yfdyzjx", "300"),
+                fund("000961", "天弘沪深300ETF联接", "thhs300", "100")
+        );
+        FundInfoMapper mapper = mock(FundInfoMapper.class);
+        when(mapper.selectAllFundCodes()).thenReturn(
+                funds.stream().map(FundInfo::getFundCode).collect(Collectors.toList()));
+        when(mapper.selectTopByScale(anyInt())).thenReturn(funds);
+
+        index = new FundSearchIndex(mapper, new FundAutocompleteEngine());
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("测试名称子串匹配并按规模排序")
+    void testNameSubstringRankedByScale() {
+        // when
+        List<String> codes = codes(index.suggest("混合", 10));
+
+        // then
+        assertEquals(List.of("110011", "000001"), codes);
+    }
+
+    @Test
+    @DisplayName("测试代码前缀与拼音匹配")
+    void testCodeAndPinyin() {
+        assertEquals(List.of("000961", "000001"), codes(index.suggest("000", 10)));
+        assertEquals(List.of("161725"), codes(index.suggest("ZSZZ", 10)));
+        assertEquals(List.of("000961"), codes(index.suggest("300", 10)));
+    }
+
+    @Test
+    @DisplayName("测试limit截断与全量搜索")
+    void testLimitAndSearch() {
+        assertEquals(List.of("110011"), codes(index.suggest("混合", 1)));
+        assertEquals(2, index.search("混合").size());
+        assertTrue(index.suggest("不存在的基金", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("测试增量更新与下架")
+    void testIncrementalUpsert() {
+        // given
+        index.upsert(fund("519674", "银河创新成长混合", "yhcxcz", "1000"));
+
+        // then
+        assertEquals(List.of("519674", "110011", "000001"), codes(index.suggest("混合", 10)));
+
+        // when - 改名
+        index.upsert(fund("519674", "银河创新成长股票", "yhcxcz", "1000"));
+        assertEquals(List.of("110011", "000001"), codes(index.suggest("混合", 10)));
+
+        // when - 下架
+        FundInfo offline = fund("000001", "华夏成长混合", "hxcz", "50");
+        offline.setStatus(0);
+        index.upsert(offline);
+        assertEquals(List.of("110011"), codes(index.suggest("混合", 10)));
+        assertNull(index.get("000001"));
+    }
+
+    @Test
+    @DisplayName("测试全量重建期间的增量变更在新索引与联想引擎中保留")
+    void testUpsertDuringRebuildSurvives() {
+        // given - 读库完成后、发布新索引前，另一线程新增一只基金并下架一只
+        FundAutocompleteEngine engine = new FundAutocompleteEngine();
+        FundInfoMapper mapper = mock(FundInfoMapper.class);
+        FundSearchIndex rebuilding = new FundSearchIndex(mapper, engine);
+        List<FundInfo> funds = List.of(fund("000001", "华夏成长混合", "hxcz", "50"),
+                fund("110011", "易方达优质精选混合", "yfdyzjx", "300"));
+        when(mapper.selectAllFundCodes()).thenReturn(List.of("000001", "110011"));
+        when(mapper.selectTopByScale(anyInt())).thenAnswer(inv -> {
+            rebuilding.upsert(fund("519674", "银河创新成长混合", "yhcxcz", "1000"));
+            FundInfo offline = fund("000001", "华夏成长混合", "hxcz", "50");
+            offline.setStatus(0);
+            rebuilding.upsert(offline);
+            return funds;
+        });
+
+        // when
+        rebuilding.rebuild();
+
+        // then
+        assertEquals(List.of("519674", "110011"), codes(rebuilding.suggest("混合", 10)));
+        assertNull(rebuilding.get("000001"));
+        assertEquals(List.of("519674"), codes(engine.suggest("yhcx", 10)));
+        assertTrue(engine.suggest("hxcz", 10).isEmpty());
+    }
+
+    private static List<String> codes(List<FundInfo> funds) {
+        return funds.stream().map(FundInfo::getFundCode).collect(Collectors.toList());
+    }
+
+    private static FundInfo fund(String code, String name, String pinyin, String scale) {
+        FundInfo info = new FundInfo();
+        info.setFundCode(code);
+        info.setFundName(name);
+        info.setNamePinyin(pinyin);
+        info.setCurrentScale(new BigDecimal(scale));
+        info.setStatus(1);
+        return info;
+    }
+}
@@ -0,0 +1,80 @@
+package com.fund.service.search;
+
+import com.fund.entity.FundInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PinyinSuggestTrie 单元测试
+ */
+class PinyinSuggestTrieTest {
+
+    private PinyinSuggestTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = PinyinSuggestTrie.build(List.of(
+                fund("161725", "招商中证白酒指数", "600"),
+                fund("217008", "招商安本增利债券", "80"),
+                fund("000001", "华夏成长混合", "50"),
+                fund("001594", "天弘中证银行ETF联接", "40"),
+                fund("519674", "银河创新成长混合", "300")
+        ));
+    }
+
+    @Test
+    @DisplayName("测试首字母与全拼前缀")
+    void testInitialsAndFullPinyin() {
+        assertEquals(List.of("161725", "217008"), codes(trie.suggest("zs", 10)));
+        assertEquals(List.of("161725"), codes(trie.suggest("zszzbj", 10)));
+        assertEquals(List.of("161725", "217008"), codes(trie.suggest("zhaoshang", 10)));
+        assertEquals(List.of("161725", "217008"), codes(trie.suggest("zhaosh", 10)));
+    }
+
+    @Test
+    @DisplayName("测试汉字与拼音混合输入")
+    void testMixedScript() {
+        assertEquals(List.of("161725"), codes(trie.suggest("招商zz", 10)));
+        assertEquals(List.of("217008"), codes(trie.suggest("招商安b", 10)));
+        assertEquals(List.of("000001"), codes(trie.suggest("华夏cheng", 10)));
+    }
+
+    @Test
+    @DisplayName("测试多音字任一读音均可命中")
+    void testPolyphone() {
+        // 行: xing / hang
+        assertEquals(List.of("001594"), codes(trie.suggest("thzzyh", 10)));
+        assertEquals(List.of("001594"), codes(trie.suggest("tianhongzhongzhengyinhang", 10)));
+        assertEquals(List.of("001594"), codes(trie.suggest("thzzyx", 10)));
+    }
+
+    @Test
+    @DisplayName("测试按规模排序、limit截断与未命中")
+    void testRankingAndLimit() {
+        // 前缀匹配：名称中间的"成长"不应命中
+        assertTrue(trie.suggest("cz", 10).isEmpty());
+        assertEquals(List.of("519674"), codes(trie.suggest("y", 1)));
+        assertTrue(trie.suggest("xyz", 10).isEmpty());
+        assertTrue(trie.suggest("", 10).isEmpty());
+    }
+
+    private static List<String> codes(List<FundInfo> funds) {
+        return funds.stream().map(FundInfo::getFundCode).collect(Collectors.toList());
+    }
+
+    private static FundInfo fund(String code, String name, String scale) {
+        FundInfo info = new FundInfo();
+        info.setFundCode(code);
+        info.setFundName(name);
+        info.setCurrentScale(new BigDecimal(scale));
+        info.setStatus(1);
+        return info;
+    }
+}
@@ -0,0 +1,99 @@
+package com.fund.service.snapshot;
+
+import com.fund.dto.MetricsSnapshotRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FundScreener 单元测试
+ */
+class FundScreenerTest {
+
+    private final FundScreener screener = new FundScreener();
+
+    private MetricsSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        MetricsSnapshot.Builder builder = new MetricsSnapshot.Builder(0);
+        // 10只基金：夏普 0.0 ~ 2.7，回撤 -5 ~ -32，奇数为债券型
+        for (int i = 0; i < 10; i++) {
+            MetricsSnapshotRow row = new MetricsSnapshotRow();
+            row.setFundCode(String.format("%06d", i));
+            row.setFundType(i % 2 == 0 ? "股票型" : "债券型");
+            row.setCalcDate(LocalDate.of(2024, 1, 2));
+            row.setSharpeRatio1y(new BigDecimal(i * 0.3).setScale(4, RoundingMode.HALF_UP));
+            row.setMaxDrawdown1y(new BigDecimal(-5 - i * 3));
+            row.setPePercentile(i == 9 ? null : i * 10);
+            builder.add(row);
+        }
+        snapshot = builder.build(null);
+    }
+
+    @Test
+    @DisplayName("测试多条件交集与准确总数")
+    void testIntersectionAndTotal() {
+        // given - 夏普>=0.9 且 回撤>=-20 且 PE分位<=60
+        Map<MetricColumn, double[]> ranges = new EnumMap<>(MetricColumn.class);
+        ranges.put(MetricColumn.SHARPE_1Y, new double[]{0.9, Double.NaN});
+        ranges.put(MetricColumn.MAX_DRAWDOWN_1Y, new double[]{-20, Double.NaN});
+        ranges.put(MetricColumn.PE_PERCENTILE, new double[]{Double.NaN, 60});
+
+        // when
+        FundScreener.Result result = screener.screen(snapshot, null, ranges, MetricColumn.SHARPE_1Y, false, 0, 2);
+
+        // then - 命中 3,4,5，按夏普降序取前两名
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of("000005", "000004"), codes(result.getRows()));
+        assertEquals(Map.of("股票型", 1, "债券型", 2), result.getTypeFacets());
+    }
+
+    @Test
+    @DisplayName("测试类型条件不影响分面且分页在过滤之后")
+    void testTypeFilterAndPaging() {
+        // when
+        FundScreener.Result page2 = screener.screen(snapshot, "股票型", Map.of(), MetricColumn.SHARPE_1Y, false, 2, 2);
+
+        // then
+        assertEquals(5, page2.getTotal());
+        assertEquals(List.of("000004", "000002"), codes(page2.getRows()));
+        assertEquals(Map.of("股票型", 5, "债券型", 5), page2.getTypeFacets());
+
+        // 空值不满足区间、未知类型返回空
+        Map<MetricColumn, double[]> pe = Map.of(MetricColumn.PE_PERCENTILE, new double[]{0, 100});
+        assertEquals(9, screener.screen(snapshot, null, pe, MetricColumn.SHARPE_1Y, false, 0, 20).getTotal());
+        assertEquals(0, screener.screen(snapshot, "货币型", Map.of(), MetricColumn.SHARPE_1Y, false, 0, 20).getTotal());
+    }
+
+    @Test
+    @DisplayName("测试升序排序取最小值且空值仍排在最后")
+    void testAscendingSort() {
+        // when
+        FundScreener.Result result = screener.screen(snapshot, null, Map.of(), MetricColumn.PE_PERCENTILE, true, 0, 10);
+
+        // then
+        assertEquals(List.of("000000", "000001", "000002"), codes(result.getRows()).subList(0, 3));
+        assertEquals("000009", snapshot.fundCode(result.getRows()[9]));
+        assertTrue(MetricColumn.VOLATILITY_1Y.isAscendingByDefault());
+        assertFalse(MetricColumn.MAX_DRAWDOWN_1Y.isAscendingByDefault());
+    }
+
+    private List<String> codes(int[] rows) {
+        List<String> codes = new ArrayList<>();
+        for (int row : rows) {
+            codes.add(snapshot.fundCode(row));
+        }
+        return codes;
+    }
+}
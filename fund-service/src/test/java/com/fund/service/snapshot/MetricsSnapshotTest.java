@@ -0,0 +1,113 @@
+package com.fund.service.snapshot;
+
+import com.fund.dto.MetricsSnapshotRow;
+import com.fund.entity.FundMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MetricsSnapshot 单元测试
+ */
+class MetricsSnapshotTest {
+
+    private MetricsSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new MetricsSnapshot.Builder(2)
+                .add(row("000001", "股票型", "2024-01-02", "1.2000", "-15.5000"))
+                .add(row("000002", "债券型", "2024-01-02", "2.5000", "-3.1000"))
+                .add(row("000003", "股票型", "2024-01-02", null, "-30.0000"))
+                .add(row("000004", "股票型", "2024-01-02", "1.8000", "-22.0000"))
+                // 旧日期的行不应覆盖最新行
+                .add(row("000004", "股票型", "2023-12-29", "9.9000", "-1.0000"))
+                .build(null);
+    }
+
+    @Test
+    @DisplayName("测试TOP-K降序且NaN排在最后")
+    void testTopKOrder() {
+        // when
+        List<String> codes = codes(snapshot.topK(MetricColumn.SHARPE_1Y, 10, null));
+
+        // then
+        assertEquals(List.of("000002", "000004", "000001", "000003"), codes);
+        assertEquals(List.of("000002", "000004"), codes(snapshot.topK(MetricColumn.SHARPE_1Y, 2, null)));
+        assertEquals(List.of("000002", "000001"), codes(snapshot.topK(MetricColumn.MAX_DRAWDOWN_1Y, 2, null)));
+    }
+
+    @Test
+    @DisplayName("测试基金类型字典编码过滤")
+    void testTypeFilter() {
+        // given
+        int typeId = snapshot.typeIdOf("股票型");
+
+        // when
+        List<String> codes = codes(snapshot.topK(MetricColumn.SHARPE_1Y, 10, r -> snapshot.typeId(r) == typeId));
+
+        // then
+        assertEquals(List.of("000004", "000001", "000003"), codes);
+        assertEquals(-1, snapshot.typeIdOf("货币型"));
+        assertEquals(2, snapshot.typeDictionary().size());
+    }
+
+    @Test
+    @DisplayName("测试还原为指标实体")
+    void testToMetrics() {
+        // when
+        FundMetrics metrics = snapshot.toMetrics(snapshot.rowOf("000004"));
+
+        // then
+        assertEquals(LocalDate.parse("2024-01-02"), metrics.getCalcDate());
+        assertEquals(new BigDecimal("1.8000"), metrics.getSharpeRatio1y());
+        assertEquals(new BigDecimal("-22.0000"), metrics.getMaxDrawdown1y());
+        assertNull(metrics.getReturn1y());
+        assertEquals(4, snapshot.size());
+    }
+
+    @Test
+    @DisplayName("测试只保留全局最新计算日期的基金")
+    void testLatestCalcDateFilter() {
+        // given：000005 指标未按时更新
+        MetricsSnapshot stale = new MetricsSnapshot.Builder(2)
+                .add(row("000001", "股票型", "2024-01-02", "1.2000", "-15.5000"))
+                .add(row("000005", "股票型", "2023-12-29", "3.0000", "-5.0000"))
+                .build(null);
+
+        // when
+        int[] rows = stale.topK(MetricColumn.SHARPE_1Y, 10, stale::onLatestCalcDate);
+
+        // then
+        assertEquals(LocalDate.parse("2024-01-02"), stale.latestCalcDate());
+        assertEquals(1, rows.length);
+        assertEquals("000001", stale.fundCode(rows[0]));
+        assertNull(MetricsSnapshot.EMPTY.latestCalcDate());
+    }
+
+    private List<String> codes(int[] rows) {
+        List<String> codes = new ArrayList<>();
+        for (int row : rows) {
+            codes.add(snapshot.fundCode(row));
+        }
+        return codes;
+    }
+
+    private static MetricsSnapshotRow row(String code, String type, String date, String sharpe, String drawdown) {
+        MetricsSnapshotRow row = new MetricsSnapshotRow();
+        row.setFundCode(code);
+        row.setFundName("基金" + code);
+        row.setFundType(type);
+        row.setCalcDate(LocalDate.parse(date));
+        row.setSharpeRatio1y(sharpe != null ? new BigDecimal(sharpe) : null);
+        row.setMaxDrawdown1y(new BigDecimal(drawdown));
+        return row;
+    }
+}
@@ -0,0 +1,66 @@
+package com.fund.service.watchlist.impl;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import com.fund.mapper.watchlist.FundEstimateIntradayMapper;
+import com.fund.service.watchlist.TradingCalendarService;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * IntradayEstimateCacheImpl 单元测试
+ */
+class IntradayEstimateCacheImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    @DisplayName("重建期间追加的点写入新缓冲区，交换后不丢失")
+    @SuppressWarnings("unchecked")
+    void appendDuringReloadLandsInNewRings() {
+        // given - 流式加载库里的点时，写入路径追加了一个新点
+        FundEstimateIntradayMapper mapper = mock(FundEstimateIntradayMapper.class);
+        TradingCalendarService calendar = mock(TradingCalendarService.class);
+        when(calendar.getCurrentTradeDate()).thenReturn(TODAY);
+        when(mapper.selectMaxId()).thenReturn(1L);
+        IntradayEstimateCacheImpl cache = new IntradayEstimateCacheImpl(mapper, calendar);
+        cache.reload();
+        doAnswer(inv -> {
+            ResultHandler<FundEstimateIntraday> handler = inv.getArgument(2);
+            DefaultResultContext<FundEstimateIntraday> context = new DefaultResultContext<>();
+            context.nextResultObject(point(1, 10));
+            handler.handleResult(context);
+            cache.append(point(2, 20));
+            return null;
+        }).when(mapper).streamByTradeDate(eq(TODAY), anyLong(), any());
+
+        // when
+        cache.reload();
+
+        // then - 不等增量同步即可读到
+        List<FundEstimateIntraday> points = cache.getPoints("000001", TODAY);
+        assertEquals(List.of(1L, 2L), points.stream().map(FundEstimateIntraday::getId).toList());
+        verify(mapper, never()).selectAfterId(anyLong(), anyInt());
+    }
+
+    private static FundEstimateIntraday point(long id, int minute) {
+        FundEstimateIntraday e = new FundEstimateIntraday();
+        e.setId(id);
+        e.setFundCode("000001");
+        e.setTradeDate(TODAY);
+        e.setEstimateTime(LocalDateTime.of(TODAY, LocalTime.of(9, 30)).plusMinutes(minute));
+        e.setEstimateNav(new BigDecimal("1.0100"));
+        return e;
+    }
+}
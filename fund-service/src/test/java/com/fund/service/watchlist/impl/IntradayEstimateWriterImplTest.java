@@ -0,0 +1,70 @@
+package com.fund.service.watchlist.impl;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import com.fund.mapper.watchlist.FundEstimateIntradayMapper;
+import com.fund.service.watchlist.IntradayEstimateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * IntradayEstimateWriterImpl 单元测试
+ */
+class IntradayEstimateWriterImplTest {
+
+    @Test
+    @DisplayName("排队的点合并为一次批量写入，落库后追加到缓存")
+    void flushWritesOneBatchAndAppendsToCache() {
+        // given
+        FundEstimateIntradayMapper mapper = mock(FundEstimateIntradayMapper.class);
+        IntradayEstimateCache cache = mock(IntradayEstimateCache.class);
+        IntradayEstimateWriterImpl writer = new IntradayEstimateWriterImpl(mapper, cache, new SimpleMeterRegistry());
+
+        // when
+        writer.submit(point("000001"));
+        writer.submit(point("000002"));
+        writer.submit(point("000003"));
+        assertEquals(3, writer.pending());
+        writer.flush();
+
+        // then
+        verify(mapper, times(1)).insertBatch(argThat(list -> list.size() == 3));
+        verify(mapper, never()).insert(any(FundEstimateIntraday.class));
+        verify(cache, times(3)).append(any());
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    @DisplayName("批量写入失败时逐条重试，失败的点不进缓存")
+    void fallsBackToSingleInserts() {
+        // given
+        FundEstimateIntradayMapper mapper = mock(FundEstimateIntradayMapper.class);
+        IntradayEstimateCache cache = mock(IntradayEstimateCache.class);
+        IntradayEstimateWriterImpl writer = new IntradayEstimateWriterImpl(mapper, cache, new SimpleMeterRegistry());
+        FundEstimateIntraday bad = point("000002");
+        when(mapper.insertBatch(anyList())).thenThrow(new RuntimeException("batch failed"));
+        when(mapper.insert(same(bad))).thenThrow(new RuntimeException("bad row"));
+
+        // when
+        writer.submit(point("000001"));
+        writer.submit(bad);
+        writer.flush();
+
+        // then
+        verify(mapper, times(2)).insert(any(FundEstimateIntraday.class));
+        verify(cache, times(1)).append(argThat(e -> "000001".equals(e.getFundCode())));
+        verify(cache, never()).append(same(bad));
+    }
+
+    private FundEstimateIntraday point(String fundCode) {
+        FundEstimateIntraday e = new FundEstimateIntraday();
+        e.setFundCode(fundCode);
+        return e;
+    }
+}
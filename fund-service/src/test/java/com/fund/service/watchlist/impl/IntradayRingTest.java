@@ -0,0 +1,113 @@
+package com.fund.service.watchlist.impl;
+
+import com.fund.entity.watchlist.FundEstimateIntraday;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IntradayRing 单元测试
+ */
+class IntradayRingTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    @DisplayName("乱序写入按估值时间排序，重复ID忽略")
+    void addKeepsTimeOrderAndIgnoresDuplicates() {
+        // given
+        IntradayRing ring = new IntradayRing("000001", TODAY, 16);
+
+        // when
+        assertTrue(ring.add(point(1, 30, "1.0100")));
+        assertTrue(ring.add(point(3, 45, "1.0300")));
+        assertTrue(ring.add(point(2, 40, "1.0200")));
+        assertFalse(ring.add(point(3, 45, "1.0300")));
+
+        // then
+        List<FundEstimateIntraday> points = ring.all();
+        assertEquals(List.of(1L, 2L, 3L), points.stream().map(FundEstimateIntraday::getId).toList());
+        assertEquals(new BigDecimal("1.0300"), ring.latest().getEstimateNav());
+        assertEquals(TODAY, ring.latest().getTradeDate());
+        assertEquals(List.of(3L), ring.after(point(0, 40, "1").getEstimateTime()
+                .atZone(IntradayRing.ZONE).toEpochSecond()).stream().map(FundEstimateIntraday::getId).toList());
+    }
+
+    @Test
+    @DisplayName("增量同步回看重读的早期点不会重复写入，晚提交的小ID点正常插入")
+    void ignoresRereadPointsFarFromTail() {
+        // given - 100 个点后重读第 1 个点
+        IntradayRing ring = new IntradayRing("000001", TODAY, 256);
+        for (int i = 1; i <= 100; i++) {
+            ring.add(point(i * 2, i, "1.0000"));
+        }
+
+        // when / then
+        assertFalse(ring.add(point(2, 1, "1.0000")));
+        assertTrue(ring.add(point(3, 1, "1.0000")));
+        assertEquals(101, ring.all().size());
+    }
+
+    @Test
+    @DisplayName("写满后覆盖最早的点")
+    void overwritesOldestWhenFull() {
+        // given
+        IntradayRing ring = new IntradayRing("000001", TODAY, 100);
+
+        // when
+        for (int i = 0; i < 150; i++) {
+            ring.add(point(i + 1, i, "1.0000"));
+        }
+
+        // then
+        List<FundEstimateIntraday> points = ring.all();
+        assertEquals(100, points.size());
+        assertEquals(51L, points.get(0).getId());
+        assertEquals(150L, ring.latest().getId());
+    }
+
+    @Test
+    @DisplayName("昨收净值、数据源、是否交易时间逐点保存，乱序写入不串到其他点")
+    void keepsPerPointFields() {
+        // given
+        IntradayRing ring = new IntradayRing("000001", TODAY, 16);
+        FundEstimateIntraday early = point(1, 10, "1.0100");
+        early.setPreCloseNav(new BigDecimal("1.0000"));
+        early.setDataSource("eastmoney");
+        early.setIsTradingTime(1);
+        FundEstimateIntraday late = point(2, 20, "1.0200");
+        late.setDataSource("sina");
+        late.setIsTradingTime(0);
+
+        // when - 晚的点先写入
+        ring.add(late);
+        ring.add(early);
+
+        // then
+        List<FundEstimateIntraday> points = ring.all();
+        assertEquals(new BigDecimal("1.0000"), points.get(0).getPreCloseNav());
+        assertEquals("eastmoney", points.get(0).getDataSource());
+        assertEquals(1, points.get(0).getIsTradingTime());
+        assertNull(points.get(1).getPreCloseNav());
+        assertEquals("sina", points.get(1).getDataSource());
+        assertEquals(0, points.get(1).getIsTradingTime());
+    }
+
+    private FundEstimateIntraday point(long id, int minute, String nav) {
+        FundEstimateIntraday e = new FundEstimateIntraday();
+        e.setId(id);
+        e.setFundCode("000001");
+        e.setTradeDate(TODAY);
+        e.setEstimateTime(LocalDateTime.of(TODAY, LocalTime.of(9, 30)).plusMinutes(minute));
+        e.setEstimateNav(new BigDecimal(nav));
+        e.setEstimateChangePct(new BigDecimal("0.50"));
+        return e;
+    }
+}
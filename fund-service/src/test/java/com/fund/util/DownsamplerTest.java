@@ -0,0 +1,47 @@
+package com.fund.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Downsampler 单元测试
+ */
+class DownsamplerTest {
+
+    @Test
+    @DisplayName("LTTB 保留首尾点与尖峰，点数等于阈值")
+    void lttbKeepsEndpointsAndSpikes() {
+        // given
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 1.0 + Math.sin(i / 50.0) * 0.01;
+        }
+        y[437] = 2.0;
+
+        // when
+        int[] kept = Downsampler.lttb(x, y, 50);
+
+        // then
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+        assertTrue(Arrays.stream(kept).anyMatch(i -> i == 437));
+    }
+
+    @Test
+    @DisplayName("阈值不小于点数时保留全部")
+    void lttbReturnsAllWhenBelowThreshold() {
+        int[] kept = Downsampler.lttb(new double[]{1, 2, 3}, new double[]{1, 2, 3}, 10);
+        assertArrayEquals(new int[]{0, 1, 2}, kept);
+    }
+}